@@ -12,6 +12,9 @@ public class WgCApplicationConfiguration extends GLFWApplicationConfiguration {
     /** Reserved for GPU timestamp collection; TeaVM C currently keeps timestamp readback disabled. */
     public boolean enableGPUtiming;
 
+    /** when not null, per-pass CPU timings are collected and written to this local file on exit, see FrameProfiler */
+    public String profileFile;
+
     public WgCApplicationConfiguration() {
         // WebGPU requires a valid sample count. GLFW's OpenGL-oriented default is zero.
         samples = 1;
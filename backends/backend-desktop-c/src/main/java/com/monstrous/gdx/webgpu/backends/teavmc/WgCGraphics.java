@@ -108,6 +108,7 @@ public class WgCGraphics extends AbstractGraphics implements GLFWGraphics, WgGra
 
                 WebGPUApplication.Configuration webGPUConfig = new WebGPUApplication.Configuration(
                         config.samples, config.vSyncEnabled, config.enableGPUtiming, config.backend);
+                webGPUConfig.profileFile = config.profileFile;
                 WebGPUApplication newContext = new WebGPUApplication(webGPUConfig, newInstance, surface);
                 instance = newInstance;
                 context = newContext;
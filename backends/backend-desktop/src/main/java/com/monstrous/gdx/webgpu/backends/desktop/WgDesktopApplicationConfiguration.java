@@ -47,6 +47,10 @@ public class WgDesktopApplicationConfiguration extends WgDesktopWindowConfigurat
     public WebGPUContext.Backend backend = WebGPUContext.Backend.DEFAULT;// webgpu backend, e.g. Vulkan, DX12, etc.
     public JWebGPUBackend backendWebGPU = JWebGPUBackend.DAWN; // WebGPU implementation
     public boolean enableGPUtiming = false;
+    /** when not null, per-pass timings are collected and written to this local file on exit, see FrameProfiler */
+    public String profileFile = null;
+    /** number of frames (1 to 3) that rotate through the per-frame GPU buffers of the renderers */
+    public int framesInFlight = 1;
 
     boolean disableAudio = false;
 
@@ -102,6 +106,8 @@ public class WgDesktopApplicationConfiguration extends WgDesktopWindowConfigurat
         preferencesFileType = config.preferencesFileType;
         hdpiMode = config.hdpiMode;
         backendWebGPU = config.backendWebGPU;
+        profileFile = config.profileFile;
+        framesInFlight = config.framesInFlight;
     }
 
     /** @param visibility whether the window will be visible on creation. (default true) */
@@ -83,6 +83,8 @@ public class WgDesktopGraphics implements WgGraphics, Disposable {
         WebGPUApplication.Configuration config = new WebGPUApplication.Configuration(app.getConfiguration().samples,
                 app.getConfiguration().vSyncEnabled, app.getConfiguration().enableGPUtiming,
                 app.getConfiguration().backend);
+        config.profileFile = app.getConfiguration().profileFile;
+        config.framesInFlight = app.getConfiguration().framesInFlight;
 
         WGPUSurface surface = createSurface(instance, windowHandle);
         this.context = new WebGPUApplication(config, instance, surface);
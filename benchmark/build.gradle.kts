@@ -29,7 +29,8 @@ fun sharedBenchmarkArgs(): List<String> {
         "--width=${benchmarkProperty("benchWidth", "640")}",
         "--height=${benchmarkProperty("benchHeight", "480")}",
         "--rotate=${benchmarkProperty("benchRotate", "true")}",
-        "--scale=${benchmarkProperty("benchScale", "true")}"
+        "--scale=${benchmarkProperty("benchScale", "true")}",
+        "--batch=${benchmarkProperty("benchBatch", "vertex")}"
     )
 }
 
@@ -42,7 +43,8 @@ fun sprite2dArgs(): List<String> {
         "--width=${benchmarkProperty("benchWidth", "640")}",
         "--height=${benchmarkProperty("benchHeight", "480")}",
         "--rotate=${benchmarkProperty("benchRotate", "true")}",
-        "--scale=${benchmarkProperty("benchScale", "true")}"
+        "--scale=${benchmarkProperty("benchScale", "true")}",
+        "--batch=${benchmarkProperty("benchBatch", "vertex")}"
     )
 }
 
@@ -666,6 +668,7 @@ fun registerTeaVMCMatrixBackend(taskName: String, webgpuBackend: String) =
             "-PbenchHeight=${benchmarkProperty("benchHeight", "480")}",
             "-PbenchRotate=${benchmarkProperty("benchRotate", "true")}",
             "-PbenchScale=${benchmarkProperty("benchScale", "true")}",
+            "-PbenchBatch=${benchmarkProperty("benchBatch", "vertex")}",
             "-PnativeBackend=DEFAULT",
             "-PwebgpuSamples=1",
             "-PbenchResultFile=${matrixResultsFile.get().asFile.absolutePath}"
@@ -3,6 +3,8 @@ package com.monstrous.gdx.benchmarks;
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.utils.TimeUtils;
+import com.monstrous.gdx.benchmarks.cases.RegionDraw2DBenchmark;
+import com.monstrous.gdx.benchmarks.cases.RenderableSort3DBenchmark;
 import com.monstrous.gdx.benchmarks.cases.SpriteBatch2DBenchmark;
 
 import java.io.File;
@@ -45,6 +47,7 @@ public class BenchmarkApplication extends ApplicationAdapter {
                 + " seconds=" + config.seconds
                 + " rotate=" + config.rotate
                 + " scale=" + config.scale
+                + " batch=" + config.batch
                 + " vsync=" + BenchmarkConfig.VSYNC_ENABLED);
     }
 
@@ -96,6 +99,12 @@ public class BenchmarkApplication extends ApplicationAdapter {
         if ("sprite2d".equalsIgnoreCase(testName) || "spritebatch2d".equalsIgnoreCase(testName)) {
             return new SpriteBatch2DBenchmark();
         }
+        if ("region2d".equalsIgnoreCase(testName)) {
+            return new RegionDraw2DBenchmark();
+        }
+        if ("sort3d".equalsIgnoreCase(testName)) {
+            return new RenderableSort3DBenchmark();
+        }
         throw new IllegalArgumentException("Unknown benchmark test: " + testName);
     }
 
@@ -2,11 +2,18 @@ package com.monstrous.gdx.benchmarks;
 
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
 
 public interface BenchmarkBackend {
     String getName();
 
     Batch createSpriteBatch(int maxSprites);
 
+    /** Batch that submits one instance per sprite, for backends that have one. */
+    Batch createInstancedSpriteBatch(int maxSprites);
+
     Texture createTexture(String internalPath);
+
+    /** Sorter that the backend's model batch uses. */
+    RenderableSorter createRenderableSorter();
 }
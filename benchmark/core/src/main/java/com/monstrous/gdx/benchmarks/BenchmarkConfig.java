@@ -11,6 +11,8 @@ public class BenchmarkConfig {
     public int seconds = 10;
     public boolean rotate = true;
     public boolean scale = true;
+    /** sprite batch implementation: "vertex" (4 vertices per sprite) or "instanced" (one instance record per sprite) */
+    public String batch = "vertex";
     public String resultFile;
 
     public static BenchmarkConfig fromArgs(String[] args) {
@@ -44,6 +46,8 @@ public class BenchmarkConfig {
                 config.rotate = Boolean.parseBoolean(value);
             } else if ("scale".equalsIgnoreCase(key)) {
                 config.scale = Boolean.parseBoolean(value);
+            } else if ("batch".equalsIgnoreCase(key)) {
+                config.batch = value;
             } else if ("resultFile".equalsIgnoreCase(key)) {
                 config.resultFile = value;
             }
@@ -0,0 +1,99 @@
+package com.monstrous.gdx.benchmarks.cases;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.monstrous.gdx.benchmarks.BenchmarkBackend;
+import com.monstrous.gdx.benchmarks.BenchmarkCase;
+import com.monstrous.gdx.benchmarks.BenchmarkConfig;
+
+import java.util.Random;
+
+/**
+ * Measures the batch's own vertex generation: every sprite is drawn with
+ * {@code draw(TextureRegion, x, y, originX, originY, width, height, scaleX, scaleY, rotation)}, so the batch computes
+ * the corners and writes the vertices itself. {@link SpriteBatch2DBenchmark} draws {@code Sprite}s instead, which pass
+ * precomputed vertices to the batch.
+ */
+public class RegionDraw2DBenchmark implements BenchmarkCase {
+    private static final int SPRITE_WIDTH = 32;
+    private static final int SPRITE_HEIGHT = 32;
+    private static final float ROTATION_SPEED = 20f;
+
+    private BenchmarkConfig config;
+    private ScreenViewport viewport;
+    private Batch batch;
+    private Texture texture;
+    private TextureRegion region;
+    private float[] positions; // x, y per sprite
+    private float rotation;
+    private float scale = 1f;
+    private float scaleSpeed = -1f;
+    private boolean instanced;
+
+    @Override
+    public String getName() {
+        return instanced ? "region2d-instanced" : "region2d";
+    }
+
+    @Override
+    public void create(BenchmarkBackend backend, BenchmarkConfig config) {
+        this.config = config;
+        viewport = new ScreenViewport();
+        instanced = "instanced".equalsIgnoreCase(config.batch);
+        batch = instanced ? backend.createInstancedSpriteBatch(config.sprites) : backend.createSpriteBatch(config.sprites);
+        texture = backend.createTexture("data/badlogicsmall.jpg");
+        region = new TextureRegion(texture, SPRITE_WIDTH, SPRITE_HEIGHT);
+        positions = new float[config.sprites * 2];
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+        Random random = new Random(0x51f15e2dL);
+        for (int i = 0; i < positions.length; i += 2) {
+            positions[i] = random.nextInt(Math.max(1, width)) - SPRITE_WIDTH * 0.5f;
+            positions[i + 1] = random.nextInt(Math.max(1, height)) - SPRITE_HEIGHT * 0.5f;
+        }
+    }
+
+    @Override
+    public void render() {
+        viewport.apply();
+        batch.setProjectionMatrix(viewport.getCamera().combined);
+
+        float delta = Gdx.graphics.getDeltaTime();
+        if (config.rotate)
+            rotation += ROTATION_SPEED * delta;
+        if (config.scale) {
+            scale += scaleSpeed * delta;
+            if (scale < 0.5f) {
+                scale = 0.5f;
+                scaleSpeed = 1f;
+            } else if (scale > 1f) {
+                scale = 1f;
+                scaleSpeed = -1f;
+            }
+        }
+
+        batch.begin();
+        for (int i = 0; i < positions.length; i += 2) {
+            batch.draw(region, positions[i], positions[i + 1], SPRITE_WIDTH * 0.5f, SPRITE_HEIGHT * 0.5f, SPRITE_WIDTH,
+                    SPRITE_HEIGHT, scale, scale, rotation);
+        }
+        batch.end();
+    }
+
+    @Override
+    public void dispose() {
+        if (batch instanceof Disposable) {
+            ((Disposable)batch).dispose();
+        }
+        if (texture != null) {
+            texture.dispose();
+        }
+    }
+}
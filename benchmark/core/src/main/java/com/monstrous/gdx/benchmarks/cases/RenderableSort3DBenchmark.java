@@ -0,0 +1,157 @@
+package com.monstrous.gdx.benchmarks.cases;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.monstrous.gdx.benchmarks.BenchmarkBackend;
+import com.monstrous.gdx.benchmarks.BenchmarkCase;
+import com.monstrous.gdx.benchmarks.BenchmarkConfig;
+
+import java.util.Random;
+
+/**
+ * Measures the renderable sorter of the backend's model batch on the CPU, nothing is drawn. The {@code --sprites}
+ * argument is the number of renderables, e.g. 1000, 10000 or 100000. The renderables use a few shaders, materials and
+ * mesh parts, and 10% of them are blended. Each frame the camera moves and the array is shuffled before sorting, so
+ * that the sort does not start from the previous order. The average sort time is printed as {@code BENCH_SORT} when
+ * the benchmark ends.
+ */
+public class RenderableSort3DBenchmark implements BenchmarkCase {
+    private static final int SHADERS = 4;
+    private static final int MATERIALS = 64;
+    private static final int MESH_PARTS = 256;
+    private static final float BLENDED_FRACTION = 0.1f;
+    private static final float WORLD_SIZE = 500f;
+    private static final float ORBIT_SPEED = 20f;
+
+    private BenchmarkConfig config;
+    private String backendName;
+    private RenderableSorter sorter;
+    private PerspectiveCamera camera;
+    private final Array<Renderable> renderables = new Array<>();
+    private float angle;
+    private long sortNanos;
+    private int sorts;
+
+    @Override
+    public String getName() {
+        return "sort3d";
+    }
+
+    @Override
+    public void create(BenchmarkBackend backend, BenchmarkConfig config) {
+        this.config = config;
+        backendName = backend.getName();
+        sorter = backend.createRenderableSorter();
+        camera = new PerspectiveCamera(67, config.width, config.height);
+
+        Random random = new Random(0x50a7L);
+        Shader[] shaders = new Shader[SHADERS];
+        for (int i = 0; i < shaders.length; i++)
+            shaders[i] = new NoShader();
+        Material[] materials = new Material[MATERIALS];
+        for (int i = 0; i < materials.length; i++)
+            materials[i] = new Material(ColorAttribute.createDiffuse(new Color(random.nextInt() | 0xFF)));
+        Material[] blendedMaterials = new Material[MATERIALS / 4];
+        for (int i = 0; i < blendedMaterials.length; i++)
+            blendedMaterials[i] = new Material(ColorAttribute.createDiffuse(new Color(random.nextInt())),
+                    new BlendingAttribute(0.5f));
+        MeshPart[] meshParts = new MeshPart[MESH_PARTS];
+        for (int i = 0; i < meshParts.length; i++) {
+            // the sorters only look at the mesh part fields, no mesh is needed
+            meshParts[i] = new MeshPart("part" + i, null, i * 36, 36, GL20.GL_TRIANGLES);
+            meshParts[i].radius = 1f;
+        }
+
+        for (int i = 0; i < config.sprites; i++) {
+            Renderable renderable = new Renderable();
+            boolean blended = random.nextFloat() < BLENDED_FRACTION;
+            renderable.material = blended ? blendedMaterials[random.nextInt(blendedMaterials.length)]
+                    : materials[random.nextInt(materials.length)];
+            renderable.shader = shaders[random.nextInt(shaders.length)];
+            renderable.meshPart.set(meshParts[random.nextInt(meshParts.length)]);
+            renderable.worldTransform.setToTranslation((random.nextFloat() - 0.5f) * WORLD_SIZE,
+                    (random.nextFloat() - 0.5f) * WORLD_SIZE * 0.1f, (random.nextFloat() - 0.5f) * WORLD_SIZE);
+            renderables.add(renderable);
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        camera.viewportWidth = width;
+        camera.viewportHeight = height;
+    }
+
+    @Override
+    public void render() {
+        if (config.rotate)
+            angle += ORBIT_SPEED * Gdx.graphics.getDeltaTime();
+        camera.position.set(MathUtils.sinDeg(angle), 0.2f, MathUtils.cosDeg(angle)).scl(WORLD_SIZE * 0.6f);
+        camera.lookAt(Vector3.Zero);
+        camera.update();
+
+        renderables.shuffle();
+        long start = TimeUtils.nanoTime();
+        sorter.sort(camera, renderables);
+        sortNanos += TimeUtils.nanoTime() - start;
+        sorts++;
+    }
+
+    @Override
+    public void dispose() {
+        if (sorts > 0) {
+            System.out.println("BENCH_SORT backend=" + backendName
+                    + " test=" + getName()
+                    + " renderables=" + renderables.size
+                    + " sorts=" + sorts
+                    + " avgSortMicros=" + (sortNanos / sorts / 1000));
+        }
+    }
+
+    /** Placeholder so that renderables have different shaders, the sorters only compare them. */
+    private static class NoShader implements Shader {
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public int compareTo(Shader other) {
+            return 0;
+        }
+
+        @Override
+        public boolean canRender(Renderable instance) {
+            return true;
+        }
+
+        @Override
+        public void begin(Camera camera, RenderContext context) {
+        }
+
+        @Override
+        public void render(Renderable renderable) {
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+}
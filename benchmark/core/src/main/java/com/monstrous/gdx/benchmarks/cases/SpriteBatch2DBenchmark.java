@@ -24,17 +24,19 @@ public class SpriteBatch2DBenchmark implements BenchmarkCase {
     private Sprite[] sprites;
     private float scale = 1f;
     private float scaleSpeed = -1f;
+    private boolean instanced;
 
     @Override
     public String getName() {
-        return "sprite2d";
+        return instanced ? "sprite2d-instanced" : "sprite2d";
     }
 
     @Override
     public void create(BenchmarkBackend backend, BenchmarkConfig config) {
         this.config = config;
         viewport = new ScreenViewport();
-        batch = backend.createSpriteBatch(config.sprites);
+        instanced = "instanced".equalsIgnoreCase(config.batch);
+        batch = instanced ? backend.createInstancedSpriteBatch(config.sprites) : backend.createSpriteBatch(config.sprites);
         texture = backend.createTexture("data/badlogicsmall.jpg");
         sprites = new Sprite[config.sprites];
     }
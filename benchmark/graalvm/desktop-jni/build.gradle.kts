@@ -48,6 +48,7 @@ fun benchmarkArgs(): List<String> {
         "--height=${benchmarkProperty("benchHeight", "480")}",
         "--rotate=${benchmarkProperty("benchRotate", "true")}",
         "--scale=${benchmarkProperty("benchScale", "true")}",
+        "--batch=${benchmarkProperty("benchBatch", "vertex")}",
         "--webgpu=${benchmarkProperty("webgpu", "WGPU")}",
         "--backend=${benchmarkProperty("nativeBackend", "DEFAULT")}",
         "--samples=${benchmarkProperty("webgpuSamples", "1")}",
@@ -5,6 +5,8 @@ import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g3d.utils.DefaultRenderableSorter;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
 import com.badlogic.gdx.Gdx;
 import com.monstrous.gdx.benchmarks.BenchmarkApplication;
 import com.monstrous.gdx.benchmarks.BenchmarkBackend;
@@ -34,9 +36,20 @@ public class Lwjgl3BenchmarkLauncher {
             return new SpriteBatch(maxSprites);
         }
 
+        @Override
+        public Batch createInstancedSpriteBatch(int maxSprites) {
+            // stock libGDX has no instanced sprite batch, keep the regular one as reference
+            return new SpriteBatch(maxSprites);
+        }
+
         @Override
         public Texture createTexture(String internalPath) {
             return new Texture(Gdx.files.internal(internalPath));
         }
+
+        @Override
+        public RenderableSorter createRenderableSorter() {
+            return new DefaultRenderableSorter();
+        }
     }
 }
@@ -1,17 +1,23 @@
 package com.monstrous.gdx.benchmarks.webgpu;
 
+import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
 import com.github.xpenatan.webgpu.JWebGPUBackend;
 import com.monstrous.gdx.benchmarks.BenchmarkApplication;
 import com.monstrous.gdx.benchmarks.BenchmarkBackend;
 import com.monstrous.gdx.benchmarks.BenchmarkConfig;
 import com.monstrous.gdx.webgpu.application.WebGPUContext;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
 import com.monstrous.gdx.webgpu.backends.desktop.WgDesktopApplication;
 import com.monstrous.gdx.webgpu.backends.desktop.WgDesktopApplicationConfiguration;
 import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgInstancedSpriteBatch;
 import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+import com.monstrous.gdx.webgpu.graphics.g3d.utils.WgDefaultRenderableSorter;
+import com.monstrous.gdx.webgpu.wrappers.CommandRecorder;
 
 public class WebGPUBenchmarkLauncher {
     public static void main(String[] args) {
@@ -20,6 +26,7 @@ public class WebGPUBenchmarkLauncher {
         WebGPUContext.Backend backend = parseBackend(args, WebGPUContext.Backend.DEFAULT);
         int samples = parseIntArg(args, "samples", 1);
         String binding = parseStringArg(args, "binding", System.getProperty("benchmark.binding", "jni"));
+        boolean record = hasFlag(args, "record");
 
         WgDesktopApplicationConfiguration config = new WgDesktopApplicationConfiguration();
         config.setTitle("gdx benchmark WebGPU");
@@ -32,8 +39,21 @@ public class WebGPUBenchmarkLauncher {
         config.useVsync(false);
 
         String backendName = "webgpu-" + binding + "-" + webgpuBackend + "-" + backend;
-        new WgDesktopApplication(new BenchmarkApplication(new WebGPUBenchmarkBackend(backendName), benchmarkConfig),
-                config);
+        ApplicationListener application = new BenchmarkApplication(new WebGPUBenchmarkBackend(backendName),
+                benchmarkConfig);
+        if (record)
+            application = new RecordingApplication(application);
+        new WgDesktopApplication(application, config);
+    }
+
+    private static boolean hasFlag(String[] args, String key) {
+        String flag = "--" + key;
+        for (String arg : args) {
+            if (flag.equals(arg)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private static JWebGPUBackend parseWebGPUBackend(String[] args, JWebGPUBackend defaultValue) {
@@ -61,6 +81,54 @@ public class WebGPUBenchmarkLauncher {
         return defaultValue;
     }
 
+    /** Records the command stream and prints the commands of one frame every second, see {@link CommandRecorder}. */
+    private static class RecordingApplication implements ApplicationListener {
+        private final ApplicationListener application;
+        private CommandRecorder recorder;
+        private int printedFrames;
+
+        RecordingApplication(ApplicationListener application) {
+            this.application = application;
+        }
+
+        @Override
+        public void create() {
+            recorder = new CommandRecorder();
+            ((WgGraphics)Gdx.graphics).getContext().commandRecorder = recorder;
+            application.create();
+        }
+
+        @Override
+        public void resize(int width, int height) {
+            application.resize(width, height);
+        }
+
+        @Override
+        public void render() {
+            application.render();
+            int fps = Math.max(1, Gdx.graphics.getFramesPerSecond());
+            if (recorder.frames - printedFrames >= fps) {
+                printedFrames = recorder.frames;
+                System.out.println("BENCH_COMMANDS frame=" + recorder.frames + " " + recorder.lastFrame);
+            }
+        }
+
+        @Override
+        public void pause() {
+            application.pause();
+        }
+
+        @Override
+        public void resume() {
+            application.resume();
+        }
+
+        @Override
+        public void dispose() {
+            application.dispose();
+        }
+    }
+
     private static class WebGPUBenchmarkBackend implements BenchmarkBackend {
         private final String name;
 
@@ -78,9 +146,19 @@ public class WebGPUBenchmarkLauncher {
             return new WgSpriteBatch(maxSprites);
         }
 
+        @Override
+        public Batch createInstancedSpriteBatch(int maxSprites) {
+            return new WgInstancedSpriteBatch(maxSprites);
+        }
+
         @Override
         public Texture createTexture(String internalPath) {
             return new WgTexture(Gdx.files.internal(internalPath));
         }
+
+        @Override
+        public RenderableSorter createRenderableSorter() {
+            return new WgDefaultRenderableSorter();
+        }
     }
 }
@@ -87,6 +87,7 @@ val benchmarkArgs = listOf(
     "--height=${benchmarkProperty("benchHeight", "480")}",
     "--rotate=${benchmarkProperty("benchRotate", "true")}",
     "--scale=${benchmarkProperty("benchScale", "true")}",
+    "--batch=${benchmarkProperty("benchBatch", "vertex")}",
     "--backend=${benchmarkProperty("nativeBackend", "DEFAULT")}",
     "--samples=${benchmarkProperty("webgpuSamples", "1")}"
 )
@@ -3,6 +3,7 @@ package com.monstrous.gdx.benchmarks.webgpu.teavmc;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.github.xpenatan.webgpu.JWebGPULoader;
 import com.monstrous.gdx.benchmarks.BenchmarkApplication;
@@ -12,7 +13,9 @@ import com.monstrous.gdx.webgpu.application.WebGPUContext;
 import com.monstrous.gdx.webgpu.backends.teavmc.WgCApplication;
 import com.monstrous.gdx.webgpu.backends.teavmc.WgCApplicationConfiguration;
 import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgInstancedSpriteBatch;
 import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+import com.monstrous.gdx.webgpu.graphics.g3d.utils.WgDefaultRenderableSorter;
 
 public final class TeaVMCWebGPUBenchmarkLauncher {
     private TeaVMCWebGPUBenchmarkLauncher() {
@@ -93,9 +96,19 @@ public final class TeaVMCWebGPUBenchmarkLauncher {
             return new WgSpriteBatch(maxSprites);
         }
 
+        @Override
+        public Batch createInstancedSpriteBatch(int maxSprites) {
+            return new WgInstancedSpriteBatch(maxSprites);
+        }
+
         @Override
         public Texture createTexture(String internalPath) {
             return new WgTexture(Gdx.files.internal(internalPath));
         }
+
+        @Override
+        public RenderableSorter createRenderableSorter() {
+            return new WgDefaultRenderableSorter();
+        }
     }
 }
@@ -0,0 +1,55 @@
+// modelbatch.cull.wgsl
+//
+// Frustum culling of instances for indirect drawing, see WgIndirectInstances.
+// Each instance has a bounding sphere in world space and belongs to a batch (one mesh part + material).
+// Visible instances are copied to the output array in the range of their batch and counted
+// in the instanceCount of the batch's draw arguments. The range of a batch starts at batchOutputs[batch],
+// in vec4s, which is aligned for a dynamic offset when the device lacks the IndirectFirstInstance feature.
+// The instance data (ModelUniforms of the model batch shader) is copied as vec4s, its size depends
+// on the instance layout and follows from the sizes of the instance and bounds arrays.
+// The CPU reference of this shader is WgFrustumCuller.cullInstances().
+
+struct CullUniforms {
+    planes: array<vec4f, 6>,    // normal in xyz, distance in w
+};
+
+@group(0) @binding(0) var<uniform> uCull: CullUniforms;
+@group(0) @binding(1) var<storage, read> instances: array<vec4f>;           // instance data, see below
+@group(0) @binding(2) var<storage, read> bounds: array<vec4f>;             // center in xyz, radius in w
+@group(0) @binding(3) var<storage, read> batchIds: array<u32>;             // batch per instance
+@group(0) @binding(4) var<storage, read> batchOutputs: array<u32>;         // first output vec4 per batch
+@group(0) @binding(5) var<storage, read_write> drawArgs: array<atomic<u32>>; // 5 values per batch
+@group(0) @binding(6) var<storage, read_write> culled: array<vec4f>;
+
+const ARGS_STRIDE: u32 = 5u;
+
+// set the instance count of every batch to zero, runs before cs_cull
+@compute @workgroup_size(64)
+fn cs_reset(@builtin(global_invocation_id) id: vec3u) {
+    if (id.x < arrayLength(&batchOutputs)) {
+        atomicStore(&drawArgs[id.x * ARGS_STRIDE + 1u], 0u);
+    }
+}
+
+@compute @workgroup_size(64)
+fn cs_cull(@builtin(global_invocation_id) id: vec3u) {
+    let i = id.x;
+    if (i >= arrayLength(&bounds)) {
+        return;
+    }
+    let sphere = bounds[i];
+    for (var p = 0; p < 6; p++) {
+        let plane = uCull.planes[p];
+        if (dot(plane.xyz, sphere.xyz) + plane.w < -sphere.w) {
+            return;
+        }
+    }
+    let batch = batchIds[i];
+    let slot = atomicAdd(&drawArgs[batch * ARGS_STRIDE + 1u], 1u);
+    let stride = arrayLength(&instances) / arrayLength(&bounds);
+    let src = i * stride;
+    let dst = batchOutputs[batch] + slot * stride;
+    for (var k = 0u; k < stride; k++) {
+        culled[dst + k] = instances[src + k];
+    }
+}
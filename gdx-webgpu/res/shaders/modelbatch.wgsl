@@ -55,8 +55,10 @@ struct FrameUniforms {
 struct ModelUniforms {
     modelMatrix: mat4x4f,
     normalMatrix: mat4x4f,
-    morphWeights: vec4f,
+#ifdef MORPH
+    morphWeights: vec4f,        // only in the instance data of meshes with morph targets
     morphWeights2: vec4f,
+#endif
 };
 
 struct MaterialUniforms {
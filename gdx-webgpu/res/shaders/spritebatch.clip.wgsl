@@ -0,0 +1,73 @@
+// spritebatch.clip.wgsl
+//
+// Sprite batch shader with a clip rectangle per vertex.
+// The clip rectangle is in framebuffer pixels with a top-left origin (x, y, x2, y2),
+// the same space as @builtin(position) in the fragment shader.
+// Fragments outside the clip rectangle are discarded.
+
+struct Uniforms {
+    projectionViewTransform: mat4x4f,
+};
+
+@group(0) @binding(0) var<uniform> uniforms: Uniforms;
+@group(0) @binding(1) var texture: texture_2d<f32>;
+@group(0) @binding(2) var textureSampler: sampler;
+
+
+struct VertexInput {
+    @location(0) position: vec2f,
+    @location(1) uv: vec2f,
+    @location(3) clipRect: vec4f,
+#ifdef COLOR
+    @location(5) color: vec4f,
+#endif
+};
+
+struct VertexOutput {
+    @builtin(position) position: vec4f,
+    @location(0) uv : vec2f,
+    @location(1) color: vec4f,
+    @location(2) @interpolate(flat) clipRect: vec4f,
+};
+
+
+@vertex
+fn vs_main(in: VertexInput) -> VertexOutput {
+   var out: VertexOutput;
+
+   var pos =  uniforms.projectionViewTransform * vec4f(in.position, 0.0, 1.0);
+   out.position = pos;
+   out.uv = in.uv;
+   out.clipRect = in.clipRect;
+
+#ifdef COLOR
+   let color:vec4f = vec4f(pow(in.color.rgb, vec3f(2.2)), in.color.a);
+#else
+   let color:vec4f = vec4f(1,1,1,1);   // white
+#endif
+   out.color = color;
+
+   return out;
+}
+
+@fragment
+fn fs_main(in : VertexOutput) -> @location(0) vec4f {
+
+    // sample before the discard, textureSample() needs uniform control flow
+    var color = in.color * textureSample(texture, textureSampler, in.uv);
+
+    let p = in.position.xy;
+    if (p.x < in.clipRect.x || p.y < in.clipRect.y || p.x >= in.clipRect.z || p.y >= in.clipRect.w) {
+        discard;
+    }
+
+// textures are loaded into linear space already.
+
+// if the ouput surface is Srgb (i.e. WGPU) we can output linear values,
+// otherwise (i.e Dawn) we have to do inverse gamma correction here in the shader
+#ifdef GAMMA_CORRECTION
+    let linearColor: vec3f = pow(color.rgb, vec3f(1/2.2));
+    color = vec4f(linearColor, color.a);
+#endif
+    return color;
+};
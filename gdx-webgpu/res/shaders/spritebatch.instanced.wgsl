@@ -0,0 +1,72 @@
+// spritebatch.instanced.wgsl
+//
+// Sprite batch shader where each sprite is one instance.
+// The instance record describes the sprite as a parallelogram: one corner, two edge vectors,
+// the texture coordinates of that corner and of the opposite corner, and a packed color.
+// The quad is expanded from the vertex index, so there is no index buffer.
+
+struct Uniforms {
+    projectionViewTransform: mat4x4f,
+};
+
+@group(0) @binding(0) var<uniform> uniforms: Uniforms;
+@group(0) @binding(1) var texture: texture_2d<f32>;
+@group(0) @binding(2) var textureSampler: sampler;
+
+
+struct InstanceInput {
+    @location(0) position: vec2f,   // corner with texture coordinate uvRect.xy
+    @location(2) edgeU: vec2f,      // edge along which u goes from uvRect.x to uvRect.z
+    @location(3) edgeV: vec2f,      // edge along which v goes from uvRect.y to uvRect.w
+    @location(1) uvRect: vec4f,
+#ifdef COLOR
+    @location(5) color: vec4f,
+#endif
+};
+
+struct VertexOutput {
+    @builtin(position) position: vec4f,
+    @location(0) uv : vec2f,
+    @location(1) color: vec4f,
+};
+
+
+@vertex
+fn vs_main(@builtin(vertex_index) vertexIndex: u32, in: InstanceInput) -> VertexOutput {
+   var out: VertexOutput;
+
+   // two triangles per quad
+   var corners = array<vec2f, 6>(
+        vec2f(0, 0), vec2f(0, 1), vec2f(1, 1),
+        vec2f(0, 0), vec2f(1, 1), vec2f(1, 0));
+   let corner: vec2f = corners[vertexIndex];
+
+   let position: vec2f = in.position + corner.x * in.edgeU + corner.y * in.edgeV;
+   out.position = uniforms.projectionViewTransform * vec4f(position, 0.0, 1.0);
+   out.uv = mix(in.uvRect.xy, in.uvRect.zw, corner);
+
+#ifdef COLOR
+   let color:vec4f = vec4f(pow(in.color.rgb, vec3f(2.2)), in.color.a);
+#else
+   let color:vec4f = vec4f(1,1,1,1);   // white
+#endif
+   out.color = color;
+
+   return out;
+}
+
+@fragment
+fn fs_main(in : VertexOutput) -> @location(0) vec4f {
+
+    var color = in.color * textureSample(texture, textureSampler, in.uv);
+
+// textures are loaded into linear space already.
+
+// if the ouput surface is Srgb (i.e. WGPU) we can output linear values,
+// otherwise (i.e Dawn) we have to do inverse gamma correction here in the shader
+#ifdef GAMMA_CORRECTION
+    let linearColor: vec3f = pow(color.rgb, vec3f(1/2.2));
+    color = vec4f(linearColor, color.a);
+#endif
+    return color;
+};
@@ -0,0 +1,81 @@
+// spritebatch.multitexture.wgsl
+//
+// Sprite batch shader with several textures bound at the same time.
+// Each vertex carries the index of the texture slot to sample from.
+// The texture bindings and the switch cases are generated by WgMultiTextureSpriteBatch
+// to match its number of texture slots: see the @textures and @cases markers.
+
+struct Uniforms {
+    projectionViewTransform: mat4x4f,
+};
+
+@group(0) @binding(0) var<uniform> uniforms: Uniforms;
+// @textures
+
+
+struct VertexInput {
+    @location(0) position: vec2f,
+    @location(1) uv: vec2f,
+    @location(2) textureIndex: f32,
+#ifdef COLOR
+    @location(5) color: vec4f,
+#endif
+};
+
+struct VertexOutput {
+    @builtin(position) position: vec4f,
+    @location(0) uv : vec2f,
+    @location(1) color: vec4f,
+    @location(2) @interpolate(flat) textureIndex: u32,
+};
+
+
+@vertex
+fn vs_main(in: VertexInput) -> VertexOutput {
+   var out: VertexOutput;
+
+   var pos =  uniforms.projectionViewTransform * vec4f(in.position, 0.0, 1.0);
+   out.position = pos;
+   out.uv = in.uv;
+   out.textureIndex = u32(in.textureIndex + 0.5);
+
+#ifdef COLOR
+   let color:vec4f = vec4f(pow(in.color.rgb, vec3f(2.2)), in.color.a);
+#else
+   let color:vec4f = vec4f(1,1,1,1);   // white
+#endif
+   out.color = color;
+
+   return out;
+}
+
+// The texture index varies per sprite, so the sampling happens in non-uniform control flow.
+// That rules out textureSample(), instead we pass the derivatives explicitly.
+fn sampleTexture(index: u32, uv: vec2f, ddx: vec2f, ddy: vec2f) -> vec4f {
+    var color: vec4f;
+    switch index {
+// @cases
+        default: {
+            color = textureSampleGrad(texture, textureSampler, uv, ddx, ddy);
+        }
+    }
+    return color;
+}
+
+@fragment
+fn fs_main(in : VertexOutput) -> @location(0) vec4f {
+
+    let ddx = dpdx(in.uv);
+    let ddy = dpdy(in.uv);
+    var color = in.color * sampleTexture(in.textureIndex, in.uv, ddx, ddy);
+
+// textures are loaded into linear space already.
+
+// if the ouput surface is Srgb (i.e. WGPU) we can output linear values,
+// otherwise (i.e Dawn) we have to do inverse gamma correction here in the shader
+#ifdef GAMMA_CORRECTION
+    let linearColor: vec3f = pow(color.rgb, vec3f(1/2.2));
+    color = vec4f(linearColor, color.a);
+#endif
+    return color;
+};
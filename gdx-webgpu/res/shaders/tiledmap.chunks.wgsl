@@ -0,0 +1,57 @@
+// tiledmap.chunks.wgsl
+//
+// Tile layer chunks of WgChunkedOrthogonalTiledMapRenderer, the sprite batch shader with a table of animation frames.
+// Cells of an animated tile have the index of their animation in the table, their texture coordinates are 0 or 1
+// and select the corners of the current frame. Other cells have -1 and use their texture coordinates as they are.
+
+struct Uniforms {
+    projectionViewTransform: mat4x4f,
+};
+
+@group(0) @binding(0) var<uniform> uniforms: Uniforms;
+@group(0) @binding(1) var texture: texture_2d<f32>;
+@group(0) @binding(2) var textureSampler: sampler;
+@group(0) @binding(3) var<storage, read> frames: array<vec4f>;     // u, v2, u2, v of the current frame per animation
+
+
+struct VertexInput {
+    @location(0) position: vec2f,
+    @location(1) uv: vec2f,
+    @location(2) animation: f32,
+    @location(5) color: vec4f,
+};
+
+struct VertexOutput {
+    @builtin(position) position: vec4f,
+    @location(0) uv : vec2f,
+    @location(1) color: vec4f,
+};
+
+
+@vertex
+fn vs_main(in: VertexInput) -> VertexOutput {
+   var out: VertexOutput;
+
+   out.position = uniforms.projectionViewTransform * vec4f(in.position, 0.0, 1.0);
+   if (in.animation >= 0.0) {
+       let frame = frames[u32(in.animation)];
+       out.uv = mix(frame.xy, frame.zw, in.uv);
+   } else {
+       out.uv = in.uv;
+   }
+   out.color = vec4f(pow(in.color.rgb, vec3f(2.2)), in.color.a);
+   return out;
+}
+
+@fragment
+fn fs_main(in : VertexOutput) -> @location(0) vec4f {
+    var color = in.color * textureSample(texture, textureSampler, in.uv);
+
+// if the ouput surface is Srgb (i.e. WGPU) we can output linear values,
+// otherwise (i.e Dawn) we have to do inverse gamma correction here in the shader
+#ifdef GAMMA_CORRECTION
+    let linearColor: vec3f = pow(color.rgb, vec3f(1/2.2));
+    color = vec4f(linearColor, color.a);
+#endif
+    return color;
+};
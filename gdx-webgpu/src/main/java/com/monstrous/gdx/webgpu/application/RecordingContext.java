@@ -0,0 +1,211 @@
+package com.monstrous.gdx.webgpu.application;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.github.xpenatan.webgpu.*;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.wrappers.CommandRecorder;
+import com.monstrous.gdx.webgpu.wrappers.GPUTimer;
+
+/**
+ * Context without a device that only records commands. Buffers, textures, bind groups and pipelines are created as
+ * empty handles, buffer writes and render pass commands are counted by the {@link CommandRecorder} but not passed to
+ * WebGPU. This allows checking the command stream of a renderer in a build without a GPU or a display. The jWebGPU
+ * natives must still be loaded.
+ * <p>
+ * Install it with a {@link RecordingGraphics} as {@code Gdx.graphics} and render between {@link #beginFrame()} and
+ * {@link #endFrame()}. Only the wrapper classes and the 2D renderers are supported: code that uses the device, the
+ * queue or the command encoder directly, e.g. compute passes, render bundles or GPU timing, does not work with this
+ * context.
+ */
+public class RecordingContext extends WebGPUContext {
+    private final Rectangle viewportRectangle = new Rectangle();
+    private final Rectangle scissor = new Rectangle();
+    private boolean scissorEnabled;
+    private boolean isFrameStarted;
+    private int width, height;
+    private int samples = 1;
+    private int framesInFlight = 1;
+
+    public RecordingContext(int width, int height) {
+        surfaceFormats = new WGPUTextureFormat[] { WGPUTextureFormat.BGRA8Unorm };
+        targetViews = new WGPUTextureView[1];
+        commandRecorder = new CommandRecorder();
+        resize(width, height);
+    }
+
+    public void beginFrame() {
+        isFrameStarted = true;
+    }
+
+    public void endFrame() {
+        if (!isFrameStarted)
+            return;
+        isFrameStarted = false;
+        if (commandRecorder != null)
+            commandRecorder.endFrame();
+        frameNumber++;
+    }
+
+    @Override
+    public boolean isRecordingOnly() {
+        return true;
+    }
+
+    @Override
+    WGPUDevice getDevice() {
+        return null;
+    }
+
+    @Override
+    WGPUQueue getQueue() {
+        return null;
+    }
+
+    @Override
+    public WGPUTextureFormat getSurfaceFormat() {
+        return surfaceFormats[0];
+    }
+
+    @Override
+    public boolean hasLinearOutput() {
+        return false;
+    }
+
+    @Override
+    public WGPUTextureView getTargetView() {
+        return targetViews[0];
+    }
+
+    @Override
+    public WGPUTextureView[] getTargetViews() {
+        return targetViews;
+    }
+
+    @Override
+    public RenderOutputState pushTargetView(RenderOutputState outState, WGPUTextureView textureView,
+            WGPUTextureFormat textureFormat, int width, int height, WgTexture depthTexture) {
+        return pushTargetView(outState, new WGPUTextureView[] { textureView },
+                new WGPUTextureFormat[] { textureFormat }, width, height, depthTexture);
+    }
+
+    @Override
+    public RenderOutputState pushTargetView(RenderOutputState outState, WGPUTextureView[] textureViews,
+            WGPUTextureFormat[] textureFormats, int width, int height, WgTexture depthTexture) {
+        outState.set(targetViews, surfaceFormats, this.depthTexture, viewportRectangle, samples);
+        targetViews = textureViews;
+        surfaceFormats = textureFormats;
+        samples = 1;
+        if (depthTexture != null)
+            this.depthTexture = depthTexture;
+        setViewportRectangle(0, 0, width, height);
+        return outState;
+    }
+
+    @Override
+    public void popTargetView(RenderOutputState prevState) {
+        viewportRectangle.set(prevState.viewport);
+        targetViews = prevState.targetViews;
+        surfaceFormats = prevState.surfaceFormats;
+        depthTexture = prevState.depthTexture;
+        samples = prevState.numSamples;
+    }
+
+    @Override
+    WGPUCommandEncoder getCommandEncoder() {
+        return null;
+    }
+
+    /** returns null unless a depth texture was pushed with a target view, the passes use a Depth24Plus format */
+    @Override
+    public WgTexture getDepthTexture() {
+        return depthTexture;
+    }
+
+    @Override
+    public int getSamples() {
+        return samples;
+    }
+
+    public void setSamples(int samples) {
+        this.samples = samples;
+    }
+
+    @Override
+    public WgTexture getMultiSamplingTexture() {
+        return null;
+    }
+
+    @Override
+    public void setViewportRectangle(int x, int y, int w, int h) {
+        viewportRectangle.set(x, y, w, h);
+    }
+
+    @Override
+    public Rectangle getViewportRectangle() {
+        return viewportRectangle;
+    }
+
+    @Override
+    public void enableScissor(boolean mode) {
+        scissorEnabled = mode;
+    }
+
+    @Override
+    public boolean isScissorEnabled() {
+        return scissorEnabled;
+    }
+
+    @Override
+    public void setScissor(int x, int y, int w, int h) {
+        scissor.set(x, y, w, h);
+    }
+
+    @Override
+    public Rectangle getScissor() {
+        return scissor;
+    }
+
+    /** returns null, there are no GPU timestamps without a device */
+    @Override
+    public GPUTimer getGPUTimer() {
+        return null;
+    }
+
+    @Override
+    public float getAverageGPUtime(int pass) {
+        return 0;
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        setViewportRectangle(0, 0, width, height);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void setVSync(boolean vsync) {
+    }
+
+    @Override
+    public boolean isFrameStarted() {
+        return isFrameStarted;
+    }
+
+    @Override
+    public int getFramesInFlight() {
+        return framesInFlight;
+    }
+
+    public void setFramesInFlight(int framesInFlight) {
+        this.framesInFlight = Math.max(1, Math.min(3, framesInFlight));
+    }
+}
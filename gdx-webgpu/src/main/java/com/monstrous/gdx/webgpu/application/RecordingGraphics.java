@@ -0,0 +1,297 @@
+package com.monstrous.gdx.webgpu.application;
+
+import com.badlogic.gdx.AbstractGraphics;
+import com.badlogic.gdx.graphics.Cursor;
+import com.badlogic.gdx.graphics.Cursor.SystemCursor;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.GL31;
+import com.badlogic.gdx.graphics.GL32;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.GLVersion;
+import com.monstrous.gdx.webgpu.graphics.utils.WgGL20;
+
+/**
+ * Graphics without a window for a {@link RecordingContext}. Set it as {@code Gdx.graphics} (and {@link #getGL20()} as
+ * {@code Gdx.gl}) to use the renderers without a device, e.g. to check their command stream in a build without a
+ * display. The delta time is fixed at 1/60 second and the frame id counts the frames of the context.
+ */
+public class RecordingGraphics extends AbstractGraphics implements WgGraphics {
+    private final RecordingContext context;
+    private GL20 gl20;
+    private final DisplayMode displayMode;
+    private final Monitor monitor;
+
+    public RecordingGraphics(RecordingContext context) {
+        this.context = context;
+        gl20 = new WgGL20();
+        displayMode = new RecordingDisplayMode(context.getWidth(), context.getHeight(), 60, 32);
+        monitor = new RecordingMonitor(0, 0, "recording");
+    }
+
+    @Override
+    public WebGPUContext getContext() {
+        return context;
+    }
+
+    @Override
+    public boolean isGL30Available() {
+        return false;
+    }
+
+    @Override
+    public boolean isGL31Available() {
+        return false;
+    }
+
+    @Override
+    public boolean isGL32Available() {
+        return false;
+    }
+
+    @Override
+    public GL20 getGL20() {
+        return gl20;
+    }
+
+    @Override
+    public GL30 getGL30() {
+        return null;
+    }
+
+    @Override
+    public GL31 getGL31() {
+        return null;
+    }
+
+    @Override
+    public GL32 getGL32() {
+        return null;
+    }
+
+    @Override
+    public void setGL20(GL20 gl20) {
+        this.gl20 = gl20;
+    }
+
+    @Override
+    public void setGL30(GL30 gl30) {
+    }
+
+    @Override
+    public void setGL31(GL31 gl31) {
+    }
+
+    @Override
+    public void setGL32(GL32 gl32) {
+    }
+
+    @Override
+    public int getWidth() {
+        return context.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return context.getHeight();
+    }
+
+    @Override
+    public int getBackBufferWidth() {
+        return context.getWidth();
+    }
+
+    @Override
+    public int getBackBufferHeight() {
+        return context.getHeight();
+    }
+
+    @Override
+    public int getSafeInsetLeft() {
+        return 0;
+    }
+
+    @Override
+    public int getSafeInsetTop() {
+        return 0;
+    }
+
+    @Override
+    public int getSafeInsetBottom() {
+        return 0;
+    }
+
+    @Override
+    public int getSafeInsetRight() {
+        return 0;
+    }
+
+    @Override
+    public long getFrameId() {
+        return context.frameNumber;
+    }
+
+    @Override
+    public float getDeltaTime() {
+        return 1f / 60f;
+    }
+
+    @Override
+    public int getFramesPerSecond() {
+        return 60;
+    }
+
+    @Override
+    public GraphicsType getType() {
+        return GraphicsType.Mock;
+    }
+
+    @Override
+    public GLVersion getGLVersion() {
+        return null;
+    }
+
+    @Override
+    public float getPpiX() {
+        return 96;
+    }
+
+    @Override
+    public float getPpiY() {
+        return 96;
+    }
+
+    @Override
+    public float getPpcX() {
+        return 96 / 2.54f;
+    }
+
+    @Override
+    public float getPpcY() {
+        return 96 / 2.54f;
+    }
+
+    @Override
+    public boolean supportsDisplayModeChange() {
+        return false;
+    }
+
+    @Override
+    public Monitor getPrimaryMonitor() {
+        return monitor;
+    }
+
+    @Override
+    public Monitor getMonitor() {
+        return monitor;
+    }
+
+    @Override
+    public Monitor[] getMonitors() {
+        return new Monitor[] { monitor };
+    }
+
+    @Override
+    public DisplayMode[] getDisplayModes() {
+        return new DisplayMode[] { displayMode };
+    }
+
+    @Override
+    public DisplayMode[] getDisplayModes(Monitor monitor) {
+        return getDisplayModes();
+    }
+
+    @Override
+    public DisplayMode getDisplayMode() {
+        return displayMode;
+    }
+
+    @Override
+    public DisplayMode getDisplayMode(Monitor monitor) {
+        return displayMode;
+    }
+
+    @Override
+    public boolean setFullscreenMode(DisplayMode displayMode) {
+        return false;
+    }
+
+    @Override
+    public boolean setWindowedMode(int width, int height) {
+        context.resize(width, height);
+        return true;
+    }
+
+    @Override
+    public void setTitle(String title) {
+    }
+
+    @Override
+    public void setUndecorated(boolean undecorated) {
+    }
+
+    @Override
+    public void setResizable(boolean resizable) {
+    }
+
+    @Override
+    public void setVSync(boolean vsync) {
+    }
+
+    @Override
+    public void setForegroundFPS(int fps) {
+    }
+
+    @Override
+    public BufferFormat getBufferFormat() {
+        return new BufferFormat(8, 8, 8, 8, 0, 0, 0, false);
+    }
+
+    @Override
+    public boolean supportsExtension(String extension) {
+        return false;
+    }
+
+    @Override
+    public void setContinuousRendering(boolean isContinuous) {
+    }
+
+    @Override
+    public boolean isContinuousRendering() {
+        return true;
+    }
+
+    @Override
+    public void requestRendering() {
+    }
+
+    @Override
+    public boolean isFullscreen() {
+        return false;
+    }
+
+    @Override
+    public Cursor newCursor(Pixmap pixmap, int xHotspot, int yHotspot) {
+        return null;
+    }
+
+    @Override
+    public void setCursor(Cursor cursor) {
+    }
+
+    @Override
+    public void setSystemCursor(SystemCursor systemCursor) {
+    }
+
+    private static class RecordingDisplayMode extends DisplayMode {
+        RecordingDisplayMode(int width, int height, int refreshRate, int bitsPerPixel) {
+            super(width, height, refreshRate, bitsPerPixel);
+        }
+    }
+
+    private static class RecordingMonitor extends Monitor {
+        RecordingMonitor(int virtualX, int virtualY, String name) {
+            super(virtualX, virtualY, name);
+        }
+    }
+}
@@ -11,7 +11,9 @@ import com.github.xpenatan.webgpu.WGPUDevice;
 import com.github.xpenatan.webgpu.WGPUQueue;
 import com.github.xpenatan.webgpu.*;
 import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.wrappers.FrameProfiler;
 import com.monstrous.gdx.webgpu.wrappers.GPUTimer;
+import com.monstrous.gdx.webgpu.wrappers.PipelineCache;
 import com.monstrous.gdx.webgpu.wrappers.WebGPURenderPass;
 
 /**
@@ -47,6 +49,10 @@ public class WebGPUApplication extends WebGPUContext implements WebGPUInitializa
         public boolean vSyncEnabled;
         public boolean gpuTimingEnabled;
         public Backend requestedBackendType;
+        /** when not null, a {@link FrameProfiler} is installed and written to this local file on exit */
+        public String profileFile;
+        /** number of frames (1 to 3) that have their own region of the per-frame buffers, see getFramesInFlight() */
+        public int framesInFlight = 1;
 
         public Configuration(int numSamples, boolean vSyncEnabled, boolean gpuTimingEnabled,
                 Backend requestedBackendType) {
@@ -105,6 +111,8 @@ public class WebGPUApplication extends WebGPUContext implements WebGPUInitializa
                 surfaceTextureTexture = new WGPUTexture();
 
                 gpuTimer = new GPUTimer(device, config.gpuTimingEnabled);
+                if (config.profileFile != null)
+                    frameProfiler = new FrameProfiler();
             } else {
                 throw new RuntimeException("Failed to initialize WebGPU: " + initState);
             }
@@ -187,6 +195,10 @@ public class WebGPUApplication extends WebGPUContext implements WebGPUInitializa
         encoder.finish(cmdBufferDescriptor, command);
         encoder.release();
 
+        if (stagingBelt != null) {
+            stagingBelt.flush(); // the uploads are submitted before the frame's commands
+            stagingBelt.endFrame();
+        }
         queue.submit(command);
         command.release();
 
@@ -200,6 +212,10 @@ public class WebGPUApplication extends WebGPUContext implements WebGPUInitializa
         }
         surfaceTextureTexture.release();
 
+        if (commandRecorder != null)
+            commandRecorder.endFrame();
+        if (frameProfiler != null)
+            frameProfiler.endFrame();
         frameNumber++;
 
         applyPendingResize();
@@ -409,6 +425,9 @@ public class WebGPUApplication extends WebGPUContext implements WebGPUInitializa
             return;
         disposed = true;
 
+        if (frameProfiler != null && config.profileFile != null)
+            frameProfiler.write(Gdx.files.local(config.profileFile));
+
         // Guard against partial initialization
         if (swapChainActive) {
             terminateDepthBuffer();
@@ -441,6 +460,7 @@ public class WebGPUApplication extends WebGPUContext implements WebGPUInitializa
         }
 
         WebGPURenderPass.clearPool();
+        PipelineCache.disposeShared();
 
         if (device != null) {
             device.release();
@@ -558,6 +578,11 @@ public class WebGPUApplication extends WebGPUContext implements WebGPUInitializa
         return config.numSamples;
     }
 
+    @Override
+    public int getFramesInFlight() {
+        return Math.max(1, Math.min(3, config.framesInFlight));
+    }
+
     public WgTexture getMultiSamplingTexture() {
         return multiSamplingTexture;
     }
@@ -3,7 +3,11 @@ package com.monstrous.gdx.webgpu.application;
 import com.badlogic.gdx.math.Rectangle;
 import com.github.xpenatan.webgpu.*;
 import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.wrappers.CommandRecorder;
+import com.monstrous.gdx.webgpu.wrappers.FrameProfiler;
 import com.monstrous.gdx.webgpu.wrappers.GPUTimer;
+import com.monstrous.gdx.webgpu.wrappers.PipelineManifest;
+import com.monstrous.gdx.webgpu.wrappers.StagingBelt;
 
 public abstract class WebGPUContext {
     public static enum Backend {
@@ -41,6 +45,14 @@ public abstract class WebGPUContext {
     public WGPUTextureView[] targetViews; // MRT support
     public WgTexture depthTexture;
     public int frameNumber;
+    /** records the commands of each frame when not null, see {@link CommandRecorder} */
+    public CommandRecorder commandRecorder;
+    /** records the specification of each pipeline that is created when not null, see {@link PipelineManifest} */
+    public PipelineManifest pipelineManifest;
+    /** collects CPU and GPU time per render pass when not null, see {@link FrameProfiler} */
+    public FrameProfiler frameProfiler;
+    /** collects the small buffer writes of a frame into one upload when not null, see {@link StagingBelt} */
+    public StagingBelt stagingBelt;
 
     abstract WGPUDevice getDevice();
 
@@ -105,4 +117,18 @@ public abstract class WebGPUContext {
     public abstract void setVSync(boolean vsync);
 
     public abstract boolean isFrameStarted();
+
+    /**
+     * Number of frames that rotate through the dynamic uniform, vertex and instance buffers of the renderers, so that
+     * the writes for one frame do not overwrite data of a previous frame the GPU may still be reading. Default 1.
+     */
+    public abstract int getFramesInFlight();
+
+    /**
+     * True for a context without a device that only feeds the {@link CommandRecorder}, see {@link RecordingContext}.
+     * The wrapper classes then skip their native calls.
+     */
+    public boolean isRecordingOnly() {
+        return false;
+    }
 }
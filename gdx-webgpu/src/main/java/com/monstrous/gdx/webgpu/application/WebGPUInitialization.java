@@ -77,6 +77,9 @@ public class WebGPUInitialization {
         WGPUVectorFeatureName features = WGPUVectorFeatureName.obtain();
         features.push_back(WGPUFeatureName.DepthClipControl);
         features.push_back(WGPUFeatureName.TimestampQuery);
+        // optional: non-zero firstInstance in indirect draws, see WgIndirectInstances
+        if (adapter.hasFeature(WGPUFeatureName.IndirectFirstInstance))
+            features.push_back(WGPUFeatureName.IndirectFirstInstance);
         deviceDescriptor.setRequiredFeatures(features);
 
         deviceDescriptor.getDefaultQueue().setLabel("The default queue");
@@ -21,8 +21,10 @@ import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.Vector4;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.github.xpenatan.webgpu.*;
 import com.monstrous.gdx.webgpu.application.WebGPUContext;
 import com.monstrous.gdx.webgpu.application.WgGraphics;
@@ -33,15 +35,106 @@ import java.util.Map;
 
 /**
  * Manages bind groups and provides methods for binding by uniform name.
+ * <p>
+ * Uniforms in uniform buffers can be set by name, or through a {@link Uniform} handle from {@link #getUniform(String)}
+ * which avoids the name lookup in code that runs per frame or per draw call.
  */
 public class Binder implements Disposable {
     private final BindingDictionary bindMap;
     private final Map<Integer, WebGPUBindGroupLayout> groupLayouts;
     private final IntMap<WebGPUBindGroup> groups;
     private final IntMap<BufferInfo> buffers;
+    private final ObjectMap<String, Uniform> uniforms; // resolved uniforms by name
+    private final Array<Uniform> uniformList;
     private WGPUPipelineLayout pipelineLayout;
     private final WebGPUContext webgpu;
 
+    /**
+     * Handle of a uniform in a uniform buffer, obtained with {@link #getUniform(String)}. Setting a value through the
+     * handle writes straight into the buffer at the resolved offset. As with the name based methods, the buffer still
+     * needs a flush() to write the values to the GPU.
+     */
+    public static class Uniform {
+        public final String name;
+        int groupId;
+        int bindingId;
+        private int uniformOffset; // offset within the binding
+        private WebGPUUniformBuffer buffer;
+        private int offset; // offset within the buffer
+
+        Uniform(String name, int groupId, int bindingId, int uniformOffset) {
+            this.name = name;
+            define(groupId, bindingId, uniformOffset);
+        }
+
+        /** Move the uniform to another binding or offset, the buffer has to be set again. */
+        void define(int groupId, int bindingId, int uniformOffset) {
+            this.groupId = groupId;
+            this.bindingId = bindingId;
+            this.uniformOffset = uniformOffset;
+        }
+
+        /** @param bufferInfo the buffer of the uniform's binding, null if it has not been set yet */
+        void setBuffer(BufferInfo bufferInfo) {
+            if (bufferInfo == null) {
+                buffer = null;
+                return;
+            }
+            buffer = (WebGPUUniformBuffer) bufferInfo.buffer;
+            offset = bufferInfo.offset + uniformOffset;
+        }
+
+        public WebGPUUniformBuffer getBuffer() {
+            return buffer;
+        }
+
+        /** offset of the uniform in the buffer in bytes */
+        public int getOffset() {
+            return offset;
+        }
+
+        public void set(float value) {
+            buffer.set(offset, value);
+        }
+
+        /** Add an additional offset to the uniform's offset. This may be handy for array uniforms. */
+        public void set(int extraOffset, float value) {
+            buffer.set(offset + extraOffset, value);
+        }
+
+        public void set(Vector2 vec) {
+            buffer.set(offset, vec);
+        }
+
+        public void set(Vector3 vec) {
+            buffer.set(offset, vec);
+        }
+
+        public void set(int extraOffset, Vector3 vec) {
+            buffer.set(offset + extraOffset, vec);
+        }
+
+        public void set(Vector4 vec) {
+            buffer.set(offset, vec);
+        }
+
+        public void set(Matrix4 matrix) {
+            buffer.set(offset, matrix);
+        }
+
+        public void set(int extraOffset, Matrix4 matrix) {
+            buffer.set(offset + extraOffset, matrix);
+        }
+
+        public void set(Color col) {
+            buffer.set(offset, col);
+        }
+
+        public void set(int extraOffset, Color col) {
+            buffer.set(offset + extraOffset, col);
+        }
+    }
+
     public static class BufferInfo {
         WebGPUBuffer buffer;
         int offset;
@@ -61,6 +154,8 @@ public class Binder implements Disposable {
         groupLayouts = new HashMap<>(4);
         groups = new IntMap<>(4);
         buffers = new IntMap<>(4);
+        uniforms = new ObjectMap<>();
+        uniformList = new Array<>();
     }
 
     public void defineGroup(int groupId, WebGPUBindGroupLayout layout) {
@@ -73,10 +168,17 @@ public class Binder implements Disposable {
     }
 
     /**
-     * Associates a name with a groupId + bindingId + offset. This is for a uniform in a uniform buffer.
+     * Associates a name with a groupId + bindingId + offset. This is for a uniform in a uniform buffer. When the
+     * uniform was defined before, its {@link Uniform} handle is updated in place, so that handles held by callers
+     * stay valid.
      */
     public void defineUniform(String name, int groupId, int bindingId, int offset) {
         bindMap.defineUniform(name, groupId, bindingId, offset);
+        Uniform uniform = uniforms.get(name);
+        if (uniform != null) {
+            uniform.define(groupId, bindingId, offset);
+            uniform.setBuffer(buffers.get(combine(groupId, bindingId)));
+        }
     }
 
 
@@ -87,7 +189,7 @@ public class Binder implements Disposable {
         WebGPUBindGroup bindGroup = getBindGroup(mapping.groupId);
         bindGroup.setBuffer(mapping.bindingId, buffer, offset, size);
         // keep hold of the buffer information, we may need it for uniforms.
-        buffers.put(combine(mapping.groupId, mapping.bindingId), new BufferInfo(buffer, offset, size));
+        putBufferInfo(mapping.groupId, mapping.bindingId, new BufferInfo(buffer, offset, size));
     }
 
     public WebGPUBuffer getBuffer(String name) {
@@ -105,7 +207,17 @@ public class Binder implements Disposable {
         bindGroup.setBuffer(bindingId, buffer, offset, size);
 
         // keep hold of the buffer information, we may need it for uniforms.
-        buffers.put(combine(groupId, bindingId), new BufferInfo(buffer, offset, size));
+        putBufferInfo(groupId, bindingId, new BufferInfo(buffer, offset, size));
+    }
+
+    private void putBufferInfo(int groupId, int bindingId, BufferInfo bufferInfo) {
+        buffers.put(combine(groupId, bindingId), bufferInfo);
+        // update the resolved uniforms of this binding
+        for (int i = 0; i < uniformList.size; i++) {
+            Uniform uniform = uniformList.get(i);
+            if (uniform.groupId == groupId && uniform.bindingId == bindingId)
+                uniform.setBuffer(bufferInfo);
+        }
     }
 
     public void setTexture(String name, WGPUTextureView textureView) {
@@ -131,124 +243,71 @@ public class Binder implements Disposable {
         return (groupId << 16) | (bindingId & 0xFFFF);
     }
 
-    /** note that buffer.flush() is needed to write the uniform values to the GPU. */
-    public void setUniform(String name, float value) {
+    /**
+     * Returns the handle of a uniform in a uniform buffer, to set its value without looking up the name each time. The
+     * handle follows later setBuffer() calls for its binding. The buffer has to be set before the handle is requested.
+     */
+    public Uniform getUniform(String name) {
+        Uniform uniform = uniforms.get(name);
+        if (uniform != null)
+            return uniform;
+
         BindingDictionary.BindingMap mapping = bindMap.findUniform(name);
         if (mapping == null)
             throw new RuntimeException("Uniform name " + name + " not defined.");
         if (mapping.offset < 0)
             throw new RuntimeException("Uniform name " + name + " is not defined in a uniform buffer.");
-
         BufferInfo bufferInfo = buffers.get(combine(mapping.groupId, mapping.bindingId));
+        if (bufferInfo == null)
+            throw new RuntimeException(
+                    "Uniform buffer not defined for group " + mapping.groupId + ", binding " + mapping.bindingId);
+        uniform = new Uniform(name, mapping.groupId, mapping.bindingId, mapping.offset);
+        uniform.setBuffer(bufferInfo);
+        uniforms.put(name, uniform);
+        uniformList.add(uniform);
+        return uniform;
+    }
 
-        WebGPUUniformBuffer buffer = (WebGPUUniformBuffer)bufferInfo.buffer;
-        buffer.set(bufferInfo.offset + mapping.offset, value);
+    /** note that buffer.flush() is needed to write the uniform values to the GPU. */
+    public void setUniform(String name, float value) {
+        getUniform(name).set(value);
     }
 
     /** Add an additional offset to the uniform's offset. This may be handy for array uniforms. */
     public void setUniform(String name, int offset, float value) {
-        BindingDictionary.BindingMap mapping = bindMap.findUniform(name);
-        if (mapping == null)
-            throw new RuntimeException("Uniform name " + name + " not defined.");
-        if (mapping.offset < 0)
-            throw new RuntimeException("Uniform name " + name + " is not defined in a uniform buffer.");
-        BufferInfo bufferInfo = buffers.get(combine(mapping.groupId, mapping.bindingId));
-        WebGPUUniformBuffer buffer = (WebGPUUniformBuffer)bufferInfo.buffer;
-        buffer.set(bufferInfo.offset + mapping.offset + offset, value);
+        getUniform(name).set(offset, value);
     }
 
     public void setUniform(String name, Vector2 vec) {
-        BindingDictionary.BindingMap mapping = bindMap.findUniform(name);
-        if (mapping == null)
-            throw new RuntimeException("Uniform name " + name + " not defined.");
-        if (mapping.offset < 0)
-            throw new RuntimeException("Uniform name " + name + " is not defined in a uniform buffer.");
-        BufferInfo bufferInfo = buffers.get(combine(mapping.groupId, mapping.bindingId));
-        WebGPUUniformBuffer buffer = (WebGPUUniformBuffer)bufferInfo.buffer;
-        buffer.set(bufferInfo.offset + mapping.offset, vec);
+        getUniform(name).set(vec);
     }
 
     public void setUniform(String name, Vector3 vec) {
-        BindingDictionary.BindingMap mapping = bindMap.findUniform(name);
-        if (mapping == null)
-            throw new RuntimeException("Uniform name " + name + " not defined.");
-        if (mapping.offset < 0)
-            throw new RuntimeException("Uniform name " + name + " is not defined in a uniform buffer.");
-        BufferInfo bufferInfo = buffers.get(combine(mapping.groupId, mapping.bindingId));
-        WebGPUUniformBuffer buffer = (WebGPUUniformBuffer)bufferInfo.buffer;
-        buffer.set(bufferInfo.offset + mapping.offset, vec);
+        getUniform(name).set(vec);
     }
 
     public void setUniform(String name, int offset, Vector3 vec) {
-        BindingDictionary.BindingMap mapping = bindMap.findUniform(name);
-        if (mapping == null)
-            throw new RuntimeException("Uniform name " + name + " not defined.");
-        if (mapping.offset < 0)
-            throw new RuntimeException("Uniform name " + name + " is not defined in a uniform buffer.");
-        BufferInfo bufferInfo = buffers.get(combine(mapping.groupId, mapping.bindingId));
-        WebGPUUniformBuffer buffer = (WebGPUUniformBuffer)bufferInfo.buffer;
-        buffer.set(bufferInfo.offset + mapping.offset + offset, vec);
+        getUniform(name).set(offset, vec);
     }
 
     public void setUniform(String name, Vector4 vec) {
-        BindingDictionary.BindingMap mapping = bindMap.findUniform(name);
-        if (mapping == null)
-            throw new RuntimeException("Uniform name " + name + " not defined.");
-        if (mapping.offset < 0)
-            throw new RuntimeException("Uniform name " + name + " is not defined in a uniform buffer.");
-        BufferInfo bufferInfo = buffers.get(combine(mapping.groupId, mapping.bindingId));
-        WebGPUUniformBuffer buffer = (WebGPUUniformBuffer)bufferInfo.buffer;
-        buffer.set(bufferInfo.offset + mapping.offset, vec);
+        getUniform(name).set(vec);
     }
 
     public void setUniform(String name, Matrix4 matrix) {
-        BindingDictionary.BindingMap mapping = bindMap.findUniform(name);
-        if (mapping == null)
-            throw new RuntimeException("Uniform name " + name + " not defined.");
-        if (mapping.offset < 0)
-            throw new RuntimeException("Uniform name " + name + " is not defined in a uniform buffer.");
-        BufferInfo bufferInfo = buffers.get(combine(mapping.groupId, mapping.bindingId));
-        if (bufferInfo == null)
-            throw new RuntimeException(
-                    "Uniform buffer not defined for group " + mapping.groupId + ", binding " + mapping.bindingId);
-        WebGPUUniformBuffer buffer = (WebGPUUniformBuffer)bufferInfo.buffer;
-        buffer.set(bufferInfo.offset + mapping.offset, matrix);
+        getUniform(name).set(matrix);
     }
 
     public void setUniform(String name, int offset, Matrix4 matrix) {
-        BindingDictionary.BindingMap mapping = bindMap.findUniform(name);
-        if (mapping == null)
-            throw new RuntimeException("Uniform name " + name + " not defined.");
-        if (mapping.offset < 0)
-            throw new RuntimeException("Uniform name " + name + " is not defined in a uniform buffer.");
-        BufferInfo bufferInfo = buffers.get(combine(mapping.groupId, mapping.bindingId));
-        if (bufferInfo == null)
-            throw new RuntimeException(
-                    "Uniform buffer not defined for group " + mapping.groupId + ", binding " + mapping.bindingId);
-        WebGPUUniformBuffer buffer = (WebGPUUniformBuffer)bufferInfo.buffer;
-        buffer.set(bufferInfo.offset + mapping.offset + offset, matrix);
+        getUniform(name).set(offset, matrix);
     }
 
     public void setUniform(String name, Color col) {
-        BindingDictionary.BindingMap mapping = bindMap.findUniform(name);
-        if (mapping == null)
-            throw new RuntimeException("Uniform name " + name + " not defined.");
-        if (mapping.offset < 0)
-            throw new RuntimeException("Uniform name " + name + " is not defined in a uniform buffer.");
-        BufferInfo bufferInfo = buffers.get(combine(mapping.groupId, mapping.bindingId));
-        WebGPUUniformBuffer buffer = (WebGPUUniformBuffer)bufferInfo.buffer;
-        buffer.set(bufferInfo.offset + mapping.offset, col);
+        getUniform(name).set(col);
     }
 
     public void setUniform(String name, int offset, Color col) {
-        BindingDictionary.BindingMap mapping = bindMap.findUniform(name);
-        if (mapping == null)
-            throw new RuntimeException("Uniform name " + name + " not defined.");
-        if (mapping.offset < 0)
-            throw new RuntimeException("Uniform name " + name + " is not defined in a uniform buffer.");
-        BufferInfo bufferInfo = buffers.get(combine(mapping.groupId, mapping.bindingId));
-        WebGPUUniformBuffer buffer = (WebGPUUniformBuffer)bufferInfo.buffer;
-        buffer.set(bufferInfo.offset + mapping.offset + offset, col);
+        getUniform(name).set(offset, col);
     }
 
     /** find or create bind group */
@@ -288,7 +347,8 @@ public class Binder implements Disposable {
             pipelineLayoutDesc.setBindGroupLayouts(layouts);
 
             pipelineLayout = new WGPUPipelineLayout();
-            webgpu.device.createPipelineLayout(pipelineLayoutDesc, pipelineLayout);
+            if (!webgpu.isRecordingOnly())
+                webgpu.device.createPipelineLayout(pipelineLayoutDesc, pipelineLayout);
         }
         return pipelineLayout;
     }
@@ -11,6 +11,7 @@ import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.github.xpenatan.webgpu.WGPUBuffer;
 import com.monstrous.gdx.webgpu.graphics.g3d.WgIndexBuffer;
 import com.monstrous.gdx.webgpu.graphics.g3d.WgVertexBuffer;
 import com.monstrous.gdx.webgpu.wrappers.WebGPURenderPass;
@@ -142,6 +143,20 @@ public class WgMesh extends Mesh {
         }
     }
 
+    /**
+     * Render with the draw arguments in a GPU buffer, see WebGPURenderPass.drawIndexedIndirect(). The arguments
+     * include the part of the mesh and the instances to draw.
+     */
+    public void renderIndirect(WebGPURenderPass renderPass, WGPUBuffer indirectBuffer, int indirectOffset) {
+
+        if(autoBind) bind(renderPass);
+
+        if (getIndexData().getNumIndices() > 0)
+            renderPass.drawIndexedIndirect(indirectBuffer, indirectOffset);
+        else
+            renderPass.drawIndirect(indirectBuffer, indirectOffset);
+    }
+
     private final Vector3 tmpV = new Vector3();
 
     private ShortBuffer index;
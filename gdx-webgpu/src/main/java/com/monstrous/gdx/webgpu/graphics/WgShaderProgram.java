@@ -68,7 +68,8 @@ public class WgShaderProgram implements Disposable {
 
         shaderDesc.setNextInChain(shaderCodeDesc.getChain());
         shaderModule = new WGPUShaderModule();
-        webgpu.device.createShaderModule(shaderDesc, shaderModule);
+        if (!webgpu.isRecordingOnly())
+            webgpu.device.createShaderModule(shaderDesc, shaderModule);
         // compile errors will invoke the error callback
 
         // System.out.println(name+": "+processedSource);
@@ -84,7 +85,8 @@ public class WgShaderProgram implements Disposable {
 
     @Override
     public void dispose() {
-        shaderModule.release();
+        if (!webgpu.isRecordingOnly())
+            shaderModule.release();
         shaderModule.dispose();
         shaderModule = null;
     }
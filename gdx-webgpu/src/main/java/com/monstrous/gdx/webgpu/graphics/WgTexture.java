@@ -22,6 +22,7 @@ import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.TextureData;
 import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.github.xpenatan.webgpu.*;
@@ -44,6 +45,18 @@ public class WgTexture extends Texture {
     protected int mipLevelCount;
     protected int numSamples;
     protected TextureData data; // cannot access data of Texture which is package private
+    private Array<DisposeListener> disposeListeners;
+
+    /**
+     * Listener that is notified just before a texture releases its native resources: all of them when the texture is
+     * disposed, or only its sampler when the filter or wrap mode changes.
+     */
+    public interface DisposeListener {
+        void textureDisposed(WgTexture texture);
+
+        /** The sampler is about to be released, a new one is built on the next {@link #getSampler()}. */
+        void samplerReleased(WgTexture texture, WGPUSampler sampler);
+    }
 
     /**
      * Wraps an externally-owned texture view without owning the underlying GPU texture.
@@ -268,6 +281,22 @@ public class WgTexture extends Texture {
         label = lab;
     }
 
+    /**
+     * Add a listener to be notified when this texture is disposed or its sampler is replaced, e.g. to evict cached
+     * objects that refer to it.
+     */
+    public void addDisposeListener(DisposeListener listener) {
+        if (disposeListeners == null)
+            disposeListeners = new Array<>(2);
+        if (!disposeListeners.contains(listener, true))
+            disposeListeners.add(listener);
+    }
+
+    public void removeDisposeListener(DisposeListener listener) {
+        if (disposeListeners != null)
+            disposeListeners.removeValue(listener, true);
+    }
+
     public static int bitWidth(int value) {
         if (value == 0)
             return 0;
@@ -290,7 +319,7 @@ public class WgTexture extends Texture {
     //
     protected void create(String label, boolean useMipMaps, WGPUTextureUsage textureUsage, WGPUTextureFormat format,
             int numLayers, int numSamples, WGPUTextureFormat viewFormat) {
-        if (webgpu.device == null || webgpu.queue == null)
+        if (!webgpu.isRecordingOnly() && (webgpu.device == null || webgpu.queue == null))
             throw new RuntimeException("Texture creation requires device and queue to be available\n");
 
         this.mipLevelCount = useMipMaps ? Math.max(1, bitWidth(Math.min(data.getWidth(), data.getHeight()))) : 1;
@@ -332,7 +361,8 @@ public class WgTexture extends Texture {
 
         WGPUTexture tex = new WGPUTexture();
         WebGPUContext webgpu = ((WgGraphics) Gdx.graphics).getContext();
-        webgpu.device.createTexture(textureDesc, tex);
+        if (!webgpu.isRecordingOnly())
+            webgpu.device.createTexture(textureDesc, tex);
         return tex;
     }
 
@@ -349,7 +379,8 @@ public class WgTexture extends Texture {
         textureViewDesc.setDimension(dimension);
         textureViewDesc.setFormat(format);
         WGPUTextureView view = new WGPUTextureView();
-        texture.createView(textureViewDesc, view);
+        if (!webgpu.isRecordingOnly())
+            texture.createView(textureViewDesc, view);
         return view;
     }
 
@@ -369,7 +400,8 @@ public class WgTexture extends Texture {
             samplerDesc.setCompare(WGPUCompareFunction.Undefined);
             samplerDesc.setMaxAnisotropy(1);
             sampler = new WGPUSampler();
-            webgpu.device.createSampler(samplerDesc, sampler);
+            if (!webgpu.isRecordingOnly())
+                webgpu.device.createSampler(samplerDesc, sampler);
         }
         return sampler;
     }
@@ -389,7 +421,8 @@ public class WgTexture extends Texture {
             samplerDesc.setCompare(WGPUCompareFunction.Less);
             samplerDesc.setMaxAnisotropy(1);
             depthSampler = new WGPUSampler();
-            webgpu.device.createSampler(samplerDesc, depthSampler);
+            if (!webgpu.isRecordingOnly())
+                webgpu.device.createSampler(samplerDesc, depthSampler);
         }
         return depthSampler;
     }
@@ -436,13 +469,24 @@ public class WgTexture extends Texture {
         if (minFilter == this.minFilter && magFilter == this.magFilter)
             return;
         // note: this may invalidate the sampler if it was built already and had other values
-        if (sampler != null)
-            sampler.release();
-        sampler = null; // invalidate sampler
+        releaseSampler();
         this.minFilter = minFilter;
         this.magFilter = magFilter;
     }
 
+    // invalidate the sampler after a change of filter or wrap, the listeners evict what refers to the old one
+    private void releaseSampler() {
+        if (sampler == null)
+            return;
+        if (disposeListeners != null) {
+            for (int i = disposeListeners.size - 1; i >= 0; i--)
+                disposeListeners.get(i).samplerReleased(this, sampler);
+        }
+        if (!webgpu.isRecordingOnly())
+            sampler.release();
+        sampler = null;
+    }
+
     /** convert from LibGDX enum value to WebGPU enum value */
     private WGPUAddressMode convertWrap(TextureWrap wrap) {
         WGPUAddressMode mode;
@@ -468,9 +512,7 @@ public class WgTexture extends Texture {
             return;
         if (u == null && v == null)
             return;
-        if (sampler != null)
-            sampler.release();
-        sampler = null; // invalidate sampler
+        releaseSampler();
 
         if (u != null)
             this.uWrap = u;
@@ -568,6 +610,8 @@ public class WgTexture extends Texture {
         extent.setHeight(height);
         extent.setDepthOrArrayLayers(1);
         WebGPUContext webgpu = ((WgGraphics) Gdx.graphics).getContext();
+        if (webgpu.isRecordingOnly())
+            return;
         if (!webgpu.isFrameStarted()) {
             Gdx.app.error("WgTexture", "writeTexture called outside of beginFrame/endFrame window. This may cause a crash.");
         }
@@ -611,28 +655,40 @@ public class WgTexture extends Texture {
 
     @Override
     public void dispose() {
+        if (disposeListeners != null) {
+            // notify while the texture view and sampler are still valid
+            for (int i = disposeListeners.size - 1; i >= 0; i--)
+                disposeListeners.get(i).textureDisposed(this);
+            disposeListeners.clear();
+        }
+        boolean release = !webgpu.isRecordingOnly(); // without a device there are no native objects
         if (texture != null) { // guard against double dispose
             if (sampler != null) {
-                sampler.release();
+                if (release)
+                    sampler.release();
                 sampler.dispose();
                 sampler = null;
             }
             if (depthSampler != null) {
-                depthSampler.release();
+                if (release)
+                    depthSampler.release();
                 depthSampler.dispose();
                 depthSampler = null;
             }
             if (textureView != null) {
-                textureView.release();
+                if (release)
+                    textureView.release();
                 textureView.dispose();
                 textureView = null;
             }
-            texture.destroy();
+            if (release)
+                texture.destroy();
             texture.dispose();
             texture = null;
         } else if (textureView != null) {
             // Layer-view wrapper (texture == null): we own the view but not the underlying texture.
-            textureView.release();
+            if (release)
+                textureView.release();
             textureView.dispose();
             textureView = null;
         }
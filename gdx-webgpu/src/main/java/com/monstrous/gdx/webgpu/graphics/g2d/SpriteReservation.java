@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.graphics.g2d;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.nio.FloatBuffer;
+import java.util.Comparator;
+
+/**
+ * A run of sprites reserved in a {@link WgSpriteBatch} with {@link WgSpriteBatch#reserve(com.badlogic.gdx.graphics.Texture,
+ * int)}, to be filled by several threads at once.
+ * <p>
+ * Get a {@link SpriteVertexWriter} per range of sprites on the render thread, fill the writers in parallel (e.g. tasks
+ * of a ForkJoinPool), wait for all of them and then call {@link #submit()}. The sprites are uploaded and drawn with the
+ * next flush of the batch, together with the other sprites of the same texture. The batch must not flush before the
+ * reservation is submitted, so don't draw with other textures or call end() in the meantime.
+ *
+ * <pre>
+ * SpriteReservation reservation = batch.reserve(texture, n);
+ * Array&lt;SpriteVertexWriter&gt; writers = reservation.split(8);
+ * // fill each writer on its own thread and join
+ * reservation.submit();
+ * </pre>
+ */
+public class SpriteReservation {
+    private static final int FLOATS_PER_SPRITE = 20;
+    private static final Comparator<SpriteVertexWriter> BY_OFFSET = new Comparator<SpriteVertexWriter>() {
+        @Override
+        public int compare(SpriteVertexWriter a, SpriteVertexWriter b) {
+            return Integer.compare(a.getFirstFloat(), b.getFirstFloat());
+        }
+    };
+
+    private final WgSpriteBatch batch;
+    private final FloatBuffer vertexFloats;
+    private final Array<SpriteVertexWriter> writers = new Array<>(); // handed out since reserve()
+    private final Array<SpriteVertexWriter> free = new Array<>();
+    private int firstFloat;
+    private int count;
+    private boolean open;
+
+    SpriteReservation(WgSpriteBatch batch, FloatBuffer vertexFloats) {
+        this.batch = batch;
+        this.vertexFloats = vertexFloats;
+    }
+
+    void begin(int firstFloat, int count) {
+        this.firstFloat = firstFloat;
+        this.count = count;
+        open = true;
+    }
+
+    /** Number of sprites reserved. */
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Get a writer for count sprites starting at sprite index first of this reservation. Ranges of different writers
+     * must not overlap. Call this on the render thread.
+     */
+    public SpriteVertexWriter getWriter(int first, int count) {
+        if (!open)
+            throw new IllegalStateException("SpriteReservation: reservation was already submitted");
+        if (first < 0 || count < 0 || first + count > this.count)
+            throw new IllegalArgumentException("SpriteReservation: sprites " + first + " to " + (first + count)
+                    + " are outside the reservation of " + this.count);
+        SpriteVertexWriter writer = free.size > 0 ? free.pop() : new SpriteVertexWriter(vertexFloats);
+        writer.set(firstFloat + first * FLOATS_PER_SPRITE, count);
+        writers.add(writer);
+        return writer;
+    }
+
+    /**
+     * Split the whole reservation into numWriters writers of (nearly) equal size. The returned array is reused by the
+     * next call.
+     */
+    public Array<SpriteVertexWriter> split(int numWriters) {
+        if (!writers.isEmpty())
+            throw new IllegalStateException("SpriteReservation: split() needs a reservation without writers");
+        numWriters = Math.max(1, Math.min(numWriters, count));
+        int first = 0;
+        for (int i = 0; i < numWriters; i++) {
+            int n = (count - first) / (numWriters - i);
+            getWriter(first, n);
+            first += n;
+        }
+        return writers;
+    }
+
+    /**
+     * Hand the sprites back to the batch. The writers must be finished. Sprites that were not written, by their writer
+     * or because no writer covers them, are drawn as empty quads. The writers cannot be used afterwards.
+     */
+    public void submit() {
+        if (!open)
+            throw new IllegalStateException("SpriteReservation: reservation was already submitted");
+        for (SpriteVertexWriter writer : writers)
+            writer.finish();
+        padUncovered();
+        free.addAll(writers);
+        writers.clear();
+        open = false;
+        batch.endReservation(this);
+    }
+
+    // fill the ranges between the writers with degenerate quads, so they don't show stale vertex data
+    private void padUncovered() {
+        writers.sort(BY_OFFSET);
+        int next = firstFloat;
+        for (SpriteVertexWriter writer : writers) {
+            if (writer.getCount() == 0)
+                continue;
+            if (writer.getFirstFloat() < next)
+                throw new IllegalStateException("SpriteReservation: the ranges of the writers overlap");
+            clear(next, writer.getFirstFloat());
+            next = writer.getFirstFloat() + writer.getCount() * FLOATS_PER_SPRITE;
+        }
+        clear(next, firstFloat + count * FLOATS_PER_SPRITE);
+    }
+
+    private void clear(int from, int to) {
+        for (int i = from; i < to; i++)
+            vertexFloats.put(i, 0);
+    }
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.graphics.g2d;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Writes sprites into a range of the vertex staging buffer of a {@link WgSpriteBatch}, see
+ * {@link SpriteReservation}. Writers of the same reservation cover disjoint ranges, so each writer can be filled on its
+ * own thread. A single writer is not thread-safe.
+ * <p>
+ * Sprites use the texture of the reservation and the default vertex layout: position, packed color, uv.
+ */
+public class SpriteVertexWriter {
+    private static final int FLOATS_PER_SPRITE = 20;
+
+    private final FloatBuffer floats; // own view on the staging buffer, with its own position
+    private final float[] vertices = new float[FLOATS_PER_SPRITE];
+    private int firstFloat;
+    private int count;
+    private int written;
+
+    SpriteVertexWriter(FloatBuffer vertexFloats) {
+        floats = vertexFloats.duplicate();
+    }
+
+    /** Aim the writer at count sprites from this float offset in the staging buffer. */
+    void set(int floatOffset, int count) {
+        firstFloat = floatOffset;
+        this.count = count;
+        written = 0;
+        floats.limit(floats.capacity());
+        floats.position(floatOffset);
+    }
+
+    /** Float offset of the first sprite in the staging buffer. */
+    int getFirstFloat() {
+        return firstFloat;
+    }
+
+    /** Number of sprites this writer covers. */
+    public int getCount() {
+        return count;
+    }
+
+    /** Number of sprites written so far. */
+    public int getWritten() {
+        return written;
+    }
+
+    /** Sprites that were not written are filled with degenerate quads, so they don't show stale vertex data. */
+    void finish() {
+        for (int i = 0; i < FLOATS_PER_SPRITE; i++)
+            vertices[i] = 0;
+        while (written < count)
+            put(vertices);
+    }
+
+    /** Axis-aligned sprite with texture coordinates (u, v) at the bottom left and (u2, v2) at the top right. */
+    public void draw(float x, float y, float width, float height, float u, float v, float u2, float v2,
+            float packedColor) {
+        final float[] vertices = this.vertices;
+        final float fx2 = x + width;
+        final float fy2 = y + height;
+        vertices[0] = x;
+        vertices[1] = y;
+        vertices[2] = packedColor;
+        vertices[3] = u;
+        vertices[4] = v;
+        vertices[5] = x;
+        vertices[6] = fy2;
+        vertices[7] = packedColor;
+        vertices[8] = u;
+        vertices[9] = v2;
+        vertices[10] = fx2;
+        vertices[11] = fy2;
+        vertices[12] = packedColor;
+        vertices[13] = u2;
+        vertices[14] = v2;
+        vertices[15] = fx2;
+        vertices[16] = y;
+        vertices[17] = packedColor;
+        vertices[18] = u2;
+        vertices[19] = v;
+        put(vertices);
+    }
+
+    public void draw(TextureRegion region, float x, float y, float width, float height, float packedColor) {
+        draw(x, y, width, height, region.getU(), region.getV2(), region.getU2(), region.getV(), packedColor);
+    }
+
+    /** Scaled and rotated sprite, same as {@link WgSpriteBatch#draw(TextureRegion, float, float, float, float, float,
+     * float, float, float, float)}. */
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+            float scaleX, float scaleY, float rotation, float packedColor) {
+        // bottom left and top right corner points relative to origin
+        final float worldOriginX = x + originX;
+        final float worldOriginY = y + originY;
+        float fx = -originX;
+        float fy = -originY;
+        float fx2 = width - originX;
+        float fy2 = height - originY;
+
+        // scale
+        if (scaleX != 1 || scaleY != 1) {
+            fx *= scaleX;
+            fy *= scaleY;
+            fx2 *= scaleX;
+            fy2 *= scaleY;
+        }
+
+        float x1, y1, x2, y2, x3, y3, x4, y4;
+        if (rotation != 0) {
+            final float cos = MathUtils.cosDeg(rotation);
+            final float sin = MathUtils.sinDeg(rotation);
+
+            x1 = cos * fx - sin * fy;
+            y1 = sin * fx + cos * fy;
+
+            x2 = cos * fx - sin * fy2;
+            y2 = sin * fx + cos * fy2;
+
+            x3 = cos * fx2 - sin * fy2;
+            y3 = sin * fx2 + cos * fy2;
+
+            x4 = x1 + (x3 - x2);
+            y4 = y3 - (y2 - y1);
+        } else {
+            x1 = fx;
+            y1 = fy;
+            x2 = fx;
+            y2 = fy2;
+            x3 = fx2;
+            y3 = fy2;
+            x4 = fx2;
+            y4 = fy;
+        }
+
+        final float u = region.getU();
+        final float v = region.getV2();
+        final float u2 = region.getU2();
+        final float v2 = region.getV();
+
+        final float[] vertices = this.vertices;
+        vertices[0] = x1 + worldOriginX;
+        vertices[1] = y1 + worldOriginY;
+        vertices[2] = packedColor;
+        vertices[3] = u;
+        vertices[4] = v;
+        vertices[5] = x2 + worldOriginX;
+        vertices[6] = y2 + worldOriginY;
+        vertices[7] = packedColor;
+        vertices[8] = u;
+        vertices[9] = v2;
+        vertices[10] = x3 + worldOriginX;
+        vertices[11] = y3 + worldOriginY;
+        vertices[12] = packedColor;
+        vertices[13] = u2;
+        vertices[14] = v2;
+        vertices[15] = x4 + worldOriginX;
+        vertices[16] = y4 + worldOriginY;
+        vertices[17] = packedColor;
+        vertices[18] = u2;
+        vertices[19] = v;
+        put(vertices);
+    }
+
+    /** Sprite vertices in the format of {@link com.badlogic.gdx.graphics.g2d.Sprite#getVertices()}, 20 floats from
+     * offset. */
+    public void draw(float[] spriteVertices, int offset) {
+        if (written == count)
+            throw new IllegalStateException("SpriteVertexWriter: all " + count + " sprites are written");
+        floats.put(spriteVertices, offset, FLOATS_PER_SPRITE);
+        written++;
+    }
+
+    private void put(float[] vertices) {
+        draw(vertices, 0);
+    }
+}
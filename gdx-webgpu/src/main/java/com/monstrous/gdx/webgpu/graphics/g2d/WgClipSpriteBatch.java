@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.graphics.g2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Rectangle;
+import com.monstrous.gdx.webgpu.application.WebGPUContext;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
+import com.monstrous.gdx.webgpu.graphics.WgShaderProgram;
+import com.monstrous.gdx.webgpu.wrappers.WebGPUVertexLayout;
+
+/**
+ * Sprite batch that clips each sprite in the fragment shader instead of with the render pass scissor.
+ * <p>
+ * With a regular {@link WgSpriteBatch}, every {@link #setScissorRect(int, int, int, int)} and every change of the
+ * context scissor (e.g. from libGDX's ScissorStack) needs a flush, because the scissor applies to a whole draw call.
+ * This batch writes the current clip rectangle into each vertex, so that sprites with different clip rectangles,
+ * including nested ones, end up in the same draw call. This suits UIs with scroll panes and clipped widgets.
+ * <p>
+ * Per-sprite clipping can be switched off with {@link #setPerSpriteClipping(boolean)} to compare with the hardware
+ * scissor path of {@link WgSpriteBatch}. Each vertex has four extra floats for the clip rectangle, so the vertex layout
+ * is not the default one. A specific shader needs to be compatible with "spritebatch.clip.wgsl".
+ */
+public class WgClipSpriteBatch extends WgSpriteBatch {
+    public static final String CLIP_RECT_ATTRIBUTE = "a_clipRect";
+    private static final float NO_CLIP = 1e7f;
+
+    private static String clipShader;
+
+    private final WebGPUContext webgpu;
+    private final int clipOffset; // in floats from the start of a vertex
+    private final int stride; // in floats
+    private boolean perSpriteClipping = true;
+    private boolean explicitClip; // clip rectangle was set with setScissorRect()
+    private final Rectangle explicitRect = new Rectangle();
+
+    public WgClipSpriteBatch() {
+        this(2000, null, 100);
+    }
+
+    public WgClipSpriteBatch(int maxSpritesPerFlush) {
+        this(maxSpritesPerFlush, null, 100);
+    }
+
+    /**
+     * Create a clipping SpriteBatch.
+     *
+     * @param maxSpritesPerFlush maximum number of sprites per flush, the batch flushes when this is reached
+     * @param specificShader specific ShaderProgram to use, must be compatible with "spritebatch.clip.wgsl". Leave null
+     *            to use the default shader.
+     * @param maxFlushes number of flushes (e.g. texture changes, blending changes) that fit in one uniform buffer
+     *            chunk. More chunks are allocated when needed.
+     */
+    public WgClipSpriteBatch(int maxSpritesPerFlush, WgShaderProgram specificShader, int maxFlushes) {
+        super(maxSpritesPerFlush, specificShader, maxFlushes);
+        webgpu = ((WgGraphics) Gdx.graphics).getContext();
+        clipOffset = vertexAttributes.findByUsage(VertexAttributes.Usage.Generic).offset / Float.BYTES;
+        stride = vertexAttributes.vertexSize / Float.BYTES;
+    }
+
+    /**
+     * Clip sprites in the shader (true, the default) or use the render pass scissor like {@link WgSpriteBatch}, which
+     * flushes on every scissor change. Cannot be changed between begin() and end().
+     */
+    public void setPerSpriteClipping(boolean perSpriteClipping) {
+        if (isDrawing())
+            throw new RuntimeException("Cannot change the clipping mode between begin() and end()");
+        this.perSpriteClipping = perSpriteClipping;
+    }
+
+    public boolean isPerSpriteClipping() {
+        return perSpriteClipping;
+    }
+
+    @Override
+    protected boolean clipsPerSprite() {
+        return perSpriteClipping;
+    }
+
+    @Override
+    protected void setVertexAttributes() {
+        vertexAttributes = new VertexAttributes(
+                new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE), // 2D position
+                VertexAttribute.ColorPacked(), VertexAttribute.TexCoords(0),
+                new VertexAttribute(VertexAttributes.Usage.Generic, 4, CLIP_RECT_ATTRIBUTE));
+    }
+
+    @Override
+    protected void setVertexAttributeLocations(WebGPUVertexLayout vertexLayout) {
+        super.setVertexAttributeLocations(vertexLayout);
+        vertexLayout.setVertexAttributeLocation(CLIP_RECT_ATTRIBUTE, 3);
+    }
+
+    @Override
+    public void begin(Color clearColor) {
+        super.begin(clearColor);
+        explicitClip = false;
+    }
+
+    /**
+     * Clip further sprites to this rectangle (top-left origin, in framebuffer pixels). With per-sprite clipping this
+     * does not flush.
+     */
+    @Override
+    public void setScissorRect(int x, int y, int width, int height) {
+        if (!perSpriteClipping) {
+            super.setScissorRect(x, y, width, height);
+            return;
+        }
+        explicitRect.set(x, y, width, height);
+        explicitClip = true;
+    }
+
+    /** Write the current clip rectangle into the vertex at this offset. */
+    private void putClipRect(int offset) {
+        Rectangle clip = null;
+        if (perSpriteClipping) { // otherwise the render pass scissor does the clipping
+            if (explicitClip)
+                clip = explicitRect;
+            else if (webgpu.isScissorEnabled())
+                clip = webgpu.getScissor();
+        }
+        if (clip == null) {
+            vertexFloats.put(offset, -NO_CLIP);
+            vertexFloats.put(offset + 1, -NO_CLIP);
+            vertexFloats.put(offset + 2, NO_CLIP);
+            vertexFloats.put(offset + 3, NO_CLIP);
+            return;
+        }
+        vertexFloats.put(offset, clip.x);
+        vertexFloats.put(offset + 1, clip.y);
+        vertexFloats.put(offset + 2, clip.x + clip.width);
+        vertexFloats.put(offset + 3, clip.y + clip.height);
+    }
+
+    @Override
+    protected void addVertex(float x, float y, float u, float v) {
+        putClipRect(vertexOffset + clipOffset);
+        // note: needs to be done after, because this advances vertexOffset
+        super.addVertex(x, y, u, v);
+    }
+
+    // used by Sprite class and BitmapFont, the vertices are in the default layout of 5 floats per vertex
+    @Override
+    public void draw(Texture texture, float[] spriteVertices, int offset, int numFloats) {
+        if (texture != lastTexture)
+            switchTexture(texture);
+
+        int end = offset + numFloats;
+        for (int i = offset; i < end; i += 20) {
+            check(); // flushes if the staging buffer is full
+            for (int j = i; j < i + 20; j += 5) {
+                vertexFloats.put(vertexOffset, spriteVertices[j]);
+                vertexFloats.put(vertexOffset + 1, spriteVertices[j + 1]);
+                vertexFloats.put(vertexOffset + 2, spriteVertices[j + 2]);
+                vertexFloats.put(vertexOffset + 3, spriteVertices[j + 3]);
+                vertexFloats.put(vertexOffset + 4, spriteVertices[j + 4]);
+                putClipRect(vertexOffset + clipOffset);
+                vertexOffset += stride;
+            }
+            numSpritesPerFlush++;
+        }
+    }
+
+    @Override
+    protected String getDefaultShaderSource() {
+        if (clipShader == null)
+            clipShader = Gdx.files.classpath("shaders/spritebatch.clip.wgsl").readString();
+        return clipShader;
+    }
+}
@@ -0,0 +1,749 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.graphics.g2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.*;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Null;
+import com.github.xpenatan.webgpu.*;
+import com.monstrous.gdx.webgpu.application.WebGPUContext;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
+import com.monstrous.gdx.webgpu.graphics.Binder;
+import com.monstrous.gdx.webgpu.graphics.WgShaderProgram;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.utils.BlendMapper;
+import com.monstrous.gdx.webgpu.wrappers.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Sprite batch that submits one instance record per sprite instead of four vertices.
+ * <p>
+ * A sprite is stored as a parallelogram: one corner, the two edge vectors from that corner, the texture coordinates of
+ * that corner and of the opposite corner, and a packed color. That is 11 floats (44 bytes) per sprite, compared to 4
+ * vertices of 5 floats (80 bytes) for {@link WgSpriteBatch}. The vertex shader expands the quad from the vertex index,
+ * so no index buffer is needed, and the instance records are uploaded with one bulk copy per flush.
+ * <p>
+ * Any rectangle, rotated or scaled sprite, affine transformed region and {@link com.badlogic.gdx.graphics.g2d.Sprite}
+ * can be expressed this way. For sprite vertices passed via {@link #draw(Texture, float[], int, int)} (e.g. Sprite and
+ * BitmapFont) the quad must be a parallelogram and the color of the first vertex is used for the whole sprite.
+ * <p>
+ * A specific shader needs to be compatible with "spritebatch.instanced.wgsl".
+ */
+public class WgInstancedSpriteBatch implements Batch {
+    /** floats per instance record: position (2), edge u (2), edge v (2), uv rectangle (4), packed color (1) */
+    public final static int FLOATS_PER_SPRITE = 11;
+    private final static int VERTS_PER_SPRITE = 6; // two triangles, expanded in the vertex shader
+    private final static int SHRINK_AFTER_FRAMES = 120; // release unused buffer chunks after this many frames
+
+    private final WebGPUContext webgpu;
+    private final WgShaderProgram specificShader;
+    private final int maxSpritesPerFlush;
+    private boolean drawing;
+    private final float[] instances; // staging array of instance records for the current flush
+    private final ByteBuffer instanceBB;
+    private final FloatBuffer instanceFloats;
+    private int numSpritesPerFlush;
+    private final Color tint;
+    private float tintPacked;
+    private final ChunkedBuffer<WebGPUVertexBuffer> instanceChunks;
+    private WebGPUVertexBuffer instanceBuffer; // current chunk
+    private final UniformChunks uniforms;
+    private final WebGPUBindGroupLayout bindGroupLayout;
+    private final VertexAttributes vertexAttributes;
+    private final WGPUPipelineLayout pipelineLayout;
+    private final PipelineSpecification pipelineSpec;
+    private final PipelineCache pipelines;
+    private final Binder binder;
+    private final Binder.Uniform projectionViewUniform;
+    private WgTexture lastTexture;
+    private float invTexWidth;
+    private float invTexHeight;
+    private final Matrix4 projectionMatrix;
+    private final Matrix4 transformMatrix;
+    private final Matrix4 combinedMatrix;
+    private final Matrix4 shiftDepthMatrix;
+    private WebGPURenderPass renderPass;
+    private int ibOffset;
+    private int frameNumber;
+    private static String defaultShader;
+
+    public int numSprites;
+    public int topSpritesPerBatch; // most nr of sprites in the batch over its lifetime
+    public int renderCalls;
+    public int pipelineCount;
+    public int flushCount; // number of flushes since the start of the frame
+    public final int maxFlushes; // flushes per uniform buffer chunk
+
+    private final Rectangle lastAppliedScissor = new Rectangle(-1, -1, -1, -1);
+    private boolean lastAppliedScissorEnabled = false;
+    private boolean explicitScissor = false;
+
+    public WgInstancedSpriteBatch() {
+        this(2000, null, 100);
+    }
+
+    public WgInstancedSpriteBatch(int maxSpritesPerFlush) {
+        this(maxSpritesPerFlush, null, 100);
+    }
+
+    /**
+     * Create an instanced SpriteBatch.
+     *
+     * @param maxSpritesPerFlush maximum number of sprites per flush, the batch flushes when this is reached
+     * @param specificShader specific ShaderProgram to use, must be compatible with "spritebatch.instanced.wgsl".
+     *            Leave null to use the default shader.
+     * @param maxFlushes number of flushes (e.g. texture changes, blending changes) that fit in one uniform buffer
+     *            chunk. More chunks are allocated when needed.
+     */
+    public WgInstancedSpriteBatch(int maxSpritesPerFlush, WgShaderProgram specificShader, int maxFlushes) {
+        webgpu = ((WgGraphics) Gdx.graphics).getContext();
+        this.maxSpritesPerFlush = maxSpritesPerFlush;
+        this.specificShader = specificShader;
+        this.maxFlushes = maxFlushes;
+
+        vertexAttributes = new VertexAttributes(
+                new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                new VertexAttribute(VertexAttributes.Usage.Generic, 2, "a_edgeU"),
+                new VertexAttribute(VertexAttributes.Usage.Generic, 2, "a_edgeV"),
+                new VertexAttribute(VertexAttributes.Usage.TextureCoordinates, 4,
+                        ShaderProgram.TEXCOORD_ATTRIBUTE + "0", 0), // u, v, u2, v2
+                VertexAttribute.ColorPacked());
+
+        instances = new float[maxSpritesPerFlush * FLOATS_PER_SPRITE];
+        instanceBB = BufferUtils.newUnsafeByteBuffer(instances.length * Float.BYTES);
+        instanceBB.order(ByteOrder.LITTLE_ENDIAN); // webgpu expects little endian
+        instanceFloats = instanceBB.asFloatBuffer();
+
+        // GPU storage grows in chunks on demand, each instance chunk can hold at least one full flush
+        final int instanceChunkSize = maxSpritesPerFlush * FLOATS_PER_SPRITE * Float.BYTES;
+        instanceChunks = new ChunkedBuffer<>(new ChunkedBuffer.ChunkFactory<WebGPUVertexBuffer>() {
+            @Override
+            public WebGPUVertexBuffer createChunk() {
+                return new WebGPUVertexBuffer(WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Vertex), instanceChunkSize);
+            }
+
+            @Override
+            public void releaseChunk(WebGPUVertexBuffer chunk) {
+            }
+        }, SHRINK_AFTER_FRAMES, webgpu.getFramesInFlight());
+        instanceBuffer = instanceChunks.current();
+
+        tint = new Color(Color.WHITE);
+        tintPacked = tint.toFloatBits();
+
+        int uniformBufferSize = 16 * Float.BYTES;
+        bindGroupLayout = new WebGPUBindGroupLayout("InstancedSpriteBatch bind group layout");
+        bindGroupLayout.begin();
+        bindGroupLayout.addBuffer(0, WGPUShaderStage.Vertex, WGPUBufferBindingType.Uniform, uniformBufferSize, true);
+        bindGroupLayout.addTexture(1, WGPUShaderStage.Fragment, WGPUTextureSampleType.Float,
+                WGPUTextureViewDimension._2D, false);
+        bindGroupLayout.addSampler(2, WGPUShaderStage.Fragment, WGPUSamplerBindingType.Filtering);
+        bindGroupLayout.end();
+
+        binder = new Binder();
+        binder.defineGroup(0, bindGroupLayout);
+        binder.defineBinding("uniforms", 0, 0);
+        binder.defineBinding("texture", 0, 1);
+        binder.defineBinding("textureSampler", 0, 2);
+        binder.defineUniform("projectionViewTransform", 0, 0, 0);
+        // uniform buffer with dynamic offset, so that every flush can have its own projection matrix
+        uniforms = new UniformChunks(binder, 0, "uniforms", uniformBufferSize, maxFlushes, SHRINK_AFTER_FRAMES,
+                webgpu.getFramesInFlight());
+        projectionViewUniform = binder.getUniform("projectionViewTransform");
+
+        pipelineLayout = binder.getPipelineLayout("InstancedSpriteBatch pipeline layout");
+
+        pipelines = new PipelineCache();
+        pipelineSpec = new PipelineSpecification("InstancedSpriteBatch pipeline", vertexAttributes, specificShader);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation(ShaderProgram.POSITION_ATTRIBUTE, 0);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation(ShaderProgram.TEXCOORD_ATTRIBUTE + "0", 1);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation("a_edgeU", 2);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation("a_edgeV", 3);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation(ShaderProgram.COLOR_ATTRIBUTE, 5);
+        pipelineSpec.vertexLayout.setStepMode(WGPUVertexStepMode.Instance); // advance once per sprite
+        pipelineSpec.topology = WGPUPrimitiveTopology.TriangleList;
+
+        pipelineSpec.enableBlending();
+        pipelineSpec.setBlendFactor(WGPUBlendFactor.SrcAlpha, WGPUBlendFactor.OneMinusSrcAlpha);
+        pipelineSpec.disableDepthTest();
+        pipelineSpec.numSamples = webgpu.getSamples();
+        if (specificShader == null)
+            pipelineSpec.shaderSource = getDefaultShaderSource();
+
+        projectionMatrix = new Matrix4();
+        transformMatrix = new Matrix4();
+        combinedMatrix = new Matrix4();
+        // matrix which will transform an opengl ortho matrix to a webgpu ortho matrix
+        // by scaling the Z range from [-1..1] to [0..1]
+        shiftDepthMatrix = new Matrix4().idt().scl(1, 1, -0.5f).trn(0, 0, 0.5f);
+        projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), 0, 100);
+
+        drawing = false;
+        frameNumber = -1;
+    }
+
+    @Override
+    public void begin() {
+        begin(null);
+    }
+
+    public void begin(Color clearColor) {
+        if (drawing)
+            throw new RuntimeException("Must end() before begin()");
+        drawing = true;
+
+        renderPass = RenderPassBuilder.create("InstancedSpriteBatch", clearColor, webgpu.getSamples());
+        setPipeline(renderPass);
+
+        // First begin() call in this render frame?
+        if (webgpu.frameNumber != this.frameNumber) {
+            this.frameNumber = webgpu.frameNumber;
+
+            Rectangle view = webgpu.getViewportRectangle();
+            renderPass.setViewport(view.x, view.y, view.width, view.height, 0, 1);
+
+            // the instance buffer and uniform slices are shared by all begin/end pairs of a frame
+            instanceChunks.beginFrame(frameNumber);
+            uniforms.beginFrame(frameNumber);
+            instanceBuffer = instanceChunks.current();
+            numSpritesPerFlush = 0;
+            ibOffset = 0;
+            topSpritesPerBatch = 0;
+            flushCount = 0;
+            numSprites = 0;
+        }
+        renderCalls = 0;
+
+        lastAppliedScissor.set(-1, -1, -1, -1);
+        lastAppliedScissorEnabled = false;
+        explicitScissor = false;
+
+        setColor(Color.WHITE);
+    }
+
+    @Override
+    public void end() {
+        if (!drawing) // catch incorrect usage
+            throw new RuntimeException("Cannot end() without begin()");
+
+        flush();
+        uniforms.endSlices();
+        renderPass.end();
+        renderPass = null;
+        pipelineCount = pipelines.size(); // statistics
+        drawing = false;
+    }
+
+    @Override
+    public void flush() {
+        if (!drawing || numSpritesPerFlush == 0)
+            return;
+        if (numSpritesPerFlush > topSpritesPerBatch) // keep statistics
+            topSpritesPerBatch = numSpritesPerFlush;
+        renderCalls++;
+
+        if (!explicitScissor)
+            applyContextScissor();
+
+        int dynamicOffset = uniforms.nextSlice();
+        combinedMatrix.set(shiftDepthMatrix).mul(projectionMatrix).mul(transformMatrix);
+        projectionViewUniform.set(combinedMatrix);
+        renderPass.setBindGroup(0, binder.getBindGroup(0).getBindGroup(), dynamicOffset);
+
+        // one bulk copy of the instance records of this flush
+        int numFloats = numSpritesPerFlush * FLOATS_PER_SPRITE;
+        instanceFloats.clear();
+        instanceFloats.put(instances, 0, numFloats);
+        int numBytes = numFloats * Float.BYTES;
+        if (ibOffset + numBytes > instanceBuffer.getSize()) { // instance chunk is full, continue in the next one
+            instanceBuffer = instanceChunks.next();
+            ibOffset = 0;
+        }
+        instanceBuffer.setVertices(instanceBB, ibOffset, numBytes);
+
+        renderPass.setVertexBuffer(0, instanceBuffer.getBuffer(), ibOffset, numBytes);
+        renderPass.draw(VERTS_PER_SPRITE, numSpritesPerFlush, 0, 0);
+
+        ibOffset += numBytes;
+        numSprites += numSpritesPerFlush;
+        numSpritesPerFlush = 0;
+        flushCount++;
+    }
+
+    private void switchTexture(Texture texture) {
+        flush();
+        if (!(texture instanceof WgTexture))
+            throw new IllegalArgumentException("texture must be WebGPUTexture");
+        lastTexture = (WgTexture) texture;
+        invTexWidth = 1.0f / texture.getWidth();
+        invTexHeight = 1.0f / texture.getHeight();
+
+        uniforms.getBindGroupCache().track(lastTexture); // evict the cached bind groups when the texture is disposed
+        binder.setTexture("texture", lastTexture.getTextureView());
+        binder.setSampler("textureSampler", lastTexture.getSampler());
+    }
+
+    private void check() {
+        if (!drawing)
+            throw new RuntimeException("SpriteBatch: Must call begin() before draw().");
+        if (numSpritesPerFlush == maxSpritesPerFlush) // staging array is full
+            flush();
+    }
+
+    /**
+     * Add one instance record. The corner (x, y) has texture coordinates (u, v), moving along edge (eux, euy) takes u to
+     * u2 and moving along edge (evx, evy) takes v to v2.
+     */
+    private void addSprite(float x, float y, float eux, float euy, float evx, float evy, float u, float v, float u2,
+            float v2, float color) {
+        final float[] instances = this.instances;
+        int i = numSpritesPerFlush * FLOATS_PER_SPRITE;
+        instances[i] = x;
+        instances[i + 1] = y;
+        instances[i + 2] = eux;
+        instances[i + 3] = euy;
+        instances[i + 4] = evx;
+        instances[i + 5] = evy;
+        instances[i + 6] = u;
+        instances[i + 7] = v;
+        instances[i + 8] = u2;
+        instances[i + 9] = v2;
+        instances[i + 10] = color;
+        numSpritesPerFlush++;
+    }
+
+    /** Add a scaled and rotated rectangle. If swapUV is set, u varies along the height and v along the width. */
+    private void addTransformed(float x, float y, float originX, float originY, float width, float height,
+            float scaleX, float scaleY, float rotation, float u, float v, float u2, float v2, boolean swapUV) {
+        // bottom left corner and edge lengths relative to origin
+        float fx = -originX * scaleX;
+        float fy = -originY * scaleY;
+        float w = width * scaleX;
+        float h = height * scaleY;
+
+        float cx, cy, wx, wy, hx, hy;
+        if (rotation != 0) {
+            final float cos = MathUtils.cosDeg(rotation);
+            final float sin = MathUtils.sinDeg(rotation);
+            cx = cos * fx - sin * fy;
+            cy = sin * fx + cos * fy;
+            wx = cos * w;
+            wy = sin * w;
+            hx = -sin * h;
+            hy = cos * h;
+        } else {
+            cx = fx;
+            cy = fy;
+            wx = w;
+            wy = 0;
+            hx = 0;
+            hy = h;
+        }
+        cx += x + originX;
+        cy += y + originY;
+        if (swapUV)
+            addSprite(cx, cy, hx, hy, wx, wy, u, v, u2, v2, tintPacked);
+        else
+            addSprite(cx, cy, wx, wy, hx, hy, u, v, u2, v2, tintPacked);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height,
+            float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight, boolean flipX,
+            boolean flipY) {
+        if (texture != lastTexture)
+            switchTexture(texture);
+        check();
+
+        float u = srcX * invTexWidth;
+        float v = (srcY + srcHeight) * invTexHeight;
+        float u2 = (srcX + srcWidth) * invTexWidth;
+        float v2 = srcY * invTexHeight;
+        if (flipX) {
+            float tmp = u;
+            u = u2;
+            u2 = tmp;
+        }
+        if (flipY) {
+            float tmp = v;
+            v = v2;
+            v2 = tmp;
+        }
+        addTransformed(x, y, originX, originY, width, height, scaleX, scaleY, rotation, u, v, u2, v2, false);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+            int srcHeight, boolean flipX, boolean flipY) {
+        if (texture != lastTexture)
+            switchTexture(texture);
+        check();
+
+        float u = srcX * invTexWidth;
+        float v = (srcY + srcHeight) * invTexHeight;
+        float u2 = (srcX + srcWidth) * invTexWidth;
+        float v2 = srcY * invTexHeight;
+        if (flipX) {
+            float tmp = u;
+            u = u2;
+            u2 = tmp;
+        }
+        if (flipY) {
+            float tmp = v;
+            v = v2;
+            v2 = tmp;
+        }
+        addSprite(x, y, width, 0, 0, height, u, v, u2, v2, tintPacked);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+        if (texture != lastTexture)
+            switchTexture(texture);
+        check();
+
+        final float u = srcX * invTexWidth;
+        final float v = (srcY + srcHeight) * invTexHeight;
+        final float u2 = (srcX + srcWidth) * invTexWidth;
+        final float v2 = srcY * invTexHeight;
+        addSprite(x, y, srcWidth, 0, 0, srcHeight, u, v, u2, v2, tintPacked);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, float u, float v, float u2,
+            float v2) {
+        if (texture != lastTexture)
+            switchTexture(texture);
+        check();
+        addSprite(x, y, width, 0, 0, height, u, v, u2, v2, tintPacked);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y) {
+        draw(texture, x, y, texture.getWidth(), texture.getHeight());
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height) {
+        draw(texture, x, y, width, height, 0f, 1f, 1f, 0f);
+    }
+
+    /**
+     * Draw sprites given as 4 vertices of 5 floats each (x, y, packed color, u, v), as used by Sprite and BitmapFont.
+     * Each quad is converted to an instance record, which assumes it is a parallelogram with a uniform color.
+     */
+    @Override
+    public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+        if (texture != lastTexture)
+            switchTexture(texture);
+        int numQuads = count / 20;
+        for (int q = 0; q < numQuads; q++, offset += 20) {
+            check();
+            // vertices 1, 2 and 4 of the quad
+            float x1 = spriteVertices[offset];
+            float y1 = spriteVertices[offset + 1];
+            float color = spriteVertices[offset + 2];
+            float u1 = spriteVertices[offset + 3];
+            float v1 = spriteVertices[offset + 4];
+            float x2 = spriteVertices[offset + 5];
+            float y2 = spriteVertices[offset + 6];
+            float u2 = spriteVertices[offset + 8];
+            float v2 = spriteVertices[offset + 9];
+            float x4 = spriteVertices[offset + 15];
+            float y4 = spriteVertices[offset + 16];
+            float u4 = spriteVertices[offset + 18];
+            float v4 = spriteVertices[offset + 19];
+
+            if (u1 == u2) // u varies along edge 1-4, v along edge 1-2 (the usual case)
+                addSprite(x1, y1, x4 - x1, y4 - y1, x2 - x1, y2 - y1, u1, v1, u4, v2, color);
+            else // rotated texture region: u varies along edge 1-2, v along edge 1-4
+                addSprite(x1, y1, x2 - x1, y2 - y1, x4 - x1, y4 - y1, u1, v1, u2, v4, color);
+        }
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y) {
+        draw(region, x, y, region.getRegionWidth(), region.getRegionHeight());
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float width, float height) {
+        if (region.getTexture() != lastTexture)
+            switchTexture(region.getTexture());
+        check();
+        addSprite(x, y, width, 0, 0, height, region.getU(), region.getV2(), region.getU2(), region.getV(), tintPacked);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+            float scaleX, float scaleY, float rotation) {
+        if (region.getTexture() != lastTexture)
+            switchTexture(region.getTexture());
+        check();
+        addTransformed(x, y, originX, originY, width, height, scaleX, scaleY, rotation, region.getU(), region.getV2(),
+                region.getU2(), region.getV(), false);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+            float scaleX, float scaleY, float rotation, boolean clockwise) {
+        if (region.getTexture() != lastTexture)
+            switchTexture(region.getTexture());
+        check();
+        // the texture is rotated by 90 degrees relative to the quad
+        if (clockwise)
+            addTransformed(x, y, originX, originY, width, height, scaleX, scaleY, rotation, region.getU2(),
+                    region.getV2(), region.getU(), region.getV(), true);
+        else
+            addTransformed(x, y, originX, originY, width, height, scaleX, scaleY, rotation, region.getU(),
+                    region.getV(), region.getU2(), region.getV2(), true);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float width, float height, Affine2 transform) {
+        if (region.getTexture() != lastTexture)
+            switchTexture(region.getTexture());
+        check();
+        addSprite(transform.m02, transform.m12, transform.m00 * width, transform.m10 * width, transform.m01 * height,
+                transform.m11 * height, region.getU(), region.getV2(), region.getU2(), region.getV(), tintPacked);
+    }
+
+    /**
+     * Synchronize the active render pass scissor with the WebGPU context's scissor state, as set via
+     * {@code Gdx.gl.glScissor} + {@code glEnable(GL_SCISSOR_TEST)}.
+     */
+    private void applyContextScissor() {
+        boolean enabled = webgpu.isScissorEnabled();
+        Rectangle target = enabled ? webgpu.getScissor() : webgpu.getViewportRectangle();
+        if (enabled == lastAppliedScissorEnabled && target.equals(lastAppliedScissor))
+            return;
+        renderPass.setScissorRect((int) target.x, (int) target.y, (int) target.width, (int) target.height);
+        lastAppliedScissor.set(target);
+        lastAppliedScissorEnabled = enabled;
+    }
+
+    /**
+     * Apply a scissor rectangle for further sprites (top-left origin, in framebuffer pixels). Flushes any pending
+     * sprites first so they keep the previous scissor.
+     */
+    public void setScissorRect(int x, int y, int width, int height) {
+        if (drawing) {
+            flush();
+            renderPass.setScissorRect(x, y, width, height);
+        }
+        lastAppliedScissor.set(x, y, width, height);
+        lastAppliedScissorEnabled = true;
+        explicitScissor = true;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        tint.set(color);
+        tintPacked = tint.toFloatBits();
+    }
+
+    @Override
+    public void setColor(float r, float g, float b, float a) {
+        tint.set(r, g, b, a);
+        tintPacked = tint.toFloatBits();
+    }
+
+    /** If the returned color is modified, {@link #setColor(Color)} must be called for the change to take effect. */
+    @Override
+    public Color getColor() {
+        return tint;
+    }
+
+    @Override
+    public void setPackedColor(float packedColor) {
+        Color.abgr8888ToColor(tint, packedColor);
+        this.tintPacked = packedColor;
+    }
+
+    @Override
+    public float getPackedColor() {
+        return tintPacked;
+    }
+
+    @Override
+    public void disableBlending() {
+        if (!pipelineSpec.isBlendingEnabled())
+            return;
+        flush();
+        pipelineSpec.disableBlending();
+        if (drawing)
+            setPipeline(renderPass);
+    }
+
+    @Override
+    public void enableBlending() {
+        if (pipelineSpec.isBlendingEnabled())
+            return;
+        flush();
+        pipelineSpec.enableBlending();
+        if (drawing)
+            setPipeline(renderPass);
+    }
+
+    @Override
+    public void setBlendFunction(int srcFunc, int dstFunc) {
+        setBlendFunctionSeparate(srcFunc, dstFunc, srcFunc, dstFunc);
+    }
+
+    @Override
+    public void setBlendFunctionSeparate(int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {
+        setBlendFactorSeparate(BlendMapper.blendFactor(srcFuncColor), BlendMapper.blendFactor(dstFuncColor),
+                BlendMapper.blendFactor(srcFuncAlpha), BlendMapper.blendFactor(dstFuncAlpha));
+    }
+
+    public void setBlendFactorSeparate(WGPUBlendFactor srcFuncColor, WGPUBlendFactor dstFuncColor,
+            WGPUBlendFactor srcFuncAlpha, WGPUBlendFactor dstFuncAlpha) {
+        if (pipelineSpec.getBlendSrcFactor() == srcFuncColor && pipelineSpec.getBlendDstFactor() == dstFuncColor
+                && pipelineSpec.getBlendSrcFactorAlpha() == srcFuncAlpha
+                && pipelineSpec.getBlendDstFactorAlpha() == dstFuncAlpha)
+            return;
+
+        flush();
+        pipelineSpec.setBlendFactorSeparate(srcFuncColor, dstFuncColor, srcFuncAlpha, dstFuncAlpha);
+        if (drawing)
+            setPipeline(renderPass);
+    }
+
+    @Override
+    public int getBlendSrcFunc() {
+        return BlendMapper.blendFunction(pipelineSpec.getBlendSrcFactor());
+    }
+
+    @Override
+    public int getBlendDstFunc() {
+        return BlendMapper.blendFunction(pipelineSpec.getBlendDstFactor());
+    }
+
+    @Override
+    public int getBlendSrcFuncAlpha() {
+        return BlendMapper.blendFunction(pipelineSpec.getBlendSrcFactorAlpha());
+    }
+
+    @Override
+    public int getBlendDstFuncAlpha() {
+        return BlendMapper.blendFunction(pipelineSpec.getBlendDstFactorAlpha());
+    }
+
+    @Override
+    public boolean isBlendingEnabled() {
+        return pipelineSpec.isBlendingEnabled();
+    }
+
+    @Override
+    public boolean isDrawing() {
+        return drawing;
+    }
+
+    // create or reuse pipeline on demand to match the pipeline spec
+    private void setPipeline(WebGPURenderPass pass) {
+        pipelineSpec.setRenderTarget(pass);
+        pass.setPipeline(pipelines.findPipeline(pipelineLayout, pipelineSpec));
+    }
+
+    /**
+     * Set shader to use instead of the default shader or the shader provided in the constructor. Use null to reset to
+     * default shader
+     */
+    public void setShader(@Null WgShaderProgram shaderProgram) {
+        if (pipelineSpec.shader == shaderProgram)
+            return;
+        if (drawing)
+            flush();
+        if (shaderProgram == null) {
+            pipelineSpec.shader = specificShader;
+            if (specificShader == null)
+                pipelineSpec.shaderSource = getDefaultShaderSource();
+        } else {
+            pipelineSpec.shader = shaderProgram;
+            pipelineSpec.shaderSource = "precompiled";
+        }
+        pipelineSpec.invalidateHashCode();
+        if (drawing)
+            setPipeline(renderPass);
+    }
+
+    @Override
+    public void setShader(ShaderProgram shader) {
+        throw new IllegalStateException("not implemented, provide WgShaderProgram");
+    }
+
+    @Override
+    public ShaderProgram getShader() {
+        return null;
+    }
+
+    @Override
+    public Matrix4 getProjectionMatrix() {
+        return projectionMatrix;
+    }
+
+    @Override
+    public Matrix4 getTransformMatrix() {
+        return transformMatrix;
+    }
+
+    /** Set projection matrix. Expects an OpenGL standard projection matrix, i.e. mapping Z to [-1 .. 1] */
+    @Override
+    public void setProjectionMatrix(Matrix4 projection) {
+        if (drawing)
+            flush();
+        projectionMatrix.set(projection);
+    }
+
+    @Override
+    public void setTransformMatrix(Matrix4 transform) {
+        if (drawing)
+            flush();
+        transformMatrix.set(transform);
+    }
+
+    public KeyedBindGroupCache getBindGroupCache() {
+        return uniforms.getBindGroupCache();
+    }
+
+    protected String getDefaultShaderSource() {
+        if (defaultShader == null)
+            defaultShader = Gdx.files.classpath("shaders/spritebatch.instanced.wgsl").readString();
+        return defaultShader;
+    }
+
+    @Override
+    public void dispose() {
+        binder.dispose();
+        uniforms.dispose();
+        pipelines.dispose();
+        instanceChunks.dispose();
+        bindGroupLayout.dispose();
+        BufferUtils.disposeUnsafeByteBuffer(instanceBB);
+    }
+}
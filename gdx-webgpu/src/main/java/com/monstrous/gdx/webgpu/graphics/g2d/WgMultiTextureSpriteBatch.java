@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.graphics.g2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.github.xpenatan.webgpu.*;
+import com.monstrous.gdx.webgpu.graphics.Binder;
+import com.monstrous.gdx.webgpu.graphics.WgShaderProgram;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.wrappers.WebGPUBindGroupLayout;
+import com.monstrous.gdx.webgpu.wrappers.WebGPUVertexLayout;
+
+/**
+ * Sprite batch that binds several textures at the same time.
+ * <p>
+ * A regular {@link WgSpriteBatch} has to flush whenever the texture changes. This batch keeps up to
+ * {@link #getTextureSlots()} textures bound and writes the slot index of the texture into each vertex, so that sprites
+ * from different textures end up in the same draw call. It only flushes when a texture is needed while all slots are
+ * taken. This suits scenes that interleave draws from a few texture atlases, e.g. a scene2d stage.
+ * <p>
+ * Each vertex has one extra float for the texture index, so the vertex layout is not the default one. A specific shader
+ * needs to be compatible with "spritebatch.multitexture.wgsl".
+ */
+public class WgMultiTextureSpriteBatch extends WgSpriteBatch {
+    public static final String TEXTURE_INDEX_ATTRIBUTE = "a_textureIndex";
+
+    private static String shaderTemplate;
+
+    private WgTexture[] slots;
+    private String[] textureNames;
+    private String[] samplerNames;
+    private int numSlotsUsed;
+    private float textureIndex;
+    private int textureIndexOffset; // in floats from the start of a vertex
+    private int stride; // in floats
+
+    /** number of flushes since begin() because all texture slots were in use */
+    public int slotFlushes;
+
+    public WgMultiTextureSpriteBatch() {
+        this(2000, null, 100);
+    }
+
+    public WgMultiTextureSpriteBatch(int maxSpritesPerFlush) {
+        this(maxSpritesPerFlush, null, 100);
+    }
+
+    /**
+     * Create a multi-texture SpriteBatch.
+     *
+     * @param maxSpritesPerFlush maximum number of sprites per flush, the batch flushes when this is reached
+     * @param specificShader specific ShaderProgram to use, must be compatible with "spritebatch.multitexture.wgsl".
+     *            Leave null to use the default shader.
+     * @param maxFlushes number of flushes (e.g. blending changes, or more textures than texture slots) that fit in one
+     *            uniform buffer chunk. More chunks are allocated when needed.
+     */
+    public WgMultiTextureSpriteBatch(int maxSpritesPerFlush, WgShaderProgram specificShader, int maxFlushes) {
+        super(maxSpritesPerFlush, specificShader, maxFlushes);
+
+        int numSlots = getTextureSlots();
+        slots = new WgTexture[numSlots];
+        textureNames = new String[numSlots];
+        samplerNames = new String[numSlots];
+        for (int i = 0; i < numSlots; i++) {
+            textureNames[i] = getTextureName(i);
+            samplerNames[i] = getSamplerName(i);
+        }
+        textureIndexOffset = vertexAttributes.findByUsage(VertexAttributes.Usage.Generic).offset / Float.BYTES;
+        stride = vertexAttributes.vertexSize / Float.BYTES;
+    }
+
+    /**
+     * Number of textures that can be bound at the same time. Each slot uses a texture and a sampler binding, the default
+     * of 8 stays well within the WebGPU limit of 16 sampled textures and 16 samplers per shader stage.
+     * <p>
+     * Override to use a different number. This is called from the constructor, so it should return a constant.
+     */
+    protected int getTextureSlots() {
+        return 8;
+    }
+
+    @Override
+    protected void setVertexAttributes() {
+        vertexAttributes = new VertexAttributes(
+                new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE), // 2D position
+                VertexAttribute.ColorPacked(), VertexAttribute.TexCoords(0),
+                new VertexAttribute(VertexAttributes.Usage.Generic, 1, TEXTURE_INDEX_ATTRIBUTE));
+    }
+
+    @Override
+    protected void setVertexAttributeLocations(WebGPUVertexLayout vertexLayout) {
+        super.setVertexAttributeLocations(vertexLayout);
+        vertexLayout.setVertexAttributeLocation(TEXTURE_INDEX_ATTRIBUTE, 2);
+    }
+
+    /** Slot 0 uses the default bindings 1 and 2, slot i uses binding 2i+1 for the texture and 2i+2 for the sampler. */
+    @Override
+    protected void defineBindGroup0Layout(WebGPUBindGroupLayout layout) {
+        super.defineBindGroup0Layout(layout);
+        for (int i = 1; i < getTextureSlots(); i++) {
+            layout.addTexture(2 * i + 1, WGPUShaderStage.Fragment, WGPUTextureSampleType.Float,
+                    WGPUTextureViewDimension._2D, false);
+            layout.addSampler(2 * i + 2, WGPUShaderStage.Fragment, WGPUSamplerBindingType.Filtering);
+        }
+    }
+
+    @Override
+    protected void defineBindings(Binder binder) {
+        super.defineBindings(binder);
+        for (int i = 1; i < getTextureSlots(); i++) {
+            binder.defineBinding(getTextureName(i), 0, 2 * i + 1);
+            binder.defineBinding(getSamplerName(i), 0, 2 * i + 2);
+        }
+    }
+
+    private static String getTextureName(int slot) {
+        return slot == 0 ? "texture" : "texture" + slot;
+    }
+
+    private static String getSamplerName(int slot) {
+        return slot == 0 ? "textureSampler" : "textureSampler" + slot;
+    }
+
+    @Override
+    public void begin(Color clearColor) {
+        super.begin(clearColor);
+        // start with empty slots, so that a texture disposed since the previous begin() is no longer bound
+        numSlotsUsed = 0;
+        setLastTexture(null);
+        slotFlushes = 0;
+    }
+
+    /** Select the slot for this texture, binding it to a free slot if needed. Only flushes if all slots are taken. */
+    @Override
+    protected void switchTexture(Texture texture) {
+        if (!(texture instanceof WgTexture))
+            throw new IllegalArgumentException("texture must be WebGPUTexture");
+        WgTexture wgTexture = (WgTexture) texture;
+
+        int slot = -1;
+        for (int i = 0; i < numSlotsUsed; i++) {
+            if (slots[i] == wgTexture) {
+                slot = i;
+                break;
+            }
+        }
+        if (slot < 0) {
+            if (numSlotsUsed == slots.length) {
+                // all slots are taken by textures used by the pending sprites
+                flush();
+                slotFlushes++;
+                numSlotsUsed = 0;
+            }
+            slot = numSlotsUsed++;
+            getBindGroupCache().track(wgTexture); // evict the cached bind groups when the texture is disposed
+            if (slot == 0) {
+                // every slot needs a valid texture, fill the unused ones with the first texture
+                for (int i = 0; i < slots.length; i++)
+                    bindSlot(i, wgTexture);
+            } else
+                bindSlot(slot, wgTexture);
+        }
+        textureIndex = slot;
+        setLastTexture(wgTexture);
+    }
+
+    private void bindSlot(int slot, WgTexture texture) {
+        slots[slot] = texture;
+        binder.setTexture(textureNames[slot], texture.getTextureView());
+        binder.setSampler(samplerNames[slot], texture.getSampler());
+    }
+
+    @Override
+    protected void addVertex(float x, float y, float u, float v) {
+        vertexFloats.put(vertexOffset + textureIndexOffset, textureIndex);
+        // note: needs to be done after, because this advances vertexOffset
+        super.addVertex(x, y, u, v);
+    }
+
+    // used by Sprite class and BitmapFont, the vertices are in the default layout of 5 floats per vertex
+    @Override
+    public void draw(Texture texture, float[] spriteVertices, int offset, int numFloats) {
+        if (texture != lastTexture)
+            switchTexture(texture);
+
+        int end = offset + numFloats;
+        for (int i = offset; i < end; i += 20) {
+            check(); // flushes if the staging buffer is full
+            for (int j = i; j < i + 20; j += 5) {
+                vertexFloats.put(vertexOffset, spriteVertices[j]);
+                vertexFloats.put(vertexOffset + 1, spriteVertices[j + 1]);
+                vertexFloats.put(vertexOffset + 2, spriteVertices[j + 2]);
+                vertexFloats.put(vertexOffset + 3, spriteVertices[j + 3]);
+                vertexFloats.put(vertexOffset + 4, spriteVertices[j + 4]);
+                vertexFloats.put(vertexOffset + textureIndexOffset, textureIndex);
+                vertexOffset += stride;
+            }
+            numSpritesPerFlush++;
+        }
+    }
+
+    @Override
+    protected String getDefaultShaderSource() {
+        if (shaderTemplate == null)
+            shaderTemplate = Gdx.files.classpath("shaders/spritebatch.multitexture.wgsl").readString();
+
+        StringBuilder textures = new StringBuilder();
+        StringBuilder cases = new StringBuilder();
+        for (int i = 0; i < getTextureSlots(); i++) {
+            String texture = getTextureName(i);
+            String sampler = getSamplerName(i);
+            textures.append("@group(0) @binding(").append(2 * i + 1).append(") var ").append(texture)
+                    .append(": texture_2d<f32>;\n");
+            textures.append("@group(0) @binding(").append(2 * i + 2).append(") var ").append(sampler)
+                    .append(": sampler;\n");
+            if (i > 0) // slot 0 is the default case
+                cases.append("        case ").append(i).append("u: {\n            color = textureSampleGrad(")
+                        .append(texture).append(", ").append(sampler).append(", uv, ddx, ddy);\n        }\n");
+        }
+        return shaderTemplate.replace("// @textures", textures.toString()).replace("// @cases", cases.toString());
+    }
+}
@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.graphics.g2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PolygonBatch;
+import com.badlogic.gdx.graphics.g2d.PolygonRegion;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.github.xpenatan.webgpu.WGPUBufferUsage;
+import com.github.xpenatan.webgpu.WGPUIndexFormat;
+import com.monstrous.gdx.webgpu.application.WebGPUContext;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
+import com.monstrous.gdx.webgpu.graphics.WgShaderProgram;
+import com.monstrous.gdx.webgpu.wrappers.ChunkedBuffer;
+import com.monstrous.gdx.webgpu.wrappers.WebGPUIndexBuffer;
+import com.monstrous.gdx.webgpu.wrappers.WebGPURenderPass;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * WebGPU version of libGDX's PolygonSpriteBatch. Draws {@link PolygonRegion}s and arbitrary triangle meshes next to
+ * regular sprites, so that irregular sprites can be tightly fitted instead of drawn as quads.
+ * <p>
+ * Uses the pipelines, uniform slices and texture switching of {@link WgSpriteBatch}. The indices are not static: they
+ * are staged per flush, like the vertices, and appended to GPU index buffer chunks that are rewound every frame.
+ * Quads drawn with the regular draw methods get their indices when the next polygon is drawn or at the flush.
+ * <p>
+ * Capacity is counted in sprites of 4 vertices and 6 indices. A polygon takes as many sprites as needed for both its
+ * vertices and its indices. Only the default vertex layout is supported.
+ */
+public class WgPolygonSpriteBatch extends WgSpriteBatch implements PolygonBatch {
+    private static final int VERTEX_SIZE = 5; // floats per vertex: x, y, color, u, v
+    private static final int SHRINK_AFTER_FRAMES = 120; // release unused index chunks after this many frames
+
+    private final WebGPUContext webgpu;
+    private final boolean wideIndices;
+    private final ByteBuffer indexBB;
+    private final ShortBuffer indexShorts;
+    private final IntBuffer indexInts;
+    private int numIndices; // staged for the current flush
+    private int indexedVertices; // vertices of the current flush that have indices
+    private final ChunkedBuffer<WebGPUIndexBuffer> indexChunks;
+    private WebGPUIndexBuffer indexChunk; // current chunk
+    private int ibOffset; // in bytes
+    private int frameNumber = -1;
+
+    public WgPolygonSpriteBatch() {
+        this(2000, null, 100);
+    }
+
+    public WgPolygonSpriteBatch(int maxSpritesPerFlush) {
+        this(maxSpritesPerFlush, null, 100);
+    }
+
+    /**
+     * Create a PolygonSpriteBatch.
+     *
+     * @param maxSpritesPerFlush capacity per flush in sprites, i.e. 4 vertices and 6 indices each. The batch flushes
+     *            when this is reached.
+     * @param specificShader specific ShaderProgram to use, must be compatible with "spritebatch.wgsl". Leave null to
+     *            use the default shader.
+     * @param maxFlushes number of flushes (e.g. texture changes, blending changes) that fit in one uniform buffer
+     *            chunk. More chunks are allocated when needed.
+     */
+    public WgPolygonSpriteBatch(int maxSpritesPerFlush, WgShaderProgram specificShader, int maxFlushes) {
+        super(maxSpritesPerFlush, specificShader, maxFlushes);
+        if (vertexAttributes.vertexSize != VERTEX_SIZE * Float.BYTES)
+            throw new RuntimeException("WgPolygonSpriteBatch only supports the default vertex layout.");
+        webgpu = ((WgGraphics) Gdx.graphics).getContext();
+
+        int maxIndices = maxSpritesPerFlush * 6;
+        wideIndices = maxSpritesPerFlush * 4 > 65536;
+        final int indexSize = wideIndices ? Integer.BYTES : Short.BYTES;
+        // round up to a multiple of 4 bytes for writeBuffer
+        final int chunkSize = (maxIndices * indexSize + 3) & ~3;
+        indexBB = BufferUtils.newUnsafeByteBuffer(chunkSize);
+        indexBB.order(ByteOrder.LITTLE_ENDIAN); // webgpu expects little endian
+        indexShorts = indexBB.asShortBuffer();
+        indexInts = indexBB.asIntBuffer();
+
+        // Index buffer chunks, each chunk can hold at least one full flush.
+        indexChunks = new ChunkedBuffer<>(new ChunkedBuffer.ChunkFactory<WebGPUIndexBuffer>() {
+            @Override
+            public WebGPUIndexBuffer createChunk() {
+                return new WebGPUIndexBuffer(WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Index), chunkSize, indexSize);
+            }
+
+            @Override
+            public void releaseChunk(WebGPUIndexBuffer chunk) {
+            }
+        }, SHRINK_AFTER_FRAMES, webgpu.getFramesInFlight());
+        indexChunk = indexChunks.current();
+    }
+
+    @Override
+    public void begin(Color clearColor) {
+        super.begin(clearColor);
+        // First begin() call in this render frame? Rewind to the first index chunk.
+        if (webgpu.frameNumber != frameNumber) {
+            frameNumber = webgpu.frameNumber;
+            indexChunks.beginFrame(frameNumber);
+            indexChunk = indexChunks.current();
+            ibOffset = 0;
+        }
+    }
+
+    /** number of GPU buffer chunks currently allocated for indices */
+    public int getIndexChunkCount() {
+        return indexChunks.getChunkCount();
+    }
+
+    @Override
+    public void draw(PolygonRegion region, float x, float y) {
+        final TextureRegion textureRegion = region.getRegion();
+        final float[] regionVertices = region.getVertices();
+        final short[] regionTriangles = region.getTriangles();
+        final int numVertices = regionVertices.length / 2;
+        int vertex = startPolygon(textureRegion.getTexture(), numVertices, regionTriangles, 0, regionTriangles.length);
+
+        final float color = getPackedColor();
+        final float[] textureCoords = region.getTextureCoords();
+        int idx = vertex * VERTEX_SIZE;
+        for (int i = 0; i < regionVertices.length; i += 2) {
+            vertexFloats.put(idx++, regionVertices[i] + x);
+            vertexFloats.put(idx++, regionVertices[i + 1] + y);
+            vertexFloats.put(idx++, color);
+            vertexFloats.put(idx++, textureCoords[i]);
+            vertexFloats.put(idx++, textureCoords[i + 1]);
+        }
+        vertexOffset = idx;
+        indexedVertices = vertex + numVertices;
+    }
+
+    @Override
+    public void draw(PolygonRegion region, float x, float y, float width, float height) {
+        final TextureRegion textureRegion = region.getRegion();
+        final float[] regionVertices = region.getVertices();
+        final short[] regionTriangles = region.getTriangles();
+        final int numVertices = regionVertices.length / 2;
+        int vertex = startPolygon(textureRegion.getTexture(), numVertices, regionTriangles, 0, regionTriangles.length);
+
+        final float color = getPackedColor();
+        final float[] textureCoords = region.getTextureCoords();
+        final float sX = width / textureRegion.getRegionWidth();
+        final float sY = height / textureRegion.getRegionHeight();
+        int idx = vertex * VERTEX_SIZE;
+        for (int i = 0; i < regionVertices.length; i += 2) {
+            vertexFloats.put(idx++, regionVertices[i] * sX + x);
+            vertexFloats.put(idx++, regionVertices[i + 1] * sY + y);
+            vertexFloats.put(idx++, color);
+            vertexFloats.put(idx++, textureCoords[i]);
+            vertexFloats.put(idx++, textureCoords[i + 1]);
+        }
+        vertexOffset = idx;
+        indexedVertices = vertex + numVertices;
+    }
+
+    @Override
+    public void draw(PolygonRegion region, float x, float y, float originX, float originY, float width, float height,
+            float scaleX, float scaleY, float rotation) {
+        final TextureRegion textureRegion = region.getRegion();
+        final float[] regionVertices = region.getVertices();
+        final short[] regionTriangles = region.getTriangles();
+        final int numVertices = regionVertices.length / 2;
+        int vertex = startPolygon(textureRegion.getTexture(), numVertices, regionTriangles, 0, regionTriangles.length);
+
+        final float color = getPackedColor();
+        final float[] textureCoords = region.getTextureCoords();
+        final float worldOriginX = x + originX;
+        final float worldOriginY = y + originY;
+        final float sX = width / textureRegion.getRegionWidth();
+        final float sY = height / textureRegion.getRegionHeight();
+        final float cos = MathUtils.cosDeg(rotation);
+        final float sin = MathUtils.sinDeg(rotation);
+        int idx = vertex * VERTEX_SIZE;
+        for (int i = 0; i < regionVertices.length; i += 2) {
+            final float fx = (regionVertices[i] * sX - originX) * scaleX;
+            final float fy = (regionVertices[i + 1] * sY - originY) * scaleY;
+            vertexFloats.put(idx++, cos * fx - sin * fy + worldOriginX);
+            vertexFloats.put(idx++, sin * fx + cos * fy + worldOriginY);
+            vertexFloats.put(idx++, color);
+            vertexFloats.put(idx++, textureCoords[i]);
+            vertexFloats.put(idx++, textureCoords[i + 1]);
+        }
+        vertexOffset = idx;
+        indexedVertices = vertex + numVertices;
+    }
+
+    /** Draws a triangle mesh. The vertices are in the format x, y, packed color, u, v. */
+    @Override
+    public void draw(Texture texture, float[] polygonVertices, int verticesOffset, int verticesCount,
+            short[] polygonTriangles, int trianglesOffset, int trianglesCount) {
+        final int numVertices = verticesCount / VERTEX_SIZE;
+        int vertex = startPolygon(texture, numVertices, polygonTriangles, trianglesOffset, trianglesCount);
+
+        vertexFloats.position(vertexOffset);
+        vertexFloats.put(polygonVertices, verticesOffset, numVertices * VERTEX_SIZE);
+        vertexOffset += numVertices * VERTEX_SIZE;
+        indexedVertices = vertex + numVertices;
+    }
+
+    /**
+     * Prepares the batch for a polygon: switches texture, flushes if the polygon doesn't fit, and stages its indices.
+     *
+     * @return index of the first vertex of the polygon in this flush
+     */
+    private int startPolygon(Texture texture, int numVertices, short[] triangles, int offset, int count) {
+        if (!isDrawing())
+            throw new RuntimeException("PolygonSpriteBatch: Must call begin() before draw().");
+        // capacity in sprites of 4 vertices and 6 indices
+        int sprites = Math.max((numVertices + 3) / 4, (count + 5) / 6);
+        if (sprites > maxSpritesPerFlush)
+            throw new IllegalArgumentException("PolygonSpriteBatch: polygon with " + numVertices + " vertices and "
+                    + count + " indices does not fit in one flush.");
+        if (texture != lastTexture)
+            switchTexture(texture);
+        if (numSpritesPerFlush + sprites > maxSpritesPerFlush)
+            flush();
+
+        indexQuads();
+        int vertex = vertexOffset / VERTEX_SIZE;
+        int end = offset + count;
+        if (wideIndices) {
+            for (int i = offset; i < end; i++)
+                indexInts.put(numIndices++, triangles[i] + vertex);
+        } else {
+            for (int i = offset; i < end; i++)
+                indexShorts.put(numIndices++, (short) (triangles[i] + vertex));
+        }
+        numSpritesPerFlush += sprites;
+        return vertex;
+    }
+
+    /** Stages the indices for the quads that were added since the last polygon, two triangles per quad. */
+    private void indexQuads() {
+        int numVertices = vertexOffset / VERTEX_SIZE;
+        for (int v = indexedVertices; v < numVertices; v += 4) {
+            if (wideIndices) {
+                indexInts.put(numIndices, v);
+                indexInts.put(numIndices + 1, v + 1);
+                indexInts.put(numIndices + 2, v + 2);
+                indexInts.put(numIndices + 3, v);
+                indexInts.put(numIndices + 4, v + 2);
+                indexInts.put(numIndices + 5, v + 3);
+            } else {
+                indexShorts.put(numIndices, (short) v);
+                indexShorts.put(numIndices + 1, (short) (v + 1));
+                indexShorts.put(numIndices + 2, (short) (v + 2));
+                indexShorts.put(numIndices + 3, (short) v);
+                indexShorts.put(numIndices + 4, (short) (v + 2));
+                indexShorts.put(numIndices + 5, (short) (v + 3));
+            }
+            numIndices += 6;
+        }
+        indexedVertices = numVertices;
+    }
+
+    @Override
+    protected void drawIndexed(WebGPURenderPass renderPass) {
+        indexQuads();
+
+        // append the indices to the GPU index buffer
+        int numBytes = (numIndices * (wideIndices ? Integer.BYTES : Short.BYTES) + 3) & ~3;
+        if (ibOffset + numBytes > indexChunk.getSize()) { // index chunk is full, continue in the next one
+            indexChunk = indexChunks.next();
+            ibOffset = 0;
+        }
+        indexChunk.write(ibOffset, indexBB, numBytes);
+        renderPass.setIndexBuffer(indexChunk.getBuffer(),
+                wideIndices ? WGPUIndexFormat.Uint32 : WGPUIndexFormat.Uint16, ibOffset, numBytes);
+        renderPass.drawIndexed(numIndices, 1, 0, 0, 0);
+
+        ibOffset += numBytes;
+        numIndices = 0;
+        indexedVertices = 0;
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        indexChunks.dispose();
+        BufferUtils.disposeUnsafeByteBuffer(indexBB);
+    }
+}
@@ -30,45 +30,56 @@ public class WgSpriteBatch implements Batch {
 
     private final static int VERTS_PER_SPRITE = 4;
     private final static int INDICES_PER_SPRITE = 6;    // to build a rectangle from two triangles
+    private final static int SHRINK_AFTER_FRAMES = 120; // release unused buffer chunks after this many frames
 
     private final WgGraphics gfx;
     private final WebGPUContext webgpu;
     private final WgShaderProgram specificShader;
-    private final int maxSpritesPerFlush;
+    protected final int maxSpritesPerFlush;
     private boolean drawing;
     private final int vertexSize;
+    private final int stride; // in floats
+    private final boolean hasColor;
+    private final boolean hasUV;
+    private final boolean defaultLayout; // position, packed color, uv: written by addSprite() without addVertex()
+    private final float[] spriteVertices = new float[VERTS_PER_SPRITE * 5]; // staging for one sprite
     private final ByteBuffer vertexBB;
     protected final FloatBuffer vertexFloats; // float buffer view on byte buffer
     public int numSprites;
-    private int numSpritesPerFlush;
+    protected int numSpritesPerFlush;
     private final Color tint;
     private float tintPacked;
-    private WebGPUVertexBuffer vertexBuffer;
+    private ChunkedBuffer<WebGPUVertexBuffer> vertexChunks;
+    private WebGPUVertexBuffer vertexBuffer; // current chunk
     private WgIndexBuffer indexBuffer;
-    private WebGPUUniformBuffer uniformBuffer;
+    private final UniformChunks uniforms; // uniform slice per flush, with a dynamic offset
     private final WebGPUBindGroupLayout bindGroupLayout;
     protected VertexAttributes vertexAttributes;
     private final WGPUPipelineLayout pipelineLayout;
     private final PipelineSpecification pipelineSpec;
     private int uniformBufferSize;
-    private WgTexture lastTexture;
+    protected WgTexture lastTexture;
     private final Matrix4 projectionMatrix;
     private final Matrix4 transformMatrix;
     private final Matrix4 combinedMatrix;
     private final Matrix4 shiftDepthMatrix;
     private WebGPURenderPass renderPass;
+    private boolean passShared; // another renderer has drawn in the render pass, set the pipeline again
     private int vbOffset;
-    private final PipelineCache pipelines;
+    private PipelineCache pipelines;
+    private boolean ownsPipelines = true; // false when using a cache provided with setPipelineCache()
     public int topSpritesPerBatch; // most nr of sprites in the batch over its lifetime
     public int renderCalls;
     public int pipelineCount;
     public int flushCount; // number of flushes since begin()
-    public int maxFlushes;
+    public int maxFlushes; // flushes per uniform buffer chunk
     private float invTexWidth;
     private float invTexHeight;
     protected final Binder binder;
+    private final Binder.Uniform projectionViewUniform;
     private static String defaultShader;
     private int frameNumber;
+    private SpriteReservation reservation; // for sprites written by other threads
 
     // Scissor state tracking — used to detect changes (via Gdx.gl.glScissor / glEnable(GL_SCISSOR_TEST)
     // or via setScissorRect()) between draws so the new scissor is applied on the next flush.
@@ -94,10 +105,12 @@ public class WgSpriteBatch implements Batch {
     /**
      * Create a SpriteBatch.
      *
-     * @param maxSpritesPerFlush maximum number of sprite to be supported (default is 1000)
+     * @param maxSpritesPerFlush maximum number of sprites per flush, the batch flushes when this is reached (default is
+     *            2000)
      * @param specificShader specific ShaderProgram to use, must be compatible with "sprite.wgsl". Leave null to use the
      *            default shader.
-     * @param maxFlushes maximum number of flushes (e.g. texture changes, blending changes)
+     * @param maxFlushes number of flushes (e.g. texture changes, blending changes) that fit in one uniform buffer
+     *            chunk. More chunks are allocated when needed.
      */
     public WgSpriteBatch(int maxSpritesPerFlush, WgShaderProgram specificShader, int maxFlushes) {
         gfx = (WgGraphics) Gdx.graphics;
@@ -110,12 +123,17 @@ public class WgSpriteBatch implements Batch {
 
         // vertex: x, y, rgba, u, v
         vertexSize = vertexAttributes.vertexSize; // bytes
+        // decide once how vertices are written, instead of per vertex
+        stride = vertexSize / Float.BYTES;
+        hasColor = (vertexAttributes.getMask() & VertexAttributes.Usage.ColorPacked) != 0;
+        hasUV = (vertexAttributes.getMask() & VertexAttributes.Usage.TextureCoordinates) != 0;
+        defaultLayout = isDefaultLayout(vertexAttributes) && isBulkWriteAllowed();
 
         // allow for a different projectionView matrix per flush.
         this.maxFlushes = maxFlushes;
 
-        // allocate data buffers
-        createBuffers(maxFlushes);
+        // allocate the first chunk of the vertex buffer, further chunks are allocated on demand
+        createBuffers();
         createIndexBuffer(maxSpritesPerFlush);
 
         // Create FloatBuffer to hold vertex data per batch, is reset every flush
@@ -125,6 +143,7 @@ public class WgSpriteBatch implements Batch {
         vertexFloats = vertexBB.asFloatBuffer();
 
         tint = new Color(Color.WHITE);
+        tintPacked = tint.toFloatBits();
 
         invTexWidth = 0f;
         invTexHeight = 0f;
@@ -135,8 +154,12 @@ public class WgSpriteBatch implements Batch {
         binder.defineGroup(0, bindGroupLayout);
         defineBindings(binder);
 
-        // set binding 0 to uniform buffer
-        binder.setBuffer("uniforms", uniformBuffer, 0, uniformBufferSize);
+        // binding 0: uniform buffer chunks with a dynamic offset, so that every flush can have its own projection
+        // matrix. The bind group cache keeps one bind group per texture and chunk alive across frames.
+        uniformBufferSize = getUniformBufferSize();
+        uniforms = new UniformChunks(binder, 0, "uniforms", uniformBufferSize, maxFlushes, SHRINK_AFTER_FRAMES,
+                webgpu.getFramesInFlight());
+        projectionViewUniform = binder.getUniform("projectionViewTransform");
         // bindings 1 and 2 are done in switchTexture()
 
         // get pipeline layout which aggregates all the bind group layouts
@@ -237,10 +260,12 @@ public class WgSpriteBatch implements Batch {
 
     public void setColor(float r, float g, float b, float a) {
         tint.set(r, g, b, a);
+        tintPacked = tint.toFloatBits();
     }
 
     public void setColor(Color color) {
         tint.set(color);
+        tintPacked = tint.toFloatBits();
     }
 
     public Color getColor() {
@@ -366,6 +391,19 @@ public class WgSpriteBatch implements Batch {
         return drawing;
     }
 
+    /**
+     * Flush the sprites and return the render pass of the batch, so that another renderer can encode its draw calls in
+     * the same pass instead of ending and beginning the batch, which would lose the pass and reset the color. The batch
+     * sets its pipeline again on the next flush, its bindings and buffers are set on every flush.
+     */
+    public WebGPURenderPass flushForSharedPass() {
+        if (!drawing)
+            throw new IllegalStateException("Call begin() before sharing the render pass");
+        flush();
+        passShared = true;
+        return renderPass;
+    }
+
     public void begin() {
         begin(null);
     }
@@ -377,6 +415,7 @@ public class WgSpriteBatch implements Batch {
 
         renderPass = RenderPassBuilder.create("SpriteBatch", clearColor, webgpu.getSamples());
         setPipeline(renderPass);
+        passShared = false;
 
         // First begin() call in this render frame?
         if (webgpu.frameNumber != this.frameNumber) {
@@ -385,9 +424,12 @@ public class WgSpriteBatch implements Batch {
             Rectangle view = webgpu.getViewportRectangle();
             renderPass.setViewport(view.x, view.y, view.width, view.height, 0, 1);
 
-            uniformBuffer.beginSlices(); // setDynamicOffsetIndex(0); // reset the dynamic offset to the start
             // if the same spritebatch is used multiple times per frame this will overwrite the previous pass
             // to solve this we reset at the start of a new frame.
+            // Rewind to the first buffer chunks, chunks that were not needed for a while are released.
+            vertexChunks.beginFrame(frameNumber);
+            uniforms.beginFrame(frameNumber);
+            vertexBuffer = vertexChunks.current();
             numSpritesPerFlush = 0;
             vbOffset = 0;
             vertexFloats.clear();
@@ -405,6 +447,7 @@ public class WgSpriteBatch implements Batch {
 
         // set default state
         tint.set(Color.WHITE);
+        tintPacked = Color.WHITE_FLOAT_BITS;
 
         // don't reset the matrices because setProjectionMatrix() and setTransformMatrix()
         // may be called before begin() and need to be respected.
@@ -415,14 +458,32 @@ public class WgSpriteBatch implements Batch {
         flush();
         if (!(texture instanceof WgTexture))
             throw new IllegalArgumentException("texture must be WebGPUTexture");
-        lastTexture = (WgTexture) texture;
-        invTexWidth = 1.0f / texture.getWidth();
-        invTexHeight = 1.0f / texture.getHeight();
+        setLastTexture((WgTexture) texture);
 
+        uniforms.getBindGroupCache().track(lastTexture); // evict the cached bind groups when the texture is disposed
         binder.setTexture("texture", lastTexture.getTextureView());
         binder.setSampler("textureSampler", lastTexture.getSampler());
     }
 
+    /** Set the texture that is current for the next sprites, used to convert texel coordinates to texture coordinates.
+     * Does not change the texture bindings. */
+    protected void setLastTexture(WgTexture texture) {
+        lastTexture = texture;
+        if (texture == null) {
+            invTexWidth = 0f;
+            invTexHeight = 0f;
+        } else {
+            invTexWidth = 1.0f / texture.getWidth();
+            invTexHeight = 1.0f / texture.getHeight();
+        }
+    }
+
+    /** Returns true if a subclass clips sprites in the shader instead of with the render pass scissor. The context
+     * scissor is then not applied at flush time, see {@link WgClipSpriteBatch}. */
+    protected boolean clipsPerSprite() {
+        return false;
+    }
+
     /** Synchronize the active render pass scissor with the WebGPU context's scissor state. The state is
      * normally driven by libgdx's ScissorStack via {@code Gdx.gl.glScissor} + {@code glEnable(GL_SCISSOR_TEST)},
      * which routes through {@link com.monstrous.gdx.webgpu.graphics.utils.WgGL20}. Coordinates are top-left
@@ -451,23 +512,25 @@ public class WgSpriteBatch implements Batch {
             return;
         if (numSpritesPerFlush == 0)
             return;
+        if (reservation != null && reservation.isOpen())
+            throw new IllegalStateException("SpriteBatch: submit() the sprite reservation before the batch flushes.");
         if (numSpritesPerFlush > topSpritesPerBatch)    // keep statistics
             topSpritesPerBatch = numSpritesPerFlush;
-        if (flushCount > maxFlushes - 1) {
-            Gdx.app.error("WgSpriteBatch", "Too many flushes (" + flushCount + "). Increase maxFlushes.");
-            return;
-        }
         renderCalls++;
+        if (passShared) {
+            setPipeline(renderPass);
+            passShared = false;
+        }
 
         // Apply pending scissor changes (e.g. from libgdx's ScissorStack via WgGL20.glScissor /
         // glEnable(GL_SCISSOR_TEST)) before issuing the draw. Skipped when scissor was set explicitly
         // via setScissorRect() — that path applies it directly.
-        if (!explicitScissor) {
+        if (!explicitScissor && !clipsPerSprite()) {
             applyContextScissor();
         }
 
         // bind group
-        int dynamicOffset = uniformBuffer.nextSlice();
+        int dynamicOffset = uniforms.nextSlice();
         updateMatrices();
         // int dynamicOffset = flushCount *uniformBuffer.getUniformStride();
         WebGPUBindGroup wbg = binder.getBindGroup(0);
@@ -475,15 +538,17 @@ public class WgSpriteBatch implements Batch {
         renderPass.setBindGroup(0, bg, dynamicOffset);
 
         // append new vertex data to GPU vertex buffer
-        int numBytes = numSpritesPerFlush * VERTS_PER_SPRITE * vertexSize;
+        int numBytes = vertexOffset * Float.BYTES;
+        if (vbOffset + numBytes > vertexBuffer.getSize()) { // vertex chunk is full, continue in the next one
+            vertexBuffer = vertexChunks.next();
+            vbOffset = 0;
+        }
         vertexBuffer.setVertices(vertexBB, vbOffset, numBytes);
 
         // Set vertex buffer while encoding the render pass
         // use an offset to set the vertex buffer for this batch
         renderPass.setVertexBuffer(0, vertexBuffer.getBuffer(), vbOffset, numBytes);
-        indexBuffer.bind(renderPass);
-
-        renderPass.drawIndexed(numSpritesPerFlush * 6, 1, 0, 0, 0);
+        drawIndexed(renderPass);
 
         // bg.release();
 
@@ -497,12 +562,19 @@ public class WgSpriteBatch implements Batch {
         // uniformBuffer.setDynamicOffsetIndex(flushCount);
     }
 
+    /** Binds the index buffer and draws the sprites of this flush. The indices are relative to the first vertex of the
+     * flush. Override for other primitives than quads, see {@link WgPolygonSpriteBatch}. */
+    protected void drawIndexed(WebGPURenderPass renderPass) {
+        indexBuffer.bind(renderPass);
+        renderPass.drawIndexed(numSpritesPerFlush * INDICES_PER_SPRITE, 1, 0, 0, 0);
+    }
+
     public void end() {
         if (!drawing) // catch incorrect usage
             throw new RuntimeException("Cannot end() without begin()");
 
         flush();
-        uniformBuffer.endSlices();
+        uniforms.endSlices();
         renderPass.end();
         renderPass = null;
         pipelineCount = pipelines.size(); // statistics
@@ -619,19 +691,16 @@ public class WgSpriteBatch implements Batch {
         draw(region, x, y, region.getRegionWidth(), region.getRegionHeight());
     }
 
-    private boolean check() {
+    /** Checks the batch is drawing and flushes if the staging buffer is full. */
+    protected void check() {
         if (!drawing)
             throw new RuntimeException("SpriteBatch: Must call begin() before draw().");
-        if (numSpritesPerFlush == maxSpritesPerFlush) {
-            Gdx.app.error("WgSpriteBatch", "Too many sprites (more than " + maxSpritesPerFlush + "). Enlarge maxSprites.");
-            return false;
-        }
-        return true;
+        if (numSpritesPerFlush == maxSpritesPerFlush)
+            flush();
     }
 
     public void draw(TextureRegion region, float x, float y, float w, float h) {
-        if (!check())
-            return;
+        check();
 
         if (region.getTexture() != lastTexture) { // changing texture, need to flush what we have so far
             switchTexture(region.getTexture());
@@ -647,8 +716,7 @@ public class WgSpriteBatch implements Batch {
             switchTexture(texture);
         }
         // put check after texture switch, because the switch resets numSpritesPerFlush
-        if (!check())
-            return;
+        check();
         addRect(x, y, width, height, u, v, u2, v2);
         numSpritesPerFlush++;
     }
@@ -661,8 +729,7 @@ public class WgSpriteBatch implements Batch {
             switchTexture(texture);
         }
         // put check after texture switch, because the switch resets numSpritesPerFlush
-        if (!check())
-            return;
+        check();
 
         // bottom left and top right corner points relative to origin
         final float worldOriginX = x + originX;
@@ -754,10 +821,10 @@ public class WgSpriteBatch implements Batch {
             v = v2;
             v2 = tmp;
         }
-        addVertex(x1, y1, u, v);
-        addVertex(x2, y2, u, v2);
-        addVertex(x3, y3, u2, v2);
-        addVertex(x4, y4, u2, v);
+        addSprite(x1, y1, u, v,
+                x2, y2, u, v2,
+                x3, y3, u2, v2,
+                x4, y4, u2, v);
         numSpritesPerFlush++;
     }
 
@@ -767,8 +834,7 @@ public class WgSpriteBatch implements Batch {
         if (texture != lastTexture)
             switchTexture(texture);
         // put check after texture switch, because the switch resets numSpritesPerFlush
-        if (!check())
-            return;
+        check();
 
         float u = srcX * invTexWidth;
         float v = (srcY + srcHeight) * invTexHeight;
@@ -789,10 +855,10 @@ public class WgSpriteBatch implements Batch {
             v2 = tmp;
         }
 
-        addVertex(x, y, u, v);
-        addVertex(x, fy2, u, v2);
-        addVertex(fx2, fy2, u2, v2);
-        addVertex(fx2, y, u2, v);
+        addSprite(x, y, u, v,
+                x, fy2, u, v2,
+                fx2, fy2, u2, v2,
+                fx2, y, u2, v);
         numSpritesPerFlush++;
     }
 
@@ -800,8 +866,7 @@ public class WgSpriteBatch implements Batch {
         if (texture != lastTexture)
             switchTexture(texture);
         // put check after texture switch, because the switch resets numSpritesPerFlush
-        if (!check())
-            return;
+        check();
 
         final float u = srcX * invTexWidth;
         final float v = (srcY + srcHeight) * invTexHeight;
@@ -810,10 +875,10 @@ public class WgSpriteBatch implements Batch {
         final float fx2 = x + srcWidth;
         final float fy2 = y + srcHeight;
 
-        addVertex(x, y, u, v);
-        addVertex(x, fy2, u, v2);
-        addVertex(fx2, fy2, u2, v2);
-        addVertex(fx2, y, u2, v);
+        addSprite(x, y, u, v,
+                x, fy2, u, v2,
+                fx2, fy2, u2, v2,
+                fx2, y, u2, v);
         numSpritesPerFlush++;
     }
 
@@ -844,18 +909,21 @@ public class WgSpriteBatch implements Batch {
             switchTexture(texture);
         }
 
-        int remaining = 20 * (maxSpritesPerFlush - numSpritesPerFlush);
-        if (numFloats > remaining) // avoid buffer overflow by truncating as needed
-            numFloats = remaining;
-        // IMPORTANT: write at vertexOffset (absolute index), not at the FloatBuffer's relative position.
-        // addVertex() uses absolute put(index,value) via vertexOffset and does NOT advance position.
-        // If we used a relative put here, interleaving the two draw paths (e.g. 9-patch bg → Image
-        // drawable → BitmapFont label) would cause the two trackers to diverge and sprites would
-        // overwrite each other. Keep a single source of truth: vertexOffset.
-        vertexFloats.position(vertexOffset);
-        vertexFloats.put(spriteVertices, offset, numFloats);
-        vertexOffset += numFloats;
-        numSpritesPerFlush += numFloats / 20;
+        while (numFloats > 0) {
+            check(); // flushes if the staging buffer is full
+            int count = Math.min(numFloats, 20 * (maxSpritesPerFlush - numSpritesPerFlush));
+            // IMPORTANT: write at vertexOffset (absolute index), not at the FloatBuffer's relative position.
+            // addVertex() uses absolute put(index,value) via vertexOffset and does NOT advance position.
+            // If we used a relative put here, interleaving the two draw paths (e.g. 9-patch bg → Image
+            // drawable → BitmapFont label) would cause the two trackers to diverge and sprites would
+            // overwrite each other. Keep a single source of truth: vertexOffset.
+            vertexFloats.position(vertexOffset);
+            vertexFloats.put(spriteVertices, offset, count);
+            vertexOffset += count;
+            numSpritesPerFlush += count / 20;
+            offset += count;
+            numFloats -= count;
+        }
     }
 
     public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
@@ -865,8 +933,7 @@ public class WgSpriteBatch implements Batch {
         if (texture != lastTexture)
             switchTexture(texture);
         // put check after texture switch, because the switch resets numSpritesPerFlush
-        if (!check())
-            return;
+        check();
 
         // bottom left and top right corner points relative to origin
         final float worldOriginX = x + originX;
@@ -947,10 +1014,10 @@ public class WgSpriteBatch implements Batch {
         final float u2 = region.getU2();
         final float v2 = region.getV();
 
-        addVertex(x1, y1, u, v);
-        addVertex(x2, y2, u, v2);
-        addVertex(x3, y3, u2, v2);
-        addVertex(x4, y4, u2, v);
+        addSprite(x1, y1, u, v,
+                x2, y2, u, v2,
+                x3, y3, u2, v2,
+                x4, y4, u2, v);
         numSpritesPerFlush++;
     }
 
@@ -960,8 +1027,7 @@ public class WgSpriteBatch implements Batch {
         if (texture != lastTexture)
             switchTexture(texture);
         // put check after texture switch, because the switch resets numSpritesPerFlush
-        if (!check())
-            return;
+        check();
 
         // bottom left and top right corner points relative to origin
         final float worldOriginX = x + originX;
@@ -1058,10 +1124,10 @@ public class WgSpriteBatch implements Batch {
             v4 = region.getV2();
         }
 
-        addVertex(x1, y1, u1, v1);
-        addVertex(x2, y2, u2, v2);
-        addVertex(x3, y3, u3, v3);
-        addVertex(x4, y4, u4, v4);
+        addSprite(x1, y1, u1, v1,
+                x2, y2, u2, v2,
+                x3, y3, u3, v3,
+                x4, y4, u4, v4);
         numSpritesPerFlush++;
     }
 
@@ -1070,8 +1136,7 @@ public class WgSpriteBatch implements Batch {
         if (texture != lastTexture)
             switchTexture(texture);
         // put check after texture switch, because the switch resets numSpritesPerFlush
-        if (!check())
-            return;
+        check();
 
         // construct corner points
         float x1 = transform.m02;
@@ -1088,34 +1153,128 @@ public class WgSpriteBatch implements Batch {
         float u2 = region.getU2();
         float v2 = region.getV();
 
-        addVertex(x1, y1, u, v);
-        addVertex(x2, y2, u, v2);
-        addVertex(x3, y3, u2, v2);
-        addVertex(x4, y4, u2, v);
+        addSprite(x1, y1, u, v,
+                x2, y2, u, v2,
+                x3, y3, u2, v2,
+                x4, y4, u2, v);
         numSpritesPerFlush++;
     }
 
+    /**
+     * Reserve count sprites with this texture in the vertex staging buffer, to be written by other threads via
+     * {@link SpriteReservation#split(int)} or {@link SpriteReservation#getWriter(int, int)}. Flushes first if the
+     * sprites don't fit in the current flush. Only for the default vertex layout, see {@link #setVertexAttributes()},
+     * and for batches that allow bulk writes, see {@link #isBulkWriteAllowed()}.
+     *
+     * @param count number of sprites, at most maxSpritesPerFlush
+     * @return the reservation, which is reused by the next call
+     */
+    public SpriteReservation reserve(Texture texture, int count) {
+        if (!drawing)
+            throw new RuntimeException("SpriteBatch: Must call begin() before reserve().");
+        if (!defaultLayout)
+            throw new RuntimeException("SpriteBatch: reserve() needs the default vertex layout and bulk writes.");
+        if (count < 0 || count > maxSpritesPerFlush)
+            throw new IllegalArgumentException("SpriteBatch: cannot reserve " + count + " sprites, maximum is "
+                    + maxSpritesPerFlush);
+        if (reservation != null && reservation.isOpen())
+            throw new IllegalStateException("SpriteBatch: previous sprite reservation was not submitted.");
+
+        if (texture != lastTexture)
+            switchTexture(texture);
+        if (numSpritesPerFlush + count > maxSpritesPerFlush)
+            flush();
+        if (reservation == null)
+            reservation = new SpriteReservation(this, vertexFloats);
+        reservation.begin(vertexOffset, count);
+        vertexOffset += count * VERTS_PER_SPRITE * stride;
+        numSpritesPerFlush += count;
+        return reservation;
+    }
+
+    /** Called by {@link SpriteReservation#submit()}. */
+    void endReservation(SpriteReservation reservation) {
+        if (reservation != this.reservation)
+            throw new IllegalStateException("SpriteBatch: reservation belongs to another batch.");
+    }
+
+    /**
+     * Whether the sprites of the default vertex layout may be written in bulk, without calling
+     * {@link #addVertex(float, float, float, float)} per vertex. True for this class and {@link WgPolygonSpriteBatch}
+     * themselves, so that a subclass that overrides addVertex() sees every vertex. A subclass that keeps the default
+     * addVertex() can return true to use the faster path, which also allows {@link #reserve(Texture, int)}.
+     */
+    protected boolean isBulkWriteAllowed() {
+        return getClass() == WgSpriteBatch.class || getClass() == WgPolygonSpriteBatch.class;
+    }
+
+    /** Checks for the default vertex layout of {@link #setVertexAttributes()}: position, packed color, uv. */
+    private static boolean isDefaultLayout(VertexAttributes attributes) {
+        return attributes.size() == 3 && attributes.vertexSize == 5 * Float.BYTES
+                && attributes.get(0).usage == VertexAttributes.Usage.Position && attributes.get(0).numComponents == 2
+                && attributes.get(1).usage == VertexAttributes.Usage.ColorPacked
+                && attributes.get(2).usage == VertexAttributes.Usage.TextureCoordinates
+                && attributes.get(2).numComponents == 2;
+    }
+
+    /** Writes the four vertices of a sprite. With the default vertex layout the sprite is staged in a float array and
+     * copied with one bulk put, other layouts and subclasses that do not allow it (see {@link #isBulkWriteAllowed()})
+     * are written per vertex by {@link #addVertex(float, float, float, float)}. */
+    private void addSprite(float x1, float y1, float u1, float v1, float x2, float y2, float u2, float v2, float x3,
+            float y3, float u3, float v3, float x4, float y4, float u4, float v4) {
+        if (!defaultLayout) {
+            addVertex(x1, y1, u1, v1);
+            addVertex(x2, y2, u2, v2);
+            addVertex(x3, y3, u3, v3);
+            addVertex(x4, y4, u4, v4);
+            return;
+        }
+        final float[] vertices = spriteVertices;
+        final float color = tintPacked;
+        vertices[0] = x1;
+        vertices[1] = y1;
+        vertices[2] = color;
+        vertices[3] = u1;
+        vertices[4] = v1;
+        vertices[5] = x2;
+        vertices[6] = y2;
+        vertices[7] = color;
+        vertices[8] = u2;
+        vertices[9] = v2;
+        vertices[10] = x3;
+        vertices[11] = y3;
+        vertices[12] = color;
+        vertices[13] = u3;
+        vertices[14] = v3;
+        vertices[15] = x4;
+        vertices[16] = y4;
+        vertices[17] = color;
+        vertices[18] = u4;
+        vertices[19] = v4;
+        vertexFloats.position(vertexOffset);
+        vertexFloats.put(vertices, 0, vertices.length);
+        vertexOffset += vertices.length;
+    }
+
     private void addRect(float x, float y, float w, float h, float u, float v, float u2, float v2) {
-        addVertex(x, y, u, v);
-        addVertex(x, y + h, u, v2);
-        addVertex(x + w, y + h, u2, v2);
-        addVertex(x + w, y, u2, v);
+        addSprite(x, y, u, v,
+                x, y + h, u, v2,
+                x + w, y + h, u2, v2,
+                x + w, y, u2, v);
     }
 
     protected int vertexOffset;
 
+    /** Writes one vertex for layouts other than the default one, see {@link #setVertexAttributes()}. Override to fill
+     * extra vertex attributes. Not called for the default layout when {@link #isBulkWriteAllowed()} returns true, which
+     * is only the case for WgSpriteBatch and WgPolygonSpriteBatch themselves unless a subclass overrides it. */
     protected void addVertex(float x, float y, float u, float v) {
-        int stride = vertexAttributes.vertexSize / Float.BYTES;
-        boolean hasColor = (vertexAttributes.getMask() & VertexAttributes.Usage.ColorPacked) != 0;
-        boolean hasUV = (vertexAttributes.getMask() & VertexAttributes.Usage.TextureCoordinates) != 0;
-        float col = tint.toFloatBits();
-
         int start = vertexOffset;
 
         vertexFloats.put(vertexOffset++, x);
         vertexFloats.put(vertexOffset++, y);
         if (hasColor) {
-            vertexFloats.put(vertexOffset++,col);
+            vertexFloats.put(vertexOffset++, tintPacked);
         }
         if (hasUV) {
             vertexFloats.put(vertexOffset++, u);
@@ -1125,18 +1284,31 @@ public class WgSpriteBatch implements Batch {
         vertexOffset = start + stride;
     }
 
-    private void createBuffers(int maxFlushes) {
-        int indexSize = maxSpritesPerFlush * INDICES_PER_SPRITE * Short.BYTES;
+    private void createBuffers() {
+        // Vertex buffer chunks, each chunk can hold at least one full flush.
+        // Vertex data is appended during the frame, when a chunk is full the next chunk is used.
+        final int vertexChunkSize = maxSpritesPerFlush * VERTS_PER_SPRITE * vertexSize;
+        vertexChunks = new ChunkedBuffer<>(new ChunkedBuffer.ChunkFactory<WebGPUVertexBuffer>() {
+            @Override
+            public WebGPUVertexBuffer createChunk() {
+                return new WebGPUVertexBuffer(WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Vertex), vertexChunkSize);
+            }
 
-        // Create vertex buffer and index buffer
-        vertexBuffer = new WebGPUVertexBuffer(WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Vertex),
-                maxSpritesPerFlush * maxFlushes * VERTS_PER_SPRITE * vertexSize);
+            @Override
+            public void releaseChunk(WebGPUVertexBuffer chunk) {
+            }
+        }, SHRINK_AFTER_FRAMES, webgpu.getFramesInFlight());
+        vertexBuffer = vertexChunks.current();
+    }
 
-        // Create uniform buffer with dynamic offset for the view projection matrix
-        // dynamic offset will be incremented per flush so that it can have a specific view projection matrix
-        uniformBufferSize = getUniformBufferSize();
-        uniformBuffer = new WebGPUUniformBuffer(uniformBufferSize, WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Uniform),
-                maxFlushes);
+    /** number of GPU buffer chunks currently allocated for vertex data */
+    public int getVertexChunkCount() {
+        return vertexChunks.getChunkCount();
+    }
+
+    /** number of GPU buffer chunks currently allocated for uniforms */
+    public int getUniformChunkCount() {
+        return uniforms.getChunkCount();
     }
 
 
@@ -1157,7 +1329,7 @@ public class WgSpriteBatch implements Batch {
      */
     protected void updateMatrices() {
         combinedMatrix.set(shiftDepthMatrix).mul(projectionMatrix).mul(transformMatrix);
-        binder.setUniform("projectionViewTransform", combinedMatrix);
+        projectionViewUniform.set(combinedMatrix);
     }
 
     /**
@@ -1232,17 +1404,57 @@ public class WgSpriteBatch implements Batch {
         layout.addSampler(2, WGPUShaderStage.Fragment, WGPUSamplerBindingType.Filtering);
     }
 
+    /**
+     * Returns the cache of bind groups per texture. Its hit and miss counters show how many bind groups had to be
+     * created, which should be zero in steady state frames.
+     */
+    public KeyedBindGroupCache getBindGroupCache() {
+        return uniforms.getBindGroupCache();
+    }
+
     @Override
     public void dispose() {
         binder.dispose();
-        pipelines.dispose();
-        vertexBuffer.dispose();
+        if (ownsPipelines)
+            pipelines.dispose();
+        vertexChunks.dispose();
         indexBuffer.dispose();
-        uniformBuffer.dispose();
+        uniforms.dispose();
         bindGroupLayout.dispose();
         // pipelineLayout.dispose();
     }
 
+    /**
+     * Use this pipeline cache instead of a private one, e.g. {@link PipelineCache#getShared()} so that batches with the
+     * same settings share their pipelines. The batch does not dispose a provided cache.
+     */
+    public void setPipelineCache(PipelineCache cache) {
+        if (drawing)
+            throw new RuntimeException("Cannot change the pipeline cache between begin() and end()");
+        if (ownsPipelines)
+            pipelines.dispose();
+        pipelines = cache;
+        ownsPipelines = false;
+    }
+
+    public PipelineCache getPipelineCache() {
+        return pipelines;
+    }
+
+    /**
+     * Create the pipelines of this batch that were recorded in a manifest, e.g. for other render targets or blend
+     * modes, so that they are not compiled during gameplay. Call outside begin()/end(), e.g. once per loading frame
+     * until it returns 0.
+     *
+     * @param maxCreations maximum number of pipelines to create in this call
+     * @return number of recorded pipelines of this batch that still need to be created
+     */
+    public int warmUp(PipelineManifest manifest, int maxCreations) {
+        if (drawing)
+            throw new RuntimeException("Cannot warm up pipelines between begin() and end()");
+        return manifest.warmUp(pipelines, pipelineLayout, pipelineSpec, maxCreations);
+    }
+
     /**
      * Clear the pipeline cache, forcing all pipelines to be rebuilt. Useful when changing shader parameters at runtime.
      */
@@ -0,0 +1,649 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.graphics.g2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.*;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.github.xpenatan.webgpu.*;
+import com.monstrous.gdx.webgpu.application.WebGPUContext;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
+import com.monstrous.gdx.webgpu.graphics.Binder;
+import com.monstrous.gdx.webgpu.graphics.WgShaderProgram;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.g3d.WgIndexBuffer;
+import com.monstrous.gdx.webgpu.wrappers.*;
+
+import java.nio.*;
+
+/**
+ * Draws static sprites that are stored on the GPU, the WebGPU counterpart of libGDX's SpriteCache.
+ * <p>
+ * Sprites are added between {@link #beginCache()} and {@link #endCache()}, which uploads them once into a vertex buffer
+ * that is shared by all caches. Drawing a cache with {@link #draw(int)} only sets the bind group per texture and issues
+ * the draw calls: nothing is tessellated or uploaded per frame except one projection/transform matrix per
+ * {@link #begin()}. This suits backgrounds, tile layers and other geometry that rarely changes.
+ * <p>
+ * The sprites of a cache are drawn in the order they were added, with one draw call per run of sprites that share a
+ * texture. Add sprites grouped by texture, or use a texture atlas, to keep the number of draw calls down.
+ * <p>
+ * A cache can be redefined with {@link #beginCache(int)}. If it is not the last cache created, it cannot grow beyond
+ * the number of sprites it was created with. The matrices cannot be changed between begin() and end().
+ * <p>
+ * A specific shader needs to be compatible with "spritebatch.wgsl".
+ */
+public class WgSpriteCache implements Disposable {
+    private final static int VERTS_PER_SPRITE = 4;
+    private final static int INDICES_PER_SPRITE = 6; // to build a rectangle from two triangles
+    private final static int FLOATS_PER_SPRITE = 20; // 4 vertices of x, y, color, u, v
+    private final static int BEGINS_PER_CHUNK = 16; // uniform slices per uniform buffer chunk
+    private final static int SHRINK_AFTER_FRAMES = 120; // release unused uniform chunks after this many frames
+
+    private final WebGPUContext webgpu;
+    private final int size;
+    private final VertexAttributes vertexAttributes;
+    private final WebGPUVertexBuffer vertexBuffer; // holds all caches, only written by endCache()
+    private final WgIndexBuffer indexBuffer;
+    private final ByteBuffer stagingBB; // vertices of the cache being defined
+    private final FloatBuffer stagingFloats;
+    private final UniformChunks uniforms;
+    private final WebGPUBindGroupLayout bindGroupLayout;
+    private final WGPUPipelineLayout pipelineLayout;
+    private final PipelineSpecification pipelineSpec;
+    private final PipelineCache pipelines;
+    private final Binder binder;
+    private final Binder.Uniform projectionViewUniform;
+    private final Matrix4 projectionMatrix;
+    private final Matrix4 transformMatrix;
+    private final Matrix4 combinedMatrix;
+    private final Matrix4 shiftDepthMatrix;
+    private WebGPURenderPass renderPass;
+    private boolean drawing;
+    private int frameNumber;
+    private int dynamicOffset; // uniform slice of the current begin()
+    private Texture boundTexture; // texture of the current bind group
+    private static String defaultShader;
+
+    private final Array<Cache> caches = new Array<>();
+    private Cache currentCache;
+    private int currentCapacity; // in sprites
+    private int spriteCount; // sprites in use by all caches
+    private final Array<Texture> textures = new Array<>(8);
+    private final IntArray counts = new IntArray(8);
+
+    private final Color color = new Color(1, 1, 1, 1);
+    private float colorPacked = Color.WHITE_FLOAT_BITS;
+
+    /** number of render calls since the last {@link #begin()} */
+    public int renderCalls;
+    /** number of render calls since the cache was created */
+    public int totalRenderCalls;
+
+    /** Creates a cache that uses indices and has space for 1000 sprites. */
+    public WgSpriteCache() {
+        this(1000, null);
+    }
+
+    /** Creates a cache with space for the specified number of sprites. */
+    public WgSpriteCache(int size) {
+        this(size, null);
+    }
+
+    /**
+     * Create a SpriteCache.
+     *
+     * @param size maximum number of sprites over all caches
+     * @param specificShader specific ShaderProgram to use, must be compatible with "spritebatch.wgsl". Leave null to
+     *            use the default shader.
+     */
+    public WgSpriteCache(int size, WgShaderProgram specificShader) {
+        webgpu = ((WgGraphics) Gdx.graphics).getContext();
+        this.size = size;
+
+        vertexAttributes = new VertexAttributes(
+                new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                VertexAttribute.ColorPacked(), VertexAttribute.TexCoords(0));
+
+        int spriteBytes = FLOATS_PER_SPRITE * Float.BYTES;
+        vertexBuffer = new WebGPUVertexBuffer(WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Vertex), size * spriteBytes);
+        createIndexBuffer(size);
+
+        stagingBB = BufferUtils.newUnsafeByteBuffer(size * spriteBytes);
+        stagingBB.order(ByteOrder.LITTLE_ENDIAN); // webgpu expects little endian
+        stagingFloats = stagingBB.asFloatBuffer();
+
+        int uniformBufferSize = 16 * Float.BYTES;
+        bindGroupLayout = new WebGPUBindGroupLayout("SpriteCache bind group layout");
+        bindGroupLayout.begin();
+        bindGroupLayout.addBuffer(0, WGPUShaderStage.Vertex, WGPUBufferBindingType.Uniform, uniformBufferSize, true);
+        bindGroupLayout.addTexture(1, WGPUShaderStage.Fragment, WGPUTextureSampleType.Float,
+                WGPUTextureViewDimension._2D, false);
+        bindGroupLayout.addSampler(2, WGPUShaderStage.Fragment, WGPUSamplerBindingType.Filtering);
+        bindGroupLayout.end();
+
+        binder = new Binder();
+        binder.defineGroup(0, bindGroupLayout);
+        binder.defineBinding("uniforms", 0, 0);
+        binder.defineBinding("texture", 0, 1);
+        binder.defineBinding("textureSampler", 0, 2);
+        binder.defineUniform("projectionViewTransform", 0, 0, 0);
+        // one uniform slice per begin(), so that every begin/end pair can have its own matrices. Keep one bind group
+        // per texture alive across frames.
+        uniforms = new UniformChunks(binder, 0, "uniforms", uniformBufferSize, BEGINS_PER_CHUNK, SHRINK_AFTER_FRAMES,
+                webgpu.getFramesInFlight());
+        projectionViewUniform = binder.getUniform("projectionViewTransform");
+
+        pipelineLayout = binder.getPipelineLayout("SpriteCache pipeline layout");
+
+        pipelines = new PipelineCache();
+        pipelineSpec = new PipelineSpecification("SpriteCache pipeline", vertexAttributes, specificShader);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation(ShaderProgram.POSITION_ATTRIBUTE, 0);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation(ShaderProgram.COLOR_ATTRIBUTE, 5);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation(ShaderProgram.TEXCOORD_ATTRIBUTE + "0", 1);
+        pipelineSpec.enableBlending();
+        pipelineSpec.setBlendFactor(WGPUBlendFactor.SrcAlpha, WGPUBlendFactor.OneMinusSrcAlpha);
+        pipelineSpec.disableDepthTest();
+        pipelineSpec.numSamples = webgpu.getSamples();
+        if (specificShader == null)
+            pipelineSpec.shaderSource = getDefaultShaderSource();
+
+        projectionMatrix = new Matrix4();
+        transformMatrix = new Matrix4();
+        combinedMatrix = new Matrix4();
+        // matrix which will transform an opengl ortho matrix to a webgpu ortho matrix
+        // by scaling the Z range from [-1..1] to [0..1]
+        shiftDepthMatrix = new Matrix4().idt().scl(1, 1, -0.5f).trn(0, 0, 0.5f);
+        projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), 0, 100);
+
+        drawing = false;
+        frameNumber = -1;
+    }
+
+    // the index buffer is static and only has to be filled on start-up
+    private void createIndexBuffer(int maxSprites) {
+        indexBuffer = new WgIndexBuffer(true, maxSprites * INDICES_PER_SPRITE, maxSprites * VERTS_PER_SPRITE);
+        if (indexBuffer.getIndexSize() == 2) {
+            ShortBuffer shorts = indexBuffer.getBuffer(true);
+            for (int i = 0; i < maxSprites; i++) {
+                short vertexOffset = (short) (i * 4);
+                shorts.put(vertexOffset);
+                shorts.put((short) (vertexOffset + 1));
+                shorts.put((short) (vertexOffset + 2));
+                shorts.put(vertexOffset);
+                shorts.put((short) (vertexOffset + 2));
+                shorts.put((short) (vertexOffset + 3));
+            }
+        } else { // 4 byte indices
+            IntBuffer ints = indexBuffer.getIntBuffer(true);
+            for (int i = 0; i < maxSprites; i++) {
+                int vertexOffset = i * 4;
+                ints.put(vertexOffset);
+                ints.put(vertexOffset + 1);
+                ints.put(vertexOffset + 2);
+                ints.put(vertexOffset);
+                ints.put(vertexOffset + 2);
+                ints.put(vertexOffset + 3);
+            }
+        }
+        indexBuffer.bind(); // commit buffer contents
+    }
+
+    /** Sets the color used to tint sprites added to the cache. */
+    public void setColor(Color tint) {
+        color.set(tint);
+        colorPacked = tint.toFloatBits();
+    }
+
+    public void setColor(float r, float g, float b, float a) {
+        color.set(r, g, b, a);
+        colorPacked = color.toFloatBits();
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public void setPackedColor(float packedColor) {
+        Color.abgr8888ToColor(color, packedColor);
+        colorPacked = packedColor;
+    }
+
+    public float getPackedColor() {
+        return colorPacked;
+    }
+
+    /** Starts the definition of a new cache, allowing the add and {@link #endCache()} methods to be called. */
+    public void beginCache() {
+        if (drawing)
+            throw new IllegalStateException("end must be called before beginCache");
+        if (currentCache != null)
+            throw new IllegalStateException("endCache must be called before begin.");
+        currentCache = new Cache(caches.size, spriteCount);
+        caches.add(currentCache);
+        currentCapacity = size - spriteCount;
+        startCache();
+    }
+
+    /**
+     * Starts the redefinition of an existing cache, allowing the add and {@link #endCache()} methods to be called. If
+     * this is not the last cache created, it cannot have more sprites than when it was first created.
+     */
+    public void beginCache(int cacheID) {
+        if (drawing)
+            throw new IllegalStateException("end must be called before beginCache");
+        if (currentCache != null)
+            throw new IllegalStateException("endCache must be called before begin.");
+        if (cacheID == caches.size - 1) {
+            // the last cache can grow, so recreate it
+            Cache oldCache = caches.removeIndex(cacheID);
+            spriteCount -= oldCache.maxCount;
+            beginCache();
+            return;
+        }
+        currentCache = caches.get(cacheID);
+        currentCapacity = currentCache.maxCount;
+        startCache();
+    }
+
+    private void startCache() {
+        stagingFloats.clear();
+        textures.clear();
+        counts.clear();
+    }
+
+    /** Ends the definition of a cache and uploads its sprites to the GPU. Returns the cache ID. */
+    public int endCache() {
+        if (currentCache == null)
+            throw new IllegalStateException("beginCache must be called before endCache.");
+        Cache cache = currentCache;
+        int count = stagingFloats.position() / FLOATS_PER_SPRITE;
+        if (cache.textures == null) { // new cache
+            cache.maxCount = count;
+            spriteCount += count;
+        }
+        cache.textures = textures.toArray(Texture.class);
+        cache.counts = counts.toArray();
+
+        if (count > 0) {
+            int spriteBytes = FLOATS_PER_SPRITE * Float.BYTES;
+            stagingBB.position(0);
+            stagingBB.limit(count * spriteBytes);
+            vertexBuffer.setVertices(stagingBB, cache.offset * spriteBytes, count * spriteBytes);
+            stagingBB.clear();
+        }
+        currentCache = null;
+        return cache.id;
+    }
+
+    /** Invalidates all cache IDs and makes the cache empty. */
+    public void clear() {
+        caches.clear();
+        spriteCount = 0;
+    }
+
+    /**
+     * Adds the specified vertices to the cache. Each sprite consists of 4 vertices of 5 floats (x, y, color, u, v), in
+     * the same layout as {@link Sprite#getVertices()}.
+     */
+    public void add(Texture texture, float[] vertices, int offset, int length) {
+        int numSprites = length / FLOATS_PER_SPRITE;
+        for (int i = 0; i < numSprites; i++) {
+            addTexture(texture);
+            stagingFloats.put(vertices, offset + i * FLOATS_PER_SPRITE, FLOATS_PER_SPRITE);
+        }
+    }
+
+    public void add(Texture texture, float x, float y) {
+        final float fx2 = x + texture.getWidth();
+        final float fy2 = y + texture.getHeight();
+        addTexture(texture);
+        putVertex(x, y, colorPacked, 0, 1);
+        putVertex(x, fy2, colorPacked, 0, 0);
+        putVertex(fx2, fy2, colorPacked, 1, 0);
+        putVertex(fx2, y, colorPacked, 1, 1);
+    }
+
+    public void add(Texture texture, float x, float y, int srcWidth, int srcHeight, float u, float v, float u2,
+            float v2, float color) {
+        final float fx2 = x + srcWidth;
+        final float fy2 = y + srcHeight;
+        addTexture(texture);
+        putVertex(x, y, color, u, v);
+        putVertex(x, fy2, color, u, v2);
+        putVertex(fx2, fy2, color, u2, v2);
+        putVertex(fx2, y, color, u2, v);
+    }
+
+    public void add(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+        float invTexWidth = 1.0f / texture.getWidth();
+        float invTexHeight = 1.0f / texture.getHeight();
+        final float u = srcX * invTexWidth;
+        final float v = (srcY + srcHeight) * invTexHeight;
+        final float u2 = (srcX + srcWidth) * invTexWidth;
+        final float v2 = srcY * invTexHeight;
+        add(texture, x, y, srcWidth, srcHeight, u, v, u2, v2, colorPacked);
+    }
+
+    public void add(Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+            int srcHeight, boolean flipX, boolean flipY) {
+        add(texture, x, y, 0, 0, width, height, 1, 1, 0, srcX, srcY, srcWidth, srcHeight, flipX, flipY);
+    }
+
+    public void add(Texture texture, float x, float y, float originX, float originY, float width, float height,
+            float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight, boolean flipX,
+            boolean flipY) {
+        float invTexWidth = 1.0f / texture.getWidth();
+        float invTexHeight = 1.0f / texture.getHeight();
+        float u = srcX * invTexWidth;
+        float v = (srcY + srcHeight) * invTexHeight;
+        float u2 = (srcX + srcWidth) * invTexWidth;
+        float v2 = srcY * invTexHeight;
+        if (flipX) {
+            float tmp = u;
+            u = u2;
+            u2 = tmp;
+        }
+        if (flipY) {
+            float tmp = v;
+            v = v2;
+            v2 = tmp;
+        }
+        addQuad(texture, x, y, originX, originY, width, height, scaleX, scaleY, rotation, u, v, u2, v2);
+    }
+
+    public void add(TextureRegion region, float x, float y) {
+        add(region, x, y, region.getRegionWidth(), region.getRegionHeight());
+    }
+
+    public void add(TextureRegion region, float x, float y, float width, float height) {
+        final float fx2 = x + width;
+        final float fy2 = y + height;
+        final float u = region.getU();
+        final float v = region.getV2();
+        final float u2 = region.getU2();
+        final float v2 = region.getV();
+        addTexture(region.getTexture());
+        putVertex(x, y, colorPacked, u, v);
+        putVertex(x, fy2, colorPacked, u, v2);
+        putVertex(fx2, fy2, colorPacked, u2, v2);
+        putVertex(fx2, y, colorPacked, u2, v);
+    }
+
+    public void add(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+            float scaleX, float scaleY, float rotation) {
+        addQuad(region.getTexture(), x, y, originX, originY, width, height, scaleX, scaleY, rotation, region.getU(),
+                region.getV2(), region.getU2(), region.getV());
+    }
+
+    public void add(Sprite sprite) {
+        add(sprite.getTexture(), sprite.getVertices(), 0, FLOATS_PER_SPRITE);
+    }
+
+    private void addQuad(Texture texture, float x, float y, float originX, float originY, float width, float height,
+            float scaleX, float scaleY, float rotation, float u, float v, float u2, float v2) {
+        // bottom left and top right corner points relative to origin
+        final float worldOriginX = x + originX;
+        final float worldOriginY = y + originY;
+        float fx = -originX;
+        float fy = -originY;
+        float fx2 = width - originX;
+        float fy2 = height - originY;
+
+        // scale
+        if (scaleX != 1 || scaleY != 1) {
+            fx *= scaleX;
+            fy *= scaleY;
+            fx2 *= scaleX;
+            fy2 *= scaleY;
+        }
+
+        float x1, y1, x2, y2, x3, y3, x4, y4;
+        // rotate
+        if (rotation != 0) {
+            final float cos = MathUtils.cosDeg(rotation);
+            final float sin = MathUtils.sinDeg(rotation);
+
+            x1 = cos * fx - sin * fy;
+            y1 = sin * fx + cos * fy;
+            x2 = cos * fx - sin * fy2;
+            y2 = sin * fx + cos * fy2;
+            x3 = cos * fx2 - sin * fy2;
+            y3 = sin * fx2 + cos * fy2;
+            x4 = x1 + (x3 - x2);
+            y4 = y3 - (y2 - y1);
+        } else {
+            x1 = fx;
+            y1 = fy;
+            x2 = fx;
+            y2 = fy2;
+            x3 = fx2;
+            y3 = fy2;
+            x4 = fx2;
+            y4 = fy;
+        }
+
+        addTexture(texture);
+        putVertex(x1 + worldOriginX, y1 + worldOriginY, colorPacked, u, v);
+        putVertex(x2 + worldOriginX, y2 + worldOriginY, colorPacked, u, v2);
+        putVertex(x3 + worldOriginX, y3 + worldOriginY, colorPacked, u2, v2);
+        putVertex(x4 + worldOriginX, y4 + worldOriginY, colorPacked, u2, v);
+    }
+
+    // start a new sprite, extending the run of the last texture if possible
+    private void addTexture(Texture texture) {
+        if (currentCache == null)
+            throw new IllegalStateException("beginCache must be called before add.");
+        if (stagingFloats.position() / FLOATS_PER_SPRITE == currentCapacity) {
+            if (currentCache.textures == null)
+                throw new IllegalStateException("Out of vertex space! Size: " + size);
+            throw new IllegalStateException(
+                    "If a cache is not the last created, it cannot be redefined with more entries than when it was first created: "
+                            + currentCache.maxCount + " sprites");
+        }
+        if (!(texture instanceof WgTexture))
+            throw new IllegalArgumentException("texture must be WebGPUTexture");
+        if (textures.size > 0 && textures.peek() == texture)
+            counts.incr(counts.size - 1, 1);
+        else {
+            textures.add(texture);
+            counts.add(1);
+        }
+    }
+
+    private void putVertex(float x, float y, float color, float u, float v) {
+        stagingFloats.put(x);
+        stagingFloats.put(y);
+        stagingFloats.put(color);
+        stagingFloats.put(u);
+        stagingFloats.put(v);
+    }
+
+    public void begin() {
+        begin(null);
+    }
+
+    /** Prepares for drawing cached sprites. The matrices cannot be changed until {@link #end()}. */
+    public void begin(Color clearColor) {
+        if (drawing)
+            throw new IllegalStateException("end must be called before begin.");
+        if (currentCache != null)
+            throw new IllegalStateException("endCache must be called before begin");
+        drawing = true;
+        renderCalls = 0;
+        boundTexture = null;
+
+        renderPass = RenderPassBuilder.create("SpriteCache", clearColor, webgpu.getSamples());
+        setPipeline(renderPass);
+        Rectangle view = webgpu.getViewportRectangle();
+        renderPass.setViewport(view.x, view.y, view.width, view.height, 0, 1);
+
+        // First begin() call in this render frame? Rewind the uniform slices.
+        if (webgpu.frameNumber != this.frameNumber) {
+            this.frameNumber = webgpu.frameNumber;
+            uniforms.beginFrame(frameNumber);
+        }
+        // the only per-frame upload: one matrix for all caches drawn until end()
+        dynamicOffset = uniforms.nextSlice();
+        combinedMatrix.set(shiftDepthMatrix).mul(projectionMatrix).mul(transformMatrix);
+        projectionViewUniform.set(combinedMatrix);
+        uniforms.endSlices(); // write the slice to the GPU
+
+        renderPass.setVertexBuffer(0, vertexBuffer.getBuffer(), 0, vertexBuffer.getSize());
+        indexBuffer.bind(renderPass);
+    }
+
+    /** Completes rendering for this SpriteCache. */
+    public void end() {
+        if (!drawing)
+            throw new IllegalStateException("begin must be called before end.");
+        drawing = false;
+        renderPass.end();
+        renderPass = null;
+    }
+
+    /** Draws all the sprites of a cache. */
+    public void draw(int cacheID) {
+        if (!drawing)
+            throw new IllegalStateException("SpriteCache.begin must be called before draw.");
+        Cache cache = caches.get(cacheID);
+        int sprite = cache.offset;
+        Texture[] cacheTextures = cache.textures;
+        int[] cacheCounts = cache.counts;
+        for (int i = 0; i < cacheTextures.length; i++) {
+            drawRun(cacheTextures[i], sprite, cacheCounts[i]);
+            sprite += cacheCounts[i];
+        }
+    }
+
+    /**
+     * Draws a subset of the sprites of a cache.
+     *
+     * @param offset index of the first sprite to draw, within the cache
+     * @param length number of sprites to draw
+     */
+    public void draw(int cacheID, int offset, int length) {
+        if (!drawing)
+            throw new IllegalStateException("SpriteCache.begin must be called before draw.");
+        Cache cache = caches.get(cacheID);
+        int sprite = cache.offset;
+        int end = sprite + offset + length;
+        sprite += offset;
+        int runStart = cache.offset;
+        Texture[] cacheTextures = cache.textures;
+        int[] cacheCounts = cache.counts;
+        for (int i = 0; i < cacheTextures.length && sprite < end; i++) {
+            int runEnd = runStart + cacheCounts[i];
+            if (runEnd > sprite) {
+                int count = Math.min(runEnd, end) - sprite;
+                drawRun(cacheTextures[i], sprite, count);
+                sprite += count;
+            }
+            runStart = runEnd;
+        }
+    }
+
+    private void drawRun(Texture texture, int firstSprite, int count) {
+        if (texture != boundTexture) {
+            WgTexture wgTexture = (WgTexture) texture;
+            uniforms.getBindGroupCache().track(wgTexture); // evict the cached bind groups when the texture is disposed
+            binder.setTexture("texture", wgTexture.getTextureView());
+            binder.setSampler("textureSampler", wgTexture.getSampler());
+            renderPass.setBindGroup(0, binder.getBindGroup(0).getBindGroup(), dynamicOffset);
+            boundTexture = texture;
+        }
+        renderPass.drawIndexed(count * INDICES_PER_SPRITE, 1, firstSprite * INDICES_PER_SPRITE, 0, 0);
+        renderCalls++;
+        totalRenderCalls++;
+    }
+
+    // create or reuse pipeline on demand to match the pipeline spec
+    private void setPipeline(WebGPURenderPass pass) {
+        pipelineSpec.setRenderTarget(pass);
+        pass.setPipeline(pipelines.findPipeline(pipelineLayout, pipelineSpec));
+    }
+
+    public Matrix4 getProjectionMatrix() {
+        return projectionMatrix;
+    }
+
+    /**
+     * Set projection matrix. Expects an OpenGL standard projection matrix, i.e. mapping Z to [-1 .. 1]
+     */
+    public void setProjectionMatrix(Matrix4 projection) {
+        if (drawing)
+            throw new IllegalStateException("Can't set the matrix within begin/end.");
+        projectionMatrix.set(projection);
+    }
+
+    public Matrix4 getTransformMatrix() {
+        return transformMatrix;
+    }
+
+    public void setTransformMatrix(Matrix4 transform) {
+        if (drawing)
+            throw new IllegalStateException("Can't set the matrix within begin/end.");
+        transformMatrix.set(transform);
+    }
+
+    public boolean isDrawing() {
+        return drawing;
+    }
+
+    /** Returns the cache of bind groups per texture. */
+    public KeyedBindGroupCache getBindGroupCache() {
+        return uniforms.getBindGroupCache();
+    }
+
+    @Override
+    public void dispose() {
+        binder.dispose();
+        uniforms.dispose();
+        pipelines.dispose();
+        vertexBuffer.dispose();
+        indexBuffer.dispose();
+        bindGroupLayout.dispose();
+        BufferUtils.disposeUnsafeByteBuffer(stagingBB);
+    }
+
+    private String getDefaultShaderSource() {
+        if (defaultShader == null)
+            defaultShader = Gdx.files.classpath("shaders/spritebatch.wgsl").readString();
+        return defaultShader;
+    }
+
+    private static class Cache {
+        final int id;
+        final int offset; // in sprites from the start of the vertex buffer
+        int maxCount; // in sprites
+        Texture[] textures; // one entry per run of sprites with the same texture
+        int[] counts; // sprites per run
+
+        public Cache(int id, int offset) {
+            this.id = id;
+            this.offset = offset;
+        }
+    }
+}
@@ -0,0 +1,736 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.graphics.g3d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.github.xpenatan.webgpu.*;
+import com.monstrous.gdx.webgpu.application.WebGPUContext;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
+import com.monstrous.gdx.webgpu.graphics.WgShaderProgram;
+import com.monstrous.gdx.webgpu.graphics.g3d.shaders.WgDefaultShader;
+import com.monstrous.gdx.webgpu.graphics.g3d.shaders.WgDefaultShaderProvider;
+import com.monstrous.gdx.webgpu.graphics.g3d.utils.WgDefaultRenderableSorter;
+import com.monstrous.gdx.webgpu.graphics.g3d.utils.WgFrustumCuller;
+import com.monstrous.gdx.webgpu.graphics.g3d.utils.WgNormalMatrixCache;
+import com.monstrous.gdx.webgpu.wrappers.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Static 3d content that is culled and drawn by the GPU.
+ * <p>
+ * The transforms and bounding spheres of all instances are kept in storage buffers. Each frame a compute shader
+ * ("shaders/modelbatch.cull.wgsl") tests the instances against the camera frustum and writes the visible ones, per
+ * batch of equal mesh part and material, into an instance buffer and the draw arguments of the batch. The batches are
+ * then drawn with drawIndexedIndirect, one draw call per batch. The CPU cost per frame depends on the number of
+ * batches, not on the number of instances.
+ * <p>
+ * When the device has the IndirectFirstInstance feature (it is requested when the adapter offers it) the draw
+ * arguments select the range of a batch. Otherwise firstInstance stays 0 and each batch starts at an aligned offset in
+ * the instance buffer that is selected with the dynamic offset of its bind group:
+ *
+ * <pre>
+ * instances.begin();
+ * instances.render(forestInstances, environment);
+ * instances.end();
+ * ...
+ * instances.cull(camera); // before the render pass, the compute pass cannot run inside it
+ * modelBatch.begin(camera);
+ * modelBatch.render(instances);
+ * modelBatch.end();
+ * </pre>
+ * cull() can be called several times per frame with different cameras (e.g. for a shadow pass), each call is followed
+ * by the pass that draws with its result. Changes in transforms are not detected, call {@link #invalidate()} after
+ * moving instances to query the renderables again. Blended and rigged renderables are not supported, and morph
+ * weights are not used.
+ * <p>
+ * {@link WgFrustumCuller#cullInstances} is the CPU reference of the compute shader. To compare with it, call
+ * {@link #requestCounts()} and, some frames later, {@link #getGpuCounts(int[])} and {@link #cullOnCPU(Frustum, int[])}
+ * with {@link #getCountsFrustum()}. {@link #countInstanceMismatches(int[])} then compares the visible instances.
+ */
+public class WgIndirectInstances implements Disposable {
+    private static final int MAX_CULLS_PER_FRAME = 8;
+    private static final int WORKGROUP_SIZE = 64; // as in the shader
+    private static final int ARGS_STRIDE = 5; // ints per batch in the draw arguments buffer
+    private static final int CULL_UNIFORMS_SIZE = 6 * 4 * Float.BYTES; // 6 planes
+    private static final float UNKNOWN_RADIUS = 1e30f; // never culled
+
+    private final WebGPUContext webgpu;
+    private final boolean firstInstanceSupported;
+    private final int storageAlignment;
+    private final WgDefaultShaderProvider shaderProvider;
+    private final boolean ownsConfig;
+    private final Array<Renderable> renderables = new Array<>();
+    private final WgModelBatch.RenderablePool renderablesPool = new WgModelBatch.RenderablePool();
+    private final WgDefaultRenderableSorter sorter = new WgDefaultRenderableSorter();
+    // only groups the batches, the order within does not matter
+    private final Camera sortCamera = new OrthographicCamera();
+    // the sources of the content in the order of definition, to query the transforms again after invalidate()
+    private final Array<RenderableProvider> providers = new Array<>(); // null for a renderable
+    private final Array<Renderable> sourceRenderables = new Array<>(); // null for a provider
+    private final Array<Renderable> definedRenderables = new Array<>(); // the copies in the order of definition
+    private final Array<Renderable> refreshRenderables = new Array<>();
+    private final WgModelBatch.RenderablePool refreshPool = new WgModelBatch.RenderablePool();
+    private boolean defining;
+
+    // per instance and per batch data, also used by the CPU reference
+    private float[] spheres = new float[0];
+    private int[] batchIds = new int[0];
+    private int[] batchStarts = new int[0];
+    private int[] batchOutputs = new int[0]; // first vec4 of each batch in the culled buffer
+    private int[] compacted = new int[0];
+    private final Array<Renderable> batchRenderables = new Array<>(); // first renderable of each batch
+
+    // compute pass
+    private final WgShaderProgram cullShader;
+    private final WebGPUBindGroupLayout cullLayout;
+    private final WebGPUPipelineLayout cullPipelineLayout;
+    private final WebGPUComputePipeline resetPipeline;
+    private final WebGPUComputePipeline cullPipeline;
+    private final WebGPUUniformBuffer cullUniforms;
+    private final WGPUComputePassEncoder computePass = new WGPUComputePassEncoder();
+    private final WGPUVectorInt offsetsVector = new WGPUVectorInt(); // reused for the dynamic offset
+    private WebGPUBindGroup cullBindGroup;
+    private int frameNumber = -1;
+    private boolean culled; // has cull() been called since the content was defined?
+    private boolean transformsDirty;
+
+    // buffers
+    private WebGPUBuffer sourceBuffer; // instance data of all instances
+    private WebGPUBuffer boundsBuffer;
+    private WebGPUBuffer batchIdBuffer;
+    private WebGPUBuffer batchOutputBuffer;
+    private WebGPUBuffer argsBuffer; // draw arguments per batch
+    private WebGPUBuffer culledBuffer; // instance data of the visible instances, read by the vertex shader
+    private int instanceBindingSize; // size of the instance binding, the whole culled buffer or the largest batch
+    private final ObjectMap<WgDefaultShader, WebGPUBindGroup> instanceBindGroups = new ObjectMap<>();
+    private final Vector3 tmpV = new Vector3();
+    private final Matrix4 tmpM = new Matrix4();
+    private final WgNormalMatrixCache normalMatrices = new WgNormalMatrixCache(1024); // for invalidate()
+
+    // read back of the instance counts
+    private static final int READBACK_IDLE = 0, READBACK_REQUESTED = 1, READBACK_COPIED = 2, READBACK_MAPPING = 3;
+    private int readbackState = READBACK_IDLE;
+    private int readbackFrame;
+    private WebGPUBuffer readbackBuffer;
+    private ByteBuffer readbackData;
+    private int readbackCulledOffset; // the culled instance data follows the draw arguments in the read back
+    private int[] gpuCounts = new int[0];
+    private boolean gpuCountsAvailable;
+    private final Frustum countsFrustum = new Frustum();
+    private final ObjectIntMap<Vector3> instanceSet = new ObjectIntMap<>(); // for countInstanceMismatches()
+    private final Array<Vector3> instancePositions = new Array<>();
+
+    public int numInstances;
+    public int numBatches;
+    public int drawCalls; // draw calls of the last draw
+
+    public WgIndirectInstances() {
+        this(null);
+    }
+
+    /**
+     * @param config configuration for the shaders, e.g. the number of lights. Leave null for the default
+     *            configuration. Sharing the configuration of a WgModelBatch shares its materials cache.
+     */
+    public WgIndirectInstances(WgModelBatch.Config config) {
+        webgpu = ((WgGraphics) Gdx.graphics).getContext();
+        firstInstanceSupported = webgpu.device.hasFeature(WGPUFeatureName.IndirectFirstInstance);
+        WGPULimits limits = WGPULimits.obtain();
+        webgpu.device.getLimits(limits);
+        storageAlignment = limits.getMinStorageBufferOffsetAlignment();
+        ownsConfig = config == null;
+        shaderProvider = new WgDefaultShaderProvider(config);
+
+        cullShader = new WgShaderProgram(Gdx.files.classpath("shaders/modelbatch.cull.wgsl"));
+        cullLayout = new WebGPUBindGroupLayout("Indirect instances bind group layout");
+        cullLayout.begin();
+        cullLayout.addBuffer(0, WGPUShaderStage.Compute, WGPUBufferBindingType.Uniform, CULL_UNIFORMS_SIZE, true);
+        cullLayout.addBuffer(1, WGPUShaderStage.Compute, WGPUBufferBindingType.ReadOnlyStorage, 0, false);
+        cullLayout.addBuffer(2, WGPUShaderStage.Compute, WGPUBufferBindingType.ReadOnlyStorage, 0, false);
+        cullLayout.addBuffer(3, WGPUShaderStage.Compute, WGPUBufferBindingType.ReadOnlyStorage, 0, false);
+        cullLayout.addBuffer(4, WGPUShaderStage.Compute, WGPUBufferBindingType.ReadOnlyStorage, 0, false);
+        cullLayout.addBuffer(5, WGPUShaderStage.Compute, WGPUBufferBindingType.Storage, 0, false);
+        cullLayout.addBuffer(6, WGPUShaderStage.Compute, WGPUBufferBindingType.Storage, 0, false);
+        cullLayout.end();
+        cullPipelineLayout = new WebGPUPipelineLayout("Indirect instances pipeline layout", cullLayout);
+        resetPipeline = new WebGPUComputePipeline(cullShader, "cs_reset", cullPipelineLayout);
+        cullPipeline = new WebGPUComputePipeline(cullShader, "cs_cull", cullPipelineLayout);
+        cullUniforms = new WebGPUUniformBuffer("Indirect instances uniforms", CULL_UNIFORMS_SIZE,
+                WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Uniform), MAX_CULLS_PER_FRAME,
+                webgpu.getFramesInFlight());
+    }
+
+    /** Start defining the content, replacing the previous content. */
+    public void begin() {
+        if (defining)
+            throw new RuntimeException("Must end() before begin()");
+        defining = true;
+        renderables.clear();
+        renderablesPool.flush();
+        providers.clear();
+        sourceRenderables.clear();
+    }
+
+    public void render(final Renderable renderable) {
+        checkDefining();
+        Renderable copy = renderablesPool.obtain().set(renderable);
+        copy.shader = shaderProvider.getShader(copy);
+        renderables.add(copy);
+        providers.add(null);
+        sourceRenderables.add(renderable);
+    }
+
+    public void render(final RenderableProvider renderableProvider) {
+        render(renderableProvider, null);
+    }
+
+    public void render(final RenderableProvider renderableProvider, final Environment environment) {
+        checkDefining();
+        int offset = renderables.size;
+        renderableProvider.getRenderables(renderables, renderablesPool);
+        for (int i = offset; i < renderables.size; i++) {
+            Renderable renderable = renderables.get(i);
+            if (environment != null)
+                renderable.environment = environment;
+            renderable.shader = shaderProvider.getShader(renderable);
+        }
+        providers.add(renderableProvider);
+        sourceRenderables.add(null);
+    }
+
+    public <T extends RenderableProvider> void render(final Iterable<T> renderableProviders) {
+        for (final RenderableProvider renderableProvider : renderableProviders)
+            render(renderableProvider, null);
+    }
+
+    public <T extends RenderableProvider> void render(final Iterable<T> renderableProviders,
+            final Environment environment) {
+        for (final RenderableProvider renderableProvider : renderableProviders)
+            render(renderableProvider, environment);
+    }
+
+    /** Group the instances in batches and upload them. */
+    public void end() {
+        checkDefining();
+        defining = false;
+        int instanceSize = 0;
+        for (Renderable renderable : renderables) {
+            if (renderable.bones != null)
+                throw new RuntimeException("WgIndirectInstances does not support rigged renderables");
+            if (!(renderable.shader instanceof WgDefaultShader))
+                throw new RuntimeException("WgIndirectInstances requires WgDefaultShader");
+            // all instances share one buffer
+            int size = ((WgDefaultShader) renderable.shader).getInstanceSize();
+            if (instanceSize != 0 && size != instanceSize)
+                throw new RuntimeException("WgIndirectInstances requires the same instance layout for all renderables, "
+                        + "e.g. set config.instanceLayout to FULL when mixing meshes with and without morph targets");
+            instanceSize = size;
+            if (renderable.material.has(BlendingAttribute.Type)
+                    && ((BlendingAttribute) renderable.material.get(BlendingAttribute.Type)).blended)
+                throw new RuntimeException("WgIndirectInstances does not support blended renderables");
+        }
+        definedRenderables.clear();
+        definedRenderables.addAll(renderables);
+        // the sorter keeps equal shaders, materials and mesh parts together
+        sorter.sort(sortCamera, renderables);
+        numInstances = renderables.size;
+        buildBatches();
+        createBuffers();
+        uploadInstances();
+        uploadBatches();
+        culled = false;
+        transformsDirty = false;
+    }
+
+    private void checkDefining() {
+        if (!defining)
+            throw new RuntimeException("Call begin() before defining the content");
+    }
+
+    /**
+     * Update the transforms and bounds on the next cull(), e.g. after moving instances. The renderables and renderable
+     * providers that were passed to render() are queried again for their world transforms. They must still produce
+     * the same renderables in the same order, to change the content use begin(), render() and end().
+     */
+    public void invalidate() {
+        transformsDirty = true;
+    }
+
+    // copy the current world transforms of the sources into the renderables of the batches
+    private void refreshTransforms() {
+        refreshRenderables.clear();
+        for (int i = 0; i < providers.size; i++) {
+            RenderableProvider provider = providers.get(i);
+            if (provider != null)
+                provider.getRenderables(refreshRenderables, refreshPool);
+            else
+                refreshRenderables.add(sourceRenderables.get(i));
+        }
+        if (refreshRenderables.size != definedRenderables.size)
+            throw new RuntimeException("The number of renderables has changed from " + definedRenderables.size + " to "
+                    + refreshRenderables.size + ", use begin(), render() and end() to change the content");
+        for (int i = 0; i < definedRenderables.size; i++)
+            definedRenderables.get(i).worldTransform.set(refreshRenderables.get(i).worldTransform);
+        refreshRenderables.clear();
+        refreshPool.flush();
+    }
+
+    private void buildBatches() {
+        if (batchIds.length < numInstances) {
+            batchIds = new int[numInstances];
+            spheres = new float[4 * numInstances];
+            compacted = new int[numInstances];
+        }
+        batchRenderables.clear();
+        int[] starts = new int[Math.max(1, numInstances)];
+        Renderable prev = null;
+        for (int i = 0; i < numInstances; i++) {
+            Renderable renderable = renderables.get(i);
+            if (prev == null || prev.shader != renderable.shader
+                    || prev.material.attributesHash() != renderable.material.attributesHash()
+                    || !prev.meshPart.equals(renderable.meshPart)) {
+                starts[batchRenderables.size] = i;
+                batchRenderables.add(renderable);
+                prev = renderable;
+            }
+            batchIds[i] = batchRenderables.size - 1;
+        }
+        numBatches = batchRenderables.size;
+        batchStarts = starts;
+        buildBatchOutputs();
+        if (gpuCounts.length < numBatches)
+            gpuCounts = new int[numBatches];
+    }
+
+    // the range of each batch in the culled buffer, without the feature aligned for a dynamic offset
+    private void buildBatchOutputs() {
+        batchOutputs = new int[Math.max(1, numBatches)];
+        if (numInstances == 0)
+            return;
+        int instanceSize = ((WgDefaultShader) renderables.first().shader).getInstanceSize();
+        int vec4Size = 4 * Float.BYTES;
+        if (firstInstanceSupported) {
+            for (int b = 0; b < numBatches; b++)
+                batchOutputs[b] = batchStarts[b] * instanceSize / vec4Size;
+            instanceBindingSize = numInstances * instanceSize;
+            return;
+        }
+        int offset = 0;
+        int largestBatch = 0;
+        for (int b = 0; b < numBatches; b++) {
+            int end = b + 1 < numBatches ? batchStarts[b + 1] : numInstances;
+            int size = (end - batchStarts[b]) * instanceSize;
+            batchOutputs[b] = offset / vec4Size;
+            offset = WebGPUUniformBuffer.ceilToNextMultiple(offset + size, storageAlignment);
+            largestBatch = Math.max(largestBatch, size);
+        }
+        instanceBindingSize = largestBatch;
+    }
+
+    // byte offset of the last batch plus the binding size, so that every batch can be bound
+    private int getCulledBufferSize() {
+        return batchOutputs[numBatches - 1] * 4 * Float.BYTES + instanceBindingSize;
+    }
+
+    private void createBuffers() {
+        disposeBuffers();
+        if (numInstances == 0)
+            return;
+        int instanceSize = ((WgDefaultShader) renderables.first().shader).getInstanceSize();
+        WGPUBufferUsage storage = WGPUBufferUsage.Storage.or(WGPUBufferUsage.CopyDst);
+        sourceBuffer = new WebGPUBuffer("Indirect instances source", storage, numInstances * instanceSize);
+        boundsBuffer = new WebGPUBuffer("Indirect instances bounds", storage, numInstances * 4 * Float.BYTES);
+        batchIdBuffer = new WebGPUBuffer("Indirect instances batch ids", storage, numInstances * Integer.BYTES);
+        batchOutputBuffer = new WebGPUBuffer("Indirect instances batch outputs", storage, numBatches * Integer.BYTES);
+        argsBuffer = new WebGPUBuffer("Indirect instances draw arguments",
+                storage.or(WGPUBufferUsage.Indirect).or(WGPUBufferUsage.CopySrc), numBatches * ARGS_STRIDE * 4);
+        culledBuffer = new WebGPUBuffer("Indirect instances culled",
+                WGPUBufferUsage.Storage.or(WGPUBufferUsage.CopySrc), getCulledBufferSize());
+
+        cullBindGroup = new WebGPUBindGroup(cullLayout);
+        cullBindGroup.setBuffer(0, cullUniforms, 0, CULL_UNIFORMS_SIZE);
+        cullBindGroup.setBuffer(1, sourceBuffer);
+        cullBindGroup.setBuffer(2, boundsBuffer);
+        cullBindGroup.setBuffer(3, batchIdBuffer);
+        cullBindGroup.setBuffer(4, batchOutputBuffer);
+        cullBindGroup.setBuffer(5, argsBuffer);
+        cullBindGroup.setBuffer(6, culledBuffer);
+        cullBindGroup.create();
+    }
+
+    // world transform, normal matrix and bounding sphere per instance
+    private void uploadInstances() {
+        if (numInstances == 0)
+            return;
+        int instanceSize = sourceBuffer.getSize() / numInstances;
+        ByteBuffer data = BufferUtils.newUnsafeByteBuffer(numInstances * instanceSize);
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < numInstances; i++) {
+            Renderable renderable = renderables.get(i);
+            int offset = i * instanceSize;
+            putMatrix(data, offset, renderable.worldTransform);
+            putMatrix(data, offset + 16 * Float.BYTES, normalMatrices.set(renderable, renderable.worldTransform, tmpM));
+            for (int j = 32 * Float.BYTES; j < instanceSize; j += Float.BYTES)
+                data.putFloat(offset + j, 0f); // morph weights, if the layout has them
+
+            float radius = WgFrustumCuller.getBoundingSphere(renderable, tmpV);
+            if (radius < 0) {
+                renderable.worldTransform.getTranslation(tmpV);
+                radius = UNKNOWN_RADIUS;
+            }
+            spheres[4 * i] = tmpV.x;
+            spheres[4 * i + 1] = tmpV.y;
+            spheres[4 * i + 2] = tmpV.z;
+            spheres[4 * i + 3] = radius;
+        }
+        sourceBuffer.write(0, data, numInstances * instanceSize);
+        BufferUtils.disposeUnsafeByteBuffer(data);
+
+        data = BufferUtils.newUnsafeByteBuffer(numInstances * 4 * Float.BYTES);
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 4 * numInstances; i++)
+            data.putFloat(i * Float.BYTES, spheres[i]);
+        boundsBuffer.write(0, data, numInstances * 4 * Float.BYTES);
+        BufferUtils.disposeUnsafeByteBuffer(data);
+    }
+
+    private static void putMatrix(ByteBuffer data, int offset, Matrix4 matrix) {
+        for (int i = 0; i < 16; i++)
+            data.putFloat(offset + i * Float.BYTES, matrix.val[i]);
+    }
+
+    // batch ids, batch outputs and the draw arguments, of which the compute shader only changes the instance count
+    private void uploadBatches() {
+        if (numInstances == 0)
+            return;
+        ByteBuffer data = BufferUtils.newUnsafeByteBuffer(numInstances * Integer.BYTES);
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < numInstances; i++)
+            data.putInt(i * Integer.BYTES, batchIds[i]);
+        batchIdBuffer.write(0, data, numInstances * Integer.BYTES);
+        BufferUtils.disposeUnsafeByteBuffer(data);
+
+        int argsSize = numBatches * ARGS_STRIDE * 4;
+        data = BufferUtils.newUnsafeByteBuffer(Math.max(argsSize, numBatches * Integer.BYTES));
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        for (int b = 0; b < numBatches; b++)
+            data.putInt(b * Integer.BYTES, batchOutputs[b]);
+        batchOutputBuffer.write(0, data, numBatches * Integer.BYTES);
+
+        for (int b = 0; b < numBatches; b++) {
+            Renderable renderable = batchRenderables.get(b);
+            int offset = b * ARGS_STRIDE * 4;
+            boolean indexed = renderable.meshPart.mesh.getNumIndices() > 0;
+            // drawIndexedIndirect: indexCount, instanceCount, firstIndex, baseVertex, firstInstance
+            // drawIndirect: vertexCount, instanceCount, firstVertex, firstInstance
+            // a non-zero firstInstance requires the IndirectFirstInstance feature
+            int firstInstance = firstInstanceSupported ? batchStarts[b] : 0;
+            data.putInt(offset, renderable.meshPart.size);
+            data.putInt(offset + 4, 0);
+            data.putInt(offset + 8, renderable.meshPart.offset);
+            data.putInt(offset + 12, indexed ? 0 : firstInstance);
+            data.putInt(offset + 16, indexed ? firstInstance : 0);
+        }
+        argsBuffer.write(0, data, argsSize);
+        BufferUtils.disposeUnsafeByteBuffer(data);
+    }
+
+    /**
+     * Cull the instances against the camera frustum on the GPU. Call during the frame, before the render pass that
+     * draws the instances has begun (e.g. before WgModelBatch.begin()).
+     */
+    public void cull(Camera camera) {
+        if (defining)
+            throw new RuntimeException("Cannot cull while defining the content");
+        if (numInstances == 0)
+            return;
+        if (!webgpu.isFrameStarted() || webgpu.encoder == null)
+            throw new RuntimeException("cull() must be called during a frame, before the render pass");
+        if (webgpu.frameNumber != frameNumber) {
+            frameNumber = webgpu.frameNumber;
+            cullUniforms.beginSlices();
+        }
+        if (readbackState == READBACK_COPIED && frameNumber != readbackFrame)
+            mapReadback(); // the frame with the copy has been submitted
+        if (transformsDirty) {
+            refreshTransforms();
+            uploadInstances();
+            transformsDirty = false;
+        }
+
+        int dynamicOffset = cullUniforms.nextSlice();
+        Plane[] planes = camera.frustum.planes;
+        for (int p = 0; p < 6; p++) {
+            int offset = p * 4 * Float.BYTES;
+            cullUniforms.set(offset, planes[p].normal);
+            cullUniforms.set(offset + 3 * Float.BYTES, planes[p].d);
+        }
+        cullUniforms.flush();
+
+        WGPUComputePassDescriptor passDescriptor = WGPUComputePassDescriptor.obtain();
+        passDescriptor.setNextInChain(WGPUChainedStruct.NULL);
+        passDescriptor.setTimestampWrites(WGPUPassTimestampWrites.NULL);
+        webgpu.encoder.beginComputePass(passDescriptor, computePass);
+        offsetsVector.clear();
+        offsetsVector.push_back(dynamicOffset);
+
+        computePass.setPipeline(resetPipeline.getPipeline());
+        computePass.setBindGroup(0, cullBindGroup.getBindGroup(), offsetsVector);
+        computePass.setDispatchWorkgroups((numBatches + WORKGROUP_SIZE - 1) / WORKGROUP_SIZE, 1, 1);
+
+        computePass.setPipeline(cullPipeline.getPipeline());
+        computePass.setBindGroup(0, cullBindGroup.getBindGroup(), offsetsVector);
+        computePass.setDispatchWorkgroups((numInstances + WORKGROUP_SIZE - 1) / WORKGROUP_SIZE, 1, 1);
+        computePass.end();
+
+        if (readbackState == READBACK_REQUESTED) {
+            webgpu.encoder.copyBufferToBuffer(argsBuffer.getBuffer(), 0, readbackBuffer.getBuffer(), 0,
+                    numBatches * ARGS_STRIDE * 4);
+            webgpu.encoder.copyBufferToBuffer(culledBuffer.getBuffer(), 0, readbackBuffer.getBuffer(),
+                    readbackCulledOffset, culledBuffer.getSize());
+            for (int p = 0; p < 6; p++)
+                countsFrustum.planes[p].set(planes[p]);
+            readbackState = READBACK_COPIED;
+            readbackFrame = frameNumber;
+        }
+        culled = true;
+    }
+
+    /** Called by WgModelBatch inside its render pass, camera.combined is already in WebGPU depth range. */
+    void draw(Camera camera, WebGPURenderPass pass) {
+        if (defining)
+            throw new RuntimeException("Cannot draw the instances while defining the content");
+        drawCalls = 0;
+        if (numInstances == 0)
+            return;
+        if (!culled)
+            throw new RuntimeException("Call cull() before drawing the instances");
+
+        WgDefaultShader currentShader = null;
+        for (int b = 0; b < numBatches; b++) {
+            Renderable renderable = batchRenderables.get(b);
+            WgDefaultShader shader = (WgDefaultShader) renderable.shader;
+            if (shader != currentShader) {
+                if (currentShader != null)
+                    currentShader.end();
+                currentShader = shader;
+                currentShader.begin(camera, renderable, pass);
+            }
+            int instancesOffset = firstInstanceSupported ? 0 : batchOutputs[b] * 4 * Float.BYTES;
+            shader.renderIndirect(renderable, getInstanceBindGroup(shader), instancesOffset, argsBuffer.getBuffer(),
+                    b * ARGS_STRIDE * 4);
+            drawCalls++;
+        }
+        currentShader.end();
+    }
+
+    private WebGPUBindGroup getInstanceBindGroup(WgDefaultShader shader) {
+        WebGPUBindGroup bindGroup = instanceBindGroups.get(shader);
+        if (bindGroup == null) {
+            bindGroup = shader.createInstanceBindGroup(culledBuffer, instanceBindingSize);
+            instanceBindGroups.put(shader, bindGroup);
+        }
+        return bindGroup;
+    }
+
+    /**
+     * Read back the instance count per batch and the visible instances of the next cull(). The counts are available
+     * from {@link #getGpuCounts(int[])} a few frames later.
+     */
+    public void requestCounts() {
+        if (numInstances == 0 || readbackState != READBACK_IDLE)
+            return;
+        readbackCulledOffset = WebGPUUniformBuffer.ceilToNextMultiple(argsBuffer.getSize(), 8);
+        int size = readbackCulledOffset + culledBuffer.getSize();
+        if (readbackBuffer == null || readbackBuffer.getSize() < size) {
+            if (readbackBuffer != null)
+                readbackBuffer.dispose();
+            readbackBuffer = new WebGPUBuffer("Indirect instances read back",
+                    WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.MapRead), size);
+            if (readbackData != null)
+                BufferUtils.disposeUnsafeByteBuffer(readbackData);
+            readbackData = BufferUtils.newUnsafeByteBuffer(size);
+            readbackData.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        gpuCountsAvailable = false;
+        readbackState = READBACK_REQUESTED;
+    }
+
+    private void mapReadback() {
+        readbackState = READBACK_MAPPING;
+        final WGPUBuffer map = readbackBuffer.getBuffer();
+        final int size = readbackCulledOffset + culledBuffer.getSize();
+        final int batches = numBatches;
+        map.mapAsync(WGPUMapMode.Read, 0, size, WGPUCallbackMode.AllowProcessEvents, new WGPUBufferMapCallback() {
+            @Override
+            protected void onCallback(WGPUMapAsyncStatus status, String message) {
+                if (status == WGPUMapAsyncStatus.Success) {
+                    readbackData.position(0);
+                    map.getConstMappedRange(0, size, readbackData);
+                    for (int b = 0; b < batches; b++)
+                        gpuCounts[b] = readbackData.getInt((b * ARGS_STRIDE + 1) * 4);
+                    map.unmap();
+                    gpuCountsAvailable = true;
+                } else
+                    Gdx.app.error("WgIndirectInstances", "Read back of the instance counts failed: " + status);
+                readbackState = READBACK_IDLE;
+            }
+        });
+    }
+
+    /**
+     * Get the instance counts per batch that were requested with {@link #requestCounts()}.
+     *
+     * @param counts output, at least numBatches long
+     * @return false if the counts are not available yet
+     */
+    public boolean getGpuCounts(int[] counts) {
+        if (!gpuCountsAvailable)
+            return false;
+        System.arraycopy(gpuCounts, 0, counts, 0, numBatches);
+        return true;
+    }
+
+    /**
+     * Compare the visible instances of each batch that were read back with those of the CPU reference. Call after
+     * {@link #getGpuCounts(int[])} returned true and {@link #cullOnCPU(Frustum, int[])} with the
+     * {@link #getCountsFrustum()}. The instances are identified by the translation of their world transform, the order
+     * within a batch does not matter. Allocates, this is meant for verification only.
+     *
+     * @param cpuCounts the counts of cullOnCPU()
+     * @return the number of batches of which the visible instance count or the set of visible instances differs
+     */
+    public int countInstanceMismatches(int[] cpuCounts) {
+        if (!gpuCountsAvailable)
+            throw new IllegalStateException("The GPU counts are not available, see getGpuCounts()");
+        int instanceSize = ((WgDefaultShader) renderables.first().shader).getInstanceSize();
+        int mismatches = 0;
+        for (int b = 0; b < numBatches; b++) {
+            if (gpuCounts[b] != cpuCounts[b]) {
+                mismatches++;
+                continue;
+            }
+            // the multiset of translations, incremented for the CPU instances and decremented for the GPU instances
+            instanceSet.clear();
+            int used = 0;
+            for (int k = 0; k < cpuCounts[b]; k++) {
+                Vector3 position = obtainPosition(used++);
+                renderables.get(compacted[batchStarts[b] + k]).worldTransform.getTranslation(position);
+                instanceSet.getAndIncrement(position, 0, 1);
+            }
+            boolean differs = false;
+            for (int k = 0; k < gpuCounts[b] && !differs; k++) {
+                int offset = readbackCulledOffset + batchOutputs[b] * 4 * Float.BYTES + k * instanceSize;
+                Vector3 position = obtainPosition(used++).set(readbackData.getFloat(offset + 12 * Float.BYTES),
+                        readbackData.getFloat(offset + 13 * Float.BYTES),
+                        readbackData.getFloat(offset + 14 * Float.BYTES));
+                differs = instanceSet.getAndIncrement(position, 0, -1) <= 0;
+            }
+            if (differs)
+                mismatches++;
+        }
+        instanceSet.clear();
+        return mismatches;
+    }
+
+    private Vector3 obtainPosition(int index) {
+        while (instancePositions.size <= index)
+            instancePositions.add(new Vector3());
+        return instancePositions.get(index);
+    }
+
+    /** The camera frustum of the cull() of which the counts were read back. */
+    public Frustum getCountsFrustum() {
+        return countsFrustum;
+    }
+
+    /**
+     * Cull the instances on the CPU with the same test as the compute shader, see
+     * {@link WgFrustumCuller#cullInstances}.
+     *
+     * @param counts output: visible instances per batch, at least numBatches long
+     * @return the total number of visible instances
+     */
+    public int cullOnCPU(Frustum frustum, int[] counts) {
+        return WgFrustumCuller.cullInstances(frustum, spheres, batchIds, numInstances, batchStarts, numBatches, counts,
+                compacted);
+    }
+
+    private void disposeBuffers() {
+        for (WebGPUBindGroup bindGroup : instanceBindGroups.values())
+            bindGroup.dispose();
+        instanceBindGroups.clear();
+        if (cullBindGroup != null) {
+            cullBindGroup.dispose();
+            cullBindGroup = null;
+        }
+        if (sourceBuffer != null) {
+            sourceBuffer.dispose();
+            boundsBuffer.dispose();
+            batchIdBuffer.dispose();
+            batchOutputBuffer.dispose();
+            argsBuffer.dispose();
+            culledBuffer.dispose();
+            sourceBuffer = null;
+        }
+        // a pending read back refers to the old batches
+        if (readbackState == READBACK_REQUESTED || readbackState == READBACK_COPIED)
+            readbackState = READBACK_IDLE;
+        gpuCountsAvailable = false;
+    }
+
+    @Override
+    public void dispose() {
+        disposeBuffers();
+        if (readbackBuffer != null)
+            readbackBuffer.dispose();
+        if (readbackData != null)
+            BufferUtils.disposeUnsafeByteBuffer(readbackData);
+        computePass.dispose();
+        offsetsVector.dispose();
+        cullUniforms.dispose();
+        cullPipeline.dispose();
+        resetPipeline.dispose();
+        cullPipelineLayout.dispose();
+        cullLayout.dispose();
+        cullShader.dispose();
+        renderablesPool.flush();
+        providers.clear();
+        sourceRenderables.clear();
+        definedRenderables.clear();
+        shaderProvider.dispose();
+        if (ownsConfig && shaderProvider.config.materials != null)
+            shaderProvider.config.materials.dispose();
+    }
+}
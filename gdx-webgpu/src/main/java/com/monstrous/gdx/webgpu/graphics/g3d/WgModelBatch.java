@@ -33,10 +33,13 @@ import com.monstrous.gdx.webgpu.graphics.g3d.shaders.MaterialsCache;
 import com.monstrous.gdx.webgpu.graphics.g3d.shaders.WgDefaultShaderProvider;
 import com.monstrous.gdx.webgpu.graphics.g3d.shaders.WgShader;
 import com.monstrous.gdx.webgpu.graphics.g3d.utils.WgDefaultRenderableSorter;
+import com.monstrous.gdx.webgpu.graphics.g3d.utils.WgFrustumCuller;
 import com.monstrous.gdx.webgpu.wrappers.RenderPassBuilder;
 import com.monstrous.gdx.webgpu.wrappers.RenderPassType;
 import com.monstrous.gdx.webgpu.wrappers.WebGPURenderPass;
 
+import java.util.concurrent.Executor;
+
 /**
  * Class for 3d rendering, e.g. to render model instances. Use instead of ModelBatch.
  */
@@ -48,12 +51,16 @@ public class WgModelBatch implements Disposable {
     private final ShaderProvider shaderProvider;
     private final boolean ownsShaderProvider;
     private final Array<Renderable> renderables;
+    private final Array<WgRenderBundle> bundles;
+    private final Array<WgIndirectInstances> indirectInstances;
     protected final RenderablePool renderablesPool = new RenderablePool();
     private Camera camera;
     private final RenderableSorter sorter;
     public int numRenderables;
     public int drawCalls;
     public int shaderSwitches;
+    public int culledRenderables; // renderables outside the camera frustum since begin(), see Config.frustumCulling
+    private final WgFrustumCuller culler = new WgFrustumCuller();
 
     // Remap OpenGL depth range [-1,1] to WebGPU [0,1].
     // Applied to camera.combined in begin() and restored in end().
@@ -63,8 +70,21 @@ public class WgModelBatch implements Disposable {
     /** Returns the active MaterialsCache, or null if no renderable has been submitted yet. */
     public MaterialsCache getMaterials() { return config.materials; }
 
+    /** Layout of the instance data of WgDefaultShader, see Config.instanceLayout. */
+    public enum InstanceLayout {
+        /** world transform, normal matrix and 8 morph weights (40 floats) for every mesh */
+        FULL,
+        /**
+         * no morph weights for meshes without morph targets (32 floats). The shader must declare the morph weights of
+         * its ModelUniforms within #ifdef MORPH, as "modelbatch.wgsl" does.
+         */
+        COMPACT,
+        /** COMPACT for the default shader, FULL for other shader sources */
+        AUTO
+    }
+
     public static class Config {
-        public int maxInstances;
+        public int maxInstances; // initial capacity of the instance buffer per shader, it grows when exceeded
         public int maxMaterials;
         public int maxDirectionalLights;
         public int maxPointLights;
@@ -74,6 +94,10 @@ public class WgModelBatch implements Disposable {
         public MaterialsCache materials;
         public RenderPassType defaultPassType;
         public String shaderSource;
+        public boolean asyncPipelines; // create pipelines in the background, renderables are skipped until ready
+        public boolean frustumCulling; // skip renderables whose bounding sphere is outside the camera frustum
+        public Executor cullingExecutor; // if not null, large numbers of renderables are culled in parallel
+        public InstanceLayout instanceLayout;
 
         public Config(String shaderSource) {
             this.maxInstances = 1024;
@@ -86,6 +110,10 @@ public class WgModelBatch implements Disposable {
             this.materials = null; // created lazily by the shader via createMaterialLayout()
             this.defaultPassType = RenderPassType.COLOR_AND_DEPTH;
             this.shaderSource = shaderSource;
+            this.asyncPipelines = false;
+            this.frustumCulling = false;
+            this.cullingExecutor = null;
+            this.instanceLayout = InstanceLayout.AUTO;
         }
 
         public Config(){
@@ -132,6 +160,8 @@ public class WgModelBatch implements Disposable {
         this.shaderProvider = shaderProvider == null ? new WgDefaultShaderProvider(this.config) : shaderProvider;
         ownsShaderProvider = shaderProvider == null;
         renderables = new Array<>();
+        bundles = new Array<>();
+        indirectInstances = new Array<>();
         this.sorter = new WgDefaultRenderableSorter();
         drawing = false;
     }
@@ -182,6 +212,7 @@ public class WgModelBatch implements Disposable {
         renderables.clear();
         shaderSwitches = 0;
         drawCalls = 0;
+        culledRenderables = 0;
         // config.materials is populated by the first WgDefaultShader constructed via the shaderProvider.
         // On the very first begin() call no shader exists yet — that is fine because no material
         // binding is needed until render() submits renderables.
@@ -225,12 +256,36 @@ public class WgModelBatch implements Disposable {
             render(renderableProvider, environment);
     }
 
+    /** Render static content that was recorded in a render bundle. Bundles are drawn before the renderables. */
+    public void render(final WgRenderBundle bundle) {
+        bundles.add(bundle);
+    }
+
+    /**
+     * Render static content that is culled on the GPU, see {@link WgIndirectInstances}. Its cull() must have been
+     * called before begin(). Indirect instances are drawn after the bundles and before the renderables.
+     */
+    public void render(final WgIndirectInstances instances) {
+        indirectInstances.add(instances);
+    }
+
     // todo add other render() combinations
 
     public void flush() {
-        if (renderables.size > config.maxInstances)
-            throw new ArrayIndexOutOfBoundsException(
-                    "Too many renderables (> " + renderables.size + "). Increase config.maxInstances.");
+        // culled renderables do not take up instance buffer space
+        if (config.frustumCulling)
+            culledRenderables += culler.cull(camera, renderables, 0, config.cullingExecutor);
+        for (WgRenderBundle bundle : bundles) {
+            bundle.draw(camera, renderPass);
+            drawCalls += bundle.drawCalls;
+        }
+        bundles.clear();
+        for (WgIndirectInstances instances : indirectInstances) {
+            instances.draw(camera, renderPass);
+            drawCalls += instances.drawCalls;
+        }
+        indirectInstances.clear();
+
         sorter.sort(camera, renderables);
 
         WgShader currentShader = null;
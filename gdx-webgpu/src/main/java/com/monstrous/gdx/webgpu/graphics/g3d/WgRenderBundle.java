@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.graphics.g3d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.github.xpenatan.webgpu.*;
+import com.monstrous.gdx.webgpu.application.WebGPUContext;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
+import com.monstrous.gdx.webgpu.graphics.g3d.shaders.WgDefaultShader;
+import com.monstrous.gdx.webgpu.graphics.g3d.shaders.WgDefaultShaderProvider;
+import com.monstrous.gdx.webgpu.graphics.g3d.utils.WgDefaultRenderableSorter;
+import com.monstrous.gdx.webgpu.wrappers.WebGPURenderPass;
+
+/**
+ * Static 3d content that is encoded once into a WebGPU render bundle and replayed in later frames.
+ * <p>
+ * WgModelBatch sorts, instances and encodes all renderables every frame. For content that does not change, such as
+ * level geometry, this bundle does that work once and afterwards only rewrites the camera and light uniforms before
+ * executing the bundle, so the CPU cost per frame hardly depends on the amount of content:
+ *
+ * <pre>
+ * bundle.begin();
+ * bundle.render(levelInstances, environment);
+ * bundle.end();
+ * ...
+ * modelBatch.begin(camera);
+ * modelBatch.render(bundle); // executed before the other renderables of the batch
+ * modelBatch.render(dynamicInstances, environment);
+ * modelBatch.end();
+ * </pre>
+ * The bundle is recorded again when its content is defined again, when the materials of its renderables change (see
+ * {@link #setCheckMaterials(boolean)}), or when it is drawn to a pass with other formats or sample count. Changes in
+ * transforms or environment attributes are not detected, call {@link #invalidate()} after those. With asynchronous
+ * pipeline creation the bundle is recorded again every frame until the pipelines of its shaders are ready. The draw
+ * order is fixed when the bundle is recorded, so the bundle suits opaque content best. Rigged renderables are not
+ * supported.
+ * <p>
+ * The bundle has its own shaders (and instance buffers), so it does not share them with the model batch.
+ */
+public class WgRenderBundle implements Disposable {
+    private final WgDefaultShaderProvider shaderProvider;
+    private final boolean ownsConfig;
+    private final Array<Renderable> renderables;
+    private final WgModelBatch.RenderablePool renderablesPool = new WgModelBatch.RenderablePool();
+    private final RenderableSorter sorter;
+    private final WebGPUContext webgpu;
+    private boolean defining;
+    private boolean checkMaterials = true;
+
+    // state of the recorded bundle
+    private WGPURenderBundle bundle;
+    private boolean dirty = true;
+    private WGPUTextureFormat[] recordedFormats;
+    private WGPUTextureFormat recordedDepthFormat;
+    private int recordedSamples;
+    private int materialsHash;
+    // one entry per shader begin() in the bundle, to rewrite the frame uniforms in the same order
+    private final Array<WgDefaultShader> beginShaders = new Array<>();
+    private final Array<Renderable> beginRenderables = new Array<>();
+    private final ObjectSet<WgDefaultShader> shaders = new ObjectSet<>();
+
+    public int numRenderables;
+    public int drawCalls; // draw calls in the bundle
+    public int recordings; // number of times the bundle was recorded
+
+    public WgRenderBundle() {
+        this(null);
+    }
+
+    /**
+     * @param config configuration for the shaders of the bundle, e.g. the number of lights. Leave null for the
+     *            default configuration. Sharing the configuration of a WgModelBatch shares its materials cache.
+     */
+    public WgRenderBundle(WgModelBatch.Config config) {
+        ownsConfig = config == null;
+        shaderProvider = new WgDefaultShaderProvider(config);
+        renderables = new Array<>();
+        sorter = new WgDefaultRenderableSorter();
+        webgpu = ((WgGraphics) Gdx.graphics).getContext();
+    }
+
+    /** Start defining the content of the bundle, replacing the previous content. */
+    public void begin() {
+        if (defining)
+            throw new RuntimeException("Must end() before begin()");
+        defining = true;
+        renderables.clear();
+        renderablesPool.flush();
+    }
+
+    public void render(final Renderable renderable) {
+        checkDefining();
+        Renderable copy = renderablesPool.obtain().set(renderable);
+        copy.shader = shaderProvider.getShader(copy);
+        renderables.add(copy);
+    }
+
+    public void render(final RenderableProvider renderableProvider) {
+        render(renderableProvider, null);
+    }
+
+    public void render(final RenderableProvider renderableProvider, final Environment environment) {
+        checkDefining();
+        int offset = renderables.size;
+        renderableProvider.getRenderables(renderables, renderablesPool);
+        for (int i = offset; i < renderables.size; i++) {
+            Renderable renderable = renderables.get(i);
+            if (environment != null)
+                renderable.environment = environment;
+            renderable.shader = shaderProvider.getShader(renderable);
+        }
+    }
+
+    public <T extends RenderableProvider> void render(final Iterable<T> renderableProviders) {
+        for (final RenderableProvider renderableProvider : renderableProviders)
+            render(renderableProvider, null);
+    }
+
+    public <T extends RenderableProvider> void render(final Iterable<T> renderableProviders,
+            final Environment environment) {
+        for (final RenderableProvider renderableProvider : renderableProviders)
+            render(renderableProvider, environment);
+    }
+
+    public void end() {
+        checkDefining();
+        defining = false;
+        for (Renderable renderable : renderables) {
+            if (renderable.bones != null)
+                throw new RuntimeException("WgRenderBundle does not support rigged renderables");
+            if (!(renderable.shader instanceof WgDefaultShader))
+                throw new RuntimeException("WgRenderBundle requires WgDefaultShader");
+        }
+        numRenderables = renderables.size;
+        dirty = true;
+    }
+
+    private void checkDefining() {
+        if (!defining)
+            throw new RuntimeException("Call begin() before defining the content of the bundle");
+    }
+
+    /** Record the bundle again on the next draw, e.g. after changing transforms. */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Compare the materials of the renderables with those of the recording on every draw (true, the default). This
+     * costs a hash per renderable per frame. Without the check, call {@link #invalidate()} after changing materials.
+     */
+    public void setCheckMaterials(boolean checkMaterials) {
+        this.checkMaterials = checkMaterials;
+    }
+
+    /** Called by WgModelBatch inside its render pass, camera.combined is already in WebGPU depth range. */
+    void draw(Camera camera, WebGPURenderPass pass) {
+        if (defining)
+            throw new RuntimeException("Cannot draw the bundle while defining its content");
+        if (renderables.size == 0)
+            return;
+        if (dirty || !matchesTarget(pass) || (checkMaterials && computeMaterialsHash() != materialsHash)) {
+            // a shader whose instance buffer grew during the recording has a new buffer, record again to use it
+            int version;
+            do {
+                version = instanceBufferVersions();
+                record(camera, pass);
+            } while (instanceBufferVersions() != version);
+        }
+
+        // the bundle refers to the uniform buffer slices of its shaders, refresh their content
+        for (WgDefaultShader shader : shaders)
+            shader.beginFrameUniforms();
+        for (int i = 0; i < beginShaders.size; i++)
+            beginShaders.get(i).writeFrameUniforms(camera, beginRenderables.get(i));
+
+        WGPUVectorRenderBundle bundles = WGPUVectorRenderBundle.obtain();
+        bundles.push_back(bundle);
+        pass.executeBundles(bundles);
+    }
+
+    private boolean matchesTarget(WebGPURenderPass pass) {
+        if (pass.getSampleCount() != recordedSamples || pass.getDepthFormat() != recordedDepthFormat)
+            return false;
+        WGPUTextureFormat[] formats = pass.getColorFormats();
+        if (recordedFormats == null || formats.length != recordedFormats.length)
+            return false;
+        for (int i = 0; i < formats.length; i++)
+            if (formats[i] != recordedFormats[i])
+                return false;
+        return true;
+    }
+
+    private int instanceBufferVersions() {
+        int versions = 0;
+        for (int i = 0; i < renderables.size; i++)
+            versions += ((WgDefaultShader) renderables.get(i).shader).getInstanceBufferVersion();
+        return versions;
+    }
+
+    private int computeMaterialsHash() {
+        int hash = 1;
+        for (int i = 0; i < renderables.size; i++)
+            hash = 31 * hash + renderables.get(i).material.attributesHash();
+        return hash;
+    }
+
+    private void record(Camera camera, WebGPURenderPass pass) {
+        if (bundle != null) {
+            bundle.release();
+            bundle.dispose();
+        }
+        WGPUTextureFormat[] formats = pass.getColorFormats();
+        recordedFormats = formats.clone();
+        recordedDepthFormat = pass.getDepthFormat();
+        recordedSamples = pass.getSampleCount();
+
+        WGPURenderBundleEncoderDescriptor descriptor = WGPURenderBundleEncoderDescriptor.obtain();
+        descriptor.setLabel("Render bundle");
+        WGPUVectorTextureFormat colorFormats = WGPUVectorTextureFormat.obtain();
+        for (WGPUTextureFormat format : formats)
+            colorFormats.push_back(format);
+        descriptor.setColorFormats(colorFormats);
+        descriptor.setDepthStencilFormat(
+                recordedDepthFormat == null ? WGPUTextureFormat.Undefined : recordedDepthFormat);
+        descriptor.setSampleCount(recordedSamples);
+        descriptor.setDepthReadOnly(false);
+        descriptor.setStencilReadOnly(false);
+        WGPURenderBundleEncoder encoder = new WGPURenderBundleEncoder();
+        webgpu.device.createRenderBundleEncoder(descriptor, encoder);
+
+        WebGPURenderPass bundlePass = WebGPURenderPass.obtain();
+        bundlePass.beginBundle(encoder, pass.type, formats, recordedDepthFormat, recordedSamples, pass.targetWidth,
+                pass.targetHeight);
+
+        sorter.sort(camera, renderables);
+        beginShaders.clear();
+        beginRenderables.clear();
+        shaders.clear();
+        for (Renderable renderable : renderables)
+            if (shaders.add((WgDefaultShader) renderable.shader))
+                ((WgDefaultShader) renderable.shader).invalidateFrame(); // start at the beginning of its buffers
+
+        drawCalls = 0;
+        WgDefaultShader currentShader = null;
+        for (Renderable renderable : renderables) {
+            if (currentShader != renderable.shader) {
+                if (currentShader != null) {
+                    currentShader.end();
+                    drawCalls += currentShader.drawCalls;
+                }
+                currentShader = (WgDefaultShader) renderable.shader;
+                currentShader.begin(camera, renderable, bundlePass);
+                beginShaders.add(currentShader);
+                beginRenderables.add(renderable);
+            }
+            currentShader.render(renderable);
+        }
+        if (currentShader != null) {
+            currentShader.end();
+            drawCalls += currentShader.drawCalls;
+        }
+
+        bundle = new WGPURenderBundle();
+        bundlePass.finishBundle("Render bundle", bundle);
+        materialsHash = computeMaterialsHash();
+        // draw calls with a pipeline that is still being created were skipped, record again until all are ready
+        dirty = hasPendingPipelines();
+        recordings++;
+    }
+
+    private boolean hasPendingPipelines() {
+        for (WgDefaultShader shader : shaders)
+            if (shader.getPendingPipelineCount() > 0)
+                return true;
+        return false;
+    }
+
+    @Override
+    public void dispose() {
+        if (bundle != null) {
+            bundle.release();
+            bundle.dispose();
+            bundle = null;
+        }
+        renderablesPool.flush();
+        shaderProvider.dispose();
+        if (ownsConfig && shaderProvider.config.materials != null)
+            shaderProvider.config.materials.dispose();
+    }
+}
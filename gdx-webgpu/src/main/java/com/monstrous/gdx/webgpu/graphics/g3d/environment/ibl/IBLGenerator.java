@@ -204,6 +204,8 @@ public class IBLGenerator {
                 localEncoder.finish(cmdBufferDescriptor, command);
                 localEncoder.release();
 
+                if (webgpu.stagingBelt != null)
+                    webgpu.stagingBelt.flush(); // upload the uniforms of the pass first
                 webgpu.queue.submit(command);
                 command.release();
 
@@ -297,6 +299,8 @@ public class IBLGenerator {
 
             localEncoder.finish(cmdBufferDescriptor, command);
             localEncoder.release();
+            if (webgpu.stagingBelt != null)
+                webgpu.stagingBelt.flush(); // upload the uniforms of the pass first
             webgpu.queue.submit(command);
             command.release();
 
@@ -43,6 +43,7 @@ import com.monstrous.gdx.webgpu.graphics.g3d.attributes.CSMShadowAttribute;
 import com.monstrous.gdx.webgpu.graphics.g3d.attributes.CascadedShadowAttribute;
 import com.monstrous.gdx.webgpu.graphics.g3d.attributes.PBRFloatAttribute;
 import com.monstrous.gdx.webgpu.graphics.g3d.environment.WgCascadedShadowLight;
+import com.monstrous.gdx.webgpu.graphics.g3d.utils.WgNormalMatrixCache;
 import com.monstrous.gdx.webgpu.wrappers.*;
 
 /** Default shader to render renderables */
@@ -55,7 +56,14 @@ public class WgDefaultShader extends WgShader implements Disposable {
     protected final WebGPUUniformBuffer uniformBuffer;
     protected int uniformOffset;
     protected final int uniformBufferSize;
-    protected final WebGPUUniformBuffer instanceBuffer;
+    protected WebGPUUniformBuffer instanceBuffer; // replaced by a larger one when it is full
+    protected final int instanceSize; // bytes per instance in the instance buffer
+    protected final boolean hasMorphWeights; // instance data includes 8 morph weights
+    private int instanceCapacity; // instances per frame that fit in the instance buffer
+    private int instanceBufferVersion;
+    private final Array<WebGPUUniformBuffer> retiredInstanceBuffers = new Array<>();
+    private int retiredFrame;
+    private final WebGPUBindGroupLayout instancingLayout;
     protected final WebGPUUniformBuffer jointMatricesBuffer;
     protected MaterialsCache materials;
     // Fallback textures used when createMaterialLayout() is overridden — owned and disposed here.
@@ -66,6 +74,8 @@ public class WgDefaultShader extends WgShader implements Disposable {
     private int rigSize; // bytes per rigged instance
     protected final PipelineCache pipelineCache; // cache of pipelines for different render targets
     private final float[] tmpWeights = new float[8];
+    /** normal matrices of the instances, statistics are reset every frame */
+    public final WgNormalMatrixCache normalMatrices = new WgNormalMatrixCache(1024);
     protected final WGPUPipelineLayout pipelineLayout;
     protected final PipelineSpecification pipelineSpec;
     protected WebGPURenderPass renderPass;
@@ -97,6 +107,11 @@ public class WgDefaultShader extends WgShader implements Disposable {
     protected Color linearFogColor;
     protected final WgTexture brdfLUT;
     protected int maxRenderPassesPerFrame = 16; // Support up to 16 render passes per frame with this shader
+    // handles of the frame uniforms that are set for every pass, resolved on first use
+    private Binder.Uniform projectionViewUniform, cameraPositionUniform, normalMapStrengthUniform;
+    private Binder.Uniform ambientLightUniform, fogColorUniform, numDirLightsUniform, numPointLightsUniform;
+    private Binder.Uniform dirLightColorUniform, dirLightDirectionUniform;
+    private Binder.Uniform pointLightColorUniform, pointLightPositionUniform, pointLightIntensityUniform;
 
     public WgDefaultShader(final Renderable renderable) {
         this(renderable, new WgModelBatch.Config());
@@ -152,8 +167,10 @@ public class WgDefaultShader extends WgShader implements Disposable {
         // Create uniform buffer for global (per-frame) uniforms, e.g. projection matrix, camera position, etc.
         // Use multiple slices to support multiple render passes per frame with different camera/lighting state
 
-        uniformBuffer = new WebGPUUniformBuffer(uniformBufferSize, WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Uniform),
-                maxRenderPassesPerFrame);
+        // With several frames in flight, each frame gets its own region of the buffers that are rewritten per frame
+        int framesInFlight = webgpu.getFramesInFlight();
+        uniformBuffer = new WebGPUUniformBuffer("ModelBatch uniforms", uniformBufferSize,
+                WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Uniform), maxRenderPassesPerFrame, framesInFlight);
 
 
         rigSize = config.numBones * 16 * Float.BYTES;
@@ -163,7 +180,18 @@ public class WgDefaultShader extends WgShader implements Disposable {
         binder.defineGroup(0, createFrameBindGroupLayout(uniformBufferSize, hasShadowMap, hasCascadedShadowMap,
                 hasCubeMap, hasDiffuseCubeMap, hasSpecularCubeMap));
         binder.defineGroup(1, materials.getBindGroupLayout());
-        binder.defineGroup(2, createInstancingBindGroupLayout());
+
+        boolean hasMorph = false;
+        for (VertexAttribute attr : renderable.meshPart.mesh.getVertexAttributes()) {
+            if (attr.alias.startsWith("a_position_morph_")) {
+                hasMorph = true;
+                break;
+            }
+        }
+        hasMorphWeights = hasMorph || !usesCompactInstances();
+        instanceSize = (hasMorphWeights ? 2 * 16 + 8 : 2 * 16) * Float.BYTES; // 2 matrices (+ 8 morph weights)
+        instancingLayout = createInstancingBindGroupLayout();
+        binder.defineGroup(2, instancingLayout);
         if (hasBones)
             binder.defineGroup(3, createSkinningBindGroupLayout(rigSize));
 
@@ -204,28 +232,18 @@ public class WgDefaultShader extends WgShader implements Disposable {
 
         binder.defineBinding("jointMatrices", 3, 0);
 
-        boolean hasMorph = false;
-        for (VertexAttribute attr : renderable.meshPart.mesh.getVertexAttributes()) {
-            if (attr.alias.startsWith("a_position_morph_")) {
-                hasMorph = true;
-                break;
-            }
-        }
-
         // set binding 0 to uniform buffer
         binder.setBuffer("uniforms", uniformBuffer, 0, uniformBufferSize);
 
 
         // binder.setBuffer("materialUniforms", materialBuffer, 0, materialSize);
 
-        int instanceSize = (2 * 16 + 8) * Float.BYTES; // 2 matrices + 8 morph weights
-
-        // for now we use a uniform buffer, but we organize data as an array of modelMatrix
-        // we are not using dynamic offsets, but we will index the array in teh shader code using the instance_index
-        instanceBuffer = new WebGPUUniformBuffer(instanceSize * config.maxInstances,
-                WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Storage));
-
-        binder.setBuffer("instanceUniforms", instanceBuffer, 0, instanceSize * config.maxInstances);
+        // The instance data is a read-only storage buffer, organized as an array of ModelUniforms that the shader
+        // code indexes with the instance_index. The region of the current frame is selected with a dynamic offset.
+        // config.maxInstances is the initial capacity, the buffer grows when it is exceeded.
+        instanceCapacity = Math.max(1, config.maxInstances);
+        instanceBuffer = createInstanceBuffer(instanceCapacity);
+        binder.setBuffer("instanceUniforms", instanceBuffer, 0, instanceSize * instanceCapacity);
 
         if (hasBones) {
             int numJoints = config.numBones; // todo fixed number or renderable dependent?
@@ -233,8 +251,8 @@ public class WgDefaultShader extends WgShader implements Disposable {
                 throw new GdxRuntimeException("Too many bones in model. NumBones is configured as " + config.numBones
                         + ". Renderable has " + renderable.bones.length);
 
-            jointMatricesBuffer = new WebGPUUniformBuffer(rigSize, WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Storage),
-                    config.maxRigged);
+            jointMatricesBuffer = new WebGPUUniformBuffer("ModelBatch joints", rigSize,
+                    WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Storage), config.maxRigged, framesInFlight);
             binder.setBuffer("jointMatrices", jointMatricesBuffer, 0, rigSize);
         } else {
             jointMatricesBuffer = null;
@@ -279,6 +297,8 @@ public class WgDefaultShader extends WgShader implements Disposable {
         primitiveType = renderable.meshPart.primitiveType;
         if (primitiveType == GL20.GL_LINES) // todo all cases
             pipelineSpec.topology = WGPUPrimitiveTopology.LineList;
+        // identifies this shader in a pipeline manifest, to replay only its own pipelines
+        pipelineSpec.variant = createVariant(renderable, hasShadowMap, hasCascadedShadowMap);
 
         pipelineSpec.maxDirLights = config.maxDirectionalLights;
         pipelineSpec.maxPointLights = config.maxPointLights;
@@ -286,6 +306,7 @@ public class WgDefaultShader extends WgShader implements Disposable {
         // System.out.println("pipeline spec: "+pipelineSpec.hashCode()+pipelineSpec.vertexAttributes);
 
         pipelineCache = new PipelineCache();
+        pipelineCache.setAsync(config.asyncPipelines);
 
         directionalLights = new DirectionalLight[config.maxDirectionalLights];
         for (int i = 0; i < config.maxDirectionalLights; i++)
@@ -371,11 +392,15 @@ public class WgDefaultShader extends WgShader implements Disposable {
         this.renderPass = renderPass;
 
         // Reset buffer slices at the start of each frame
+        if (webgpu.frameNumber != retiredFrame)
+            disposeRetiredInstanceBuffers(); // the frame that used them has been submitted
         if (webgpu.frameNumber != this.frameNumber) {
             instanceIndex = 0;
             numRigged = 0;
+            normalMatrices.resetStats();
             this.frameNumber = webgpu.frameNumber;
             uniformBuffer.beginSlices(); // Reset uniform buffer slices for new frame
+            instanceBuffer.beginSlices();
             if (jointMatricesBuffer != null)
                 jointMatricesBuffer.beginSlices();
         }
@@ -393,7 +418,7 @@ public class WgDefaultShader extends WgShader implements Disposable {
         binder.bindGroup(renderPass, 0, dynamicOffset);
 
         // idem for group 2 (instances), we will fill in the buffer as we go
-        binder.bindGroup(renderPass, 2);
+        binder.bindGroup(renderPass, 2, instanceBuffer.getSliceOffset());
 
         numRenderables = 0;
         drawCalls = 0;
@@ -405,28 +430,72 @@ public class WgDefaultShader extends WgShader implements Disposable {
         setPipeline(renderPass);
     }
 
+    /**
+     * Forget the current frame, so that the next begin() starts again at the beginning of the uniform and instance
+     * buffers. Used when recording a render bundle.
+     */
+    public void invalidateFrame() {
+        frameNumber = -1;
+    }
+
+    /** Start rewriting the frame uniforms of earlier begin() calls, see {@link #writeFrameUniforms}. */
+    public void beginFrameUniforms() {
+        uniformBuffer.rewindSlices();
+    }
+
+    /**
+     * Write the frame uniforms (camera, lights) of one begin() call again without encoding anything, e.g. for a
+     * recorded render bundle. Call once per recorded begin(), in the same order, after {@link #beginFrameUniforms()}.
+     */
+    public void writeFrameUniforms(Camera camera, Renderable renderable) {
+        uniformBuffer.nextSlice();
+        setUniforms(camera, renderable);
+        uniformBuffer.flush();
+    }
+
     /** set all frame level uniforms.
      * You may want to override this if your shader has additional uniforms.
      * @param camera
      * @param renderable
      */
     protected void setUniforms(Camera camera, Renderable renderable){
+        if (projectionViewUniform == null)
+            resolveFrameUniforms();
         // set global uniforms, that do not depend on renderables
         // e.g. camera, lighting, environment uniforms
         // Note: camera.combined is already remapped from OpenGL [-1,1] to WebGPU [0,1] depth
         // by WgModelBatch.begin() before shaders are invoked.
-        binder.setUniform("projectionViewTransform", camera.combined);
+        projectionViewUniform.set(camera.combined);
 
         // pass a special value in the w component of camera position that is used by the fog calculation
         tmpVec4.set(camera.position.x, camera.position.y, camera.position.z, 1.1881f / (camera.far * camera.far));
-        binder.setUniform("cameraPosition", tmpVec4);
+        cameraPositionUniform.set(tmpVec4);
 
-        binder.setUniform("normalMapStrength", 0.5f); // emphasis factor for normal map [0-1]
+        normalMapStrengthUniform.set(0.5f); // emphasis factor for normal map [0-1]
 
         // todo: different shaders may overwrite lighting uniforms if renderables have other environments ...
         bindLights(renderable.environment);
     }
 
+    // look up the frame uniforms that are set for every pass once, instead of by name each time. Ambient light and fog
+    // are only resolved when the environment has them, see bindLights().
+    private void resolveFrameUniforms() {
+        projectionViewUniform = binder.getUniform("projectionViewTransform");
+        cameraPositionUniform = binder.getUniform("cameraPosition");
+        normalMapStrengthUniform = binder.getUniform("normalMapStrength");
+        numDirLightsUniform = binder.getUniform("numDirectionalLights");
+        numPointLightsUniform = binder.getUniform("numPointLights");
+        if (config.maxDirectionalLights > 0) {
+            dirLightColorUniform = binder.getUniform("dirLight[0].color");
+            dirLightDirectionUniform = binder.getUniform("dirLight[0].direction");
+        }
+        if (config.maxPointLights > 0) {
+            pointLightColorUniform = binder.getUniform("pointLight[0].color");
+            pointLightPositionUniform = binder.getUniform("pointLight[0].position");
+            pointLightIntensityUniform = binder.getUniform("pointLight[0].intensity");
+        }
+    }
+
     private void setPipeline(WebGPURenderPass pass) {
         // Update pipeline spec to match the current render pass's format and sample count.
         // Clone the formats array — getColorFormats() returns the render pass's internal array,
@@ -463,6 +532,124 @@ public class WgDefaultShader extends WgShader implements Disposable {
         pass.setPipeline(pipeline);
     }
 
+    /**
+     * Create the pipelines of this shader that were recorded in a manifest, e.g. for other render targets, so that they
+     * are not compiled during gameplay.
+     *
+     * @param maxCreations maximum number of pipelines to create in this call
+     * @return number of recorded pipelines of this shader that still need to be created
+     */
+    public int warmUp(PipelineManifest manifest, int maxCreations) {
+        return manifest.warmUp(pipelineCache, pipelineLayout, pipelineSpec, maxCreations);
+    }
+
+    /**
+     * Key of the renderables this shader can render, recorded with its pipelines in a {@link PipelineManifest}. See
+     * {@link #createRenderable(String, Environment)}.
+     */
+    public String getVariant() {
+        return pipelineSpec.variant;
+    }
+
+    // vertex attributes, material mask, environment mask, shadow map, cascaded shadow map, bones, primitive type,
+    // blending. The fields are the ones that canRender() compares.
+    private static String createVariant(Renderable renderable, boolean hasShadowMap, boolean hasCascadedShadowMap) {
+        StringBuilder sb = new StringBuilder();
+        for (VertexAttribute attribute : renderable.meshPart.mesh.getVertexAttributes()) {
+            if (sb.length() > 0)
+                sb.append(':');
+            sb.append(attribute.usage).append(',').append(attribute.numComponents).append(',').append(attribute.type)
+                    .append(',').append(attribute.normalized).append(',').append(attribute.unit).append(',')
+                    .append(attribute.alias);
+        }
+        boolean blended = renderable.material.has(BlendingAttribute.Type)
+                && ((BlendingAttribute) renderable.material.get(BlendingAttribute.Type)).blended;
+        sb.append('|').append(renderable.material.getMask());
+        sb.append('|').append(renderable.environment == null ? 0 : renderable.environment.getMask());
+        sb.append('|').append(hasShadowMap).append('|').append(hasCascadedShadowMap);
+        sb.append('|').append(renderable.bones != null);
+        sb.append('|').append(renderable.meshPart.primitiveType);
+        sb.append('|').append(blended);
+        return sb.toString();
+    }
+
+    /**
+     * Create a renderable that this shader's variant can render, to create the shader without a model, e.g. from the
+     * variants of a {@link PipelineManifest}. The material has the attribute types of the variant with default values
+     * and the mesh only has the vertex attributes. Dispose the mesh when the shader is created.
+     *
+     * @param variant key from {@link #getVariant()}
+     * @param environment environment to render with, must have the environment attributes of the variant
+     * @return the renderable, or null if the variant was recorded with a different environment
+     */
+    public static Renderable createRenderable(String variant, Environment environment) {
+        String[] fields = variant.split("\\|");
+        if (fields.length != 8)
+            throw new IllegalArgumentException("Not a shader variant: " + variant);
+        long environmentMask = Long.parseLong(fields[2]);
+        boolean hasShadowMap = Boolean.parseBoolean(fields[3]);
+        boolean hasCascadedShadowMap = Boolean.parseBoolean(fields[4]);
+        if (environmentMask != (environment == null ? 0 : environment.getMask()))
+            return null;
+        if (hasCascadedShadowMap != (environment != null && environment.has(CascadedShadowAttribute.Type)))
+            return null;
+        if (hasShadowMap != (!hasCascadedShadowMap && environment != null && environment.shadowMap != null))
+            return null;
+
+        String[] attributeFields = fields[0].split(":");
+        VertexAttribute[] attributes = new VertexAttribute[attributeFields.length];
+        for (int i = 0; i < attributeFields.length; i++) {
+            String[] values = attributeFields[i].split(",", 6);
+            attributes[i] = new VertexAttribute(Integer.parseInt(values[0]), Integer.parseInt(values[1]),
+                    Integer.parseInt(values[2]), Boolean.parseBoolean(values[3]), values[5],
+                    Integer.parseInt(values[4]));
+        }
+
+        Material material = new Material();
+        long materialMask = Long.parseLong(fields[1]);
+        boolean blended = Boolean.parseBoolean(fields[7]);
+        for (int bit = 0; bit < 64; bit++) {
+            long type = 1L << bit;
+            if ((materialMask & type) == 0)
+                continue;
+            if (type == BlendingAttribute.Type)
+                material.set(new BlendingAttribute(blended, 1f));
+            else
+                material.set(new VariantAttribute(type));
+        }
+
+        Renderable renderable = new Renderable();
+        renderable.meshPart.mesh = new WgMesh(true, 1, 2, new VertexAttributes(attributes));
+        renderable.meshPart.primitiveType = Integer.parseInt(fields[6]);
+        renderable.material = material;
+        renderable.environment = environment;
+        if (Boolean.parseBoolean(fields[5]))
+            renderable.bones = new Matrix4[] {new Matrix4()};
+        return renderable;
+    }
+
+    // placeholder for a material attribute type of a variant, only its type is used to create the shader
+    private static class VariantAttribute extends Attribute {
+        VariantAttribute(long type) {
+            super(type);
+        }
+
+        @Override
+        public Attribute copy() {
+            return new VariantAttribute(type);
+        }
+
+        @Override
+        public int compareTo(Attribute o) {
+            return Long.compare(type, o.type);
+        }
+    }
+
+    /** Number of pipelines of this shader that are still being created, see {@link PipelineCache#setAsync(boolean)}. */
+    public int getPendingPipelineCount() {
+        return pipelineCache.getPendingCount();
+    }
+
     @Override
     public int compareTo(Shader other) {
         if (other == null)
@@ -540,20 +727,55 @@ public class WgDefaultShader extends WgShader implements Disposable {
 
     // note: the combinedAttributes are not used. The signature is maintained to remain compatible with WgShader.
     public void render(Renderable renderable, Attributes attributes) {
-        if (instanceIndex > config.maxInstances) {
-            Gdx.app.error("WebGPUModelBatch", "Too many instances, max is configured as " + config.maxInstances);
-            return;
-        }
+        if (instanceIndex >= instanceCapacity)
+            growInstanceBuffer();
 
         // renderable-specific data
 
         // add instance data to instance buffer (instance transform)
-        int offset = instanceIndex * (2 * 16 + 8) * Float.BYTES;
+        int offset = instanceIndex * instanceSize;
         // set world transform for this instance
         instanceBuffer.set(offset, renderable.worldTransform);
-        // normal matrix is transpose of inverse of world transform
-        instanceBuffer.set(offset + 16 * Float.BYTES, tmpM.set(renderable.worldTransform).inv().tra());
+        // normal matrix is transpose of inverse of world transform, without inverse for rigid and uniformly scaled
+        // transforms, otherwise cached per node
+        instanceBuffer.set(offset + 16 * Float.BYTES,
+                normalMatrices.set(renderable.userData, renderable.worldTransform, tmpM));
+
+        if (hasMorphWeights)
+            setMorphWeights(renderable, offset);
+
+        // don't use Material.hashCode() because that also looks at the id which is not relevant
+        int materialHash = renderable.material.attributesHash();
+        boolean meshPartMatch = prevRenderable != null && renderable.meshPart.equals(prevRenderable.meshPart);
+
+        if (!hasBones && prevRenderable != null && materialHash == prevMaterialHash && meshPartMatch) { // renderable.meshPart.equals(prevRenderable.meshPart)){
+            // renderable is similar to the previous one, add to an instance batch
+            // note that renderables get a copy of a mesh part not a reference to the Model's mesh part, so you can just
+            // compare references.
+            // can't put rigged renderables in a batch, because the animation may be different
+            instanceCount++;
+        } else { // either a new material or a new mesh part, we need to flush the run of instances
+
+            if (prevRenderable != null) {
 
+                if (hasBones) {
+                    setBones(prevRenderable.bones);
+                }
+                materials.bindMaterial(renderPass, prevRenderable.material);
+                renderBatch(prevRenderable.meshPart, instanceCount, firstInstance);
+            }
+            // and start a new run with the new renderable
+            instanceCount = 1;
+            firstInstance = instanceIndex; // index in the region of this frame, which is shared by all passes
+            prevRenderable = renderable;
+            prevMaterialHash = materialHash;
+        }
+        numRenderables++;
+        instanceIndex++;
+    }
+
+    // morph weights are read from the child nodes of the renderable's node
+    private void setMorphWeights(Renderable renderable, int offset) {
         // Clear previous weights
         for (int i = 0; i < 8; i++)
             tmpWeights[i] = 0;
@@ -588,35 +810,6 @@ public class WgDefaultShader extends WgShader implements Disposable {
         for (int i = 0; i < 8; i++) {
             instanceBuffer.set(offset + 32 * Float.BYTES + i * Float.BYTES, tmpWeights[i]);
         }
-
-        // don't use Material.hashCode() because that also looks at the id which is not relevant
-        int materialHash = renderable.material.attributesHash();
-        boolean meshPartMatch = prevRenderable != null && renderable.meshPart.equals(prevRenderable.meshPart);
-
-        if (!hasBones && prevRenderable != null && materialHash == prevMaterialHash && meshPartMatch) { // renderable.meshPart.equals(prevRenderable.meshPart)){
-            // renderable is similar to the previous one, add to an instance batch
-            // note that renderables get a copy of a mesh part not a reference to the Model's mesh part, so you can just
-            // compare references.
-            // can't put rigged renderables in a batch, because the animation may be different
-            instanceCount++;
-        } else { // either a new material or a new mesh part, we need to flush the run of instances
-
-            if (prevRenderable != null) {
-
-                if (hasBones) {
-                    setBones(prevRenderable.bones);
-                }
-                materials.bindMaterial(renderPass, prevRenderable.material);
-                renderBatch(prevRenderable.meshPart, instanceCount, firstInstance);
-            }
-            // and start a new run with the new renderable
-            instanceCount = 1;
-            firstInstance = numRenderables;
-            prevRenderable = renderable;
-            prevMaterialHash = materialHash;
-        }
-        numRenderables++;
-        instanceIndex++;
     }
 
     // to combine instances in single draw call if they have same mesh part
@@ -632,6 +825,104 @@ public class WgDefaultShader extends WgShader implements Disposable {
         drawCalls++;
     }
 
+    /**
+     * Size in bytes of the data per instance: world transform, normal matrix and, if {@link #hasMorphWeights}, 8 morph
+     * weights.
+     */
+    public int getInstanceSize() {
+        return instanceSize;
+    }
+
+    /** Number of instances per frame that fit in the instance buffer before it grows. */
+    public int getInstanceCapacity() {
+        return instanceCapacity;
+    }
+
+    /** Incremented each time the instance buffer is replaced by a larger one, e.g. to detect stale render bundles. */
+    public int getInstanceBufferVersion() {
+        return instanceBufferVersion;
+    }
+
+    /** Compact instance data leaves out the morph weights for meshes without morph targets. */
+    private boolean usesCompactInstances() {
+        switch (config.instanceLayout) {
+            case COMPACT:
+                return true;
+            case FULL:
+                return false;
+            default: // AUTO: only the default shader source is known to declare the morph weights within #ifdef MORPH
+                return config.shaderSource == null && getShaderSource() == defaultShader;
+        }
+    }
+
+    private WebGPUUniformBuffer createInstanceBuffer(int capacity) {
+        return new WebGPUUniformBuffer("ModelBatch instances", instanceSize * capacity,
+                WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Storage), 1, webgpu.getFramesInFlight());
+    }
+
+    /**
+     * Replace the instance buffer by one of twice the capacity. The draws that were already encoded keep using the old
+     * buffer, which is disposed in a later frame. The instances of this frame so far are copied, because the pending
+     * batch may include some of them.
+     */
+    private void growInstanceBuffer() {
+        int capacity = instanceCapacity * 2;
+        instanceBuffer.flush();
+        WebGPUUniformBuffer grown = createInstanceBuffer(capacity);
+        grown.beginSlices();
+        grown.copySlice(instanceBuffer);
+        retiredInstanceBuffers.add(instanceBuffer);
+        retiredFrame = webgpu.frameNumber;
+
+        instanceBuffer = grown;
+        instanceCapacity = capacity;
+        instanceBufferVersion++;
+        binder.setBuffer("instanceUniforms", instanceBuffer, 0, instanceSize * capacity);
+        binder.bindGroup(renderPass, 2, instanceBuffer.getSliceOffset());
+    }
+
+    private void disposeRetiredInstanceBuffers() {
+        for (WebGPUUniformBuffer buffer : retiredInstanceBuffers)
+            buffer.dispose();
+        retiredInstanceBuffers.clear();
+    }
+
+    /**
+     * Create a bind group for group 2 (instances) with another buffer of instance data, e.g. instances that are
+     * written by a compute shader. The buffer needs to hold at least one instance and the instance data must have the
+     * layout of {@link #getInstanceSize()}. The caller owns the bind group.
+     */
+    public WebGPUBindGroup createInstanceBindGroup(WebGPUBuffer buffer) {
+        return createInstanceBindGroup(buffer, buffer.getSize());
+    }
+
+    /**
+     * Create a bind group for group 2 (instances) that binds size bytes of the buffer, to be placed with the dynamic
+     * offset of {@link #renderIndirect}.
+     */
+    public WebGPUBindGroup createInstanceBindGroup(WebGPUBuffer buffer, int size) {
+        WebGPUBindGroup bindGroup = new WebGPUBindGroup(instancingLayout);
+        bindGroup.setBuffer(0, buffer, 0, size);
+        bindGroup.create();
+        return bindGroup;
+    }
+
+    /**
+     * Draw instances of the renderable's mesh part with the draw arguments in a GPU buffer. The instance data is read
+     * from the given bind group at the dynamic offset instancesOffset, see {@link #createInstanceBindGroup(WebGPUBuffer)},
+     * and the firstInstance of the draw arguments indexes into it. A non-zero firstInstance requires the
+     * IndirectFirstInstance feature, without it select the instances with instancesOffset (a multiple of the storage
+     * buffer offset alignment). Call between begin() and end() and do not mix with render() in the same begin()/end().
+     * Rigged renderables are not supported.
+     */
+    public void renderIndirect(Renderable renderable, WebGPUBindGroup instances, int instancesOffset,
+            WGPUBuffer indirectBuffer, int indirectOffset) {
+        renderPass.setBindGroup(2, instances.getBindGroup(), instancesOffset);
+        materials.bindMaterial(renderPass, renderable.material);
+        ((WgMesh) renderable.meshPart.mesh).renderIndirect(renderPass, indirectBuffer, indirectOffset);
+        drawCalls++;
+    }
+
     public void end() {
         if (prevRenderable != null) {
             if (hasBones) {
@@ -699,12 +990,12 @@ public class WgDefaultShader extends WgShader implements Disposable {
         return layout;
     }
 
-    // 2 mat4 per instance: worldTransform and normalTransform
+    // 2 mat4 per instance: worldTransform and normalTransform, and optionally the morph weights
     private WebGPUBindGroupLayout createInstancingBindGroupLayout() {
         WebGPUBindGroupLayout layout = new WebGPUBindGroupLayout("ModelBatch Binding Group Layout (instance)");
         layout.begin();
-        layout.addBuffer(0, WGPUShaderStage.Vertex, WGPUBufferBindingType.ReadOnlyStorage,
-                (2 * 16 + 8) * Float.BYTES * config.maxInstances, false);
+        // the buffer grows, so the minimum is one instance
+        layout.addBuffer(0, WGPUShaderStage.Vertex, WGPUBufferBindingType.ReadOnlyStorage, instanceSize, true); // dynamic offset per frame in flight
         layout.end();
         return layout;
     }
@@ -767,6 +1058,7 @@ public class WgDefaultShader extends WgShader implements Disposable {
     public void dispose() {
         binder.dispose();
         instanceBuffer.dispose();
+        disposeRetiredInstanceBuffers();
         uniformBuffer.dispose();
         pipelineCache.dispose();
         if (brdfLUT != null)
@@ -808,10 +1100,10 @@ public class WgDefaultShader extends WgShader implements Disposable {
         numDirectionalLights = dirs == null ? 0 : dirs.size;
         for (int i = 0; i < numDirectionalLights; i++) {
             int offset = i * 8 * Float.BYTES;
-            binder.setUniform("dirLight[0].color", offset, directionalLights[i].color);
-            binder.setUniform("dirLight[0].direction", offset, directionalLights[i].direction);
+            dirLightColorUniform.set(offset, directionalLights[i].color);
+            dirLightDirectionUniform.set(offset, directionalLights[i].direction);
         }
-        binder.setUniform("numDirectionalLights", numDirectionalLights);
+        numDirLightsUniform.set(numDirectionalLights);
         // System.out.println("numDirectionalLights "+ numDirectionalLights);
 
         if (points != null) {
@@ -833,23 +1125,28 @@ public class WgDefaultShader extends WgShader implements Disposable {
         numPointLights = points == null ? 0 : points.size;
         for (int i = 0; i < numPointLights; i++) {
             int offset = i * 12 * Float.BYTES;
-            binder.setUniform("pointLight[0].color", offset, pointLights[i].color);
-            binder.setUniform("pointLight[0].position", offset, pointLights[i].position);
-            binder.setUniform("pointLight[0].intensity", offset, pointLights[i].intensity);
+            pointLightColorUniform.set(offset, pointLights[i].color);
+            pointLightPositionUniform.set(offset, pointLights[i].position);
+            pointLightIntensityUniform.set(offset, pointLights[i].intensity);
         }
-        binder.setUniform("numPointLights", numPointLights);
+        numPointLightsUniform.set(numPointLights);
         // System.out.println("numPointLights "+ numPointLights);
 
         final ColorAttribute ambient = lights.get(ColorAttribute.class, ColorAttribute.AmbientLight);
-        if (ambient != null)
-            binder.setUniform("ambientLight", ambient.color);
+        if (ambient != null) {
+            if (ambientLightUniform == null)
+                ambientLightUniform = binder.getUniform("ambientLight");
+            ambientLightUniform.set(ambient.color);
+        }
 
         final ColorAttribute fog = lights.get(ColorAttribute.class, ColorAttribute.Fog);
         if (fog != null) {
             // Convert provided fog color from SRGB to linear, e.g. to match the background color
             linearFogColor.set(fog.color);
             GammaCorrection.toLinear(linearFogColor);
-            binder.setUniform("fogColor", linearFogColor);
+            if (fogColorUniform == null)
+                fogColorUniform = binder.getUniform("fogColor");
+            fogColorUniform.set(linearFogColor);
         }
 
         if (lights.shadowMap != null) {
@@ -1,13 +1,17 @@
 
 package com.monstrous.gdx.webgpu.graphics.g3d.shaders;
 
+import com.badlogic.gdx.graphics.g3d.Environment;
 import com.badlogic.gdx.graphics.g3d.Renderable;
 import com.badlogic.gdx.graphics.g3d.Shader;
 import com.badlogic.gdx.graphics.g3d.utils.BaseShaderProvider;
+import com.badlogic.gdx.utils.Array;
 import com.monstrous.gdx.webgpu.graphics.g3d.WgModelBatch;
+import com.monstrous.gdx.webgpu.wrappers.PipelineManifest;
 
 public class WgDefaultShaderProvider extends BaseShaderProvider {
     public final WgModelBatch.Config config;
+    private final Array<String> variants = new Array<>();
 
     public WgDefaultShaderProvider(final WgModelBatch.Config config) {
         this.config = (config == null) ? new WgModelBatch.Config() : config;
@@ -22,4 +26,53 @@ public class WgDefaultShaderProvider extends BaseShaderProvider {
         return new WgDefaultShader(renderable, config);
     }
 
+    /**
+     * Create the recorded pipelines of the shaders that were created so far, see
+     * {@link WgDefaultShader#warmUp(PipelineManifest, int)}. Render the scene once first, so that the shaders exist, or
+     * use {@link #warmUp(PipelineManifest, Environment, int)}.
+     *
+     * @return number of recorded pipelines that still need to be created
+     */
+    public int warmUp(PipelineManifest manifest, int maxCreations) {
+        int remaining = 0;
+        for (Shader shader : shaders) {
+            if (!(shader instanceof WgDefaultShader))
+                continue;
+            WgDefaultShader defaultShader = (WgDefaultShader) shader;
+            int size = defaultShader.pipelineCache.size();
+            remaining += defaultShader.warmUp(manifest, maxCreations);
+            maxCreations -= defaultShader.pipelineCache.size() - size;
+        }
+        return remaining;
+    }
+
+    /**
+     * Create the shaders of the variants that were recorded in the manifest with this environment, see
+     * {@link WgDefaultShader#createRenderable(String, Environment)}, and then their recorded pipelines. No model needs
+     * to be rendered first. Call it once per environment of the scene.
+     *
+     * @return number of recorded pipelines that still need to be created
+     */
+    public int warmUp(PipelineManifest manifest, Environment environment, int maxCreations) {
+        variants.clear();
+        manifest.getVariants("ModelBatch pipeline", variants);
+        for (String variant : variants) {
+            if (hasVariant(variant))
+                continue;
+            Renderable renderable = WgDefaultShader.createRenderable(variant, environment);
+            if (renderable == null)
+                continue; // recorded with another environment
+            getShader(renderable);
+            renderable.meshPart.mesh.dispose();
+        }
+        return warmUp(manifest, maxCreations);
+    }
+
+    private boolean hasVariant(String variant) {
+        for (Shader shader : shaders)
+            if (shader instanceof WgDefaultShader && variant.equals(((WgDefaultShader) shader).getVariant()))
+                return true;
+        return false;
+    }
+
 }
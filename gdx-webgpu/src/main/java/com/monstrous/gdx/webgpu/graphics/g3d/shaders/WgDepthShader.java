@@ -46,6 +46,7 @@ public class WgDepthShader extends WgShader {
     private final WgModelBatch.Config config;
     private static String defaultShader;
     public final Binder binder;
+    private final Binder.Uniform projectionViewUniform;
     private final WebGPUUniformBuffer uniformBuffer;
     private final int uniformBufferSize;
     private final WebGPUUniformBuffer instanceBuffer;
@@ -110,6 +111,7 @@ public class WgDepthShader extends WgShader {
 
         // set binding 0 to uniform buffer
         binder.setBuffer("uniforms", uniformBuffer, 0, uniformBufferSize);
+        projectionViewUniform = binder.getUniform("projectionViewTransform");
 
         // Calculate instance size based on whether model has morph targets
         // ModelUniforms contains: modelMatrix (16 floats) + morphWeights (4 floats) + morphWeights2 (4 floats)
@@ -256,7 +258,7 @@ public class WgDepthShader extends WgShader {
         // set global uniforms, that do not depend on renderables
         // Note: camera.combined is already remapped from OpenGL [-1,1] to WebGPU [0,1] depth
         // by WgModelBatch.begin() before shaders are invoked.
-        binder.setUniform("projectionViewTransform", camera.combined);
+        projectionViewUniform.set(camera.combined);
         uniformBuffer.flush();
 
         // bind group 0 (frame) with dynamic offset for this render pass
@@ -17,153 +17,234 @@
 package com.monstrous.gdx.webgpu.graphics.g3d.utils;
 
 import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Mesh;
 import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
 import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
 import com.badlogic.gdx.graphics.g3d.model.MeshPart;
 import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
 
-import java.util.Comparator;
+import java.util.Arrays;
 
 /**
  * Sort renderables, based on DefaultRenderableSorter. But tries to keep equivalent mesh parts together to encourage
  * instanced draw calls.
- *
- * todo sort renderables to reduce shader switches and to render front to back for opaque and back to front for
- * transparent
+ * <p>
+ * Instead of comparing renderables, one 64-bit key is computed per renderable and the keys are sorted with a radix
+ * sort. Opaque renderables come first, grouped by shader, material and mesh part, and front to back within a group.
+ * Blended renderables come last, back to front. The shader, material and mesh part ids are numbered per sort in order
+ * of appearance, so only equal materials (same attributes hash) and equal mesh parts get the same id.
+ * <p>
+ * Key layout, from the highest bit:
+ * <ul>
+ * <li>opaque: 0 | shader (10 bits) | material (14 bits) | mesh part (19 bits) | depth (20 bits)</li>
+ * <li>blended: 1 | inverted depth (20 bits) | shader (10 bits) | material (14 bits) | mesh part (19 bits)</li>
+ * </ul>
+ * Ids beyond the field size share the highest id, which only reduces the grouping. The depth is the squared distance
+ * to the camera, quantized by keeping the top bits of its float representation.
  */
-public class WgDefaultRenderableSorter implements RenderableSorter, Comparator<Renderable> {
-    private Camera camera;
+public class WgDefaultRenderableSorter implements RenderableSorter {
+    private static final int SHADER_BITS = 10;
+    private static final int MATERIAL_BITS = 14;
+    private static final int MESH_BITS = 19;
+    private static final int DEPTH_BITS = 20;
+    private static final long BLENDED_BIT = 1L << 63;
+    private static final int MAX_SHADER_ID = (1 << SHADER_BITS) - 1;
+    private static final int MAX_MATERIAL_ID = (1 << MATERIAL_BITS) - 1;
+    private static final int MAX_MESH_ID = (1 << MESH_BITS) - 1;
+    private static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+
     private final Vector3 tmpV1 = new Vector3();
-    private final Vector3 tmpV2 = new Vector3();
+
+    // ids per sort, id 0 is used for a null shader
+    private final ObjectIntMap<Shader> shaderIds = new ObjectIntMap<>();
+    private final IntIntMap materialIds = new IntIntMap();
+    private final ObjectIntMap<MeshPartKey> meshPartIds = new ObjectIntMap<>();
+    private final Array<MeshPartKey> meshPartKeys = new Array<>(); // pool, one per mesh part id
+    private final MeshPartKey lookupKey = new MeshPartKey();
+
+    private long[] keys = new long[0];
+    private long[] tmpKeys = new long[0];
+    private int[] order = new int[0];
+    private int[] tmpOrder = new int[0];
+    private Renderable[] sorted = new Renderable[0];
+    private final int[] counts = new int[8 * 256];
+
+    /** Mesh parts are equal under the same conditions as MeshPart.equals(). */
+    private static class MeshPartKey {
+        Mesh mesh;
+        int offset;
+        int size;
+        int primitiveType;
+
+        MeshPartKey set(MeshPart meshPart) {
+            mesh = meshPart.mesh;
+            offset = meshPart.offset;
+            size = meshPart.size;
+            primitiveType = meshPart.primitiveType;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof MeshPartKey))
+                return false;
+            MeshPartKey other = (MeshPartKey) o;
+            return other.mesh == mesh && other.offset == offset && other.size == size
+                    && other.primitiveType == primitiveType;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(mesh) + 31 * (offset + 31 * (size + 31 * primitiveType));
+        }
+    }
 
     @Override
     public void sort(final Camera camera, final Array<Renderable> renderables) {
-        this.camera = camera;
-        // if(renderables.size > 590){
-        // System.out.println("Big array!");
-        // verifyTransitivity(renderables);
-        // }
-        renderables.sort(this);
-    }
+        int n = renderables.size;
+        if (n < 2)
+            return;
+        if (keys.length < n) {
+            int capacity = Math.max(n, 2 * keys.length);
+            keys = new long[capacity];
+            tmpKeys = new long[capacity];
+            order = new int[capacity];
+            tmpOrder = new int[capacity];
+            sorted = new Renderable[capacity];
+        }
 
-    // private void verifyTransitivity(final Array<Renderable> renderables)
-    // {
-    // for (int i = 0; i < renderables.size; i++)
-    // {
-    // Renderable first = renderables.get(i);
-    // for (int j = 0; j < renderables.size; j++)
-    // {
-    // Renderable second = renderables.get(j);
-    // int result1 = compare(first, second);
-    // int result2 = compare(second, first);
-    // if (result1 != -result2)
-    // {
-    // // Uncomment the following line to step through the failed case
-    // //comparator.compare(first, second);
-    // throw new AssertionError("compare(" + first + ", " + second + ") == " + result1 +
-    // " but swapping the parameters returns " + result2);
-    // }
-    // }
-    // }
-    // System.out.println("Pairs are okay");
-    // for (int i = 0; i < renderables.size; i++)
-    // {
-    // Renderable first = renderables.get(i);
-    // for (int j = 0; j < renderables.size; j++)
-    // {
-    // Renderable second = renderables.get(j);
-    // int firstGreaterThanSecond = compare(first, second);
-    // if (firstGreaterThanSecond <= 0)
-    // continue;
-    // for (int k = 0; k < renderables.size; k++)
-    // {
-    // Renderable third = renderables.get(k);
-    // int secondGreaterThanThird = compare(second, third);
-    // if (secondGreaterThanThird <= 0)
-    // continue;
-    // int firstGreaterThanThird = compare(first, third);
-    // if (firstGreaterThanThird <= 0)
-    // {
-    // // Uncomment the following line to step through the failed case
-    // //comparator.compare(first, third);
-    // System.out.println("ijk "+i+" "+j+" "+k);
-    // print(first);
-    // print(second);
-    // print(third);
-    //
-    // throw new AssertionError("compare(" + first + ", " + second + ") > 0, " +
-    // "compare(" + second + ", " + third + ") > 0, but compare(" + first + ", " + third + ") == " +
-    // firstGreaterThanThird);
-    // }
-    // }
-    // }
-    // }
-    // }
+        for (int i = 0; i < n; i++) {
+            keys[i] = computeKey(camera, renderables.get(i));
+            order[i] = i;
+        }
+        shaderIds.clear();
+        materialIds.clear();
+        meshPartIds.clear();
 
-    private Vector3 getTranslation(Matrix4 worldTransform, Vector3 center, Vector3 output) {
-        if (center.isZero())
-            worldTransform.getTranslation(output);
-        else if (!worldTransform.hasRotationOrScaling())
-            worldTransform.getTranslation(output).add(center);
-        else
-            output.set(center).mul(worldTransform);
-        return output;
+        int[] result = radixSort(n);
+
+        for (int i = 0; i < n; i++)
+            sorted[i] = renderables.get(result[i]);
+        for (int i = 0; i < n; i++)
+            renderables.set(i, sorted[i]);
+        Arrays.fill(sorted, 0, n, null);
     }
 
-    // private void print(Renderable renderable){
-    // System.out.println("shader hashcode: "+renderable.shader.hashCode());
-    // System.out.println("mat attr hash: "+renderable.material.attributesHash());
-    // System.out.println("mesh part: "+hashCode(renderable.meshPart));
-    // }
+    private long computeKey(Camera camera, Renderable renderable) {
+        final boolean blended = renderable.material.has(BlendingAttribute.Type)
+                && ((BlendingAttribute) renderable.material.get(BlendingAttribute.Type)).blended;
+        long shader = shaderId(renderable.shader);
+        long material = materialId(renderable.material.attributesHash());
+        long mesh = meshPartId(renderable.meshPart);
+
+        getTranslation(renderable.worldTransform, renderable.meshPart.center, tmpV1);
+        // for non-negative floats the bit pattern increases with the value, keep the top bits
+        long depth = Float.floatToRawIntBits(camera.position.dst2(tmpV1)) >>> (31 - DEPTH_BITS);
+
+        if (blended) // back to front
+            return BLENDED_BIT | ((MAX_DEPTH - depth) << 43) | (shader << 33) | (material << 19) | mesh;
+        // grouped to reduce switches and allow instancing, then front to back
+        return (shader << 53) | (material << 39) | (mesh << 20) | depth;
+    }
 
-    @Override
-    public int compare(final Renderable o1, final Renderable o2) {
-        // if one renderable is opaque and the other is blended, put the blended last
-        final boolean b1 = o1.material.has(BlendingAttribute.Type)
-                && ((BlendingAttribute) o1.material.get(BlendingAttribute.Type)).blended;
-        final boolean b2 = o2.material.has(BlendingAttribute.Type)
-                && ((BlendingAttribute) o2.material.get(BlendingAttribute.Type)).blended;
-        if (b1 != b2)
-            return b1 ? 1 : -1; // blended goes after opaque
-
-        if (b1) { // renderables are blended, need to be depth sorted, back to front
-            getTranslation(o1.worldTransform, o1.meshPart.center, tmpV1);
-            getTranslation(o2.worldTransform, o2.meshPart.center, tmpV2);
-            // changed to dst against overflow, even though dst2 is faster
-            final float dst = camera.position.dst(tmpV1) - camera.position.dst(tmpV2);
-            return dst < 0 ? 1 : (dst > 0 ? -1 : 0);
-        } else {
-
-            // group by shader
-            if (o1.shader != o2.shader) {
-                int sh1 = o1.shader.hashCode();
-                int sh2 = o2.shader.hashCode();
-                if (sh1 != sh2)
-                    return sh1 - sh2;
-            }
+    private int shaderId(Shader shader) {
+        if (shader == null)
+            return 0;
+        int id = shaderIds.get(shader, -1);
+        if (id < 0) {
+            id = Math.min(shaderIds.size + 1, MAX_SHADER_ID);
+            shaderIds.put(shader, id);
+        }
+        return id;
+    }
 
-            // we could sort opaques closest first to maximize occlusion
-            // but here are maximizing on clustering mesh parts to allow instanced drawing
+    private int materialId(int attributesHash) {
+        int id = materialIds.get(attributesHash, -1);
+        if (id < 0) {
+            id = Math.min(materialIds.size, MAX_MATERIAL_ID);
+            materialIds.put(attributesHash, id);
+        }
+        return id;
+    }
 
-            // sort by material to reduce material switche
-            // mask off hi bits to avoid overflow problem that can lead to "Contract violation"
-            int m1 = o1.material.attributesHash() & 0xFFFFFF;
-            int m2 = o2.material.attributesHash() & 0xFFFFFF;
-            if (m1 != m2)
-                return m1 - m2;
+    private int meshPartId(MeshPart meshPart) {
+        int id = meshPartIds.get(lookupKey.set(meshPart), -1);
+        if (id < 0) {
+            id = meshPartIds.size;
+            if (id > MAX_MESH_ID)
+                return MAX_MESH_ID;
+            if (meshPartKeys.size <= id)
+                meshPartKeys.add(new MeshPartKey());
+            meshPartIds.put(meshPartKeys.get(id).set(meshPart), id);
+        }
+        return id;
+    }
 
-            // sort by mesh part
-            int h1 = hashCode(o1.meshPart);
-            int h2 = hashCode(o2.meshPart);
+    /**
+     * LSD radix sort of the first n keys, 8 bits per pass. Passes where all keys have the same byte are skipped. The
+     * sort is stable.
+     *
+     * @return the array with the original indices in sorted order
+     */
+    private int[] radixSort(int n) {
+        final int[] counts = this.counts;
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < n; i++) {
+            long key = keys[i];
+            for (int pass = 0; pass < 8; pass++)
+                counts[(pass << 8) | (int) ((key >>> (pass << 3)) & 0xFF)]++;
+        }
 
-            return h1 - h2; // sort by mesh part to cluster the same mesh parts together
+        long[] srcKeys = keys;
+        long[] dstKeys = tmpKeys;
+        int[] srcOrder = order;
+        int[] dstOrder = tmpOrder;
+        for (int pass = 0; pass < 8; pass++) {
+            final int base = pass << 8;
+            final int shift = pass << 3;
+            if (counts[base + (int) ((srcKeys[0] >>> shift) & 0xFF)] == n)
+                continue; // all keys have the same byte
+
+            int sum = 0;
+            for (int b = 0; b < 256; b++) {
+                int count = counts[base + b];
+                counts[base + b] = sum;
+                sum += count;
+            }
+            for (int i = 0; i < n; i++) {
+                long key = srcKeys[i];
+                int dst = counts[base + (int) ((key >>> shift) & 0xFF)]++;
+                dstKeys[dst] = key;
+                dstOrder[dst] = srcOrder[i];
+            }
+            long[] k = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = k;
+            int[] o = srcOrder;
+            srcOrder = dstOrder;
+            dstOrder = o;
         }
+        // keep both buffer pairs for the next sort, whichever ended up holding the result
+        keys = srcKeys;
+        tmpKeys = dstKeys;
+        order = srcOrder;
+        tmpOrder = dstOrder;
+        return srcOrder;
     }
 
-    private int hashCode(MeshPart meshPart) {
-        return meshPart.mesh.hashCode() + 31 * (meshPart.offset + 31 * (meshPart.size + 31 * meshPart.primitiveType));
+    private Vector3 getTranslation(Matrix4 worldTransform, Vector3 center, Vector3 output) {
+        if (center.isZero())
+            worldTransform.getTranslation(output);
+        else if (!worldTransform.hasRotationOrScaling())
+            worldTransform.getTranslation(output).add(center);
+        else
+            output.set(center).mul(worldTransform);
+        return output;
     }
 }
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.graphics.g3d.utils;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Removes renderables that are outside the camera frustum. Each renderable is tested with the bounding sphere of its
+ * mesh part (center and radius) transformed by its world transform. Renderables with bones, or with a mesh part
+ * without bounds (radius 0), are always kept, because their bounds are not known.
+ * <p>
+ * With an executor, large arrays are tested in parallel in ranges of at least {@link #minPerTask} renderables. The
+ * calling thread tests one range itself and waits for the others. The test only reads the renderables and the
+ * camera frustum.
+ */
+public class WgFrustumCuller {
+    /** minimum number of renderables per parallel task */
+    public int minPerTask = 2048;
+    /** maximum number of parallel tasks, including the calling thread */
+    public int maxTasks = 4;
+
+    private boolean[] visible = new boolean[0];
+    private final Array<CullTask> tasks = new Array<>();
+    private final Object lock = new Object();
+    private int pending; // tasks still running, guarded by lock
+    private RuntimeException failure; // first exception thrown by a task, guarded by lock
+
+    private class CullTask implements Runnable {
+        private final Vector3 center = new Vector3();
+        Frustum frustum;
+        Array<Renderable> renderables;
+        int from, to;
+
+        @Override
+        public void run() {
+            try {
+                test(frustum, renderables, from, to, center);
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    if (failure == null)
+                        failure = e;
+                }
+            } finally {
+                synchronized (lock) {
+                    pending--;
+                    if (pending == 0)
+                        lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the renderables from index {@code from} onwards that are outside the frustum of the camera, keeping the
+     * order of the others.
+     *
+     * @param executor runs the parallel tasks, or null to test everything on the calling thread
+     * @return the number of renderables that were removed
+     */
+    public int cull(Camera camera, Array<Renderable> renderables, int from, Executor executor) {
+        int count = renderables.size - from;
+        if (count <= 0)
+            return 0;
+        if (visible.length < renderables.size)
+            visible = new boolean[Math.max(renderables.size, 2 * visible.length)];
+
+        int numTasks = executor == null ? 1 : Math.min(maxTasks, count / minPerTask);
+        if (numTasks <= 1) {
+            CullTask task = getTask(0);
+            test(camera.frustum, renderables, from, renderables.size, task.center);
+        } else {
+            runParallel(camera.frustum, renderables, from, count, numTasks, executor);
+        }
+
+        // compact the array, keeping the order
+        int j = from;
+        for (int i = from; i < renderables.size; i++) {
+            if (visible[i])
+                renderables.set(j++, renderables.get(i));
+        }
+        int culled = renderables.size - j;
+        renderables.truncate(j);
+        return culled;
+    }
+
+    private void runParallel(Frustum frustum, Array<Renderable> renderables, int from, int count, int numTasks,
+            Executor executor) {
+        int rangeSize = (count + numTasks - 1) / numTasks;
+        synchronized (lock) {
+            pending = numTasks - 1;
+            failure = null;
+        }
+        for (int t = 1; t < numTasks; t++) {
+            CullTask task = getTask(t);
+            task.frustum = frustum;
+            task.renderables = renderables;
+            task.from = from + t * rangeSize;
+            task.to = Math.min(renderables.size, task.from + rangeSize);
+            executor.execute(task);
+        }
+        test(frustum, renderables, from, from + rangeSize, getTask(0).center);
+
+        synchronized (lock) {
+            while (pending > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for culling tasks", e);
+                }
+            }
+            if (failure != null)
+                throw failure;
+        }
+        for (int t = 1; t < numTasks; t++)
+            getTask(t).renderables = null;
+    }
+
+    private CullTask getTask(int index) {
+        while (tasks.size <= index)
+            tasks.add(new CullTask());
+        return tasks.get(index);
+    }
+
+    private void test(Frustum frustum, Array<Renderable> renderables, int from, int to, Vector3 center) {
+        for (int i = from; i < to; i++)
+            visible[i] = isVisible(frustum, renderables.get(i), center);
+    }
+
+    /** Test the bounding sphere of the renderable's mesh part against the frustum. */
+    public static boolean isVisible(Frustum frustum, Renderable renderable, Vector3 tmp) {
+        float radius = getBoundingSphere(renderable, tmp);
+        if (radius < 0f)
+            return true; // unknown bounds
+        return frustum.sphereInFrustum(tmp, radius);
+    }
+
+    /**
+     * Get the bounding sphere of the renderable's mesh part in world space.
+     *
+     * @param center output: the center of the sphere
+     * @return the radius, or -1 if the bounds are not known (rigged renderable or mesh part without bounds)
+     */
+    public static float getBoundingSphere(Renderable renderable, Vector3 center) {
+        MeshPart meshPart = renderable.meshPart;
+        if (meshPart.radius <= 0f || renderable.bones != null)
+            return -1f;
+        Matrix4 transform = renderable.worldTransform;
+        center.set(meshPart.center).mul(transform);
+        return meshPart.radius * maxScale(transform);
+    }
+
+    /**
+     * CPU reference of the culling and compaction that the compute shader of WgIndirectInstances does
+     * ("shaders/modelbatch.cull.wgsl"). Each instance belongs to a batch, and the visible instances of a batch are
+     * stored from the start of the batch onwards. The GPU fills a batch in arbitrary order, this method in the order of
+     * the instances, so compare the content of a batch as a set.
+     *
+     * @param spheres center x, y, z and radius per instance, in world space
+     * @param batchIds batch per instance
+     * @param numInstances number of instances
+     * @param batchStarts first index in the compacted array per batch
+     * @param numBatches number of batches
+     * @param counts output: number of visible instances per batch
+     * @param compacted output: index of each visible instance, from batchStarts[batch] onwards
+     * @return the total number of visible instances
+     */
+    public static int cullInstances(Frustum frustum, float[] spheres, int[] batchIds, int numInstances,
+            int[] batchStarts, int numBatches, int[] counts, int[] compacted) {
+        for (int b = 0; b < numBatches; b++)
+            counts[b] = 0;
+        int visible = 0;
+        for (int i = 0; i < numInstances; i++) {
+            int s = 4 * i;
+            if (!frustum.sphereInFrustum(spheres[s], spheres[s + 1], spheres[s + 2], spheres[s + 3]))
+                continue;
+            int batch = batchIds[i];
+            compacted[batchStarts[batch] + counts[batch]] = i;
+            counts[batch]++;
+            visible++;
+        }
+        return visible;
+    }
+
+    // largest scale factor of the transform, so that the sphere encloses the scaled mesh
+    private static float maxScale(Matrix4 transform) {
+        float[] m = transform.val;
+        float sx = m[Matrix4.M00] * m[Matrix4.M00] + m[Matrix4.M10] * m[Matrix4.M10] + m[Matrix4.M20] * m[Matrix4.M20];
+        float sy = m[Matrix4.M01] * m[Matrix4.M01] + m[Matrix4.M11] * m[Matrix4.M11] + m[Matrix4.M21] * m[Matrix4.M21];
+        float sz = m[Matrix4.M02] * m[Matrix4.M02] + m[Matrix4.M12] * m[Matrix4.M12] + m[Matrix4.M22] * m[Matrix4.M22];
+        return (float) Math.sqrt(Math.max(sx, Math.max(sy, sz)));
+    }
+}
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.graphics.g3d.utils;
+
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * Computes normal matrices (the transpose of the inverse of the world transform) without inverting a matrix per
+ * renderable per frame.
+ * <p>
+ * For rigid transforms and transforms with a uniform scale, the upper 3x3 of the normal matrix is the upper 3x3 of the
+ * world transform divided by the squared scale, which is detected and computed without an inverse. Other transforms
+ * are inverted once and cached per key (e.g. the Node of a renderable) until the world transform changes. The cache is
+ * direct-mapped: keys that share a slot evict each other, which costs an inversion but is never wrong, because the
+ * world transform is compared as well. Only the upper 3x3 of the result is meaningful, the rest is identity.
+ */
+public class WgNormalMatrixCache {
+    /** relative tolerance for the uniform scale test */
+    public static float epsilon = 1e-5f;
+
+    private final int mask;
+    private Object[] keys; // allocated on the first transform that needs an inverse
+    private float[] worlds; // 9 floats per slot: upper 3x3 of the world transform
+    private float[] normals; // 9 floats per slot: upper 3x3 of the normal matrix
+
+    // statistics since resetStats()
+    public int uniformScale; // normal matrices without inverse
+    public int cacheHits; // normal matrices from the cache
+    public int inversions; // normal matrices with an inverse
+
+    /** @param capacity number of cached inverses, rounded up to a power of two */
+    public WgNormalMatrixCache(int capacity) {
+        int size = 1;
+        while (size < capacity)
+            size <<= 1;
+        mask = size - 1;
+    }
+
+    /**
+     * Set out to the normal matrix of the world transform.
+     *
+     * @param key identifies the transform between frames, e.g. renderable.userData. May be null to skip the cache.
+     * @return out
+     */
+    public Matrix4 set(Object key, Matrix4 world, Matrix4 out) {
+        if (setUniformScale(world, out)) {
+            uniformScale++;
+            return out;
+        }
+        if (key == null) {
+            inversions++;
+            return setInverseTranspose(world, out);
+        }
+        if (keys == null) {
+            keys = new Object[mask + 1];
+            worlds = new float[9 * (mask + 1)];
+            normals = new float[9 * (mask + 1)];
+        }
+        int h = System.identityHashCode(key);
+        int slot = (h ^ (h >>> 16)) & mask;
+        int base = 9 * slot;
+        float[] w = world.val;
+        if (keys[slot] == key && worlds[base] == w[Matrix4.M00] && worlds[base + 1] == w[Matrix4.M10]
+                && worlds[base + 2] == w[Matrix4.M20] && worlds[base + 3] == w[Matrix4.M01]
+                && worlds[base + 4] == w[Matrix4.M11] && worlds[base + 5] == w[Matrix4.M21]
+                && worlds[base + 6] == w[Matrix4.M02] && worlds[base + 7] == w[Matrix4.M12]
+                && worlds[base + 8] == w[Matrix4.M22]) {
+            cacheHits++;
+            float[] n = normals;
+            out.idt();
+            out.val[Matrix4.M00] = n[base];
+            out.val[Matrix4.M10] = n[base + 1];
+            out.val[Matrix4.M20] = n[base + 2];
+            out.val[Matrix4.M01] = n[base + 3];
+            out.val[Matrix4.M11] = n[base + 4];
+            out.val[Matrix4.M21] = n[base + 5];
+            out.val[Matrix4.M02] = n[base + 6];
+            out.val[Matrix4.M12] = n[base + 7];
+            out.val[Matrix4.M22] = n[base + 8];
+            return out;
+        }
+        inversions++;
+        setInverseTranspose(world, out);
+        keys[slot] = key;
+        copy3x3(w, worlds, base);
+        copy3x3(out.val, normals, base);
+        return out;
+    }
+
+    public void resetStats() {
+        uniformScale = 0;
+        cacheHits = 0;
+        inversions = 0;
+    }
+
+    /** Forget all cached inverses, e.g. when the nodes they belong to are discarded. */
+    public void clear() {
+        if (keys != null)
+            java.util.Arrays.fill(keys, null);
+    }
+
+    /**
+     * Set out to the normal matrix of the world transform if its upper 3x3 is a rotation times a uniform scale. The
+     * normal matrix of s * R is R / s, which is the world transform divided by s squared.
+     *
+     * @return false if the transform has a non-uniform scale or shear, out is then unchanged
+     */
+    public static boolean setUniformScale(Matrix4 world, Matrix4 out) {
+        float[] m = world.val;
+        float x0 = m[Matrix4.M00], y0 = m[Matrix4.M10], z0 = m[Matrix4.M20];
+        float x1 = m[Matrix4.M01], y1 = m[Matrix4.M11], z1 = m[Matrix4.M21];
+        float x2 = m[Matrix4.M02], y2 = m[Matrix4.M12], z2 = m[Matrix4.M22];
+        float len0 = x0 * x0 + y0 * y0 + z0 * z0;
+        float len1 = x1 * x1 + y1 * y1 + z1 * z1;
+        float len2 = x2 * x2 + y2 * y2 + z2 * z2;
+        float tolerance = epsilon * len0;
+        if (len0 == 0 || Math.abs(len1 - len0) > tolerance || Math.abs(len2 - len0) > tolerance)
+            return false;
+        if (Math.abs(x0 * x1 + y0 * y1 + z0 * z1) > tolerance || Math.abs(x0 * x2 + y0 * y2 + z0 * z2) > tolerance
+                || Math.abs(x1 * x2 + y1 * y2 + z1 * z2) > tolerance)
+            return false;
+        float inv = 1f / len0;
+        out.idt();
+        float[] n = out.val;
+        n[Matrix4.M00] = x0 * inv;
+        n[Matrix4.M10] = y0 * inv;
+        n[Matrix4.M20] = z0 * inv;
+        n[Matrix4.M01] = x1 * inv;
+        n[Matrix4.M11] = y1 * inv;
+        n[Matrix4.M21] = z1 * inv;
+        n[Matrix4.M02] = x2 * inv;
+        n[Matrix4.M12] = y2 * inv;
+        n[Matrix4.M22] = z2 * inv;
+        return true;
+    }
+
+    /** Set out to the transpose of the inverse of the upper 3x3 of the world transform, the rest is identity. */
+    public static Matrix4 setInverseTranspose(Matrix4 world, Matrix4 out) {
+        float[] m = world.val;
+        float a = m[Matrix4.M00], b = m[Matrix4.M01], c = m[Matrix4.M02];
+        float d = m[Matrix4.M10], e = m[Matrix4.M11], f = m[Matrix4.M12];
+        float g = m[Matrix4.M20], h = m[Matrix4.M21], i = m[Matrix4.M22];
+        // cofactors, the inverse transpose is the cofactor matrix divided by the determinant
+        float c00 = e * i - f * h, c01 = f * g - d * i, c02 = d * h - e * g;
+        float c10 = c * h - b * i, c11 = a * i - c * g, c12 = b * g - a * h;
+        float c20 = b * f - c * e, c21 = c * d - a * f, c22 = a * e - b * d;
+        float det = a * c00 + b * c01 + c * c02;
+        if (det == 0)
+            throw new IllegalArgumentException("Non-invertible world transform");
+        float inv = 1f / det;
+        out.idt();
+        float[] n = out.val;
+        n[Matrix4.M00] = c00 * inv;
+        n[Matrix4.M01] = c01 * inv;
+        n[Matrix4.M02] = c02 * inv;
+        n[Matrix4.M10] = c10 * inv;
+        n[Matrix4.M11] = c11 * inv;
+        n[Matrix4.M12] = c12 * inv;
+        n[Matrix4.M20] = c20 * inv;
+        n[Matrix4.M21] = c21 * inv;
+        n[Matrix4.M22] = c22 * inv;
+        return out;
+    }
+
+    private static void copy3x3(float[] m, float[] dst, int base) {
+        dst[base] = m[Matrix4.M00];
+        dst[base + 1] = m[Matrix4.M10];
+        dst[base + 2] = m[Matrix4.M20];
+        dst[base + 3] = m[Matrix4.M01];
+        dst[base + 4] = m[Matrix4.M11];
+        dst[base + 5] = m[Matrix4.M21];
+        dst[base + 6] = m[Matrix4.M02];
+        dst[base + 7] = m[Matrix4.M12];
+        dst[base + 8] = m[Matrix4.M22];
+    }
+}
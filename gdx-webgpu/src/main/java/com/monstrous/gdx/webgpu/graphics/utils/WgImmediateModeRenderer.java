@@ -42,6 +42,8 @@ public class WgImmediateModeRenderer implements ImmediateModeRenderer {
     private final int maxVertices;
     private int numVertices;
     private int vbOffset;
+    private int vbRegionSize; // bytes of vertex buffer per frame in flight
+    private int vbRegionEnd; // end of the region of the current frame
     private int frameNumber;
     private final int maxFlushes = 100;
 
@@ -147,7 +149,9 @@ public class WgImmediateModeRenderer implements ImmediateModeRenderer {
     public void begin(Matrix4 projModelView, int primitiveType) {
         if (webgpu.frameNumber != frameNumber) {
             frameNumber = webgpu.frameNumber;
-            vbOffset = 0;
+            // each frame in flight has its own region of the vertex buffer
+            vbOffset = vbRegionSize * (frameNumber % webgpu.getFramesInFlight());
+            vbRegionEnd = vbOffset + vbRegionSize;
             uniformBuffer.beginSlices();
         }
         // we reset vertexIdx and numVertices at the start of every FLUSH/end of FLUSH,
@@ -225,7 +229,7 @@ public class WgImmediateModeRenderer implements ImmediateModeRenderer {
 
         // ensure vbOffset is aligned to 4 bytes
         vbOffset = (vbOffset + 3) & ~3;
-        if (vbOffset + numBytes > vertexBuffer.getSize()) {
+        if (vbOffset + numBytes > vbRegionEnd) {
             Gdx.app.error("WgImmediateModeRenderer", "Vertex buffer overflow. Increase maxVertices or maxFlushes.");
             return;
         }
@@ -323,13 +327,16 @@ public class WgImmediateModeRenderer implements ImmediateModeRenderer {
     private void createBuffers() {
 
         // Create vertex buffer (no index buffer)
+        int framesInFlight = webgpu.getFramesInFlight();
+        vbRegionSize = maxVertices * maxFlushes * vertexSize * Float.BYTES;
+        vbRegionEnd = vbRegionSize;
         vertexBuffer = new WebGPUVertexBuffer(WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Vertex),
-                maxVertices * maxFlushes * vertexSize * Float.BYTES);
+                vbRegionSize * framesInFlight);
 
         // Create uniform buffer for the projection matrix
         uniformBufferSize = 16 * Float.BYTES;
         uniformBuffer = new WebGPUUniformBuffer("ImmediateModeRenderer uniform buffer", uniformBufferSize,
-                WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Uniform), maxFlushes);
+                WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Uniform), maxFlushes, framesInFlight);
     }
 
     private void setUniforms() {
@@ -0,0 +1,697 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.maps.tiled.renderers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.*;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.github.xpenatan.webgpu.*;
+import com.monstrous.gdx.webgpu.application.WebGPUContext;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
+import com.monstrous.gdx.webgpu.graphics.Binder;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+import com.monstrous.gdx.webgpu.graphics.g3d.WgIndexBuffer;
+import com.monstrous.gdx.webgpu.wrappers.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+import static com.badlogic.gdx.graphics.g2d.Batch.*;
+
+/**
+ * Orthogonal tiled map renderer that keeps tile layers on the GPU.
+ * <p>
+ * Each tile layer is split into chunks of {@code chunkSize} x {@code chunkSize} cells. The vertices of a chunk are
+ * built once into a GPU vertex buffer and are only rebuilt when the chunk is invalidated. Per frame, the chunks that
+ * overlap the view are looked up from the view rectangle and drawn with one draw call per run of cells with the same
+ * texture, so the CPU cost no longer grows with the number of visible cells.
+ * <p>
+ * Changes to the map are not detected automatically: after {@code setCell()} or changing a tile, call
+ * {@link #invalidateCell(TiledMapTileLayer, int, int)}, {@link #invalidate(TiledMapTileLayer)} or
+ * {@link #invalidate()}. A change of layer opacity or batch color rebuilds the layer.
+ * <p>
+ * Cells with an {@link AnimatedTiledMapTile} are stored in the chunks with the index of their animation in a table of
+ * frames. Once per frame the texture coordinates of the current frame of each animation are written into the table,
+ * which the vertex shader ("shaders/tiledmap.chunks.wgsl") reads, so the CPU cost is per animation instead of per
+ * animated cell. Only animations of which the frames use different textures are drawn through the batch.
+ * <p>
+ * Within a chunk, the cells keep the row order of {@link WgOrthogonalTiledMapRenderer} and are split in runs where
+ * the texture changes. Image layers, object layers and the batch state are handled as in
+ * {@link WgOrthogonalTiledMapRenderer}. The chunks are drawn in the render pass of a {@link WgSpriteBatch}, which
+ * keeps its state. Another batch is ended and begun again around each tile layer, with its color restored.
+ */
+public class WgChunkedOrthogonalTiledMapRenderer extends WgOrthogonalTiledMapRenderer {
+    private final static int SPRITE_FLOATS = 20; // 4 vertices of x, y, color, u, v as filled by setCellVertices()
+    private final static int VERTEX_FLOATS = 6; // x, y, color, u, v, animation
+    private final static int NUM_FLOATS = 4 * VERTEX_FLOATS;
+    private final static int FRAME_FLOATS = 4; // u, v2, u2, v per animation in the frame table
+    private final static int NO_ANIMATION = -1;
+    private final static int BATCH_ANIMATION = -2; // frames in different textures, drawn through the batch
+    private final static int INDICES_PER_SPRITE = 6;
+    private final static int LAYERS_PER_CHUNK = 16; // uniform slices per uniform buffer chunk
+    private final static int SHRINK_AFTER_FRAMES = 120; // release unused uniform chunks after this many frames
+
+    private final WebGPUContext webgpu;
+    private final int chunkSize;
+    private final ObjectMap<TiledMapTileLayer, LayerChunks> layers = new ObjectMap<>();
+    private final float[] cellVertices = new float[SPRITE_FLOATS];
+    private final ByteBuffer stagingBB; // vertices of the chunk being built
+    private final FloatBuffer stagingFloats;
+    private final Array<Texture> chunkTextures = new Array<>(4); // texture per run of the chunk being built
+    private final IntArray chunkCounts = new IntArray(4); // cells per run of the chunk being built
+    private final WgIndexBuffer indexBuffer;
+    private final Array<WebGPUBuffer> retiredBuffers = new Array<>(); // replaced during the frame
+    private int retiredFrame;
+    private final Array<AnimatedTiledMapTile> animations = new Array<>(); // in the order of the frame table
+    private final ObjectIntMap<AnimatedTiledMapTile> animationIndices = new ObjectIntMap<>();
+    private WebGPUBuffer frameTable;
+    private ByteBuffer frameData;
+    private int framesWritten; // animations written to the frame table in this frame
+    private final UniformChunks uniforms;
+    private final WebGPUBindGroupLayout bindGroupLayout;
+    private final WGPUPipelineLayout pipelineLayout;
+    private final PipelineSpecification pipelineSpec;
+    private final PipelineCache pipelines;
+    private final Binder binder;
+    private final Binder.Uniform projectionViewUniform;
+    private final Matrix4 combinedMatrix = new Matrix4();
+    private final Color savedColor = new Color();
+    private final Matrix4 shiftDepthMatrix;
+    private int frameNumber;
+    private static String defaultShader;
+
+    /** number of chunks drawn in the current frame */
+    public int chunksDrawn;
+    /** number of chunks rebuilt in the current frame */
+    public int chunksRebuilt;
+    /** number of draw calls for chunks in the current frame */
+    public int renderCalls;
+
+    public WgChunkedOrthogonalTiledMapRenderer(TiledMap map) {
+        this(map, 1.0f);
+    }
+
+    public WgChunkedOrthogonalTiledMapRenderer(TiledMap map, float unitScale) {
+        this(map, unitScale, new WgSpriteBatch(), 32);
+        this.ownsBatch = true;
+    }
+
+    public WgChunkedOrthogonalTiledMapRenderer(TiledMap map, float unitScale, Batch batch) {
+        this(map, unitScale, batch, 32);
+    }
+
+    /**
+     * @param map tiled map
+     * @param unitScale scale from tile pixels to world units
+     * @param batch batch for image layers, object layers and animated tiles
+     * @param chunkSize chunk width and height in cells, at most 64 so that a chunk can use 16-bit indices
+     */
+    public WgChunkedOrthogonalTiledMapRenderer(TiledMap map, float unitScale, Batch batch, int chunkSize) {
+        super(map, unitScale, batch);
+        if (chunkSize < 1 || chunkSize > 64)
+            throw new IllegalArgumentException("chunkSize must be between 1 and 64");
+        webgpu = ((WgGraphics) Gdx.graphics).getContext();
+        this.chunkSize = chunkSize;
+
+        int maxSprites = chunkSize * chunkSize;
+        stagingBB = BufferUtils.newUnsafeByteBuffer(maxSprites * NUM_FLOATS * Float.BYTES);
+        stagingBB.order(ByteOrder.LITTLE_ENDIAN); // webgpu expects little endian
+        stagingFloats = stagingBB.asFloatBuffer();
+
+        // the index buffer is shared by all chunks and only has to be filled on start-up
+        indexBuffer = new WgIndexBuffer(true, maxSprites * INDICES_PER_SPRITE, false);
+        ShortBuffer shorts = indexBuffer.getBuffer(true);
+        for (int i = 0; i < maxSprites; i++) {
+            short vertexOffset = (short) (i * 4);
+            shorts.put(vertexOffset);
+            shorts.put((short) (vertexOffset + 1));
+            shorts.put((short) (vertexOffset + 2));
+            shorts.put(vertexOffset);
+            shorts.put((short) (vertexOffset + 2));
+            shorts.put((short) (vertexOffset + 3));
+        }
+        indexBuffer.bind(); // commit buffer contents
+
+        int uniformBufferSize = 16 * Float.BYTES;
+        bindGroupLayout = new WebGPUBindGroupLayout("TiledMap chunks bind group layout");
+        bindGroupLayout.begin();
+        bindGroupLayout.addBuffer(0, WGPUShaderStage.Vertex, WGPUBufferBindingType.Uniform, uniformBufferSize, true);
+        bindGroupLayout.addTexture(1, WGPUShaderStage.Fragment, WGPUTextureSampleType.Float,
+                WGPUTextureViewDimension._2D, false);
+        bindGroupLayout.addSampler(2, WGPUShaderStage.Fragment, WGPUSamplerBindingType.Filtering);
+        bindGroupLayout.addBuffer(3, WGPUShaderStage.Vertex, WGPUBufferBindingType.ReadOnlyStorage, 0, false);
+        bindGroupLayout.end();
+
+        binder = new Binder();
+        binder.defineGroup(0, bindGroupLayout);
+        binder.defineBinding("uniforms", 0, 0);
+        binder.defineBinding("texture", 0, 1);
+        binder.defineBinding("textureSampler", 0, 2);
+        binder.defineBinding("frames", 0, 3);
+        binder.defineUniform("projectionViewTransform", 0, 0, 0);
+        // one uniform slice per tile layer drawn, for the matrix including the parallax offset
+        uniforms = new UniformChunks(binder, 0, "uniforms", uniformBufferSize, LAYERS_PER_CHUNK, SHRINK_AFTER_FRAMES,
+                webgpu.getFramesInFlight());
+        projectionViewUniform = binder.getUniform("projectionViewTransform");
+        setFrameTableCapacity(16);
+
+        pipelineLayout = binder.getPipelineLayout("TiledMap chunks pipeline layout");
+
+        // the vertex layout of the sprite batch with the index of the animation
+        VertexAttributes vertexAttributes = new VertexAttributes(
+                new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                VertexAttribute.ColorPacked(), VertexAttribute.TexCoords(0),
+                new VertexAttribute(VertexAttributes.Usage.Generic, 1, "a_animation"));
+        pipelines = new PipelineCache();
+        pipelineSpec = new PipelineSpecification("TiledMap chunks pipeline", vertexAttributes, null);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation(ShaderProgram.POSITION_ATTRIBUTE, 0);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation(ShaderProgram.COLOR_ATTRIBUTE, 5);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation(ShaderProgram.TEXCOORD_ATTRIBUTE + "0", 1);
+        pipelineSpec.vertexLayout.setVertexAttributeLocation("a_animation", 2);
+        pipelineSpec.enableBlending();
+        pipelineSpec.setBlendFactor(WGPUBlendFactor.SrcAlpha, WGPUBlendFactor.OneMinusSrcAlpha);
+        pipelineSpec.disableDepthTest();
+        pipelineSpec.numSamples = webgpu.getSamples();
+        pipelineSpec.shaderSource = getDefaultShaderSource();
+
+        // matrix which will transform an opengl ortho matrix to a webgpu ortho matrix
+        // by scaling the Z range from [-1..1] to [0..1]
+        shiftDepthMatrix = new Matrix4().idt().scl(1, 1, -0.5f).trn(0, 0, 0.5f);
+        frameNumber = -1;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /** Rebuild all chunks of all layers when they are next drawn. */
+    public void invalidate() {
+        for (LayerChunks chunks : layers.values())
+            chunks.invalidate();
+    }
+
+    /** Rebuild all chunks of a layer when they are next drawn. */
+    public void invalidate(TiledMapTileLayer layer) {
+        LayerChunks chunks = layers.get(layer);
+        if (chunks != null)
+            chunks.invalidate();
+    }
+
+    /** Rebuild the chunk that contains this cell when it is next drawn, e.g. after {@code layer.setCell(x, y, cell)}. */
+    public void invalidateCell(TiledMapTileLayer layer, int x, int y) {
+        LayerChunks chunks = layers.get(layer);
+        if (chunks != null && x >= 0 && y >= 0 && x < layer.getWidth() && y < layer.getHeight())
+            chunks.get(x / chunkSize, y / chunkSize).dirty = true;
+    }
+
+    @Override
+    public void renderTileLayer(TiledMapTileLayer layer) {
+        if (webgpu.frameNumber != retiredFrame)
+            disposeRetiredBuffers(); // the frame that used them has been submitted
+        if (webgpu.frameNumber != frameNumber) {
+            frameNumber = webgpu.frameNumber;
+            framesWritten = -1;
+            uniforms.beginFrame(frameNumber);
+            chunksDrawn = 0;
+            chunksRebuilt = 0;
+            renderCalls = 0;
+        }
+
+        LayerChunks chunks = layers.get(layer);
+        if (chunks == null || chunks.width != layer.getWidth() || chunks.height != layer.getHeight()) {
+            if (chunks != null)
+                chunks.retire();
+            chunks = new LayerChunks(layer.getWidth(), layer.getHeight());
+            layers.put(layer, chunks);
+        }
+        final Color batchColor = batch.getColor();
+        final float color = Color.toFloatBits(batchColor.r, batchColor.g, batchColor.b,
+                batchColor.a * layer.getOpacity());
+        if (color != chunks.color) {
+            chunks.invalidate();
+            chunks.color = color;
+        }
+
+        // the parallax offset depends on the view, it is applied with the matrix instead of baked into the vertices
+        final float layerTileWidth = layer.getTileWidth() * unitScale;
+        final float layerTileHeight = layer.getTileHeight() * unitScale;
+        final float parallaxX = -viewBounds.x * (layer.getParallaxX() - 1);
+        final float parallaxY = -viewBounds.y * (layer.getParallaxY() - 1);
+        final float layerOffsetX = layer.getRenderOffsetX() * unitScale + parallaxX;
+        final float layerOffsetY = -layer.getRenderOffsetY() * unitScale + parallaxY;
+
+        final int col1 = Math.max(0, (int) ((viewBounds.x - layerOffsetX) / layerTileWidth));
+        final int col2 = Math.min(layer.getWidth(),
+                (int) ((viewBounds.x + viewBounds.width + layerTileWidth - layerOffsetX) / layerTileWidth));
+        final int row1 = Math.max(0, (int) ((viewBounds.y - layerOffsetY) / layerTileHeight));
+        final int row2 = Math.min(layer.getHeight(),
+                (int) ((viewBounds.y + viewBounds.height + layerTileHeight - layerOffsetY) / layerTileHeight));
+        if (col1 >= col2 || row1 >= row2)
+            return;
+        final int chunkCol1 = col1 / chunkSize;
+        final int chunkCol2 = (col2 - 1) / chunkSize;
+        final int chunkRow1 = row1 / chunkSize;
+        final int chunkRow2 = (row2 - 1) / chunkSize;
+
+        // draw in the render pass of the batch after what it has so far, or in an own pass
+        final boolean wasDrawing = batch.isDrawing();
+        final boolean sharedPass = wasDrawing && batch instanceof WgSpriteBatch;
+        final WebGPURenderPass pass;
+        if (sharedPass) {
+            pass = ((WgSpriteBatch) batch).flushForSharedPass();
+        } else {
+            if (wasDrawing) { // another batch, its pass has to end first
+                savedColor.set(batchColor);
+                batch.end();
+            }
+            pass = RenderPassBuilder.create("TiledMap chunks", null, webgpu.getSamples());
+            Rectangle view = webgpu.getViewportRectangle();
+            pass.setViewport(view.x, view.y, view.width, view.height, 0, 1);
+        }
+        setPipeline(pass);
+        indexBuffer.bind(pass);
+
+        int dynamicOffset = uniforms.nextSlice();
+        combinedMatrix.set(shiftDepthMatrix).mul(batch.getProjectionMatrix()).mul(batch.getTransformMatrix())
+                .translate(parallaxX, parallaxY, 0);
+        projectionViewUniform.set(combinedMatrix);
+        uniforms.endSlices(); // write the slice to the GPU
+
+        // build the chunks first, they may add animations to the frame table
+        for (int row = chunkRow1; row <= chunkRow2; row++) {
+            for (int col = chunkCol1; col <= chunkCol2; col++) {
+                Chunk chunk = chunks.get(col, row);
+                if (chunk.dirty)
+                    buildChunk(layer, chunks, chunk, col, row);
+            }
+        }
+        if (framesWritten != animations.size)
+            writeFrameTable();
+
+        for (int row = chunkRow1; row <= chunkRow2; row++) {
+            for (int col = chunkCol1; col <= chunkCol2; col++) {
+                Chunk chunk = chunks.get(col, row);
+                if (chunk.numSprites == 0)
+                    continue;
+                chunksDrawn++;
+                pass.setVertexBuffer(0, chunk.vertexBuffer.getBuffer(), 0, chunk.numSprites * NUM_FLOATS * Float.BYTES);
+                int first = 0;
+                for (int i = 0; i < chunk.textures.length; i++) {
+                    WgTexture texture = (WgTexture) chunk.textures[i];
+                    uniforms.getBindGroupCache().track(texture); // evict the cached bind groups when the texture is disposed
+                    binder.setTexture("texture", texture.getTextureView());
+                    binder.setSampler("textureSampler", texture.getSampler());
+                    pass.setBindGroup(0, binder.getBindGroup(0).getBindGroup(), dynamicOffset);
+                    pass.drawIndexed(chunk.counts[i] * INDICES_PER_SPRITE, 1, first * INDICES_PER_SPRITE, 0, 0);
+                    first += chunk.counts[i];
+                    renderCalls++;
+                }
+            }
+        }
+        if (!sharedPass)
+            pass.end();
+
+        // animations with frames in different textures go through the batch
+        if (!sharedPass) {
+            batch.begin();
+            if (wasDrawing)
+                batch.setColor(savedColor); // begin() resets the color
+        }
+        for (int row = chunkRow1; row <= chunkRow2; row++) {
+            for (int col = chunkCol1; col <= chunkCol2; col++) {
+                IntArray animated = chunks.get(col, row).animatedCells;
+                for (int i = 0; i < animated.size; i++) {
+                    int cellIndex = animated.get(i);
+                    int x = cellIndex % layer.getWidth();
+                    int y = cellIndex / layer.getWidth();
+                    TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                    if (cell == null || cell.getTile() == null)
+                        continue;
+                    if (setCellVertices(cell, x * layerTileWidth + layerOffsetX, y * layerTileHeight + layerOffsetY,
+                            color, false))
+                        batch.draw(cell.getTile().getTextureRegion().getTexture(), cellVertices, 0, SPRITE_FLOATS);
+                }
+            }
+        }
+        if (!wasDrawing)
+            batch.end();
+    }
+
+    private void buildChunk(TiledMapTileLayer layer, LayerChunks chunks, Chunk chunk, int chunkCol, int chunkRow) {
+        chunksRebuilt++;
+        chunk.dirty = false;
+        chunk.animatedCells.clear();
+
+        final float layerTileWidth = layer.getTileWidth() * unitScale;
+        final float layerTileHeight = layer.getTileHeight() * unitScale;
+        final float layerOffsetX = layer.getRenderOffsetX() * unitScale;
+        final float layerOffsetY = -layer.getRenderOffsetY() * unitScale;
+        final int col1 = chunkCol * chunkSize;
+        final int col2 = Math.min(layer.getWidth(), col1 + chunkSize);
+        final int row1 = chunkRow * chunkSize;
+        final int row2 = Math.min(layer.getHeight(), row1 + chunkSize);
+
+        // the cells in the same row order as OrthogonalTiledMapRenderer, so that overlapping tiles are drawn in the
+        // same order, with a new run where the texture changes
+        stagingFloats.clear();
+        chunkTextures.clear();
+        chunkCounts.clear();
+        for (int row = row2 - 1; row >= row1; row--) {
+            for (int col = col1; col < col2; col++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(col, row);
+                if (cell == null || cell.getTile() == null)
+                    continue;
+                TiledMapTile tile = cell.getTile();
+                int animation = NO_ANIMATION;
+                if (tile instanceof AnimatedTiledMapTile) {
+                    animation = getAnimationIndex((AnimatedTiledMapTile) tile);
+                    if (animation == BATCH_ANIMATION) {
+                        chunk.animatedCells.add(row * layer.getWidth() + col);
+                        continue;
+                    }
+                }
+                if (!setCellVertices(cell, col * layerTileWidth + layerOffsetX, row * layerTileHeight + layerOffsetY,
+                        chunks.color, animation != NO_ANIMATION))
+                    continue;
+                for (int v = 0; v < 4; v++) {
+                    stagingFloats.put(cellVertices, v * SPRITE_FLOATS / 4, SPRITE_FLOATS / 4);
+                    stagingFloats.put(animation);
+                }
+                Texture texture = tile.getTextureRegion().getTexture();
+                if (chunkTextures.size == 0 || chunkTextures.peek() != texture) {
+                    chunkTextures.add(texture);
+                    chunkCounts.add(0);
+                }
+                chunkCounts.incr(chunkCounts.size - 1, 1);
+            }
+        }
+        chunk.textures = chunkTextures.toArray(Texture.class);
+        chunk.counts = chunkCounts.toArray();
+
+        int numSprites = stagingFloats.position() / NUM_FLOATS;
+        chunk.numSprites = numSprites;
+        if (numSprites == 0)
+            return;
+        int numBytes = numSprites * NUM_FLOATS * Float.BYTES;
+        if (chunk.vertexBuffer == null || chunk.vertexBuffer.getSize() < numBytes) {
+            if (chunk.vertexBuffer != null)
+                retire(chunk.vertexBuffer); // earlier layers of this frame may still draw from it
+            chunk.vertexBuffer = new WebGPUVertexBuffer(WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Vertex), numBytes);
+        }
+        stagingBB.position(0);
+        stagingBB.limit(numBytes);
+        chunk.vertexBuffer.setVertices(stagingBB, 0, numBytes);
+        stagingBB.clear();
+    }
+
+    /**
+     * Fill cellVertices for a cell in the same way as OrthogonalTiledMapRenderer.
+     *
+     * @param unitUVs use texture coordinates of 0 and 1, which select the corners of the frame of an animation
+     * @return false if the cell has no texture region
+     */
+    private boolean setCellVertices(TiledMapTileLayer.Cell cell, float x, float y, float color, boolean unitUVs) {
+        final TiledMapTile tile = cell.getTile();
+        final boolean flipX = cell.getFlipHorizontally();
+        final boolean flipY = cell.getFlipVertically();
+        final int rotations = cell.getRotation();
+
+        TextureRegion region = tile.getTextureRegion();
+        if (region == null)
+            return false;
+        float[] vertices = cellVertices;
+
+        float x1 = x + tile.getOffsetX() * unitScale;
+        float y1 = y + tile.getOffsetY() * unitScale;
+        float x2 = x1 + region.getRegionWidth() * unitScale;
+        float y2 = y1 + region.getRegionHeight() * unitScale;
+
+        float u1 = unitUVs ? 0 : region.getU();
+        float v1 = unitUVs ? 0 : region.getV2();
+        float u2 = unitUVs ? 1 : region.getU2();
+        float v2 = unitUVs ? 1 : region.getV();
+
+        vertices[X1] = x1;
+        vertices[Y1] = y1;
+        vertices[C1] = color;
+        vertices[U1] = u1;
+        vertices[V1] = v1;
+
+        vertices[X2] = x1;
+        vertices[Y2] = y2;
+        vertices[C2] = color;
+        vertices[U2] = u1;
+        vertices[V2] = v2;
+
+        vertices[X3] = x2;
+        vertices[Y3] = y2;
+        vertices[C3] = color;
+        vertices[U3] = u2;
+        vertices[V3] = v2;
+
+        vertices[X4] = x2;
+        vertices[Y4] = y1;
+        vertices[C4] = color;
+        vertices[U4] = u2;
+        vertices[V4] = v1;
+
+        if (flipX) {
+            float temp = vertices[U1];
+            vertices[U1] = vertices[U3];
+            vertices[U3] = temp;
+            temp = vertices[U2];
+            vertices[U2] = vertices[U4];
+            vertices[U4] = temp;
+        }
+        if (flipY) {
+            float temp = vertices[V1];
+            vertices[V1] = vertices[V3];
+            vertices[V3] = temp;
+            temp = vertices[V2];
+            vertices[V2] = vertices[V4];
+            vertices[V4] = temp;
+        }
+        if (rotations != 0) {
+            switch (rotations) {
+                case TiledMapTileLayer.Cell.ROTATE_90: {
+                    float tempV = vertices[V1];
+                    vertices[V1] = vertices[V2];
+                    vertices[V2] = vertices[V3];
+                    vertices[V3] = vertices[V4];
+                    vertices[V4] = tempV;
+
+                    float tempU = vertices[U1];
+                    vertices[U1] = vertices[U2];
+                    vertices[U2] = vertices[U3];
+                    vertices[U3] = vertices[U4];
+                    vertices[U4] = tempU;
+                    break;
+                }
+                case TiledMapTileLayer.Cell.ROTATE_180: {
+                    float tempU = vertices[U1];
+                    vertices[U1] = vertices[U3];
+                    vertices[U3] = tempU;
+                    tempU = vertices[U2];
+                    vertices[U2] = vertices[U4];
+                    vertices[U4] = tempU;
+                    float tempV = vertices[V1];
+                    vertices[V1] = vertices[V3];
+                    vertices[V3] = tempV;
+                    tempV = vertices[V2];
+                    vertices[V2] = vertices[V4];
+                    vertices[V4] = tempV;
+                    break;
+                }
+                case TiledMapTileLayer.Cell.ROTATE_270: {
+                    float tempV = vertices[V1];
+                    vertices[V1] = vertices[V4];
+                    vertices[V4] = vertices[V3];
+                    vertices[V3] = vertices[V2];
+                    vertices[V2] = tempV;
+
+                    float tempU = vertices[U1];
+                    vertices[U1] = vertices[U4];
+                    vertices[U4] = vertices[U3];
+                    vertices[U3] = vertices[U2];
+                    vertices[U2] = tempU;
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    // dispose the buffer once the current frame has been submitted
+    private void retire(WebGPUBuffer buffer) {
+        retiredBuffers.add(buffer);
+        retiredFrame = webgpu.frameNumber;
+    }
+
+    private void disposeRetiredBuffers() {
+        for (WebGPUBuffer buffer : retiredBuffers)
+            buffer.dispose();
+        retiredBuffers.clear();
+    }
+
+    // index of the animation in the frame table, the animation is added on first use
+    private int getAnimationIndex(AnimatedTiledMapTile tile) {
+        int index = animationIndices.get(tile, NO_ANIMATION);
+        if (index != NO_ANIMATION)
+            return index;
+        // the frames are drawn with the texture of the run, so they must share it
+        StaticTiledMapTile[] frames = tile.getFrameTiles();
+        Texture texture = frames[0].getTextureRegion().getTexture();
+        index = animations.size;
+        for (StaticTiledMapTile frame : frames) {
+            if (frame.getTextureRegion().getTexture() != texture)
+                index = BATCH_ANIMATION;
+        }
+        if (index != BATCH_ANIMATION)
+            animations.add(tile);
+        animationIndices.put(tile, index);
+        return index;
+    }
+
+    // the texture coordinates of the current frame of each animation
+    private void writeFrameTable() {
+        framesWritten = animations.size;
+        if (animations.size == 0)
+            return;
+        if (frameTable.getSize() < animations.size * FRAME_FLOATS * Float.BYTES) {
+            retire(frameTable); // earlier layers of this frame may still draw with it
+            uniforms.getBindGroupCache().evict(frameTable.getBuffer());
+            setFrameTableCapacity(2 * animations.size);
+        }
+        for (int i = 0; i < animations.size; i++) {
+            TextureRegion region = animations.get(i).getTextureRegion();
+            int offset = i * FRAME_FLOATS * Float.BYTES;
+            frameData.putFloat(offset, region.getU());
+            frameData.putFloat(offset + 4, region.getV2());
+            frameData.putFloat(offset + 8, region.getU2());
+            frameData.putFloat(offset + 12, region.getV());
+        }
+        frameTable.write(0, frameData, animations.size * FRAME_FLOATS * Float.BYTES);
+    }
+
+    private void setFrameTableCapacity(int capacity) {
+        int size = capacity * FRAME_FLOATS * Float.BYTES;
+        frameTable = new WebGPUBuffer("TiledMap animation frames",
+                WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Storage), size);
+        if (frameData != null)
+            BufferUtils.disposeUnsafeByteBuffer(frameData);
+        frameData = BufferUtils.newUnsafeByteBuffer(size);
+        frameData.order(ByteOrder.LITTLE_ENDIAN);
+        binder.setBuffer("frames", frameTable, 0, size);
+    }
+
+    // create or reuse pipeline on demand to match the pipeline spec
+    private void setPipeline(WebGPURenderPass pass) {
+        pipelineSpec.setRenderTarget(pass);
+        pass.setPipeline(pipelines.findPipeline(pipelineLayout, pipelineSpec));
+    }
+
+    private String getDefaultShaderSource() {
+        if (defaultShader == null)
+            defaultShader = Gdx.files.classpath("shaders/tiledmap.chunks.wgsl").readString();
+        return defaultShader;
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        for (LayerChunks chunks : layers.values())
+            chunks.dispose();
+        layers.clear();
+        disposeRetiredBuffers();
+        frameTable.dispose();
+        BufferUtils.disposeUnsafeByteBuffer(frameData);
+        binder.dispose();
+        uniforms.dispose();
+        pipelines.dispose();
+        indexBuffer.dispose();
+        bindGroupLayout.dispose();
+        BufferUtils.disposeUnsafeByteBuffer(stagingBB);
+    }
+
+    private class LayerChunks {
+        final int width; // in cells
+        final int height;
+        final int cols; // in chunks
+        final Chunk[] chunks;
+        float color; // packed color the vertices were built with
+
+        LayerChunks(int width, int height) {
+            this.width = width;
+            this.height = height;
+            cols = (width + chunkSize - 1) / chunkSize;
+            int rows = (height + chunkSize - 1) / chunkSize;
+            chunks = new Chunk[cols * rows];
+            for (int i = 0; i < chunks.length; i++)
+                chunks[i] = new Chunk();
+        }
+
+        Chunk get(int col, int row) {
+            return chunks[row * cols + col];
+        }
+
+        void invalidate() {
+            for (Chunk chunk : chunks)
+                chunk.dirty = true;
+        }
+
+        // the layer was resized, the chunks may have been drawn in this frame
+        void retire() {
+            for (Chunk chunk : chunks) {
+                if (chunk.vertexBuffer != null)
+                    WgChunkedOrthogonalTiledMapRenderer.this.retire(chunk.vertexBuffer);
+            }
+        }
+
+        void dispose() {
+            for (Chunk chunk : chunks) {
+                if (chunk.vertexBuffer != null)
+                    chunk.vertexBuffer.dispose();
+            }
+        }
+    }
+
+    private static class Chunk {
+        boolean dirty = true;
+        WebGPUVertexBuffer vertexBuffer; // created on first build, grows when needed
+        int numSprites;
+        Texture[] textures; // one entry per run of cells with the same texture
+        int[] counts; // cells per run
+        final IntArray animatedCells = new IntArray(); // cell indices (y * width + x) of BATCH_ANIMATION tiles
+    }
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.wrappers;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Per-frame storage made of fixed size GPU buffer chunks that grows on demand.
+ * <p>
+ * Data written during a frame must stay in place until the frame is submitted, so a renderer that runs out of space
+ * cannot reuse its buffer within the frame. Instead it moves on to the next chunk with {@link #next()}, which
+ * allocates a new chunk if needed. At the start of the next frame, {@link #beginFrame(int)} rewinds to the first chunk.
+ * Chunks that have not been needed for {@code shrinkAfterFrames} consecutive frames are released again, so that a
+ * burst does not keep its memory forever.
+ *
+ * @param <T> type of buffer, e.g. WebGPUVertexBuffer or WebGPUUniformBuffer
+ */
+public class ChunkedBuffer<T extends WebGPUBuffer> implements Disposable {
+
+    /** Creates and releases the chunks. */
+    public interface ChunkFactory<T extends WebGPUBuffer> {
+        T createChunk();
+
+        /** Called before a chunk is disposed, e.g. to evict bind groups that refer to it. */
+        void releaseChunk(T chunk);
+    }
+
+    // chunks of one frame in flight
+    private static class Slot<T> {
+        final Array<T> chunks = new Array<>();
+        int current; // index of the chunk in use
+        int peakUsed; // most chunks used in a frame since the last time all chunks were needed
+        int quietFrames; // consecutive frames that did not need all chunks
+    }
+
+    private final ChunkFactory<T> factory;
+    private final Slot<T>[] slots;
+    private Slot<T> slot; // slot of the current frame
+    private final int shrinkAfterFrames;
+    private int frameNumber;
+
+    /** number of chunks allocated over the lifetime */
+    public int allocations;
+    /** number of chunks released over the lifetime */
+    public int releases;
+
+    /**
+     * @param factory creates and releases chunks
+     * @param shrinkAfterFrames number of consecutive frames that leave chunks unused before these are released
+     */
+    public ChunkedBuffer(ChunkFactory<T> factory, int shrinkAfterFrames) {
+        this(factory, shrinkAfterFrames, 1);
+    }
+
+    /**
+     * @param factory creates and releases chunks
+     * @param shrinkAfterFrames number of consecutive frames that leave chunks unused before these are released
+     * @param framesInFlight number of frames that each have their own chunks, see WebGPUContext.getFramesInFlight()
+     */
+    @SuppressWarnings("unchecked")
+    public ChunkedBuffer(ChunkFactory<T> factory, int shrinkAfterFrames, int framesInFlight) {
+        this.factory = factory;
+        this.shrinkAfterFrames = shrinkAfterFrames;
+        slots = new Slot[Math.max(1, framesInFlight)];
+        for (int i = 0; i < slots.length; i++)
+            slots[i] = new Slot<>();
+        slot = slots[0];
+        frameNumber = -1;
+        addChunk();
+    }
+
+    /**
+     * Rewind to the first chunk if this is a new frame. Does nothing if it was already called for this frame number.
+     * With more than one frame in flight, each frame number uses the chunks of its own slot, so that the data of the
+     * previous frames is not overwritten.
+     *
+     * @return true if this was the first call for this frame
+     */
+    public boolean beginFrame(int frameNumber) {
+        if (frameNumber == this.frameNumber)
+            return false;
+        this.frameNumber = frameNumber;
+
+        slot = slots[frameNumber % slots.length];
+        if (slot.chunks.size == 0) {
+            addChunk();
+            return true;
+        }
+        int used = slot.current + 1;
+        if (used < slot.chunks.size) {
+            slot.peakUsed = Math.max(slot.peakUsed, used);
+            slot.quietFrames++;
+            if (slot.quietFrames >= shrinkAfterFrames) {
+                while (slot.chunks.size > slot.peakUsed) {
+                    T chunk = slot.chunks.pop();
+                    factory.releaseChunk(chunk);
+                    chunk.dispose();
+                    releases++;
+                }
+                slot.quietFrames = 0;
+                slot.peakUsed = 0;
+            }
+        } else {
+            slot.quietFrames = 0;
+            slot.peakUsed = 0;
+        }
+        slot.current = 0;
+        return true;
+    }
+
+    /** Chunk to write to. */
+    public T current() {
+        return slot.chunks.get(slot.current);
+    }
+
+    /** Move to the next chunk, allocating one if all chunks are in use this frame. */
+    public T next() {
+        slot.current++;
+        if (slot.current == slot.chunks.size)
+            addChunk();
+        return slot.chunks.get(slot.current);
+    }
+
+    private void addChunk() {
+        slot.chunks.add(factory.createChunk());
+        allocations++;
+    }
+
+    /** number of chunks currently allocated */
+    public int getChunkCount() {
+        int count = 0;
+        for (Slot<T> s : slots)
+            count += s.chunks.size;
+        return count;
+    }
+
+    /** number of chunks in use in the current frame */
+    public int getChunksUsed() {
+        return slot.current + 1;
+    }
+
+    @Override
+    public void dispose() {
+        for (Slot<T> s : slots) {
+            for (T chunk : s.chunks) {
+                factory.releaseChunk(chunk);
+                chunk.dispose();
+            }
+            s.chunks.clear();
+        }
+    }
+}
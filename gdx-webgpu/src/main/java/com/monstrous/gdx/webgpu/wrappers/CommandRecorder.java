@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.wrappers;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Records the commands that go through the wrapper classes: render passes, pipeline and bind group changes, bind group
+ * and pipeline creation, buffer writes and draw calls. This measures the CPU side of rendering without a profiler and
+ * allows deterministic checks, e.g. that a scene creates no bind groups per frame once it is warmed up.
+ * <p>
+ * Install with {@code webgpu.commandRecorder = new CommandRecorder()}. The counters of the frame in progress are in
+ * {@link #current}, those of the last completed frame in {@link #lastFrame}. A
+ * {@link com.monstrous.gdx.webgpu.application.RecordingContext} has a command recorder and no device: the wrappers
+ * record their commands without passing them to WebGPU, so the counts can be checked in a build without a GPU or a
+ * display.
+ * <p>
+ * CommandRecorderScenes in the tests module compares the counts of known sprite batch scenes with the expected
+ * values, on screen in CommandRecorderTest and on a recording context in the desktop CommandRecorderCheck.
+ * <p>
+ * Set {@link #logCommands} to also keep a textual log of the commands of the current frame, which is useful to compare
+ * against an expected command stream in a test. This allocates, so leave it off for benchmarks.
+ */
+public class CommandRecorder {
+
+    /** Command counts for one frame. */
+    public static class Counts {
+        public int renderPasses;
+        public int pipelineSets;
+        public int bindGroupSets;
+        public int vertexBufferSets;
+        public int indexBufferSets;
+        public int redundantCalls; // state calls that the render pass skipped because the state was already set
+        public int drawCalls; // draw, drawIndexed and their indirect variants
+        public int skippedDraws; // draw calls skipped because the pipeline was still being created
+        public int vertices; // vertices of non-indexed draw calls, times the number of instances
+        public int indices; // indices of indexed draw calls, times the number of instances
+        public int instances;
+        public int bufferWrites;
+        public long bytesWritten;
+        public int bindGroupsCreated;
+        public int pipelinesCreated;
+
+        public void set(Counts other) {
+            renderPasses = other.renderPasses;
+            pipelineSets = other.pipelineSets;
+            bindGroupSets = other.bindGroupSets;
+            vertexBufferSets = other.vertexBufferSets;
+            indexBufferSets = other.indexBufferSets;
+            redundantCalls = other.redundantCalls;
+            drawCalls = other.drawCalls;
+            skippedDraws = other.skippedDraws;
+            vertices = other.vertices;
+            indices = other.indices;
+            instances = other.instances;
+            bufferWrites = other.bufferWrites;
+            bytesWritten = other.bytesWritten;
+            bindGroupsCreated = other.bindGroupsCreated;
+            pipelinesCreated = other.pipelinesCreated;
+        }
+
+        public void reset() {
+            renderPasses = 0;
+            pipelineSets = 0;
+            bindGroupSets = 0;
+            vertexBufferSets = 0;
+            indexBufferSets = 0;
+            redundantCalls = 0;
+            drawCalls = 0;
+            skippedDraws = 0;
+            vertices = 0;
+            indices = 0;
+            instances = 0;
+            bufferWrites = 0;
+            bytesWritten = 0;
+            bindGroupsCreated = 0;
+            pipelinesCreated = 0;
+        }
+
+        @Override
+        public String toString() {
+            return "passes=" + renderPasses + " pipelineSets=" + pipelineSets + " bindGroupSets=" + bindGroupSets
+                    + " vertexBufferSets=" + vertexBufferSets + " indexBufferSets=" + indexBufferSets
+                    + " redundantCalls=" + redundantCalls + " drawCalls=" + drawCalls + " skippedDraws=" + skippedDraws
+                    + " vertices=" + vertices + " indices=" + indices + " instances=" + instances + " bufferWrites="
+                    + bufferWrites + " bytesWritten=" + bytesWritten + " bindGroupsCreated=" + bindGroupsCreated
+                    + " pipelinesCreated=" + pipelinesCreated;
+        }
+    }
+
+    public final Counts current = new Counts();
+    public final Counts lastFrame = new Counts();
+    public int frames; // completed frames since the recorder was installed
+    public boolean logCommands;
+    /** commands of the current frame, if logCommands is set */
+    public final Array<String> log = new Array<>();
+
+    /** Called by the application at the end of each frame. */
+    public void endFrame() {
+        lastFrame.set(current);
+        current.reset();
+        log.clear();
+        frames++;
+    }
+
+    void renderPass(RenderPassType type) {
+        current.renderPasses++;
+        if (logCommands)
+            log.add("beginRenderPass " + type);
+    }
+
+    void setPipeline() {
+        current.pipelineSets++;
+        if (logCommands)
+            log.add("setPipeline");
+    }
+
+    void setBindGroup(int groupIndex) {
+        current.bindGroupSets++;
+        if (logCommands)
+            log.add("setBindGroup " + groupIndex);
+    }
+
+    void setVertexBuffer(int slot, int size) {
+        current.vertexBufferSets++;
+        if (logCommands)
+            log.add("setVertexBuffer " + slot + " size=" + size);
+    }
+
+    void setIndexBuffer(int size) {
+        current.indexBufferSets++;
+        if (logCommands)
+            log.add("setIndexBuffer size=" + size);
+    }
+
+    void redundantCall() {
+        current.redundantCalls++;
+    }
+
+    void draw(int numVertices, int numInstances) {
+        current.drawCalls++;
+        current.vertices += numVertices * numInstances;
+        current.instances += numInstances;
+        if (logCommands)
+            log.add("draw vertices=" + numVertices + " instances=" + numInstances);
+    }
+
+    void drawIndexed(int indexCount, int numInstances) {
+        current.drawCalls++;
+        current.indices += indexCount * numInstances;
+        current.instances += numInstances;
+        if (logCommands)
+            log.add("drawIndexed indices=" + indexCount + " instances=" + numInstances);
+    }
+
+    // the vertex and instance counts are in a GPU buffer and are not counted
+    void drawIndirect(boolean indexed) {
+        current.drawCalls++;
+        if (logCommands)
+            log.add(indexed ? "drawIndexedIndirect" : "drawIndirect");
+    }
+
+    void skippedDraw() {
+        current.skippedDraws++;
+        if (logCommands)
+            log.add("skipped draw, pipeline not ready");
+    }
+
+    void bufferWrite(int bytes) {
+        current.bufferWrites++;
+        current.bytesWritten += bytes;
+        if (logCommands)
+            log.add("writeBuffer bytes=" + bytes);
+    }
+
+    void bindGroupCreated() {
+        current.bindGroupsCreated++;
+        if (logCommands)
+            log.add("createBindGroup");
+    }
+
+    void pipelineCreated(String name) {
+        current.pipelinesCreated++;
+        if (logCommands)
+            log.add("createRenderPipeline " + name);
+    }
+}
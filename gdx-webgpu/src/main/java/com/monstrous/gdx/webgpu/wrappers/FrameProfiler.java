@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.wrappers;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Keeps the CPU and GPU time per render pass over the last frames, to report percentiles instead of averages.
+ * <p>
+ * Install with {@code webgpu.frameProfiler = new FrameProfiler()}, or set {@code profileFile} in the application
+ * configuration of the desktop or TeaVM C backend to install one at startup and write it to that file on exit. Passes
+ * are named after the name given to {@link RenderPassBuilder#create}; the CPU and GPU times of passes with the same
+ * name in one frame are added up. The CPU time of a pass is the time between its begin() and end(), i.e. the time
+ * spent encoding it. GPU times need GPU timing to be enabled in the application configuration and arrive a few frames
+ * later. The pseudo pass {@link #FRAME} holds the CPU time of whole frames.
+ * <p>
+ * Times are in milliseconds. Export with {@link #toCSV()} (percentiles per pass) or {@link #toJSON()} (percentiles and
+ * the samples, oldest first).
+ */
+public class FrameProfiler {
+    public static final String FRAME = "frame";
+
+    /** Samples of one pass name. */
+    public static class PassStats {
+        public final String name;
+        private final Samples cpu;
+        private final Samples gpu;
+        private float cpuFrame; // sum over the passes of the current frame
+        private boolean cpuUsed;
+        private float gpuFrame; // sum over the passes of the frame being read back
+        private boolean gpuUsed;
+
+        PassStats(String name, int capacity) {
+            this.name = name;
+            cpu = new Samples(capacity);
+            gpu = new Samples(capacity);
+        }
+
+        public int getCpuSamples() {
+            return cpu.count;
+        }
+
+        public int getGpuSamples() {
+            return gpu.count;
+        }
+
+        /** @param percentile e.g. 50, 95 or 99 */
+        public float cpuPercentile(float percentile) {
+            return cpu.percentile(percentile);
+        }
+
+        public float gpuPercentile(float percentile) {
+            return gpu.percentile(percentile);
+        }
+
+        public float cpuMax() {
+            return cpu.max();
+        }
+
+        public float gpuMax() {
+            return gpu.max();
+        }
+    }
+
+    // ring buffer of the last samples
+    private static class Samples {
+        final float[] values;
+        int count;
+        int head; // next write position
+        private float[] sorted;
+
+        Samples(int capacity) {
+            values = new float[capacity];
+        }
+
+        void add(float value) {
+            values[head] = value;
+            head = (head + 1) % values.length;
+            if (count < values.length)
+                count++;
+        }
+
+        float get(int i) { // 0 is the oldest sample
+            return values[(head - count + i + values.length) % values.length];
+        }
+
+        float percentile(float percentile) {
+            if (count == 0)
+                return 0;
+            if (sorted == null)
+                sorted = new float[values.length];
+            for (int i = 0; i < count; i++)
+                sorted[i] = get(i);
+            Arrays.sort(sorted, 0, count);
+            // nearest rank
+            int rank = (int) Math.ceil(percentile / 100f * count);
+            return sorted[Math.max(0, Math.min(count - 1, rank - 1))];
+        }
+
+        float max() {
+            float max = 0;
+            for (int i = 0; i < count; i++)
+                max = Math.max(max, values[i]);
+            return max;
+        }
+
+        void clear() {
+            count = 0;
+            head = 0;
+        }
+    }
+
+    private final int capacity;
+    private final ObjectMap<String, PassStats> passes;
+    private final Array<PassStats> passList; // in order of first appearance
+    private long lastFrameNanos;
+
+    /** Keep the samples of the last 600 frames. */
+    public FrameProfiler() {
+        this(600);
+    }
+
+    /** @param frames number of frames to keep samples for */
+    public FrameProfiler(int frames) {
+        if (frames < 1)
+            throw new IllegalArgumentException("frames must be at least 1");
+        capacity = frames;
+        passes = new ObjectMap<>();
+        passList = new Array<>();
+        getStats(FRAME);
+    }
+
+    private PassStats getStats(String name) {
+        if (name == null)
+            name = "pass";
+        PassStats stats = passes.get(name);
+        if (stats == null) {
+            stats = new PassStats(name, capacity);
+            passes.put(name, stats);
+            passList.add(stats);
+        }
+        return stats;
+    }
+
+    /** returns the statistics of the pass with this name, or null if there is no such pass */
+    public PassStats get(String name) {
+        return passes.get(name);
+    }
+
+    /** returns the statistics of all passes, starting with {@link #FRAME} */
+    public Array<PassStats> getPasses() {
+        return passList;
+    }
+
+    /** Called by a render pass when it ends. */
+    void cpuSample(String name, long nanoseconds) {
+        PassStats stats = getStats(name);
+        stats.cpuFrame += nanoseconds / 1000000f;
+        stats.cpuUsed = true;
+    }
+
+    /** Called by the GPU timer for each pass of a frame, once the time stamps have been read back. */
+    void gpuSample(String name, long nanoseconds) {
+        PassStats stats = getStats(name);
+        stats.gpuFrame += nanoseconds / 1000000f;
+        stats.gpuUsed = true;
+    }
+
+    /** Called by the GPU timer after the passes of a frame, adds the GPU time per pass name of that frame. */
+    void gpuEndFrame() {
+        for (int i = 1; i < passList.size; i++) {
+            PassStats stats = passList.get(i);
+            if (stats.gpuUsed) {
+                stats.gpu.add(stats.gpuFrame);
+                stats.gpuFrame = 0;
+                stats.gpuUsed = false;
+            }
+        }
+    }
+
+    /** Called by the application at the end of each frame. */
+    public void endFrame() {
+        long now = System.nanoTime();
+        if (lastFrameNanos != 0)
+            passList.first().cpu.add((now - lastFrameNanos) / 1000000f);
+        lastFrameNanos = now;
+        for (int i = 1; i < passList.size; i++) {
+            PassStats stats = passList.get(i);
+            if (stats.cpuUsed) {
+                stats.cpu.add(stats.cpuFrame);
+                stats.cpuFrame = 0;
+                stats.cpuUsed = false;
+            }
+        }
+    }
+
+    /** Forget all samples, e.g. after loading. */
+    public void reset() {
+        for (PassStats stats : passList) {
+            stats.cpu.clear();
+            stats.gpu.clear();
+            stats.cpuFrame = 0;
+            stats.cpuUsed = false;
+            stats.gpuFrame = 0;
+            stats.gpuUsed = false;
+        }
+        lastFrameNanos = 0;
+    }
+
+    /** One line per pass and source (cpu or gpu) with the number of samples, p50, p95, p99 and max in milliseconds. */
+    public String toCSV() {
+        StringBuilder sb = new StringBuilder("pass,source,samples,p50,p95,p99,max\n");
+        for (PassStats stats : passList) {
+            appendCSV(sb, stats.name, "cpu", stats.cpu);
+            if (stats.gpu.count > 0)
+                appendCSV(sb, stats.name, "gpu", stats.gpu);
+        }
+        return sb.toString();
+    }
+
+    private static void appendCSV(StringBuilder sb, String name, String source, Samples samples) {
+        sb.append(name.replace(',', ' ')).append(',').append(source).append(',').append(samples.count);
+        sb.append(',').append(format(samples.percentile(50))).append(',').append(format(samples.percentile(95)));
+        sb.append(',').append(format(samples.percentile(99))).append(',').append(format(samples.max()));
+        sb.append('\n');
+    }
+
+    private static String format(float ms) {
+        return String.format(Locale.ROOT, "%.4f", ms);
+    }
+
+    /** Percentiles and samples per pass, see {@link #toCSV()}. */
+    public String toJSON() {
+        JsonValue root = new JsonValue(JsonValue.ValueType.array);
+        for (PassStats stats : passList) {
+            JsonValue pass = new JsonValue(JsonValue.ValueType.object);
+            pass.addChild("name", new JsonValue(stats.name));
+            pass.addChild("cpu", toJson(stats.cpu));
+            pass.addChild("gpu", toJson(stats.gpu));
+            root.addChild(pass);
+        }
+        return root.prettyPrint(JsonWriter.OutputType.json, 120);
+    }
+
+    private static JsonValue toJson(Samples samples) {
+        JsonValue value = new JsonValue(JsonValue.ValueType.object);
+        value.addChild("samples", new JsonValue(samples.count));
+        value.addChild("p50", new JsonValue(samples.percentile(50)));
+        value.addChild("p95", new JsonValue(samples.percentile(95)));
+        value.addChild("p99", new JsonValue(samples.percentile(99)));
+        value.addChild("max", new JsonValue(samples.max()));
+        JsonValue values = new JsonValue(JsonValue.ValueType.array);
+        for (int i = 0; i < samples.count; i++)
+            values.addChild(new JsonValue(samples.get(i)));
+        value.addChild("values", values);
+        return value;
+    }
+
+    /** Write JSON if the file name ends with ".json", CSV otherwise. */
+    public void write(FileHandle file) {
+        file.writeString("json".equalsIgnoreCase(file.extension()) ? toJSON() : toCSV(), false);
+    }
+}
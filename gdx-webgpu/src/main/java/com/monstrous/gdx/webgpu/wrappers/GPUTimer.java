@@ -148,12 +148,17 @@ public class GPUTimer implements Disposable {
                     if (status == WGPUMapAsyncStatus.Success) {
                         ram.position(0);
                         timeStampMapBuffer.getConstMappedRange(0, 8 * 2 * MAX_PASSES, ram);
+                        FrameProfiler profiler = ((WgGraphics) Gdx.graphics).getContext().frameProfiler;
                         for (int pass = 0; pass < numPasses; pass++) {
                             long start = ram.getLong();
                             long end = ram.getLong();
                             long nanoseconds = end - start;
                             addTimeSample(pass, nanoseconds);
+                            if (profiler != null)
+                                profiler.gpuSample(names[pass], nanoseconds);
                         }
+                        if (profiler != null)
+                            profiler.gpuEndFrame();
                         timeStampMapBuffer.unmap();
                     }
                     timeStampMapOngoing = false;
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.wrappers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.github.xpenatan.webgpu.WGPUBindGroup;
+import com.github.xpenatan.webgpu.WGPUSampler;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+
+/**
+ * Content-keyed cache of native bind groups.
+ * <p>
+ * A native bind group is immutable, so two bind groups with the same layout and the same resources (buffer ranges,
+ * texture views and samplers) are interchangeable. This cache keeps native bind groups alive across frames, keyed by
+ * their contents. A {@link WebGPUBindGroup} attached to this cache (see
+ * {@link WebGPUBindGroup#setCache(KeyedBindGroupCache)}) looks up its native bind group here whenever one of its
+ * entries changes, instead of releasing and recreating it.
+ * <p>
+ * Entries referring to a texture are evicted when that texture is disposed, and entries referring to its sampler when
+ * the sampler is replaced after a change of filter or wrap mode, provided the texture was registered with
+ * {@link #track(WgTexture)}.
+ * <p>
+ * The hits and misses counters can be used to verify that steady state frames do not create new bind groups.
+ */
+public class KeyedBindGroupCache implements WgTexture.DisposeListener, Disposable {
+    private final ObjectMap<Key, WGPUBindGroup> bindGroups;
+    private final ObjectSet<WgTexture> trackedTextures;
+    private final Array<Key> evictList;
+    private final Key probe;
+    private final boolean recordingOnly; // the bind groups have no native object to release
+    private int generation;
+
+    /** number of lookups that returned an existing bind group */
+    public int hits;
+    /** number of lookups that had to create a new bind group */
+    public int misses;
+    /** number of bind groups released because a texture was disposed or its sampler replaced */
+    public int evictions;
+
+    public KeyedBindGroupCache() {
+        bindGroups = new ObjectMap<>();
+        trackedTextures = new ObjectSet<>();
+        evictList = new Array<>();
+        probe = new Key();
+        recordingOnly = ((WgGraphics) Gdx.graphics).getContext().isRecordingOnly();
+    }
+
+    /**
+     * Find a cached native bind group with exactly these contents. Counts a hit or a miss.
+     *
+     * @return the bind group or null if there is none.
+     */
+    WGPUBindGroup find(Object layout, int[] bindings, Object[] resources, int[] offsets, int[] sizes,
+            int numEntries) {
+        probe.set(layout, bindings, resources, offsets, sizes, numEntries);
+        WGPUBindGroup bindGroup = bindGroups.get(probe);
+        probe.clear(); // don't keep hold of the caller's arrays
+        if (bindGroup != null)
+            hits++;
+        else
+            misses++;
+        return bindGroup;
+    }
+
+    /** Add a newly created native bind group to the cache. The cache takes ownership of it. */
+    void put(Object layout, int[] bindings, Object[] resources, int[] offsets, int[] sizes, int numEntries,
+            WGPUBindGroup bindGroup) {
+        Key key = new Key();
+        key.set(layout, bindings.clone(), resources.clone(), offsets.clone(), sizes.clone(), numEntries);
+        bindGroups.put(key, bindGroup);
+    }
+
+    /**
+     * The generation is incremented whenever bind groups are released by the cache. Bind groups that refer to a
+     * cached bind group use this to detect that they need to look up their bind group again.
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /** Evict cached bind groups that use this texture once the texture is disposed or its sampler is replaced. */
+    public void track(WgTexture texture) {
+        if (trackedTextures.add(texture))
+            texture.addDisposeListener(this);
+    }
+
+    @Override
+    public void textureDisposed(WgTexture texture) {
+        trackedTextures.remove(texture);
+        evict(texture.getTextureView());
+    }
+
+    @Override
+    public void samplerReleased(WgTexture texture, WGPUSampler sampler) {
+        evict(sampler);
+    }
+
+    /** Release all cached bind groups that refer to the given native resource (buffer, texture view or sampler). */
+    public void evict(Object resource) {
+        if (resource == null)
+            return;
+        evictList.clear();
+        for (Key key : bindGroups.keys()) {
+            if (key.references(resource))
+                evictList.add(key);
+        }
+        for (int i = 0; i < evictList.size; i++) {
+            release(bindGroups.remove(evictList.get(i)));
+            evictions++;
+        }
+        if (evictList.size > 0)
+            generation++;
+        evictList.clear();
+    }
+
+    /** Release all cached bind groups. */
+    public void clear() {
+        for (WGPUBindGroup bindGroup : bindGroups.values())
+            release(bindGroup);
+        bindGroups.clear();
+        generation++;
+    }
+
+    /** number of native bind groups currently held */
+    public int size() {
+        return bindGroups.size;
+    }
+
+    public void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    private void release(WGPUBindGroup bindGroup) {
+        if (!recordingOnly)
+            bindGroup.release();
+        bindGroup.dispose();
+    }
+
+    @Override
+    public void dispose() {
+        clear();
+        for (WgTexture texture : trackedTextures)
+            texture.removeDisposeListener(this);
+        trackedTextures.clear();
+    }
+
+    /** Contents of a bind group. Resources are compared by identity. */
+    private static class Key {
+        Object layout;
+        int[] bindings;
+        Object[] resources;
+        int[] offsets;
+        int[] sizes;
+        int numEntries;
+        int hash;
+
+        void set(Object layout, int[] bindings, Object[] resources, int[] offsets, int[] sizes, int numEntries) {
+            this.layout = layout;
+            this.bindings = bindings;
+            this.resources = resources;
+            this.offsets = offsets;
+            this.sizes = sizes;
+            this.numEntries = numEntries;
+
+            int h = System.identityHashCode(layout);
+            for (int i = 0; i < numEntries; i++) {
+                h = 31 * h + bindings[i];
+                h = 31 * h + System.identityHashCode(resources[i]);
+                h = 31 * h + offsets[i];
+                h = 31 * h + sizes[i];
+            }
+            hash = h;
+        }
+
+        void clear() {
+            layout = null;
+            bindings = null;
+            resources = null;
+            offsets = null;
+            sizes = null;
+        }
+
+        boolean references(Object resource) {
+            for (int i = 0; i < numEntries; i++)
+                if (resources[i] == resource)
+                    return true;
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key that = (Key) o;
+            if (hash != that.hash || layout != that.layout || numEntries != that.numEntries)
+                return false;
+            for (int i = 0; i < numEntries; i++) {
+                if (bindings[i] != that.bindings[i] || resources[i] != that.resources[i]
+                        || offsets[i] != that.offsets[i] || sizes[i] != that.sizes[i])
+                    return false;
+            }
+            return true;
+        }
+    }
+}
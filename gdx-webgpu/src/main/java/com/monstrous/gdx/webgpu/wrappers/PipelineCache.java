@@ -19,41 +19,116 @@ package com.monstrous.gdx.webgpu.wrappers;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.github.xpenatan.webgpu.WGPUPipelineLayout;
 
 /**
- * Cache for pipelines
- *
+ * Cache for pipelines, indexed by pipeline specification.
+ * <p>
+ * The lookup uses the cached hash code of the {@link PipelineSpecification} and verifies with equals(), so a lookup
+ * does not depend on the number of pipelines in the cache. The pipeline layout is not part of the key: a cache assumes
+ * that equal specifications come with equivalent pipeline layouts.
+ * <p>
+ * {@link #getShared()} provides a process-wide cache, so that e.g. several sprite batches with the same specification
+ * share one pipeline instead of compiling their own. WebGPU accepts bind groups with any bind group layout that was
+ * created from the same descriptor, so this is valid for users that build identical layouts.
  */
 
 public class PipelineCache implements Disposable {
-    public Array<WebGPUPipeline> pipelines; // todo or use map? using spec hash code as key
+    private static PipelineCache shared;
+
+    public Array<WebGPUPipeline> pipelines;
+    private final ObjectMap<PipelineSpecification, WebGPUPipeline> map; // keyed on each pipeline's own specification
+    public int hits;
+    public int misses;
+    public int creations; // pipelines created over the lifetime of the cache, not reset by resetStatistics()
+    private boolean async;
 
     public PipelineCache() {
         pipelines = new Array<>();
+        map = new ObjectMap<>();
+    }
+
+    /** Process-wide cache, to be used by the owners that opt in. Is not disposed by them, see {@link #disposeShared()}. */
+    public static PipelineCache getShared() {
+        if (shared == null)
+            shared = new PipelineCache();
+        return shared;
+    }
+
+    /** Disposes the process-wide cache, e.g. when the application is disposed. */
+    public static void disposeShared() {
+        if (shared != null) {
+            shared.dispose();
+            shared = null;
+        }
+    }
+
+    /**
+     * Create new pipelines asynchronously. A pipeline that is returned by {@link #findPipeline} is then not ready until
+     * its creation has finished: a render pass skips the draw calls that use it, so that the object pops in a frame or
+     * two later instead of the frame stalling on the compilation. See {@link #getPendingCount()} to wait for the
+     * pipelines on a loading screen. A pipeline of which the asynchronous creation failed is created synchronously on
+     * its next use.
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /** returns the number of pipelines in this cache that are still being created */
+    public int getPendingCount() {
+        int count = 0;
+        for (WebGPUPipeline pipeline : pipelines)
+            if (!pipeline.isReady() && !pipeline.hasFailed())
+                count++;
+        return count;
     }
 
     public WebGPUPipeline findPipeline(WGPUPipelineLayout pipelineLayout, PipelineSpecification spec) {
         // try to find suitable pipeline from the cache
-        for (WebGPUPipeline pipeline : pipelines) {
-            if (pipeline.canRender(spec))
-                return pipeline;
+        WebGPUPipeline pipeline = map.get(spec);
+        if (pipeline != null && !pipeline.hasFailed()) {
+            hits++;
+            return pipeline;
         }
+        // an asynchronous creation that failed has been logged by the pipeline, create it synchronously instead of
+        // skipping its draw calls forever. The failed pipeline stays in the list to be disposed with the cache.
+        boolean failed = pipeline != null;
+        if (failed)
+            map.remove(pipeline.specification);
+        misses++;
         if(pipelines.size > 1000) {
             Gdx.app.error("PipelineCache#findPipeline", "possible Memory leak: Pipeline cache size is " + pipelines.size);
         }
         // if not found, create a new pipeline
-        WebGPUPipeline pipeline = new WebGPUPipeline(pipelineLayout, spec);
+        pipeline = new WebGPUPipeline(pipelineLayout, spec, async && !failed);
+        creations++;
         pipelines.add(pipeline); // add to cache
+        map.put(pipeline.specification, pipeline);
         // System.out.println("Added pipeline to the cache, count: "+pipelines.size);
 
         return pipeline;
     }
 
+    /** returns true if the cache has a pipeline for this specification, without creating one */
+    public boolean contains(PipelineSpecification spec) {
+        return map.containsKey(spec);
+    }
+
     // may be useful to hot-load shaders, forces all pipelines to be rebuilt
     public void clear() {
         dispose();
         pipelines.clear();
+        map.clear();
+    }
+
+    public void resetStatistics() {
+        hits = 0;
+        misses = 0;
     }
 
     /** returns number of pipelines managed */
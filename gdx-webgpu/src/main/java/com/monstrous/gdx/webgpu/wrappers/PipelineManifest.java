@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.wrappers;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.github.xpenatan.webgpu.*;
+
+/**
+ * List of the pipeline specifications that were used in a session, to create the pipelines again at startup.
+ * <p>
+ * Creating a pipeline compiles its shader and the render pipeline synchronously, which causes a hitch the first time a
+ * combination of material, lights, vertex layout, blending or render target is drawn. To avoid these during gameplay,
+ * record a manifest in a play session and replay it during a loading screen in the next start:
+ *
+ * <pre>
+ * webgpu.pipelineManifest = new PipelineManifest(); // records every pipeline that is created
+ * ...
+ * webgpu.pipelineManifest.write(Gdx.files.local("pipelines.json")); // e.g. on exit
+ *
+ * PipelineManifest manifest = PipelineManifest.read(Gdx.files.local("pipelines.json")); // next start
+ * while (batch.warmUp(manifest, 2) > 0) // per loading frame
+ * </pre>
+ * <p>
+ * An entry holds the fixed-function settings of a specification (blending, depth, cull mode, topology, formats,
+ * sample count, light counts, prefix) and identifies its owner by pipeline name, shader, vertex attributes and
+ * {@link PipelineSpecification#variant variant}. Owners that share a name and a shader, such as the shaders of a
+ * shader provider, set a variant key so that each of them only replays its own entries, and so that the owners can be
+ * created again from the keys, see {@link #getVariants(String, Array)}. Objects that cannot be written to a file, such
+ * as the environment and the vertex layout, are taken from the owner during
+ * {@link #warmUp(PipelineCache, WGPUPipelineLayout, PipelineSpecification, int)}. Entries are replayed on the calling
+ * thread, because the pipeline caches and the device are not thread-safe.
+ */
+public class PipelineManifest {
+    private final Array<JsonValue> entries;
+    private final ObjectSet<String> keys; // serialized entries, to skip duplicates
+
+    public PipelineManifest() {
+        entries = new Array<>();
+        keys = new ObjectSet<>();
+    }
+
+    /** Read a manifest written by {@link #write(FileHandle)}. Further pipelines can be recorded on top of it. */
+    public static PipelineManifest read(FileHandle file) {
+        PipelineManifest manifest = new PipelineManifest();
+        JsonValue root = new JsonReader().parse(file);
+        for (JsonValue entry = root.child; entry != null; entry = entry.next)
+            manifest.addEntry(entry);
+        return manifest;
+    }
+
+    public void write(FileHandle file) {
+        JsonValue root = new JsonValue(JsonValue.ValueType.array);
+        for (JsonValue entry : entries)
+            root.addChild(entry);
+        file.writeString(root.prettyPrint(JsonWriter.OutputType.json, 120), false);
+        // addChild() links the entries into the root, unlink them again
+        for (JsonValue entry : entries) {
+            entry.parent = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+    }
+
+    /** Record a specification, called when a pipeline is created. Duplicates are ignored. */
+    public void add(PipelineSpecification spec) {
+        JsonValue entry = new JsonValue(JsonValue.ValueType.object);
+        entry.addChild("name", new JsonValue(nameOf(spec)));
+        entry.addChild("shader", new JsonValue(shaderKey(spec)));
+        entry.addChild("attributes",
+                new JsonValue(spec.vertexAttributes == null ? 0 : spec.vertexAttributes.hashCode()));
+        putString(entry, "variant", spec.variant);
+        putEnum(entry, "stepMode", spec.vertexStepMode);
+        putEnum(entry, "indexFormat", spec.indexFormat);
+        putEnum(entry, "topology", spec.topology);
+        putString(entry, "vertexEntry", spec.vertexShaderEntryPoint);
+        putString(entry, "fragmentEntry", spec.fragmentShaderEntryPoint);
+        entry.addChild("depthTest", new JsonValue(spec.useDepthTest));
+        entry.addChild("noDepthAttachment", new JsonValue(spec.noDepthAttachment));
+        entry.addChild("skyBox", new JsonValue(spec.isSkyBox));
+        entry.addChild("depthPass", new JsonValue(spec.isDepthPass));
+        entry.addChild("afterDepthPrepass", new JsonValue(spec.afterDepthPrepass));
+        entry.addChild("samples", new JsonValue(spec.numSamples));
+        if (spec.colorFormats != null) {
+            JsonValue formats = new JsonValue(JsonValue.ValueType.array);
+            for (WGPUTextureFormat format : spec.colorFormats)
+                formats.addChild(new JsonValue(format.name()));
+            entry.addChild("colorFormats", formats);
+        }
+        entry.addChild("blending", new JsonValue(spec.blendingEnabled));
+        putEnum(entry, "blendSrcColor", spec.blendSrcColor);
+        putEnum(entry, "blendDstColor", spec.blendDstColor);
+        putEnum(entry, "blendOpColor", spec.blendOpColor);
+        putEnum(entry, "blendSrcAlpha", spec.blendSrcAlpha);
+        putEnum(entry, "blendDstAlpha", spec.blendDstAlpha);
+        putEnum(entry, "blendOpAlpha", spec.blendOpAlpha);
+        putEnum(entry, "cullMode", spec.cullMode);
+        putEnum(entry, "depthFormat", spec.depthFormat);
+        entry.addChild("maxDirLights", new JsonValue(spec.maxDirLights));
+        entry.addChild("maxPointLights", new JsonValue(spec.maxPointLights));
+        entry.addChild("pbr", new JsonValue(spec.usePBR));
+        putString(entry, "prefix", spec.customPrefix);
+        addEntry(entry);
+    }
+
+    private void addEntry(JsonValue entry) {
+        if (keys.add(entry.toJson(JsonWriter.OutputType.minimal)))
+            entries.add(entry);
+    }
+
+    /** returns number of recorded specifications */
+    public int size() {
+        return entries.size;
+    }
+
+    public void clear() {
+        entries.clear();
+        keys.clear();
+    }
+
+    /**
+     * Add the distinct variant keys that were recorded for pipelines with this name to the array, so that the owners of
+     * these pipelines can be created before {@link #warmUp(PipelineCache, WGPUPipelineLayout, PipelineSpecification, int)}.
+     *
+     * @return the array
+     */
+    public Array<String> getVariants(String name, Array<String> out) {
+        for (JsonValue entry : entries) {
+            String variant = entry.getString("variant", null);
+            if (variant != null && entry.getString("name").equals(name) && !out.contains(variant, false))
+                out.add(variant);
+        }
+        return out;
+    }
+
+    /**
+     * Create the pipelines of the entries that belong to the owner of this specification and are not in the cache yet.
+     * Each entry is applied to a copy of the owner's specification, so the owner's environment and vertex layout are
+     * used.
+     *
+     * @param cache the owner's pipeline cache
+     * @param pipelineLayout the owner's pipeline layout
+     * @param ownerSpec the owner's specification, is not modified
+     * @param maxCreations maximum number of pipelines to create in this call, to spread the work over several frames
+     * @return number of matching pipelines that still need to be created, 0 when done
+     */
+    public int warmUp(PipelineCache cache, WGPUPipelineLayout pipelineLayout, PipelineSpecification ownerSpec,
+            int maxCreations) {
+        int remaining = 0;
+        // index loop: creating a pipeline records it in the manifest that is installed in the context, which may be
+        // this one
+        for (int i = 0, n = entries.size; i < n; i++) {
+            JsonValue entry = entries.get(i);
+            if (!matches(entry, ownerSpec))
+                continue;
+            PipelineSpecification spec = new PipelineSpecification(ownerSpec);
+            apply(entry, spec);
+            if (cache.contains(spec))
+                continue;
+            if (maxCreations > 0) {
+                cache.findPipeline(pipelineLayout, spec);
+                maxCreations--;
+            } else
+                remaining++;
+        }
+        return remaining;
+    }
+
+    private static boolean matches(JsonValue entry, PipelineSpecification spec) {
+        int attributes = spec.vertexAttributes == null ? 0 : spec.vertexAttributes.hashCode();
+        String variant = spec.variant == null ? "" : spec.variant;
+        return entry.getString("name").equals(nameOf(spec)) && entry.getString("shader").equals(shaderKey(spec))
+                && entry.getInt("attributes") == attributes && entry.getString("variant", "").equals(variant);
+    }
+
+    private static void apply(JsonValue entry, PipelineSpecification spec) {
+        spec.vertexStepMode = getEnum(entry, "stepMode", WGPUVertexStepMode.class, spec.vertexStepMode);
+        spec.indexFormat = getEnum(entry, "indexFormat", WGPUIndexFormat.class, spec.indexFormat);
+        spec.topology = getEnum(entry, "topology", WGPUPrimitiveTopology.class, spec.topology);
+        spec.vertexShaderEntryPoint = entry.getString("vertexEntry", null);
+        spec.fragmentShaderEntryPoint = entry.getString("fragmentEntry", null);
+        spec.useDepthTest = entry.getBoolean("depthTest");
+        spec.noDepthAttachment = entry.getBoolean("noDepthAttachment");
+        spec.isSkyBox = entry.getBoolean("skyBox");
+        spec.isDepthPass = entry.getBoolean("depthPass");
+        spec.afterDepthPrepass = entry.getBoolean("afterDepthPrepass");
+        spec.numSamples = entry.getInt("samples");
+        JsonValue formats = entry.get("colorFormats");
+        if (formats == null)
+            spec.colorFormats = null;
+        else {
+            String[] names = formats.asStringArray();
+            spec.colorFormats = new WGPUTextureFormat[names.length];
+            for (int i = 0; i < names.length; i++)
+                spec.colorFormats[i] = WGPUTextureFormat.valueOf(names[i]);
+        }
+        spec.blendingEnabled = entry.getBoolean("blending");
+        spec.blendSrcColor = getEnum(entry, "blendSrcColor", WGPUBlendFactor.class, spec.blendSrcColor);
+        spec.blendDstColor = getEnum(entry, "blendDstColor", WGPUBlendFactor.class, spec.blendDstColor);
+        spec.blendOpColor = getEnum(entry, "blendOpColor", WGPUBlendOperation.class, spec.blendOpColor);
+        spec.blendSrcAlpha = getEnum(entry, "blendSrcAlpha", WGPUBlendFactor.class, spec.blendSrcAlpha);
+        spec.blendDstAlpha = getEnum(entry, "blendDstAlpha", WGPUBlendFactor.class, spec.blendDstAlpha);
+        spec.blendOpAlpha = getEnum(entry, "blendOpAlpha", WGPUBlendOperation.class, spec.blendOpAlpha);
+        spec.cullMode = getEnum(entry, "cullMode", WGPUCullMode.class, spec.cullMode);
+        spec.depthFormat = getEnum(entry, "depthFormat", WGPUTextureFormat.class, spec.depthFormat);
+        spec.maxDirLights = entry.getInt("maxDirLights");
+        spec.maxPointLights = entry.getInt("maxPointLights");
+        spec.usePBR = entry.getBoolean("pbr");
+        spec.customPrefix = entry.getString("prefix", null);
+        // a shader compiled from source depends on the target format (gamma correction) and on the light counts,
+        // so compile it again for this entry. A precompiled shader is used as is.
+        if (isRealSource(spec))
+            spec.shader = null;
+        spec.invalidateHashCode();
+    }
+
+    private static String nameOf(PipelineSpecification spec) {
+        return spec.name == null ? "" : spec.name;
+    }
+
+    private static boolean isRealSource(PipelineSpecification spec) {
+        return spec.shaderSource != null && !spec.shaderSource.equals("precompiled");
+    }
+
+    // identifies the shader without storing the source: hash and length of the source, or the name of a precompiled
+    // shader
+    private static String shaderKey(PipelineSpecification spec) {
+        if (isRealSource(spec))
+            return "source:" + Integer.toHexString(spec.shaderSource.hashCode()) + ":" + spec.shaderSource.length();
+        return "shader:" + (spec.shader == null ? "" : spec.shader.getName());
+    }
+
+    private static void putEnum(JsonValue entry, String name, Enum<?> value) {
+        if (value != null)
+            entry.addChild(name, new JsonValue(value.name()));
+    }
+
+    private static void putString(JsonValue entry, String name, String value) {
+        if (value != null)
+            entry.addChild(name, new JsonValue(value));
+    }
+
+    private static <T extends Enum<T>> T getEnum(JsonValue entry, String name, Class<T> type, T defaultValue) {
+        String value = entry.getString(name, null);
+        return value == null ? defaultValue : Enum.valueOf(type, value);
+    }
+}
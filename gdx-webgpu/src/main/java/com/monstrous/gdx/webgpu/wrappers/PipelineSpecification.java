@@ -63,6 +63,7 @@ public class PipelineSpecification {
     public int maxPointLights;
     public boolean usePBR;
     public String customPrefix; // To add extra defines e.g. for MRT
+    public String variant; // key of the owner's variant, recorded in a PipelineManifest, not part of equals()
     private int hash;
     private boolean dirty; // does hash need to be recalculated?
 
@@ -144,6 +145,7 @@ public class PipelineSpecification {
         this.fragmentShaderEntryPoint = spec.fragmentShaderEntryPoint;
         this.vertexShaderEntryPoint = spec.vertexShaderEntryPoint;
         this.customPrefix = spec.customPrefix;
+        this.variant = spec.variant;
         this.dirty = true;
     }
 
@@ -152,6 +154,26 @@ public class PipelineSpecification {
         this.vertexLayout = new WebGPUVertexLayout(vertexAttributes);
     }
 
+    /**
+     * Match the color formats and the sample count of a render pass, before looking up the pipeline for that pass. A
+     * shader compiled from the shader source is compiled again for other formats, because its prefix depends on the
+     * target format (gamma correction).
+     */
+    public void setRenderTarget(WebGPURenderPass pass) {
+        WGPUTextureFormat[] formats = pass.getColorFormats();
+        boolean formatsChanged = colorFormats == null || colorFormats.length != formats.length;
+        for (int i = 0; !formatsChanged && i < formats.length; i++)
+            formatsChanged = formats[i] != colorFormats[i];
+        if (formatsChanged) {
+            // copy the formats, the render pass array is reused when the pooled pass is reused
+            colorFormats = formats.clone();
+            if (shaderSource != null)
+                shader = null;
+        }
+        numSamples = pass.getSampleCount();
+        dirty = true;
+    }
+
     /** call this whenever changing a field directly to force a recalculation of the hash code. */
     public void invalidateHashCode() {
         dirty = true;
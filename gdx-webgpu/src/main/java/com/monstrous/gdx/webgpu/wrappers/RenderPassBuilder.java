@@ -98,6 +98,11 @@ public class RenderPassBuilder {
         WgGraphics gfx = (WgGraphics) Gdx.graphics;
         WebGPUContext webgpu = gfx.getContext();
 
+        if (webgpu.isRecordingOnly()) {
+            singleFormatScratch[0] = webgpu.surfaceFormats[0];
+            return beginRecording(name, RenderPassType.COLOR_AND_DEPTH, singleFormatScratch, 1, null, sampleCount,
+                    null, webgpu);
+        }
         if (webgpu.encoder == null)
             throw new RuntimeException("Encoder must be set before calling RenderPassBuilder.createFirstTargetOnly()");
         if (!webgpu.encoder.isValid())
@@ -152,6 +157,7 @@ public class RenderPassBuilder {
         }
 
         WebGPURenderPass pass = WebGPURenderPass.obtain();
+        pass.name = name;
 
         Rectangle view = webgpu.getViewportRectangle();
         int width = (int) view.width;
@@ -188,10 +194,12 @@ public class RenderPassBuilder {
         WgGraphics gfx = (WgGraphics) Gdx.graphics;
         WebGPUContext webgpu = gfx.getContext();
 
-        if (webgpu.encoder == null)
-            throw new RuntimeException("Encoder must be set before calling WebGPURenderPass.create()");
-        if (!webgpu.encoder.isValid())
-            throw new RuntimeException("Encoder not valid for call of WebGPURenderPass.create()");
+        if (!webgpu.isRecordingOnly()) {
+            if (webgpu.encoder == null)
+                throw new RuntimeException("Encoder must be set before calling WebGPURenderPass.create()");
+            if (!webgpu.encoder.isValid())
+                throw new RuntimeException("Encoder not valid for call of WebGPURenderPass.create()");
+        }
 
         WGPURenderPassDescriptor renderPassDescriptor = WGPURenderPassDescriptor.obtain();
         renderPassDescriptor.setNextInChain(WGPUChainedStruct.NULL);
@@ -222,10 +230,16 @@ public class RenderPassBuilder {
             targetFormats = scratchFormats;
         }
 
-        if (passType == RenderPassType.COLOR_AND_DEPTH || passType == RenderPassType.COLOR_AND_DEPTH_NO_CLEAR
-                || passType == RenderPassType.COLOR_PASS
+        boolean hasColor = passType == RenderPassType.COLOR_AND_DEPTH
+                || passType == RenderPassType.COLOR_AND_DEPTH_NO_CLEAR || passType == RenderPassType.COLOR_PASS
                 || passType == RenderPassType.COLOR_PASS_AFTER_DEPTH_PREPASS || passType == RenderPassType.SHADOW_PASS
-                || passType == RenderPassType.NO_DEPTH) {
+                || passType == RenderPassType.NO_DEPTH;
+
+        if (webgpu.isRecordingOnly())
+            return beginRecording(name, passType, targetFormats, targetCount, depthTexture, hasColor ? sampleCount : 1,
+                    outTextures, webgpu);
+
+        if (hasColor) {
 
             for (int i = 0; i < targetCount; i++) {
                 WGPURenderPassColorAttachment renderPassColorAttachment = WGPURenderPassColorAttachment.obtain();
@@ -305,6 +319,7 @@ public class RenderPassBuilder {
         }
 
         WebGPURenderPass pass = WebGPURenderPass.obtain(); // Reuse render pass
+        pass.name = name;
 
         Rectangle view = webgpu.getViewportRectangle(); // todo may change over time
 
@@ -331,4 +346,25 @@ public class RenderPassBuilder {
         return pass;
     }
 
+    // a pass for a context without a device, it has no attachments and only records its commands
+    private static WebGPURenderPass beginRecording(String name, RenderPassType passType,
+            WGPUTextureFormat[] targetFormats, int targetCount, WgTexture depthTexture, int sampleCount,
+            WgTexture[] outTextures, WebGPUContext webgpu) {
+        if (depthTexture == null)
+            depthTexture = webgpu.getDepthTexture();
+        WGPUTextureFormat depthFormat = depthTexture != null ? depthTexture.getFormat() : WGPUTextureFormat.Depth24Plus;
+
+        Rectangle view = webgpu.getViewportRectangle();
+        int width = (int) view.width;
+        int height = (int) view.height;
+        if (outTextures != null && outTextures.length > 0) {
+            width = outTextures[0].getWidth();
+            height = outTextures[0].getHeight();
+        }
+
+        WebGPURenderPass pass = WebGPURenderPass.obtain();
+        pass.name = name;
+        pass.beginRecording(passType, targetFormats, targetCount, depthFormat, sampleCount, width, height);
+        return pass;
+    }
 }
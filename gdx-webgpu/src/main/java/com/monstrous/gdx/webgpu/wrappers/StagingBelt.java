@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.wrappers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.github.xpenatan.webgpu.*;
+import com.monstrous.gdx.webgpu.application.WebGPUContext;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Collects the small buffer writes of a frame and uploads them together. Instead of a queue.writeBuffer() per write,
+ * {@link WebGPUBuffer#write} appends the data to one staging area; at the end of the frame the staging area is written
+ * to the GPU with a single writeBuffer and copied to the destination buffers in one command buffer that is submitted
+ * before the frame's commands. Writes that continue the previous write in the same buffer share a copy command. The
+ * result is the same as with direct writes: the data is in place before any pass of the frame executes.
+ * <p>
+ * Install with {@code webgpu.stagingBelt = new StagingBelt()} and dispose it yourself. Only writes during a frame of at
+ * most {@link #getMaxWriteSize()} bytes, with 4-byte aligned offset and size, go through the belt; other writes are
+ * done directly. A direct write to a buffer that has pending writes in the belt uploads the belt first, so that the
+ * older data of the belt cannot overwrite it. When the staging area is full it is uploaded straight away, which is
+ * also safe because the queue executes in order. Code that submits its own command buffers in the middle of a frame should call {@link #flush()}
+ * first, so that the pending writes arrive before its commands.
+ * <p>
+ * The counters of the frame in progress are {@link #writes}, {@link #copies}, {@link #submits} and
+ * {@link #bytesUploaded}; those of the previous frame have the prefix "last".
+ */
+public class StagingBelt implements Disposable {
+    public static final int DEFAULT_CAPACITY = 1024 * 1024;
+    public static final int DEFAULT_MAX_WRITE_SIZE = 64 * 1024;
+
+    private final WebGPUContext webgpu;
+    private final int capacity;
+    private final int maxWriteSize;
+    private final ByteBuffer staging; // CPU side of the staging area
+    private final WebGPUBuffer stagingBuffer; // GPU side, source of the copies
+    private int used; // bytes of the staging area in use
+
+    // pending copies
+    private WGPUBuffer[] targets = new WGPUBuffer[64];
+    private int[] sourceOffsets = new int[64];
+    private int[] targetOffsets = new int[64];
+    private int[] sizes = new int[64];
+    private int numCopies;
+
+    private final WGPUCommandEncoder encoder = new WGPUCommandEncoder();
+    private final WGPUCommandBuffer command = new WGPUCommandBuffer();
+
+    public int writes; // writes taken by the belt in this frame
+    public int copies; // copy commands in this frame
+    public int submits; // uploads in this frame, more than one if the staging area overflowed
+    public long bytesUploaded;
+    public int lastWrites, lastCopies, lastSubmits;
+    public long lastBytesUploaded;
+
+    public StagingBelt() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_WRITE_SIZE);
+    }
+
+    /**
+     * @param capacity size of the staging area in bytes
+     * @param maxWriteSize writes that are larger than this are done directly
+     */
+    public StagingBelt(int capacity, int maxWriteSize) {
+        if (maxWriteSize > capacity)
+            throw new IllegalArgumentException("maxWriteSize cannot exceed the capacity");
+        webgpu = ((WgGraphics) Gdx.graphics).getContext();
+        this.capacity = capacity;
+        this.maxWriteSize = maxWriteSize;
+        staging = BufferUtils.newUnsafeByteBuffer(capacity);
+        staging.order(ByteOrder.LITTLE_ENDIAN);
+        stagingBuffer = new WebGPUBuffer("staging belt", WGPUBufferUsage.CopySrc.or(WGPUBufferUsage.CopyDst), capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getMaxWriteSize() {
+        return maxWriteSize;
+    }
+
+    /**
+     * Add a write of the first sizeInBytes bytes of data to the target buffer. Returns false if the write is not suited
+     * for the belt, in which case the caller has to write it directly.
+     */
+    public boolean write(WGPUBuffer target, int targetOffset, ByteBuffer data, int sizeInBytes) {
+        if (sizeInBytes > maxWriteSize || (sizeInBytes & 3) != 0 || (targetOffset & 3) != 0)
+            return false;
+        if (used + sizeInBytes > capacity)
+            flush();
+
+        int position = data.position();
+        ((Buffer) data).position(0);
+        ((Buffer) staging).limit(capacity);
+        ((Buffer) staging).position(used);
+        BufferUtils.copy(data, staging, sizeInBytes);
+        ((Buffer) data).position(position);
+
+        int last = numCopies - 1;
+        if (last >= 0 && targets[last] == target && targetOffsets[last] + sizes[last] == targetOffset
+                && sourceOffsets[last] + sizes[last] == used) {
+            sizes[last] += sizeInBytes; // continues the previous write
+        } else {
+            if (numCopies == targets.length)
+                grow();
+            targets[numCopies] = target;
+            sourceOffsets[numCopies] = used;
+            targetOffsets[numCopies] = targetOffset;
+            sizes[numCopies] = sizeInBytes;
+            numCopies++;
+        }
+        used += sizeInBytes;
+        writes++;
+        bytesUploaded += sizeInBytes;
+        return true;
+    }
+
+    /** Whether there are writes to the target buffer that have not been uploaded yet. */
+    public boolean hasPendingWrites(WGPUBuffer target) {
+        for (int i = 0; i < numCopies; i++)
+            if (targets[i] == target)
+                return true;
+        return false;
+    }
+
+    private void grow() {
+        int n = 2 * targets.length;
+        WGPUBuffer[] newTargets = new WGPUBuffer[n];
+        System.arraycopy(targets, 0, newTargets, 0, numCopies);
+        targets = newTargets;
+        sourceOffsets = copyOf(sourceOffsets, n);
+        targetOffsets = copyOf(targetOffsets, n);
+        sizes = copyOf(sizes, n);
+    }
+
+    private static int[] copyOf(int[] array, int length) {
+        int[] copy = new int[length];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    /** Upload the pending writes now. Called by the application at the end of each frame. */
+    public void flush() {
+        if (numCopies == 0)
+            return;
+
+        ((Buffer) staging).position(0);
+        webgpu.queue.writeBuffer(stagingBuffer.getBuffer(), 0, staging, used);
+
+        WGPUCommandEncoderDescriptor encoderDesc = WGPUCommandEncoderDescriptor.obtain();
+        encoderDesc.setLabel("Staging belt encoder");
+        webgpu.device.createCommandEncoder(encoderDesc, encoder);
+        for (int i = 0; i < numCopies; i++) {
+            encoder.copyBufferToBuffer(stagingBuffer.getBuffer(), sourceOffsets[i], targets[i], targetOffsets[i],
+                    sizes[i]);
+            targets[i] = null;
+        }
+        WGPUCommandBufferDescriptor cmdBufferDescriptor = WGPUCommandBufferDescriptor.obtain();
+        cmdBufferDescriptor.setNextInChain(WGPUChainedStruct.NULL);
+        cmdBufferDescriptor.setLabel("Staging belt uploads");
+        encoder.finish(cmdBufferDescriptor, command);
+        encoder.release();
+        webgpu.queue.submit(command);
+        command.release();
+
+        copies += numCopies;
+        submits++;
+        numCopies = 0;
+        used = 0;
+    }
+
+    /** Called by the application at the end of each frame, after the last flush. */
+    public void endFrame() {
+        lastWrites = writes;
+        lastCopies = copies;
+        lastSubmits = submits;
+        lastBytesUploaded = bytesUploaded;
+        writes = 0;
+        copies = 0;
+        submits = 0;
+        bytesUploaded = 0;
+    }
+
+    @Override
+    public void dispose() {
+        if (webgpu.stagingBelt == this)
+            webgpu.stagingBelt = null;
+        stagingBuffer.dispose();
+        encoder.dispose();
+        command.dispose();
+        BufferUtils.disposeUnsafeByteBuffer(staging);
+    }
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright 2025 Monstrous Software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.monstrous.gdx.webgpu.wrappers;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.github.xpenatan.webgpu.WGPUBufferUsage;
+import com.monstrous.gdx.webgpu.graphics.Binder;
+
+/**
+ * Uniform buffer of a 2D renderer with one slice per draw group, e.g. per flush or per begin(), selected with a
+ * dynamic offset.
+ * <p>
+ * The slices are stored in a {@link ChunkedBuffer} of uniform buffers, so the number of slices per frame can grow. The
+ * current chunk is bound to a binding of a {@link Binder}, whose bind group keeps one native bind group per texture
+ * and chunk in a {@link KeyedBindGroupCache}. The bind groups of a chunk are evicted from the cache when the chunk is
+ * released.
+ */
+public class UniformChunks implements Disposable {
+    private final Binder binder;
+    private final String bindingName;
+    private final int sliceSize;
+    private final int slicesPerChunk;
+    private final KeyedBindGroupCache bindGroupCache;
+    private final ChunkedBuffer<WebGPUUniformBuffer> chunks;
+    private WebGPUUniformBuffer uniformBuffer; // current chunk
+    private int slicesInChunk; // slices used in the current chunk
+
+    /**
+     * Bind the first chunk to the binding and attach a bind group cache to the binding's group.
+     *
+     * @param binder binder in which the group and the binding are defined
+     * @param groupId group of the binding
+     * @param bindingName name of the uniform buffer binding, which has a dynamic offset
+     * @param sliceSize size of the uniforms of one slice in bytes
+     * @param slicesPerChunk number of slices per uniform buffer
+     * @param shrinkAfterFrames number of consecutive frames that leave chunks unused before these are released
+     * @param framesInFlight number of frames that each have their own chunks, see WebGPUContext.getFramesInFlight()
+     */
+    public UniformChunks(Binder binder, int groupId, String bindingName, final int sliceSize, final int slicesPerChunk,
+            int shrinkAfterFrames, int framesInFlight) {
+        this.binder = binder;
+        this.bindingName = bindingName;
+        this.sliceSize = sliceSize;
+        this.slicesPerChunk = slicesPerChunk;
+
+        bindGroupCache = new KeyedBindGroupCache();
+        chunks = new ChunkedBuffer<>(new ChunkedBuffer.ChunkFactory<WebGPUUniformBuffer>() {
+            @Override
+            public WebGPUUniformBuffer createChunk() {
+                return new WebGPUUniformBuffer(sliceSize, WGPUBufferUsage.CopyDst.or(WGPUBufferUsage.Uniform),
+                        slicesPerChunk);
+            }
+
+            @Override
+            public void releaseChunk(WebGPUUniformBuffer chunk) {
+                bindGroupCache.evict(chunk.getBuffer()); // cached bind groups refer to the uniform buffer
+            }
+        }, shrinkAfterFrames, framesInFlight);
+        uniformBuffer = chunks.current();
+        binder.setBuffer(bindingName, uniformBuffer, 0, sliceSize);
+        binder.getBindGroup(groupId).setCache(bindGroupCache);
+    }
+
+    /** Start again at the first slice of the first chunk. Does nothing if it was already called for this frame. */
+    public void beginFrame(int frameNumber) {
+        if (chunks.beginFrame(frameNumber))
+            setChunk(chunks.current());
+    }
+
+    /**
+     * Start the next slice, in the next chunk when the current chunk is full. Set the uniforms of the slice after
+     * this call, e.g. with {@link Binder#setUniform(String, com.badlogic.gdx.math.Matrix4)}.
+     *
+     * @return dynamic offset of the slice
+     */
+    public int nextSlice() {
+        if (slicesInChunk == slicesPerChunk) { // chunk is full, continue in the next one
+            uniformBuffer.endSlices();
+            setChunk(chunks.next());
+        }
+        slicesInChunk++;
+        return uniformBuffer.nextSlice();
+    }
+
+    /** Write the slices set so far to the GPU. */
+    public void endSlices() {
+        uniformBuffer.endSlices();
+    }
+
+    private void setChunk(WebGPUUniformBuffer chunk) {
+        uniformBuffer = chunk;
+        binder.setBuffer(bindingName, uniformBuffer, 0, sliceSize);
+        uniformBuffer.beginSlices();
+        slicesInChunk = 0;
+    }
+
+    /** Returns the cache of bind groups per texture and chunk. */
+    public KeyedBindGroupCache getBindGroupCache() {
+        return bindGroupCache;
+    }
+
+    /** number of uniform buffer chunks currently allocated */
+    public int getChunkCount() {
+        return chunks.getChunkCount();
+    }
+
+    @Override
+    public void dispose() {
+        chunks.dispose();
+        bindGroupCache.dispose();
+    }
+}
@@ -33,9 +33,15 @@ import com.monstrous.gdx.webgpu.application.WgGraphics;
  * Note the sequence and types must correspond to what is defined in the BindGroupLayout.
  *
  * This allows also to only update specific bindings. create() is implied by getHandle().
+ *
+ * Optionally a KeyedBindGroupCache can be attached with setCache(). Then a change of bindings will reuse a cached
+ * native bind group with the same contents, if there is one, instead of releasing and recreating the bind group.
  */
 public class WebGPUBindGroup implements Disposable {
     private WGPUBindGroup bindGroup = null;
+    // incremented when a native bind group is recreated into an existing wrapper, which a render pass cannot tell
+    // apart by reference
+    static int wrapperReuses;
     private boolean isReleased;
     private final WebGPUContext webgpu;
 
@@ -45,6 +51,16 @@ public class WebGPUBindGroup implements Disposable {
     private final int numEntries;
     private boolean dirty; // has an entry changed? Then we need to rebuild the bind group
 
+    // Java side copy of the entries, used as key for the bind group cache
+    private final WGPUBindGroupLayout layoutHandle;
+    private final int[] entryBindings;
+    private final Object[] entryResources;
+    private final int[] entryOffsets;
+    private final int[] entrySizes;
+    private KeyedBindGroupCache cache;
+    private WGPUBindGroup cachedBindGroup; // owned by the cache
+    private int cacheGeneration;
+
     public WebGPUBindGroup(WebGPUBindGroupLayout layout) {
         WgGraphics gfx = (WgGraphics) Gdx.graphics;
         webgpu = gfx.getContext();
@@ -67,6 +83,26 @@ public class WebGPUBindGroup implements Disposable {
         bindGroupDescriptor.setLayout(layout.getLayout());
 
         bindingIndex = new IntIntMap();
+
+        layoutHandle = layout.getLayout();
+        entryBindings = new int[numEntries];
+        entryResources = new Object[numEntries];
+        entryOffsets = new int[numEntries];
+        entrySizes = new int[numEntries];
+    }
+
+    /**
+     * Use a cache of native bind groups keyed by content. Native bind groups obtained from the cache are owned by the
+     * cache and remain valid across changes of bindings. Use null to stop using a cache.
+     */
+    public void setCache(KeyedBindGroupCache cache) {
+        this.cache = cache;
+        cachedBindGroup = null;
+        dirty = true;
+    }
+
+    public KeyedBindGroupCache getCache() {
+        return cache;
     }
 
     public void begin() {
@@ -82,7 +118,12 @@ public class WebGPUBindGroup implements Disposable {
         // Reset all entries to defaults
         for (int i = 0; i < numEntries; i++) {
             setDefault(entryArray[i]);
+            entryBindings[i] = 0;
+            entryResources[i] = null;
+            entryOffsets[i] = 0;
+            entrySizes[i] = 0;
         }
+        cachedBindGroup = null;
         // Mark as dirty so it will be rebuilt on next create()
         dirty = true;
         // Release the native bind group object but keep the JNI wrapper for reuse
@@ -123,6 +164,7 @@ public class WebGPUBindGroup implements Disposable {
         entry.setBuffer(buffer.getBuffer());
         entry.setOffset(offset);
         entry.setSize(size);
+        setKey(index, bindingId, buffer.getBuffer(), offset, size);
         dirty = true;
     }
 
@@ -131,6 +173,7 @@ public class WebGPUBindGroup implements Disposable {
         WGPUBindGroupEntry entry = entryArray[index];
         entry.setBinding(bindingId);
         entry.setTextureView(textureView);
+        setKey(index, bindingId, textureView, 0, 0);
         dirty = true;
     }
 
@@ -140,9 +183,17 @@ public class WebGPUBindGroup implements Disposable {
         WGPUBindGroupEntry entry = entryArray[index];
         entry.setBinding(bindingId);
         entry.setSampler(sampler);
+        setKey(index, bindingId, sampler, 0, 0);
         dirty = true;
     }
 
+    private void setKey(int index, int bindingId, Object resource, int offset, int size) {
+        entryBindings[index] = bindingId;
+        entryResources[index] = resource;
+        entryOffsets[index] = offset;
+        entrySizes[index] = size;
+    }
+
     private void setDefault(WGPUBindGroupEntry entry) {
         entry.setBuffer(WGPUBuffer.NULL);
         entry.setSampler(WGPUSampler.NULL);
@@ -151,32 +202,63 @@ public class WebGPUBindGroup implements Disposable {
 
     /** creates the bind group. (also implicitly called by getHandle()) */
     public WGPUBindGroup create() {
+        if (cache != null)
+            return createCached();
         if (dirty) {
             // Lazy allocation - create the JNI wrapper only once
             if (bindGroup == null) {
                 bindGroup = new WGPUBindGroup();
                 isReleased = true;
-            } else if (!isReleased) {
-                // Release the previous native bind group object before creating a new one
-                bindGroup.release();
-                isReleased = true;
+            } else {
+                wrapperReuses++;
+                if (!isReleased) {
+                    // Release the previous native bind group object before creating a new one
+                    bindGroup.release();
+                    isReleased = true;
+                }
             }
 
             // Recreate native bind group with new bindings
-            WGPUVectorBindGroupEntry entryVector = WGPUVectorBindGroupEntry.obtain();
-            for (int i = 0; i < numEntries; i++) {
-                entryVector.push_back(entryArray[i]);
-            }
-            bindGroupDescriptor.setEntries(entryVector);
-
-            webgpu.device.createBindGroup(bindGroupDescriptor, bindGroup);
-            isReleased = false;
+            createNative(bindGroup);
+            isReleased = webgpu.isRecordingOnly(); // without a device there is no native bind group to release
             dirty = false;
         }
         return bindGroup;
     }
 
+    // look up the bind group in the cache, only create a new one if the contents were not seen before
+    private WGPUBindGroup createCached() {
+        if (dirty || cachedBindGroup == null || cacheGeneration != cache.getGeneration()) {
+            WGPUBindGroup bg = cache.find(layoutHandle, entryBindings, entryResources, entryOffsets, entrySizes,
+                    numEntries);
+            if (bg == null) {
+                bg = new WGPUBindGroup();
+                createNative(bg);
+                cache.put(layoutHandle, entryBindings, entryResources, entryOffsets, entrySizes, numEntries, bg);
+            }
+            cachedBindGroup = bg;
+            cacheGeneration = cache.getGeneration();
+            dirty = false;
+        }
+        return cachedBindGroup;
+    }
+
+    private void createNative(WGPUBindGroup target) {
+        WGPUVectorBindGroupEntry entryVector = WGPUVectorBindGroupEntry.obtain();
+        for (int i = 0; i < numEntries; i++) {
+            entryVector.push_back(entryArray[i]);
+        }
+        bindGroupDescriptor.setEntries(entryVector);
+
+        if (!webgpu.isRecordingOnly())
+            webgpu.device.createBindGroup(bindGroupDescriptor, target);
+        if (webgpu.commandRecorder != null)
+            webgpu.commandRecorder.bindGroupCreated();
+    }
+
     public WGPUBindGroup getBindGroup() {
+        if (cache != null)
+            return createCached();
         if (dirty)
             create();
         return bindGroup;
@@ -193,6 +275,7 @@ public class WebGPUBindGroup implements Disposable {
             bindGroup.dispose();
             bindGroup = null;
         }
+        cachedBindGroup = null; // owned by the cache
         for (int i = 0; i < numEntries; i++) {
             entryArray[i].dispose();
         }
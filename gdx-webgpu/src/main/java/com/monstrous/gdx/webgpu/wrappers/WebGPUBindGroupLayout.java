@@ -116,7 +116,8 @@ public class WebGPUBindGroupLayout implements Disposable {
 
         // System.out.println("Create binding layout : "+entries.size() + " "+label);
         layout = new WGPUBindGroupLayout();
-        webgpu.device.createBindGroupLayout(bindGroupLayoutDesc, layout);
+        if (!webgpu.isRecordingOnly())
+            webgpu.device.createBindGroupLayout(bindGroupLayoutDesc, layout);
 
     }
 
@@ -160,7 +161,8 @@ public class WebGPUBindGroupLayout implements Disposable {
         for (WGPUBindGroupLayoutEntry entry : entries.values())
             entry.dispose();
         entries.clear();
-        layout.release();
+        if (!webgpu.isRecordingOnly())
+            layout.release();
         layout.dispose();
         layout = null;
     }
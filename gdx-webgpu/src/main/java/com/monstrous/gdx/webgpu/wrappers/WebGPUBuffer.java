@@ -53,7 +53,10 @@ public class WebGPUBuffer implements Disposable {
         bufferDesc.setUsage(usage);
         bufferDesc.setSize(bufferSize);
         bufferDesc.setMappedAtCreation(false);
-        buffer = webgpu.device.createBuffer(bufferDesc);
+        if (webgpu.isRecordingOnly())
+            buffer = WGPUBuffer.NULL;
+        else
+            buffer = webgpu.device.createBuffer(bufferDesc);
     }
 
     public WGPUBuffer getBuffer() {
@@ -74,32 +77,41 @@ public class WebGPUBuffer implements Disposable {
     public void write(int destOffset, ByteBuffer data, int sizeInBytes) {
         if (destOffset + sizeInBytes > bufferSize)
             throw new RuntimeException("Overflow in Buffer.write().");
+        if (webgpu.isRecordingOnly()) {
+            log(sizeInBytes);
+            return;
+        }
         if (!webgpu.isFrameStarted()) {
              Gdx.app.debug("WebGPUBuffer", "writeBuffer called outside of beginFrame/endFrame window (create() phase?).");
+        } else if (webgpu.stagingBelt != null && webgpu.stagingBelt.write(buffer, destOffset, data, sizeInBytes)) {
+            log(sizeInBytes);
+            return;
         }
+        // the belt's copies are submitted later, they would overwrite this write with older data
+        if (webgpu.stagingBelt != null && webgpu.stagingBelt.hasPendingWrites(buffer))
+            webgpu.stagingBelt.flush();
         webgpu.queue.writeBuffer(buffer, destOffset, data, sizeInBytes);
-        log(data.limit());
+        log(sizeInBytes);
     }
 
     public void write(int destOffset, ByteBuffer data) {
-        if (destOffset + data.limit() > bufferSize)
-            throw new RuntimeException("Overflow in Buffer.write().");
-        if (!webgpu.isFrameStarted()) {
-             Gdx.app.debug("WebGPUBuffer", "writeBuffer called outside of beginFrame/endFrame window (create() phase?).");
-        }
-        webgpu.queue.writeBuffer(buffer, destOffset, data, data.limit());
-        log(data.limit());
+        write(destOffset, data, data.limit());
     }
 
     @Override
     public void dispose() {
-        buffer.destroy();
+        if (webgpu.stagingBelt != null)
+            webgpu.stagingBelt.flush(); // pending copies may target this buffer
+        if (!webgpu.isRecordingOnly())
+            buffer.destroy();
         // buffer.dispose();
         buffer = null;
     }
 
     private void log(int bytesWritten) {
         // System.out.println("buffer write: "+bytesWritten);
+        if (webgpu.commandRecorder != null)
+            webgpu.commandRecorder.bufferWrite(bytesWritten);
     }
 }
 
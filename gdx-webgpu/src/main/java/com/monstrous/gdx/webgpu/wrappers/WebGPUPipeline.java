@@ -25,12 +25,28 @@ import com.monstrous.gdx.webgpu.graphics.ShaderPrefix;
 import com.monstrous.gdx.webgpu.graphics.WgShaderProgram;
 
 public class WebGPUPipeline implements Disposable {
-    private final WGPURenderPipeline pipeline;
+    private static int pendingCount; // asynchronous creations in progress, over all pipelines
+
+    private WGPURenderPipeline pipeline;
     public PipelineSpecification specification;
     private final WgShaderProgram shader;
     private final boolean ownsShader;
+    private boolean ready; // the render pipeline has been created
+    private boolean failed; // asynchronous creation failed
+    private boolean disposed;
 
     public WebGPUPipeline(WGPUPipelineLayout pipelineLayout, PipelineSpecification spec) {
+        this(pipelineLayout, spec, false);
+    }
+
+    /**
+     * Create a pipeline for this specification.
+     *
+     * @param async if true, the render pipeline is created in the background with createRenderPipelineAsync and the
+     *            pipeline is not ready until the callback has run, see {@link #isReady()}. The shader module is still
+     *            created immediately.
+     */
+    public WebGPUPipeline(WGPUPipelineLayout pipelineLayout, PipelineSpecification spec, boolean async) {
         // System.out.println("Creating pipeline "+spec.name);
         // if the specification does not already have a shader, create one from the source file, customized to the
         // vertex attributes.
@@ -170,10 +186,41 @@ public class WebGPUPipeline implements Disposable {
 
         pipelineDesc.setLayout(pipelineLayout);
 
-        pipeline = new WGPURenderPipeline();
         WgGraphics gfx = (WgGraphics) Gdx.graphics;
         WebGPUContext webgpu = gfx.getContext();
-        webgpu.device.createRenderPipeline(pipelineDesc, pipeline);
+        if (webgpu.isRecordingOnly()) {
+            pipeline = new WGPURenderPipeline(); // empty handle, the commands are only recorded
+            ready = true;
+        } else if (async) {
+            pendingCount++;
+            webgpu.device.createRenderPipelineAsync(pipelineDesc, WGPUCallbackMode.AllowProcessEvents,
+                    new WGPUCreateRenderPipelineAsyncCallback() {
+                        @Override
+                        protected void onCallback(WGPUCreatePipelineAsyncStatus status,
+                                WGPURenderPipeline renderPipeline, String message) {
+                            pendingCount--;
+                            if (status != WGPUCreatePipelineAsyncStatus.Success) {
+                                failed = true;
+                                Gdx.app.error("WebGPUPipeline", "Could not create pipeline " + specification.name
+                                        + ": " + status + " " + message);
+                            } else if (disposed) {
+                                // disposed while waiting for the callback
+                                renderPipeline.release();
+                            } else {
+                                pipeline = renderPipeline;
+                                ready = true;
+                            }
+                        }
+                    });
+        } else {
+            pipeline = new WGPURenderPipeline();
+            webgpu.device.createRenderPipeline(pipelineDesc, pipeline);
+            ready = true;
+        }
+        if (webgpu.commandRecorder != null)
+            webgpu.commandRecorder.pipelineCreated(spec.name);
+        if (webgpu.pipelineManifest != null)
+            webgpu.pipelineManifest.add(specification);
 
         // shaderModule.release();
 
@@ -191,14 +238,37 @@ public class WebGPUPipeline implements Disposable {
         return h == h2 && this.specification.equals(spec);
     }
 
+    /** returns null while the pipeline is being created asynchronously */
     public WGPURenderPipeline getPipeline() {
         return pipeline;
     }
 
+    /** returns true once the render pipeline exists and can be set on a render pass */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** returns true if asynchronous creation failed, the pipeline will never become ready */
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    /**
+     * returns the number of asynchronous pipeline creations in progress over all pipeline caches, e.g. for a loading
+     * screen to wait on. The callbacks are processed once per frame.
+     */
+    public static int getPendingCount() {
+        return pendingCount;
+    }
+
     @Override
     public void dispose() {
-        pipeline.release();
-        pipeline.dispose();
+        disposed = true;
+        if (pipeline != null) {
+            if (!((WgGraphics) Gdx.graphics).getContext().isRecordingOnly())
+                pipeline.release();
+            pipeline.dispose();
+        }
         if (ownsShader)
             shader.dispose();
     }
@@ -40,7 +40,8 @@ public class WebGPUPipelineLayout implements Disposable {
         layout = new WGPUPipelineLayout();
         WgGraphics gfx = (WgGraphics) Gdx.graphics;
         WebGPUContext webgpu = gfx.getContext();
-        webgpu.device.createPipelineLayout(pipelineLayoutDesc, layout);
+        if (!webgpu.isRecordingOnly())
+            webgpu.device.createPipelineLayout(pipelineLayoutDesc, layout);
     }
 
     public WGPUPipelineLayout getLayout() {
@@ -49,7 +50,8 @@ public class WebGPUPipelineLayout implements Disposable {
 
     @Override
     public void dispose() {
-        layout.release();
+        if (!((WgGraphics) Gdx.graphics).getContext().isRecordingOnly())
+            layout.release();
         layout.dispose();
     }
 }
@@ -16,12 +16,25 @@
 
 package com.monstrous.gdx.webgpu.wrappers;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.Pool;
 import com.github.xpenatan.webgpu.*;
-
+import com.monstrous.gdx.webgpu.application.WebGPUContext;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
+
+/**
+ * Render pass wrapper. Between {@link #beginBundle} and {@link #finishBundle} it records into a render bundle encoder
+ * instead, so that code that renders to a pass can also record a render bundle. It keeps track of the bound pipeline, bind groups (with their dynamic offset) and vertex and
+ * index buffers, and skips calls that would set the same state again. {@link #stateCalls} and {@link #redundantCalls}
+ * count the issued and skipped calls of this pass.
+ */
 public class WebGPURenderPass implements Disposable {
+    private static final int MAX_BIND_GROUPS = 8;
+    private static final int MAX_VERTEX_BUFFERS = 8;
+
     private WGPURenderPassEncoder renderPass; // handle used by WebGPU
+    private WGPURenderBundleEncoder bundleEncoder; // not null while recording a render bundle
     public RenderPassType type;
     private WGPUTextureFormat[] textureFormats;
     private WGPUTextureFormat depthFormat;
@@ -29,6 +42,28 @@ public class WebGPURenderPass implements Disposable {
     private int viewportX, viewportY;
     private int sampleCount;
     private final WGPUTextureFormat[] singleFormatArray = new WGPUTextureFormat[1];
+    private CommandRecorder recorder; // null unless the context has a command recorder
+    private boolean recordingOnly; // begun with beginRecording(), there is no encoder
+    private boolean pipelineNotReady; // the last pipeline set is still being created, draw calls are skipped
+    private FrameProfiler profiler; // null unless the context has a frame profiler
+    private long beginNanos; // for the frame profiler
+    public String name; // pass name, set by RenderPassBuilder
+
+    // currently bound state, null when unknown
+    private WGPURenderPipeline boundPipeline;
+    private final WGPUBindGroup[] boundBindGroups = new WGPUBindGroup[MAX_BIND_GROUPS];
+    private final int[] boundOffsets = new int[MAX_BIND_GROUPS]; // -1 when bound without dynamic offset
+    private final int[] boundBindGroupReuses = new int[MAX_BIND_GROUPS];
+    private final WGPUBuffer[] boundVertexBuffers = new WGPUBuffer[MAX_VERTEX_BUFFERS];
+    private final int[] boundVertexOffsets = new int[MAX_VERTEX_BUFFERS];
+    private final int[] boundVertexSizes = new int[MAX_VERTEX_BUFFERS];
+    private WGPUBuffer boundIndexBuffer;
+    private WGPUIndexFormat boundIndexFormat;
+    private int boundIndexOffset, boundIndexSize;
+    private final WGPUVectorInt offsetsVector = new WGPUVectorInt(); // reused for the dynamic offsets
+
+    public int stateCalls; // pipeline, bind group, vertex and index buffer calls passed to the encoder in this pass
+    public int redundantCalls; // calls that were skipped because the state was already set
 
     private static final Pool<WebGPURenderPass> renderPassPool = new Pool<WebGPURenderPass>() {
         @Override
@@ -75,6 +110,67 @@ public class WebGPURenderPass implements Disposable {
     public void begin(WGPUCommandEncoder encoder, WGPURenderPassDescriptor renderPassDescriptor, RenderPassType type,
             WGPUTextureFormat[] textureFormats, int count, WGPUTextureFormat depthFormat, int sampleCount,
             int targetWidth, int targetHeight) {
+        setTarget(type, textureFormats, count, depthFormat, sampleCount, targetWidth, targetHeight);
+        encoder.beginRenderPass(renderPassDescriptor, renderPass);
+        started(type);
+    }
+
+    /**
+     * Begin a pass for a context without a device (see {@link WebGPUContext#isRecordingOnly()}). The commands of this
+     * pass are counted by the command recorder but not passed to WebGPU.
+     */
+    public void beginRecording(RenderPassType type, WGPUTextureFormat[] textureFormats, int count,
+            WGPUTextureFormat depthFormat, int sampleCount, int targetWidth, int targetHeight) {
+        setTarget(type, textureFormats, count, depthFormat, sampleCount, targetWidth, targetHeight);
+        recordingOnly = true;
+        started(type);
+    }
+
+    private void started(RenderPassType type) {
+        if (recorder != null)
+            recorder.renderPass(type);
+        profiler = ((WgGraphics) Gdx.graphics).getContext().frameProfiler;
+        if (profiler != null)
+            beginNanos = System.nanoTime();
+    }
+
+    /**
+     * Record the following commands into a render bundle that can be executed in passes with these formats and sample
+     * count. Viewport and scissor calls are ignored, the bundle uses those of the pass that executes it.
+     */
+    public void beginBundle(WGPURenderBundleEncoder bundleEncoder, RenderPassType type,
+            WGPUTextureFormat[] textureFormats, WGPUTextureFormat depthFormat, int sampleCount, int targetWidth,
+            int targetHeight) {
+        int count = textureFormats == null ? 0 : textureFormats.length;
+        setTarget(type, textureFormats, count, depthFormat, sampleCount, targetWidth, targetHeight);
+        this.bundleEncoder = bundleEncoder;
+    }
+
+    /** Finish the recording into the given render bundle and return this wrapper to the pool. */
+    public void finishBundle(String label, WGPURenderBundle bundle) {
+        WGPURenderBundleDescriptor descriptor = WGPURenderBundleDescriptor.obtain();
+        descriptor.setLabel(label);
+        bundleEncoder.finish(descriptor, bundle);
+        bundleEncoder.release();
+        bundleEncoder = null;
+        WebGPURenderPass.free(this);
+    }
+
+    public boolean isRecordingBundle() {
+        return bundleEncoder != null;
+    }
+
+    /** Execute render bundles. Afterwards no pipeline, bind groups or buffers are bound. */
+    public void executeBundles(WGPUVectorRenderBundle bundles) {
+        if (!recordingOnly)
+            renderPass.executeBundles(bundles);
+        resetBoundState();
+        pipelineNotReady = false;
+        stateCalls++;
+    }
+
+    private void setTarget(RenderPassType type, WGPUTextureFormat[] textureFormats, int count,
+            WGPUTextureFormat depthFormat, int sampleCount, int targetWidth, int targetHeight) {
         this.type = type;
 
         // Optimization for single render target (most common case)
@@ -97,12 +193,25 @@ public class WebGPURenderPass implements Disposable {
         this.sampleCount = sampleCount;
         this.targetWidth = targetWidth;
         this.targetHeight = targetHeight;
-        encoder.beginRenderPass(renderPassDescriptor, renderPass);
+        pipelineNotReady = false;
+        resetBoundState();
+        stateCalls = 0;
+        redundantCalls = 0;
+
+        recorder = ((WgGraphics) Gdx.graphics).getContext().commandRecorder;
     }
 
     public void end() {
-        renderPass.end();
-        renderPass.release();
+        if (!recordingOnly) {
+            renderPass.end();
+            renderPass.release();
+        }
+        recordingOnly = false;
+        if (profiler != null) {
+            profiler.cpuSample(name, System.nanoTime() - beginNanos);
+            profiler = null;
+        }
+        name = null;
         WebGPURenderPass.free(this);
     }
 
@@ -133,46 +242,153 @@ public class WebGPURenderPass implements Disposable {
         return sampleCount;
     }
 
+    /** forget the bound state, e.g. after state was set on the encoder directly via {@link #getRenderPassEncoder()} */
+    public void resetBoundState() {
+        boundPipeline = null;
+        for (int i = 0; i < MAX_BIND_GROUPS; i++)
+            boundBindGroups[i] = null;
+        for (int i = 0; i < MAX_VERTEX_BUFFERS; i++)
+            boundVertexBuffers[i] = null;
+        boundIndexBuffer = null;
+    }
+
     public void setPipeline(WGPURenderPipeline pipeline) {
-        renderPass.setPipeline(pipeline);
+        pipelineNotReady = false;
+        if (pipeline == boundPipeline) {
+            skipped();
+            return;
+        }
+        boundPipeline = pipeline;
+        stateCalls++;
+        if (bundleEncoder != null)
+            bundleEncoder.setPipeline(pipeline);
+        else if (!recordingOnly)
+            renderPass.setPipeline(pipeline);
+        if (recorder != null)
+            recorder.setPipeline();
     }
 
+    /**
+     * Set the pipeline for the following draw calls. If the pipeline is still being created asynchronously (see
+     * {@link PipelineCache#setAsync(boolean)}), the draw calls are skipped until another pipeline is set.
+     */
     public void setPipeline(WebGPUPipeline pipeline) {
-        renderPass.setPipeline(pipeline.getPipeline());
+        if (!pipeline.isReady()) {
+            pipelineNotReady = true;
+            return;
+        }
+        setPipeline(pipeline.getPipeline());
     }
 
     public void setBindGroup(int groupIndex, WGPUBindGroup bindGroup) {
-        WGPUVectorInt dynamicOffsets = WGPUVectorInt.obtain();
-        renderPass.setBindGroup(groupIndex, bindGroup, dynamicOffsets); // can we pass null instead?
+        if (isBound(groupIndex, bindGroup, -1)) {
+            skipped();
+            return;
+        }
+        offsetsVector.clear();
+        issueBindGroup(groupIndex, bindGroup, offsetsVector);
+        remember(groupIndex, bindGroup, -1);
     }
 
     /** set bind group with one dynamic offset */
     public void setBindGroup(int groupIndex, WGPUBindGroup bindGroup, int dynamicOffset) {
-        WGPUVectorInt dynamicOffsets = WGPUVectorInt.obtain();
-        dynamicOffsets.push_back(dynamicOffset);
-        renderPass.setBindGroup(groupIndex, bindGroup, dynamicOffsets);
+        if (isBound(groupIndex, bindGroup, dynamicOffset)) {
+            skipped();
+            return;
+        }
+        offsetsVector.clear();
+        offsetsVector.push_back(dynamicOffset);
+        issueBindGroup(groupIndex, bindGroup, offsetsVector);
+        remember(groupIndex, bindGroup, dynamicOffset);
     }
 
-    /** set bind group with dynamic offsets */
+    /** set bind group with dynamic offsets. This is always passed to the encoder. */
     public void setBindGroup(int groupIndex, WGPUBindGroup bindGroup, WGPUVectorInt dynamicOffsets) {
-        renderPass.setBindGroup(groupIndex, bindGroup, dynamicOffsets);
+        issueBindGroup(groupIndex, bindGroup, dynamicOffsets);
+        if (groupIndex < MAX_BIND_GROUPS)
+            boundBindGroups[groupIndex] = null; // offsets are not tracked
+    }
+
+    private void issueBindGroup(int groupIndex, WGPUBindGroup bindGroup, WGPUVectorInt dynamicOffsets) {
+        stateCalls++;
+        if (bundleEncoder != null)
+            bundleEncoder.setBindGroup(groupIndex, bindGroup, dynamicOffsets);
+        else if (!recordingOnly)
+            renderPass.setBindGroup(groupIndex, bindGroup, dynamicOffsets);
+        if (recorder != null)
+            recorder.setBindGroup(groupIndex);
+    }
+
+    private boolean isBound(int groupIndex, WGPUBindGroup bindGroup, int dynamicOffset) {
+        return groupIndex < MAX_BIND_GROUPS && boundBindGroups[groupIndex] == bindGroup
+                && boundOffsets[groupIndex] == dynamicOffset
+                && boundBindGroupReuses[groupIndex] == WebGPUBindGroup.wrapperReuses;
+    }
+
+    private void remember(int groupIndex, WGPUBindGroup bindGroup, int dynamicOffset) {
+        if (groupIndex >= MAX_BIND_GROUPS)
+            return;
+        boundBindGroups[groupIndex] = bindGroup;
+        boundOffsets[groupIndex] = dynamicOffset;
+        boundBindGroupReuses[groupIndex] = WebGPUBindGroup.wrapperReuses;
     }
 
     public void setVertexBuffer(int slot, WGPUBuffer vertexBuffer, int offset, int size) {
-        renderPass.setVertexBuffer(slot, vertexBuffer, offset, size);
+        if (slot < MAX_VERTEX_BUFFERS) {
+            if (boundVertexBuffers[slot] == vertexBuffer && boundVertexOffsets[slot] == offset
+                    && boundVertexSizes[slot] == size) {
+                skipped();
+                return;
+            }
+            boundVertexBuffers[slot] = vertexBuffer;
+            boundVertexOffsets[slot] = offset;
+            boundVertexSizes[slot] = size;
+        }
+        stateCalls++;
+        if (bundleEncoder != null)
+            bundleEncoder.setVertexBuffer(slot, vertexBuffer, offset, size);
+        else if (!recordingOnly)
+            renderPass.setVertexBuffer(slot, vertexBuffer, offset, size);
+        if (recorder != null)
+            recorder.setVertexBuffer(slot, size);
     }
 
     public void setIndexBuffer(WGPUBuffer indexBuffer, WGPUIndexFormat wgpuIndexFormat, int offset, int size) {
-        renderPass.setIndexBuffer(indexBuffer, wgpuIndexFormat, offset, size);
+        if (boundIndexBuffer == indexBuffer && boundIndexFormat == wgpuIndexFormat && boundIndexOffset == offset
+                && boundIndexSize == size) {
+            skipped();
+            return;
+        }
+        boundIndexBuffer = indexBuffer;
+        boundIndexFormat = wgpuIndexFormat;
+        boundIndexOffset = offset;
+        boundIndexSize = size;
+        stateCalls++;
+        if (bundleEncoder != null)
+            bundleEncoder.setIndexBuffer(indexBuffer, wgpuIndexFormat, offset, size);
+        else if (!recordingOnly)
+            renderPass.setIndexBuffer(indexBuffer, wgpuIndexFormat, offset, size);
+        if (recorder != null)
+            recorder.setIndexBuffer(size);
+    }
+
+    private void skipped() {
+        redundantCalls++;
+        if (recorder != null)
+            recorder.redundantCall();
     }
 
     public void setViewport(float x, float y, float width, float height, float minDepth, float maxDepth) {
+        if (bundleEncoder != null || recordingOnly)
+            return;
         renderPass.setViewport(x, y, width, height, minDepth, maxDepth);
         viewportX = (int) x;
         viewportY = (int) y;
     }
 
     public void setScissorRect(int x, int y, int width, int height) {
+        if (bundleEncoder != null || recordingOnly)
+            return;
         // Clamp in framebuffer coordinates, but use viewport origin as the render-target offset.
         int minX = viewportX;
         int minY = viewportY;
@@ -202,22 +418,76 @@ public class WebGPURenderPass implements Disposable {
     }
 
     public void drawIndexed(int indexCount, int numInstances, int firstIndex, int baseVertex, int firstInstance) {
-        renderPass.drawIndexed(indexCount, numInstances, firstIndex, baseVertex, firstInstance);
+        if (pipelineNotReady) {
+            if (recorder != null)
+                recorder.skippedDraw();
+            return;
+        }
+        if (bundleEncoder != null)
+            bundleEncoder.drawIndexed(indexCount, numInstances, firstIndex, baseVertex, firstInstance);
+        else if (!recordingOnly)
+            renderPass.drawIndexed(indexCount, numInstances, firstIndex, baseVertex, firstInstance);
+        if (recorder != null)
+            recorder.drawIndexed(indexCount, numInstances);
     }
 
     public void draw(int numVertices, int numInstances, int firstVertex, int firstInstance) {
-        renderPass.draw(numVertices, numInstances, firstVertex, firstInstance);
+        if (pipelineNotReady) {
+            if (recorder != null)
+                recorder.skippedDraw();
+            return;
+        }
+        if (bundleEncoder != null)
+            bundleEncoder.draw(numVertices, numInstances, firstVertex, firstInstance);
+        else if (!recordingOnly)
+            renderPass.draw(numVertices, numInstances, firstVertex, firstInstance);
+        if (recorder != null)
+            recorder.draw(numVertices, numInstances);
     }
 
     public void draw(int numVertices) {
         draw(numVertices, 1, 0, 0);
     }
 
+    /**
+     * Indexed draw with the arguments (indexCount, instanceCount, firstIndex, baseVertex, firstInstance) read from a
+     * buffer, e.g. written by a compute shader. The buffer needs WGPUBufferUsage.Indirect.
+     */
+    public void drawIndexedIndirect(WGPUBuffer indirectBuffer, int indirectOffset) {
+        if (pipelineNotReady) {
+            if (recorder != null)
+                recorder.skippedDraw();
+            return;
+        }
+        if (bundleEncoder != null)
+            bundleEncoder.drawIndexedIndirect(indirectBuffer, indirectOffset);
+        else if (!recordingOnly)
+            renderPass.drawIndexedIndirect(indirectBuffer, indirectOffset);
+        if (recorder != null)
+            recorder.drawIndirect(true);
+    }
+
+    /** Draw with the arguments (vertexCount, instanceCount, firstVertex, firstInstance) read from a buffer. */
+    public void drawIndirect(WGPUBuffer indirectBuffer, int indirectOffset) {
+        if (pipelineNotReady) {
+            if (recorder != null)
+                recorder.skippedDraw();
+            return;
+        }
+        if (bundleEncoder != null)
+            bundleEncoder.drawIndirect(indirectBuffer, indirectOffset);
+        else if (!recordingOnly)
+            renderPass.drawIndirect(indirectBuffer, indirectOffset);
+        if (recorder != null)
+            recorder.drawIndirect(false);
+    }
+
     @Override
     public void dispose() {
         if (renderPass != null) {
             renderPass.dispose();
             renderPass = null;
         }
+        offsetsVector.dispose();
     }
 }
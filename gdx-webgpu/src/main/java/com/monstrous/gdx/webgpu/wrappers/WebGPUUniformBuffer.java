@@ -47,6 +47,10 @@ import java.nio.FloatBuffer;
  * buffer.endSlices(); // write content to GPU! binder.bindGroup(renderPass, 3, dynamicOffset);
  *
  * Beware of required padding between uniforms!
+ *
+ * With more than one frame in flight, the buffer holds a region of slices per frame and beginSlices() starts in the
+ * region of the current frame number, so that the slices of the previous frames are not overwritten while the GPU may
+ * still read them.
  */
 
 public class WebGPUUniformBuffer extends WebGPUBuffer {
@@ -58,6 +62,9 @@ public class WebGPUUniformBuffer extends WebGPUBuffer {
     private int dynamicOffset;
     private int bytesFilled;
     private boolean dirty;
+    private final int framesInFlight;
+    private final int regionSize; // bytes per frame when framesInFlight > 1
+    private int regionStart; // offset of the region of the current frame
 
     /**
      * Construct a Uniform Buffer without using dynamic offsets.
@@ -90,7 +97,24 @@ public class WebGPUUniformBuffer extends WebGPUBuffer {
      * @param maxSlices minimum 1
      */
     public WebGPUUniformBuffer(String label, int contentSize, WGPUBufferUsage usage, int maxSlices) {
-        super(label, usage, calculateBufferSize(contentSize, maxSlices));
+        this(label, contentSize, usage, maxSlices, 1);
+    }
+
+    /**
+     * Construct a Uniform Buffer with a region of maxSlices slices for each frame in flight. Use with dynamic offsets
+     * and call beginSlices() at the start of each frame.
+     *
+     * @param contentSize size of data per slice in bytes
+     * @param usage flags of WGPUBufferUsage
+     * @param maxSlices slices per frame, minimum 1
+     * @param framesInFlight number of frames that rotate through the buffer, see WebGPUContext.getFramesInFlight()
+     */
+    public WebGPUUniformBuffer(String label, int contentSize, WGPUBufferUsage usage, int maxSlices,
+            int framesInFlight) {
+        super(label, usage, framesInFlight > 1 ? calculateRegionSize(contentSize, maxSlices) * framesInFlight
+                : calculateBufferSize(contentSize, maxSlices));
+        this.framesInFlight = Math.max(1, framesInFlight);
+        regionSize = framesInFlight > 1 ? calculateRegionSize(contentSize, maxSlices) : 0;
         dynamicOffset = 0;
         dirty = false;
 
@@ -121,14 +145,22 @@ public class WebGPUUniformBuffer extends WebGPUBuffer {
         return bufferSize;
     }
 
+    // each region starts at a valid dynamic offset, nextSlice() advances in steps of 256 bytes
+    private static int calculateRegionSize(int contentSize, int maxSlices) {
+        return ceilToNextMultiple(contentSize, 256) * maxSlices;
+    }
+
     private static int calculateStride(int contentSize, int maxSlices) {
         int stride = 0;
         if (maxSlices > 1) { // do we use dynamic offsets?
             // calculate stride for slices based on MinUniformBufferOffsetAlignment (typically 256)
             WebGPUContext webgpu = ((WgGraphics) Gdx.graphics).getContext();
-            WGPULimits limits = WGPULimits.obtain();
-            webgpu.device.getLimits(limits);
-            int uniformAlignment = limits.getMinUniformBufferOffsetAlignment();
+            int uniformAlignment = 256; // the default limit, also used without a device
+            if (!webgpu.isRecordingOnly()) {
+                WGPULimits limits = WGPULimits.obtain();
+                webgpu.device.getLimits(limits);
+                uniformAlignment = limits.getMinUniformBufferOffsetAlignment();
+            }
             stride = ceilToNextMultiple(contentSize, uniformAlignment);
         }
         return stride;
@@ -151,12 +183,26 @@ public class WebGPUUniformBuffer extends WebGPUBuffer {
         return floatData;
     }
 
+    /** Start at the first slice, in the region of the current frame if there is more than one frame in flight. */
     public void beginSlices() {
-        dynamicOffset = 0;
+        if (framesInFlight > 1) {
+            WebGPUContext webgpu = ((WgGraphics) Gdx.graphics).getContext();
+            regionStart = regionSize * (webgpu.frameNumber % framesInFlight);
+        }
+        rewindSlices();
+    }
+
+    /** Start again at the first slice of the last beginSlices(), e.g. to write the same slices again. */
+    public void rewindSlices() {
+        dynamicOffset = regionStart;
         dataBuf.position(0);
         bytesFilled = 0;
     }
 
+    public int getFramesInFlight() {
+        return framesInFlight;
+    }
+
     /**
      * Flush data and start a new set of data. The data can be set using the set() methods. Returns dynamic offset for
      * this set of data.
@@ -168,7 +214,8 @@ public class WebGPUUniformBuffer extends WebGPUBuffer {
             int sliceLength = ceilToNextMultiple(bytesFilled, uniformAlignment); // round up
             flush();
             dynamicOffset += sliceLength;
-            if (dynamicOffset > getSize())
+            int end = framesInFlight > 1 ? regionStart + regionSize : getSize();
+            if (dynamicOffset > end)
                 throw new GdxRuntimeException("Uniform buffer overflow");
             dataBuf.position(0);
             bytesFilled = 0;
@@ -181,6 +228,24 @@ public class WebGPUUniformBuffer extends WebGPUBuffer {
         return dynamicOffset;
     }
 
+    /**
+     * Replace the data of the current slice by the data of the current slice of another buffer, e.g. when a buffer is
+     * replaced by a larger one. Written to the GPU buffer on the next flush().
+     */
+    public void copySlice(WebGPUUniformBuffer source) {
+        int size = source.bytesFilled;
+        if (size > dataBuf.capacity())
+            throw new GdxRuntimeException("Uniform buffer slice too small to copy into");
+        ByteBuffer data = source.dataBuf.duplicate();
+        data.position(0);
+        data.limit(size);
+        dataBuf.position(0);
+        dataBuf.put(data);
+        dataBuf.position(0);
+        bytesFilled = size;
+        dirty = size > 0;
+    }
+
     /** Ensure the last slice is written to the GPU buffer. */
     public void endSlices() {
         flush();
@@ -21,6 +21,7 @@ dependencies {
     implementation(project(":gdx-webgpu"))
     implementation(project(":backends:backend-desktop-jni"))
     implementation(project(":tests:gdx-webgpu-tests"))
+    implementation(libs.gdxBackendLwjgl3) // files for CommandRecorderCheck
 }
 
 val currentDesktopOperatingSystem = DefaultNativePlatform.getCurrentOperatingSystem()
@@ -55,6 +56,14 @@ tasks.register<JavaExec>("gdx_webgpu_tests_desktop_jni_dawn_run") {
     }
 }
 
+tasks.register<JavaExec>("gdx_webgpu_command_recorder_check") {
+    group = "verification"
+    description = "Check the recorded commands of known scenes without a GPU or a display"
+    mainClass.set("com.monstrous.gdx.tests.webgpu.CommandRecorderCheck")
+    classpath = sourceSets["main"].runtimeClasspath
+    workingDir = File("../assets")
+}
+
 tasks.register<JavaExec>("gdx_webgpu_tests_auto_desktop_jni_wgpu_run") {
     group = "LibGDX"
     description = "Run all WebGPU JNI tests automatically with WGPU"
@@ -0,0 +1,60 @@
+package com.monstrous.gdx.tests.webgpu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Files;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.github.xpenatan.webgpu.JWebGPUBackend;
+import com.github.xpenatan.webgpu.JWebGPULoader;
+import com.monstrous.gdx.tests.webgpu.utils.CommandRecorderScenes;
+import com.monstrous.gdx.webgpu.application.RecordingContext;
+import com.monstrous.gdx.webgpu.application.RecordingGraphics;
+
+// Runs the CommandRecorderScenes on a RecordingContext: no window, no adapter and no device, only the jWebGPU natives.
+// Exits with status 1 if the recorded commands differ from the expected counts, so it can run in a build.
+
+public class CommandRecorderCheck {
+
+    public static void main(String[] argv) {
+        final boolean[] loaded = new boolean[1];
+        JWebGPULoader.init(JWebGPUBackend.WGPU, (isSuccess, e) -> {
+            loaded[0] = isSuccess;
+            if (!isSuccess)
+                e.printStackTrace();
+        });
+        if (!loaded[0]) {
+            System.err.println("CommandRecorderCheck: could not load the WebGPU natives");
+            System.exit(1);
+        }
+        GdxNativesLoader.load(); // for Pixmap
+
+        RecordingContext context = new RecordingContext(640, 480);
+        RecordingGraphics graphics = new RecordingGraphics(context);
+        Gdx.graphics = graphics;
+        Gdx.gl = Gdx.gl20 = graphics.getGL20();
+        Gdx.files = new Lwjgl3Files();
+
+        Matrix4 projection = new Matrix4().setToOrtho2D(0, 0, context.getWidth(), context.getHeight(), 0, 100);
+
+        context.beginFrame(); // textures are written during the frame
+        CommandRecorderScenes scenes = new CommandRecorderScenes(context.commandRecorder);
+        context.endFrame();
+        while (!scenes.isChecking()) {
+            context.beginFrame();
+            scenes.render(projection);
+            context.endFrame();
+        }
+        context.beginFrame();
+        scenes.render(projection);
+        context.endFrame();
+        scenes.dispose();
+
+        System.out.println(scenes.result1);
+        System.out.println(scenes.result2);
+        if (scenes.getFailure() != null) {
+            System.err.println("CommandRecorderCheck failed: " + scenes.getFailure());
+            System.exit(1);
+        }
+        System.out.println("CommandRecorderCheck passed");
+    }
+}
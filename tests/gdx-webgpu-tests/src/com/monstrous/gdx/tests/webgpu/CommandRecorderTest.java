@@ -0,0 +1,64 @@
+package com.monstrous.gdx.tests.webgpu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.monstrous.gdx.tests.webgpu.utils.CommandRecorderScenes;
+import com.monstrous.gdx.tests.webgpu.utils.GdxTest;
+import com.monstrous.gdx.webgpu.application.WebGPUContext;
+import com.monstrous.gdx.webgpu.application.WgGraphics;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgBitmapFont;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+import com.monstrous.gdx.webgpu.wrappers.CommandRecorder;
+
+// Checks the command stream of two known sprite batch scenes with a CommandRecorder, see CommandRecorderScenes.
+// The result is shown on screen. A difference with the expected counts throws, so the auto test runner reports it.
+// The desktop CommandRecorderCheck runs the same scenes without a device or a window.
+
+public class CommandRecorderTest extends GdxTest {
+    private WebGPUContext webgpu;
+    private CommandRecorder recorder;
+    private CommandRecorderScenes scenes;
+    private WgSpriteBatch textBatch;
+    private WgBitmapFont font;
+    private ScreenViewport viewport;
+
+    @Override
+    public void create() {
+        webgpu = ((WgGraphics) Gdx.graphics).getContext();
+        recorder = new CommandRecorder();
+        webgpu.commandRecorder = recorder;
+
+        scenes = new CommandRecorderScenes(recorder);
+        textBatch = new WgSpriteBatch();
+        font = new WgBitmapFont();
+        viewport = new ScreenViewport();
+    }
+
+    @Override
+    public void render() {
+        viewport.apply();
+        scenes.render(viewport.getCamera().combined);
+        if (scenes.getFailure() != null)
+            throw new IllegalStateException("CommandRecorderTest: " + scenes.getFailure());
+
+        textBatch.setProjectionMatrix(viewport.getCamera().combined);
+        textBatch.begin();
+        font.draw(textBatch, scenes.result1, 10, 120);
+        font.draw(textBatch, scenes.result2, 10, 100);
+        font.draw(textBatch, "last frame: " + recorder.lastFrame, 10, 80);
+        textBatch.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+    }
+
+    @Override
+    public void dispose() {
+        webgpu.commandRecorder = null;
+        scenes.dispose();
+        textBatch.dispose();
+        font.dispose();
+    }
+}
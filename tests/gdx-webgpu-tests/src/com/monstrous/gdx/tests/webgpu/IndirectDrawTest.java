@@ -0,0 +1,232 @@
+package com.monstrous.gdx.tests.webgpu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.utils.CameraInputController;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.monstrous.gdx.tests.webgpu.utils.GdxTest;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgBitmapFont;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+import com.monstrous.gdx.webgpu.graphics.g3d.WgIndirectInstances;
+import com.monstrous.gdx.webgpu.graphics.g3d.WgModelBatch;
+import com.monstrous.gdx.webgpu.graphics.g3d.utils.WgModelBuilder;
+import com.monstrous.gdx.webgpu.graphics.utils.WgFrameBuffer;
+import com.monstrous.gdx.webgpu.graphics.utils.WgScreenReader;
+import com.monstrous.gdx.webgpu.graphics.utils.WgScreenUtils;
+
+import java.nio.ByteBuffer;
+
+// A large field of static boxes that is culled by a compute shader and drawn with one indirect draw call per batch.
+// Press SPACE to toggle between the indirect instances and rendering the boxes with the model batch every frame.
+// The visible instances of the first culled frame are read back and compared with the CPU reference, a difference in
+// the visible count or the set of visible instances of a batch throws. Press V to compare again.
+// Press P to render the indirect instances to a frame buffer and count which box colors (one batch each) are visible.
+
+public class IndirectDrawTest extends GdxTest {
+    final static int GRID = 140; // boxes per side
+
+    WgModelBatch modelBatch;
+    WgIndirectInstances indirect;
+    PerspectiveCamera cam;
+    CameraInputController controller;
+    WgSpriteBatch batch;
+    WgBitmapFont font;
+    Model[] models;
+    Array<ModelInstance> instances;
+    Environment environment;
+    boolean useIndirect = true;
+    float cpuTime;
+    int[] gpuCounts;
+    int[] cpuCounts;
+    boolean waitingForCounts;
+    boolean verified; // has the automatic comparison been done?
+    String verifyResult = "";
+    WgFrameBuffer checkBuffer;
+    WgScreenReader screenReader;
+    int checkFrames; // frames until the pixels of the check buffer are read
+    String pixelResult = "";
+
+    public void create() {
+        WgModelBatch.Config config = new WgModelBatch.Config();
+        config.maxInstances = GRID * GRID;
+        config.frustumCulling = true;
+        modelBatch = new WgModelBatch(config);
+        indirect = new WgIndirectInstances(config);
+
+        cam = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        cam.position.set(0, 20, 40);
+        cam.lookAt(0, 0, 0);
+        cam.near = 0.1f;
+        cam.far = 300f;
+        cam.update();
+
+        Color[] colors = { Color.RED, Color.GREEN, Color.BLUE, Color.GOLD };
+        models = new Model[colors.length];
+        ModelBuilder modelBuilder = new WgModelBuilder();
+        for (int i = 0; i < colors.length; i++)
+            models[i] = modelBuilder.createBox(0.8f, 0.8f, 0.8f,
+                    new Material(ColorAttribute.createDiffuse(colors[i])),
+                    VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+
+        instances = new Array<>();
+        MathUtils.random.setSeed(1234);
+        for (int z = 0; z < GRID; z++) {
+            for (int x = 0; x < GRID; x++) {
+                ModelInstance instance = new ModelInstance(models[MathUtils.random(models.length - 1)], x - GRID / 2f,
+                        MathUtils.random(0f, 1f), z - GRID / 2f);
+                instances.add(instance);
+            }
+        }
+
+        environment = new Environment();
+        environment.set(ColorAttribute.createAmbientLight(0.4f, 0.4f, 0.4f, 1f));
+        environment.add(new DirectionalLight().set(Color.WHITE, -0.3f, -1f, -0.2f));
+
+        indirect.begin();
+        indirect.render(instances, environment);
+        indirect.end();
+        gpuCounts = new int[indirect.numBatches];
+        cpuCounts = new int[indirect.numBatches];
+
+        controller = new CameraInputController(cam);
+        Gdx.input.setInputProcessor(controller);
+        batch = new WgSpriteBatch();
+        font = new WgBitmapFont();
+        checkBuffer = new WgFrameBuffer(256, 256, true);
+        screenReader = new WgScreenReader();
+    }
+
+    public void render() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE))
+            useIndirect = !useIndirect;
+        if ((!verified || Gdx.input.isKeyJustPressed(Input.Keys.V)) && useIndirect && !waitingForCounts) {
+            indirect.requestCounts(); // read back the result of the cull() of this frame
+            waitingForCounts = true;
+            verifyResult = "waiting for the GPU counts...";
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.P) && checkFrames == 0) {
+            checkFrames = 2;
+            pixelResult = "waiting for the pixels...";
+        }
+        controller.update();
+
+        if (waitingForCounts && indirect.getGpuCounts(gpuCounts)) {
+            waitingForCounts = false;
+            int total = indirect.cullOnCPU(indirect.getCountsFrustum(), cpuCounts);
+            int gpuTotal = 0;
+            for (int b = 0; b < indirect.numBatches; b++)
+                gpuTotal += gpuCounts[b];
+            int mismatches = indirect.countInstanceMismatches(cpuCounts);
+            verifyResult = "visible (CPU): " + total + ", batches that differ from the GPU: " + mismatches;
+            verified = true;
+            if (gpuTotal != total || mismatches > 0)
+                throw new IllegalStateException("IndirectDrawTest: GPU culling differs from the CPU reference, visible "
+                        + gpuTotal + " (GPU) and " + total + " (CPU), batches that differ: " + mismatches);
+        }
+
+        if (checkFrames == 2)
+            renderCheckBuffer();
+        else if (checkFrames == 1)
+            readCheckBuffer(); // the frame that rendered the check buffer has been submitted
+        if (checkFrames > 0)
+            checkFrames--;
+
+        WgScreenUtils.clear(Color.SKY, true);
+
+        long start = System.nanoTime();
+        if (useIndirect)
+            indirect.cull(cam); // before the render pass of the model batch
+        modelBatch.begin(cam);
+        if (useIndirect)
+            modelBatch.render(indirect);
+        else
+            modelBatch.render(instances, environment);
+        modelBatch.end();
+        cpuTime = 0.9f * cpuTime + 0.1f * (System.nanoTime() - start) / 1000000f;
+
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.begin();
+        font.draw(batch, pixelResult, 10, 160);
+        font.draw(batch, "SPACE to toggle, V to verify the GPU culling, P to check the pixels", 10, 140);
+        font.draw(batch, (useIndirect ? "indirect" : "model batch") + ", boxes: " + instances.size, 10, 120);
+        font.draw(batch, "CPU time: " + String.format("%.2f", cpuTime) + " ms", 10, 100);
+        font.draw(batch, "batches: " + indirect.numBatches + " draw calls: " + modelBatch.drawCalls, 10, 80);
+        font.draw(batch, verifyResult, 10, 60);
+        font.draw(batch, "fps: " + Gdx.graphics.getFramesPerSecond(), 10, 40);
+        batch.end();
+    }
+
+    // the indirect instances on a black background
+    private void renderCheckBuffer() {
+        checkBuffer.begin();
+        WgScreenUtils.clear(Color.BLACK, true);
+        indirect.cull(cam);
+        modelBatch.begin(cam);
+        modelBatch.render(indirect);
+        modelBatch.end();
+        checkBuffer.end();
+    }
+
+    // each box color is a separate batch, so more than one color means that more than one batch was drawn
+    private void readCheckBuffer() {
+        screenReader.readPixelsAsync(checkBuffer, new WgScreenReader.PixelsReadCallback() {
+            @Override
+            public void onPixelsRead(ByteBuffer data, int width, int height) {
+                if (data == null) {
+                    pixelResult = "failed to read the pixels";
+                    return;
+                }
+                int[] pixels = new int[4]; // red, green, blue, gold
+                for (int i = 0; i < width * height; i++) {
+                    int r = data.get(4 * i) & 0xFF;
+                    int g = data.get(4 * i + 1) & 0xFF;
+                    int b = data.get(4 * i + 2) & 0xFF;
+                    if (r > 2 * g && r > 2 * b)
+                        pixels[0]++;
+                    else if (2 * g > 3 * r && 2 * g > 3 * b)
+                        pixels[1]++;
+                    else if (2 * b > 3 * r && 2 * b > 3 * g)
+                        pixels[2]++;
+                    else if (r > 2 * b && g > 2 * b && 2 * g > r)
+                        pixels[3]++;
+                }
+                int colors = 0;
+                for (int count : pixels)
+                    if (count > 0)
+                        colors++;
+                pixelResult = "box colors visible: " + colors + " of " + pixels.length
+                        + (colors > 1 ? " (OK)" : " (FAILED: only one batch is drawn)");
+            }
+        });
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        cam.viewportWidth = width;
+        cam.viewportHeight = height;
+        cam.update();
+    }
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        font.dispose();
+        indirect.dispose();
+        checkBuffer.dispose();
+        screenReader.dispose();
+        modelBatch.dispose();
+        for (Model model : models)
+            model.dispose();
+    }
+}
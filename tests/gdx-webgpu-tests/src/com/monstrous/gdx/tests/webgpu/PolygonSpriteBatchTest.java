@@ -0,0 +1,84 @@
+package com.monstrous.gdx.tests.webgpu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.PolygonRegion;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.EarClippingTriangulator;
+import com.badlogic.gdx.math.MathUtils;
+import com.monstrous.gdx.tests.webgpu.utils.GdxTest;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgBitmapFont;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgPolygonSpriteBatch;
+
+// Rotating star shaped polygon sprites, mixed with regular quad sprites and text in the same batch.
+
+public class PolygonSpriteBatchTest extends GdxTest {
+    private static final int NUM_STARS = 200;
+    private static final int POINTS = 5;
+
+    private WgPolygonSpriteBatch batch;
+    private WgTexture texture;
+    private TextureRegion region;
+    private PolygonRegion star;
+    private WgBitmapFont font;
+    private final float[] positions = new float[NUM_STARS * 2];
+    private float rotation;
+
+    @Override
+    public void create() {
+        batch = new WgPolygonSpriteBatch();
+        texture = new WgTexture(Gdx.files.internal("data/badlogic.jpg"));
+        region = new TextureRegion(texture);
+        font = new WgBitmapFont();
+
+        // star outline in texel coordinates of the region
+        float cx = region.getRegionWidth() / 2f;
+        float cy = region.getRegionHeight() / 2f;
+        float[] outline = new float[POINTS * 4];
+        for (int i = 0; i < POINTS * 2; i++) {
+            float radius = (i % 2 == 0) ? cx : cx * 0.4f;
+            float angle = 90 + i * 180f / POINTS;
+            outline[2 * i] = cx + radius * MathUtils.cosDeg(angle);
+            outline[2 * i + 1] = cy + radius * MathUtils.sinDeg(angle);
+        }
+        short[] triangles = new EarClippingTriangulator().computeTriangles(outline).toArray();
+        star = new PolygonRegion(region, outline, triangles);
+
+        for (int i = 0; i < NUM_STARS; i++) {
+            positions[2 * i] = MathUtils.random(Gdx.graphics.getWidth());
+            positions[2 * i + 1] = MathUtils.random(Gdx.graphics.getHeight());
+        }
+    }
+
+    @Override
+    public void render() {
+        if (Gdx.input.isKeyPressed(Input.Keys.ESCAPE)) {
+            Gdx.app.exit();
+            return;
+        }
+        rotation += 45 * Gdx.graphics.getDeltaTime();
+
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.begin(Color.TEAL);
+        for (int i = 0; i < NUM_STARS; i++) {
+            float x = positions[2 * i];
+            float y = positions[2 * i + 1];
+            if (i % 10 == 0) // a regular sprite now and then
+                batch.draw(region, x, y, 32, 32);
+            else
+                batch.draw(star, x, y, 32, 32, 64, 64, 1, 1, rotation + i);
+        }
+        font.draw(batch, "Polygon sprites, fps: " + Gdx.graphics.getFramesPerSecond(), 10, 60);
+        font.draw(batch, "renderCalls: " + batch.renderCalls + " index chunks: " + batch.getIndexChunkCount(), 10, 40);
+        batch.end();
+    }
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        texture.dispose();
+        font.dispose();
+    }
+}
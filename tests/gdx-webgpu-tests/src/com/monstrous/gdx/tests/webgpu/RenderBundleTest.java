@@ -0,0 +1,138 @@
+package com.monstrous.gdx.tests.webgpu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.utils.CameraInputController;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.monstrous.gdx.tests.webgpu.utils.GdxTest;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgBitmapFont;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+import com.monstrous.gdx.webgpu.graphics.g3d.WgModelBatch;
+import com.monstrous.gdx.webgpu.graphics.g3d.WgRenderBundle;
+import com.monstrous.gdx.webgpu.graphics.g3d.utils.WgModelBuilder;
+import com.monstrous.gdx.webgpu.graphics.utils.WgScreenUtils;
+
+// A field of static boxes, recorded once into a render bundle.
+// Press SPACE to toggle between the render bundle and rendering the boxes with the model batch every frame.
+// Press C to change the color of a random box, which changes its material and records the bundle again.
+
+public class RenderBundleTest extends GdxTest {
+    final static int GRID = 60; // boxes per side
+
+    WgModelBatch modelBatch;
+    WgRenderBundle bundle;
+    PerspectiveCamera cam;
+    CameraInputController controller;
+    WgSpriteBatch batch;
+    WgBitmapFont font;
+    Model[] models;
+    Array<ModelInstance> instances;
+    Environment environment;
+    boolean useBundle = true;
+    float cpuTime;
+
+    public void create() {
+        WgModelBatch.Config config = new WgModelBatch.Config();
+        config.maxInstances = GRID * GRID;
+        modelBatch = new WgModelBatch(config);
+        bundle = new WgRenderBundle(config);
+
+        cam = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        cam.position.set(0, 20, 40);
+        cam.lookAt(0, 0, 0);
+        cam.near = 0.1f;
+        cam.far = 300f;
+        cam.update();
+
+        Color[] colors = { Color.RED, Color.GREEN, Color.BLUE, Color.GOLD };
+        models = new Model[colors.length];
+        ModelBuilder modelBuilder = new WgModelBuilder();
+        for (int i = 0; i < colors.length; i++)
+            models[i] = modelBuilder.createBox(0.8f, 0.8f, 0.8f,
+                    new Material(ColorAttribute.createDiffuse(colors[i])),
+                    VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+
+        instances = new Array<>();
+        MathUtils.random.setSeed(1234);
+        for (int z = 0; z < GRID; z++) {
+            for (int x = 0; x < GRID; x++) {
+                ModelInstance instance = new ModelInstance(models[MathUtils.random(models.length - 1)], x - GRID / 2f,
+                        MathUtils.random(0f, 1f), z - GRID / 2f);
+                instances.add(instance);
+            }
+        }
+
+        environment = new Environment();
+        environment.set(ColorAttribute.createAmbientLight(0.4f, 0.4f, 0.4f, 1f));
+        environment.add(new DirectionalLight().set(Color.WHITE, -0.3f, -1f, -0.2f));
+
+        bundle.begin();
+        bundle.render(instances, environment);
+        bundle.end();
+
+        controller = new CameraInputController(cam);
+        Gdx.input.setInputProcessor(controller);
+        batch = new WgSpriteBatch();
+        font = new WgBitmapFont();
+    }
+
+    public void render() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE))
+            useBundle = !useBundle;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.C)) {
+            // model instances have their own copy of the materials
+            ModelInstance instance = instances.random();
+            ColorAttribute diffuse = (ColorAttribute) instance.materials.first().get(ColorAttribute.Diffuse);
+            diffuse.color.set(MathUtils.random(), MathUtils.random(), MathUtils.random(), 1f);
+        }
+        controller.update();
+
+        WgScreenUtils.clear(Color.SKY, true);
+
+        long start = System.nanoTime();
+        modelBatch.begin(cam);
+        if (useBundle)
+            modelBatch.render(bundle);
+        else
+            modelBatch.render(instances, environment);
+        modelBatch.end();
+        cpuTime = 0.9f * cpuTime + 0.1f * (System.nanoTime() - start) / 1000000f;
+
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.begin();
+        font.draw(batch, "SPACE to toggle, C to change the color of a box", 10, 120);
+        font.draw(batch, (useBundle ? "render bundle" : "model batch") + ", boxes: " + instances.size, 10, 100);
+        font.draw(batch, "model batch CPU time: " + String.format("%.2f", cpuTime) + " ms", 10, 80);
+        font.draw(batch, "bundle recordings: " + bundle.recordings + " draw calls: " + modelBatch.drawCalls, 10, 60);
+        font.draw(batch, "fps: " + Gdx.graphics.getFramesPerSecond(), 10, 40);
+        batch.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        cam.viewportWidth = width;
+        cam.viewportHeight = height;
+        cam.update();
+    }
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        font.dispose();
+        bundle.dispose();
+        modelBatch.dispose();
+        for (Model model : models)
+            model.dispose();
+    }
+}
@@ -0,0 +1,77 @@
+package com.monstrous.gdx.tests.webgpu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.monstrous.gdx.tests.webgpu.utils.GdxTest;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgBitmapFont;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgClipSpriteBatch;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+
+// Draws many rows of sprites, each row clipped to its own rectangle, like the items of a scrolling list.
+// Press SPACE to toggle between clipping per sprite (one draw call) and the render pass scissor (a flush per row).
+
+public class SpriteBatchClipTest extends GdxTest {
+    private static final int ROWS = 50;
+    private static final int SPRITES_PER_ROW = 40;
+
+    private WgClipSpriteBatch batch;
+    private WgSpriteBatch textBatch;
+    private WgTexture texture;
+    private WgBitmapFont font;
+    private float scroll;
+
+    @Override
+    public void create() {
+        batch = new WgClipSpriteBatch();
+        textBatch = new WgSpriteBatch();
+        texture = new WgTexture(Gdx.files.internal("data/badlogic.jpg"));
+        font = new WgBitmapFont();
+    }
+
+    @Override
+    public void render() {
+        if (Gdx.input.isKeyPressed(Input.Keys.ESCAPE)) {
+            Gdx.app.exit();
+            return;
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE))
+            batch.setPerSpriteClipping(!batch.isPerSpriteClipping());
+
+        int width = Gdx.graphics.getWidth();
+        int height = Gdx.graphics.getHeight();
+        float rowHeight = (height - 150) / (float) ROWS;
+        scroll = (scroll + 60 * Gdx.graphics.getDeltaTime()) % 64;
+
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+        batch.begin(Color.DARK_GRAY);
+        for (int row = 0; row < ROWS; row++) {
+            // each row is clipped to a window that is narrower than the row of sprites
+            float y = height - (row + 1) * rowHeight;
+            int clipX = 20 + (row % 5) * 20;
+            int clipWidth = width / 2 + (row % 7) * 30;
+            // scissor rectangles use a top-left origin
+            batch.setScissorRect(clipX, (int) (height - y - rowHeight), clipWidth, (int) rowHeight);
+            for (int i = 0; i < SPRITES_PER_ROW; i++)
+                batch.draw(texture, i * 32 - scroll, y, 30, rowHeight);
+        }
+        batch.end();
+
+        textBatch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+        textBatch.begin();
+        font.draw(textBatch, "SPACE to toggle, clipping: "
+                + (batch.isPerSpriteClipping() ? "per sprite" : "render pass scissor"), 10, 80);
+        font.draw(textBatch, "renderCalls: " + batch.renderCalls, 10, 60);
+        font.draw(textBatch, "fps: " + Gdx.graphics.getFramesPerSecond(), 10, 40);
+        textBatch.end();
+    }
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        textBatch.dispose();
+        texture.dispose();
+        font.dispose();
+    }
+}
@@ -0,0 +1,110 @@
+package com.monstrous.gdx.tests.webgpu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.monstrous.gdx.tests.webgpu.utils.GdxTest;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgBitmapFont;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgMultiTextureSpriteBatch;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+
+// Interleaved draws from several textures.
+// A regular sprite batch flushes on every texture change, the multi-texture batch binds up to 8 textures
+// at once and only flushes when it runs out of texture slots.
+// Press SPACE to toggle between the two batches.
+
+public class SpriteBatchMultiTexture extends GdxTest {
+    public static int NUM_SPRITES = 2000;
+    public static int NUM_TEXTURES = 6;
+
+    private WgSpriteBatch batch;
+    private WgMultiTextureSpriteBatch multiBatch;
+    private WgSpriteBatch textBatch;
+    private WgTexture[] textures;
+    private ScreenViewport viewport;
+    private WgBitmapFont font;
+    private Pixmap pm;
+    private boolean useMulti = true;
+
+    @Override
+    public void create() {
+        font = new WgBitmapFont();
+        pm = new Pixmap(32, 32, Pixmap.Format.RGBA8888);
+        textures = new WgTexture[NUM_TEXTURES];
+        MathUtils.random.setSeed(1234);
+        for (int i = 0; i < NUM_TEXTURES; i++)
+            textures[i] = genTexture();
+
+        // the regular batch needs a flush per sprite here, as the texture changes for every sprite
+        batch = new WgSpriteBatch(NUM_SPRITES, null, NUM_SPRITES);
+        multiBatch = new WgMultiTextureSpriteBatch(NUM_SPRITES);
+        viewport = new ScreenViewport();
+
+        // use a separate batch for text info to not affect the batch testing
+        textBatch = new WgSpriteBatch();
+    }
+
+    @Override
+    public void render() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE))
+            useMulti = !useMulti;
+
+        WgSpriteBatch sb = useMulti ? multiBatch : batch;
+
+        viewport.apply();
+        sb.setProjectionMatrix(viewport.getCamera().combined);
+
+        // same random sprite positions per frame
+        MathUtils.random.setSeed(1234);
+
+        sb.begin(Color.TEAL);
+        // cycle through the textures, so that every sprite uses a different texture than the one before
+        for (int j = 0; j < NUM_SPRITES; j++) {
+            int x = MathUtils.random(Gdx.graphics.getWidth() - 32);
+            int y = MathUtils.random(Gdx.graphics.getHeight() - 32);
+            sb.draw(textures[j % NUM_TEXTURES], x, y, 32, 32);
+        }
+        sb.end();
+
+        textBatch.setProjectionMatrix(viewport.getCamera().combined);
+        textBatch.begin();
+        font.draw(textBatch, "SPACE to toggle, batch: " + (useMulti ? "WgMultiTextureSpriteBatch" : "WgSpriteBatch"),
+                10, 120);
+        font.draw(textBatch, "fps: " + Gdx.graphics.getFramesPerSecond(), 10, 100);
+        font.draw(textBatch, "numSprites: " + sb.numSprites, 10, 80);
+        font.draw(textBatch, "renderCalls: " + sb.renderCalls, 10, 60);
+        textBatch.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+    }
+
+    @Override
+    public void dispose() {
+        // cleanup
+        for (int i = 0; i < NUM_TEXTURES; i++)
+            textures[i].dispose();
+        batch.dispose();
+        multiBatch.dispose();
+        textBatch.dispose();
+        font.dispose();
+        pm.dispose();
+    }
+
+    private WgTexture genTexture() {
+        Color bg = new Color(MathUtils.random(), MathUtils.random(), MathUtils.random(), 1);
+        Color fg = new Color(MathUtils.random(), MathUtils.random(), MathUtils.random(), 1);
+        pm.setColor(bg);
+        pm.fill();
+        pm.setColor(fg);
+        pm.fillCircle(16, 16, 12);
+        return new WgTexture(pm);
+    }
+
+}
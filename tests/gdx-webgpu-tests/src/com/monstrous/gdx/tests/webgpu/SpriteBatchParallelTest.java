@@ -0,0 +1,108 @@
+package com.monstrous.gdx.tests.webgpu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.monstrous.gdx.tests.webgpu.utils.GdxTest;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.g2d.SpriteReservation;
+import com.monstrous.gdx.webgpu.graphics.g2d.SpriteVertexWriter;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgBitmapFont;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+
+import java.util.stream.IntStream;
+
+// Many rotating sprites. The vertices are written by several threads at once via SpriteBatch.reserve().
+// Press SPACE to toggle between parallel writing and the regular single-threaded draw calls.
+
+public class SpriteBatchParallelTest extends GdxTest {
+    private static final int NUM_SPRITES = 200000;
+    private static final int SPRITES_PER_RESERVATION = 20000;
+    private static final int SIZE = 8;
+
+    private WgSpriteBatch batch;
+    private WgSpriteBatch textBatch;
+    private WgTexture texture;
+    private TextureRegion region;
+    private WgBitmapFont font;
+    private final float[] positions = new float[NUM_SPRITES * 2];
+    private final float[] speeds = new float[NUM_SPRITES];
+    private final int[] firstSprite = new int[64];
+    private float time;
+    private boolean parallel = true;
+
+    @Override
+    public void create() {
+        batch = new WgSpriteBatch(SPRITES_PER_RESERVATION);
+        textBatch = new WgSpriteBatch();
+        texture = new WgTexture(Gdx.files.internal("data/badlogicsmall.jpg"));
+        region = new TextureRegion(texture);
+        font = new WgBitmapFont();
+        for (int i = 0; i < NUM_SPRITES; i++) {
+            positions[2 * i] = MathUtils.random(Gdx.graphics.getWidth());
+            positions[2 * i + 1] = MathUtils.random(Gdx.graphics.getHeight());
+            speeds[i] = MathUtils.random(-180f, 180f);
+        }
+    }
+
+    @Override
+    public void render() {
+        if (Gdx.input.isKeyPressed(Input.Keys.ESCAPE)) {
+            Gdx.app.exit();
+            return;
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE))
+            parallel = !parallel;
+        time += Gdx.graphics.getDeltaTime();
+
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.begin(Color.BLACK);
+        final float color = Color.WHITE_FLOAT_BITS;
+        if (parallel) {
+            int threads = Math.min(firstSprite.length, Runtime.getRuntime().availableProcessors());
+            for (int start = 0; start < NUM_SPRITES; start += SPRITES_PER_RESERVATION) {
+                final int count = Math.min(SPRITES_PER_RESERVATION, NUM_SPRITES - start);
+                SpriteReservation reservation = batch.reserve(texture, count);
+                final Array<SpriteVertexWriter> writers = reservation.split(threads);
+                // index of the first sprite of each writer
+                int first = start;
+                for (int w = 0; w < writers.size; w++) {
+                    firstSprite[w] = first;
+                    first += writers.get(w).getCount();
+                }
+                IntStream.range(0, writers.size).parallel().forEach(w -> {
+                    SpriteVertexWriter writer = writers.get(w);
+                    int end = firstSprite[w] + writer.getCount();
+                    for (int i = firstSprite[w]; i < end; i++)
+                        writer.draw(region, positions[2 * i], positions[2 * i + 1], SIZE / 2f, SIZE / 2f, SIZE, SIZE,
+                                1, 1, speeds[i] * time, color);
+                });
+                reservation.submit();
+            }
+        } else {
+            for (int i = 0; i < NUM_SPRITES; i++)
+                batch.draw(region, positions[2 * i], positions[2 * i + 1], SIZE / 2f, SIZE / 2f, SIZE, SIZE, 1, 1,
+                        speeds[i] * time);
+        }
+        batch.end();
+
+        textBatch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        textBatch.begin();
+        font.draw(textBatch, "SPACE to toggle, vertices written: " + (parallel ? "in parallel" : "single-threaded"), 10,
+                80);
+        font.draw(textBatch, "sprites: " + NUM_SPRITES + " renderCalls: " + batch.renderCalls, 10, 60);
+        font.draw(textBatch, "fps: " + Gdx.graphics.getFramesPerSecond(), 10, 40);
+        textBatch.end();
+    }
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        textBatch.dispose();
+        texture.dispose();
+        font.dispose();
+    }
+}
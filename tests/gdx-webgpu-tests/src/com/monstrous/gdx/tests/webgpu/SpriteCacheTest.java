@@ -0,0 +1,132 @@
+package com.monstrous.gdx.tests.webgpu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.monstrous.gdx.tests.webgpu.utils.GdxTest;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgBitmapFont;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteCache;
+
+// A static tile layer drawn from a sprite cache.
+// The tiles are uploaded to the GPU once, per frame only the camera matrix is updated.
+// Press SPACE to toggle between the sprite cache and a sprite batch that draws the same tiles every frame.
+// Use the arrow keys to scroll.
+
+public class SpriteCacheTest extends GdxTest {
+    public static int TILE_SIZE = 16;
+    public static int MAP_WIDTH = 200;
+    public static int MAP_HEIGHT = 200;
+
+    private WgSpriteCache cache;
+    private int layerId;
+    private WgSpriteBatch batch;
+    private WgSpriteBatch textBatch;
+    private WgTexture[] tiles;
+    private int[] map;
+    private ScreenViewport viewport;
+    private WgBitmapFont font;
+    private boolean useCache = true;
+
+    @Override
+    public void create() {
+        font = new WgBitmapFont();
+        Pixmap pm = new Pixmap(TILE_SIZE, TILE_SIZE, Pixmap.Format.RGBA8888);
+        tiles = new WgTexture[2];
+        tiles[0] = genTexture(pm, Color.FOREST);
+        tiles[1] = genTexture(pm, Color.TAN);
+        pm.dispose();
+
+        MathUtils.random.setSeed(1234);
+        map = new int[MAP_WIDTH * MAP_HEIGHT];
+        for (int i = 0; i < map.length; i++)
+            map[i] = MathUtils.random(1);
+
+        // record the layer once, one pass per texture to get one draw call per texture
+        cache = new WgSpriteCache(MAP_WIDTH * MAP_HEIGHT);
+        cache.beginCache();
+        for (int t = 0; t < tiles.length; t++) {
+            for (int i = 0; i < map.length; i++) {
+                if (map[i] == t)
+                    cache.add(tiles[t], (i % MAP_WIDTH) * TILE_SIZE, (i / MAP_WIDTH) * TILE_SIZE);
+            }
+        }
+        layerId = cache.endCache();
+
+        batch = new WgSpriteBatch(MAP_WIDTH * MAP_HEIGHT);
+        viewport = new ScreenViewport();
+
+        // use a separate batch for text info to not affect the testing
+        textBatch = new WgSpriteBatch();
+    }
+
+    @Override
+    public void render() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE))
+            useCache = !useCache;
+        OrthographicCamera cam = (OrthographicCamera) viewport.getCamera();
+        float speed = 300 * Gdx.graphics.getDeltaTime();
+        if (Gdx.input.isKeyPressed(Input.Keys.LEFT))
+            cam.translate(-speed, 0);
+        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT))
+            cam.translate(speed, 0);
+        if (Gdx.input.isKeyPressed(Input.Keys.DOWN))
+            cam.translate(0, -speed);
+        if (Gdx.input.isKeyPressed(Input.Keys.UP))
+            cam.translate(0, speed);
+        viewport.apply();
+
+        int renderCalls;
+        if (useCache) {
+            cache.setProjectionMatrix(cam.combined);
+            cache.begin(Color.BLACK);
+            cache.draw(layerId);
+            cache.end();
+            renderCalls = cache.renderCalls;
+        } else {
+            batch.setProjectionMatrix(cam.combined);
+            batch.begin(Color.BLACK);
+            for (int i = 0; i < map.length; i++)
+                batch.draw(tiles[map[i]], (i % MAP_WIDTH) * TILE_SIZE, (i / MAP_WIDTH) * TILE_SIZE);
+            batch.end();
+            renderCalls = batch.renderCalls;
+        }
+
+        textBatch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        textBatch.begin();
+        font.draw(textBatch, "SPACE to toggle, arrows to scroll, using: " + (useCache ? "WgSpriteCache" : "WgSpriteBatch"),
+                10, 100);
+        font.draw(textBatch, "fps: " + Gdx.graphics.getFramesPerSecond(), 10, 80);
+        font.draw(textBatch, "tiles: " + map.length, 10, 60);
+        font.draw(textBatch, "renderCalls: " + renderCalls, 10, 40);
+        textBatch.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+    }
+
+    @Override
+    public void dispose() {
+        for (WgTexture tile : tiles)
+            tile.dispose();
+        cache.dispose();
+        batch.dispose();
+        textBatch.dispose();
+        font.dispose();
+    }
+
+    private WgTexture genTexture(Pixmap pm, Color color) {
+        pm.setColor(color);
+        pm.fill();
+        pm.setColor(Color.BLACK);
+        pm.drawRectangle(0, 0, TILE_SIZE, TILE_SIZE);
+        return new WgTexture(pm);
+    }
+}
@@ -0,0 +1,157 @@
+package com.monstrous.gdx.tests.webgpu;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.monstrous.gdx.tests.webgpu.utils.GdxTest;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgBitmapFont;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+import com.monstrous.gdx.webgpu.maps.tiled.renderers.WgChunkedOrthogonalTiledMapRenderer;
+import com.monstrous.gdx.webgpu.maps.tiled.renderers.WgOrthogonalTiledMapRenderer;
+
+// Large generated tile map drawn with the chunked renderer, which keeps the tile layer on the GPU.
+// Press SPACE to toggle between the chunked renderer and the regular renderer.
+// Arrow keys to scroll, Z/X to zoom out/in, click to change a tile.
+// The water tiles are animated.
+
+public class TiledMapChunkedTest extends GdxTest {
+    public static int MAP_SIZE = 1000;
+    public static int TILE_SIZE = 16;
+
+    private TiledMap map;
+    private TiledMapTileLayer layer;
+    private WgChunkedOrthogonalTiledMapRenderer chunkedRenderer;
+    private WgOrthogonalTiledMapRenderer renderer;
+    private WgTexture tileset;
+    private StaticTiledMapTile[] tiles;
+    private OrthographicCamera camera;
+    private ScreenViewport viewport;
+    private WgSpriteBatch textBatch;
+    private WgBitmapFont font;
+    private boolean useChunks = true;
+    private final Vector3 tmp = new Vector3();
+
+    @Override
+    public void create() {
+        // tile set of 4 tiles next to each other: grass, sand, water frame 1, water frame 2
+        Color[] colors = { Color.FOREST, Color.TAN, Color.ROYAL, Color.NAVY };
+        Pixmap pm = new Pixmap(TILE_SIZE * colors.length, TILE_SIZE, Pixmap.Format.RGBA8888);
+        for (int i = 0; i < colors.length; i++) {
+            pm.setColor(colors[i]);
+            pm.fillRectangle(i * TILE_SIZE, 0, TILE_SIZE, TILE_SIZE);
+            pm.setColor(Color.BLACK);
+            pm.drawRectangle(i * TILE_SIZE, 0, TILE_SIZE, TILE_SIZE);
+        }
+        tileset = new WgTexture(pm);
+        pm.dispose();
+
+        tiles = new StaticTiledMapTile[colors.length];
+        for (int i = 0; i < colors.length; i++)
+            tiles[i] = new StaticTiledMapTile(new TextureRegion(tileset, i * TILE_SIZE, 0, TILE_SIZE, TILE_SIZE));
+        Array<StaticTiledMapTile> waterFrames = new Array<>();
+        waterFrames.add(tiles[2]);
+        waterFrames.add(tiles[3]);
+        AnimatedTiledMapTile water = new AnimatedTiledMapTile(0.5f, waterFrames);
+
+        map = new TiledMap();
+        layer = new TiledMapTileLayer(MAP_SIZE, MAP_SIZE, TILE_SIZE, TILE_SIZE);
+        MathUtils.random.setSeed(1234);
+        for (int y = 0; y < MAP_SIZE; y++) {
+            for (int x = 0; x < MAP_SIZE; x++) {
+                TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+                float r = MathUtils.random();
+                cell.setTile(r < 0.02f ? water : (r < 0.5f ? tiles[0] : tiles[1]));
+                layer.setCell(x, y, cell);
+            }
+        }
+        map.getLayers().add(layer);
+
+        chunkedRenderer = new WgChunkedOrthogonalTiledMapRenderer(map);
+        renderer = new WgOrthogonalTiledMapRenderer(map);
+
+        camera = new OrthographicCamera();
+        viewport = new ScreenViewport(camera);
+        textBatch = new WgSpriteBatch();
+        font = new WgBitmapFont();
+    }
+
+    @Override
+    public void render() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE))
+            useChunks = !useChunks;
+        float speed = 500 * Gdx.graphics.getDeltaTime() * camera.zoom;
+        if (Gdx.input.isKeyPressed(Input.Keys.LEFT))
+            camera.translate(-speed, 0);
+        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT))
+            camera.translate(speed, 0);
+        if (Gdx.input.isKeyPressed(Input.Keys.DOWN))
+            camera.translate(0, -speed);
+        if (Gdx.input.isKeyPressed(Input.Keys.UP))
+            camera.translate(0, speed);
+        if (Gdx.input.isKeyPressed(Input.Keys.Z))
+            camera.zoom = Math.min(8f, camera.zoom * 1.02f);
+        if (Gdx.input.isKeyPressed(Input.Keys.X))
+            camera.zoom = Math.max(0.25f, camera.zoom / 1.02f);
+        if (Gdx.input.justTouched()) {
+            // change a tile, the chunk that contains it has to be rebuilt
+            camera.unproject(tmp.set(Gdx.input.getX(), Gdx.input.getY(), 0));
+            int x = (int) (tmp.x / TILE_SIZE);
+            int y = (int) (tmp.y / TILE_SIZE);
+            TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+            if (cell != null) {
+                cell.setTile(cell.getTile() == tiles[0] ? tiles[1] : tiles[0]);
+                chunkedRenderer.invalidateCell(layer, x, y);
+            }
+        }
+        camera.update();
+        viewport.apply();
+
+        if (useChunks) {
+            chunkedRenderer.setView(camera);
+            chunkedRenderer.render();
+        } else {
+            renderer.setView(camera);
+            renderer.render();
+        }
+
+        textBatch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        textBatch.begin();
+        font.draw(textBatch, "SPACE to toggle, arrows to scroll, Z/X to zoom, click to change a tile", 10, 120);
+        font.draw(textBatch, "renderer: "
+                + (useChunks ? "WgChunkedOrthogonalTiledMapRenderer" : "WgOrthogonalTiledMapRenderer"), 10, 100);
+        font.draw(textBatch, "fps: " + Gdx.graphics.getFramesPerSecond(), 10, 80);
+        if (useChunks) {
+            font.draw(textBatch, "chunks drawn: " + chunkedRenderer.chunksDrawn + " rebuilt: "
+                    + chunkedRenderer.chunksRebuilt, 10, 60);
+            font.draw(textBatch, "renderCalls: " + chunkedRenderer.renderCalls, 10, 40);
+        }
+        textBatch.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height, false);
+    }
+
+    @Override
+    public void dispose() {
+        chunkedRenderer.dispose();
+        renderer.dispose();
+        map.dispose();
+        tileset.dispose();
+        textBatch.dispose();
+        font.dispose();
+    }
+}
@@ -136,7 +136,16 @@ public class WebGPUTests {
                     register("DynamicTexture", DynamicTexture.class),
                     register("FogOfWar2DTest", FogOfWar2DTest.class),
                     register("FogOfWar3DTest", FogOfWar3DTest.class),
-                    register("TextureGreyscale", TextureGreyscale.class)
+                    register("TextureGreyscale", TextureGreyscale.class),
+                    register("SpriteBatchMultiTexture", SpriteBatchMultiTexture.class),
+                    register("SpriteCacheTest", SpriteCacheTest.class),
+                    register("TiledMapChunkedTest", TiledMapChunkedTest.class),
+                    register("SpriteBatchClipTest", SpriteBatchClipTest.class),
+                    register("SpriteBatchParallelTest", SpriteBatchParallelTest.class),
+                    register("PolygonSpriteBatchTest", PolygonSpriteBatchTest.class),
+                    register("RenderBundleTest", RenderBundleTest.class),
+                    register("IndirectDrawTest", IndirectDrawTest.class),
+                    register("CommandRecorderTest", CommandRecorderTest.class)
 
             // @on
 
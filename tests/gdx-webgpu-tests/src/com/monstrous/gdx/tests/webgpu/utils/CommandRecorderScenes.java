@@ -0,0 +1,146 @@
+package com.monstrous.gdx.tests.webgpu.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.monstrous.gdx.webgpu.graphics.WgTexture;
+import com.monstrous.gdx.webgpu.graphics.g2d.WgSpriteBatch;
+import com.monstrous.gdx.webgpu.wrappers.CommandRecorder;
+
+/**
+ * Two sprite batch scenes with a known command stream, checked with a {@link CommandRecorder}. Used by
+ * CommandRecorderTest on screen and by the desktop CommandRecorderCheck, which runs them on a RecordingContext
+ * without a device and exits with a non-zero status on a difference.
+ * <p>
+ * Scene 1: NUM_SPRITES sprites with one texture, expected in one draw call. Scene 2: NUM_SPRITES sprites, the first
+ * half with one texture and the second half with another, expected in two draw calls. The counts are compared after
+ * the warm-up frames, so no bind groups or pipelines may be created any more.
+ */
+public class CommandRecorderScenes implements Disposable {
+    public final static int NUM_SPRITES = 400;
+    public final static int WARM_UP_FRAMES = 3;
+    final static int SPRITE_BYTES = 4 * 5 * Float.BYTES; // 4 vertices of x, y, color, u, v
+    final static int UNIFORM_BYTES = 16 * Float.BYTES; // projection view matrix per flush
+
+    private final CommandRecorder recorder;
+    private final WgSpriteBatch batch;
+    private final WgTexture texture1, texture2;
+    private final CommandRecorder.Counts before = new CommandRecorder.Counts();
+    private final CommandRecorder.Counts counts = new CommandRecorder.Counts();
+    /** result per scene, empty until the warm-up frames are done */
+    public String result1 = "";
+    public String result2 = "";
+    private String failure; // first failure, null if none
+
+    public CommandRecorderScenes(CommandRecorder recorder) {
+        this.recorder = recorder;
+        texture1 = createTexture(Color.ORANGE);
+        texture2 = createTexture(Color.SKY);
+        batch = new WgSpriteBatch(1000);
+    }
+
+    /** Render both scenes and check their counts once the recorder has seen the warm-up frames. */
+    public void render(Matrix4 projection) {
+        batch.setProjectionMatrix(projection);
+
+        // scene 1: one texture
+        before.set(recorder.current);
+        batch.begin(Color.DARK_GRAY);
+        for (int i = 0; i < NUM_SPRITES; i++)
+            batch.draw(texture1, x(i), y(i), 6, 6);
+        batch.end();
+        delta(before, recorder.current, counts);
+        if (isChecking())
+            result1 = check("one texture", counts, 1, SPRITE_BYTES * NUM_SPRITES + UNIFORM_BYTES);
+
+        // scene 2: two textures, one texture switch
+        before.set(recorder.current);
+        batch.begin();
+        for (int i = 0; i < NUM_SPRITES; i++)
+            batch.draw(i < NUM_SPRITES / 2 ? texture1 : texture2, x(i), y(i) + 200, 6, 6);
+        batch.end();
+        delta(before, recorder.current, counts);
+        if (isChecking())
+            result2 = check("two textures", counts, 2, SPRITE_BYTES * NUM_SPRITES + 2 * UNIFORM_BYTES);
+    }
+
+    /** true once the counts are compared with the expected values */
+    public boolean isChecking() {
+        return recorder.frames >= WARM_UP_FRAMES;
+    }
+
+    /** the first difference with the expected counts, or null */
+    public String getFailure() {
+        return failure;
+    }
+
+    // expected command stream of a sprite batch begin/end with one flush per texture
+    private String check(String scene, CommandRecorder.Counts c, int flushes, long bytes) {
+        StringBuilder errors = new StringBuilder();
+        expect(errors, "renderPasses", c.renderPasses, 1);
+        expect(errors, "pipelineSets", c.pipelineSets, 1);
+        expect(errors, "bindGroupSets", c.bindGroupSets, flushes);
+        expect(errors, "drawCalls", c.drawCalls, flushes);
+        expect(errors, "indices", c.indices, 6 * NUM_SPRITES);
+        expect(errors, "instances", c.instances, flushes);
+        expect(errors, "bufferWrites", c.bufferWrites, 2 * flushes); // vertices and uniforms per flush
+        expect(errors, "bytesWritten", c.bytesWritten, bytes);
+        expect(errors, "bindGroupsCreated", c.bindGroupsCreated, 0);
+        expect(errors, "pipelinesCreated", c.pipelinesCreated, 0);
+        if (errors.length() == 0)
+            return scene + ": PASS";
+        if (failure == null)
+            failure = scene + ":" + errors + " counts: " + c;
+        return scene + ": FAIL" + errors;
+    }
+
+    private static void expect(StringBuilder errors, String name, long actual, long expected) {
+        if (actual != expected)
+            errors.append(' ').append(name).append('=').append(actual).append(" (expected ").append(expected)
+                    .append(')');
+    }
+
+    // counts of the commands between two snapshots of the same frame
+    private static void delta(CommandRecorder.Counts from, CommandRecorder.Counts to, CommandRecorder.Counts out) {
+        out.renderPasses = to.renderPasses - from.renderPasses;
+        out.pipelineSets = to.pipelineSets - from.pipelineSets;
+        out.bindGroupSets = to.bindGroupSets - from.bindGroupSets;
+        out.vertexBufferSets = to.vertexBufferSets - from.vertexBufferSets;
+        out.indexBufferSets = to.indexBufferSets - from.indexBufferSets;
+        out.redundantCalls = to.redundantCalls - from.redundantCalls;
+        out.drawCalls = to.drawCalls - from.drawCalls;
+        out.skippedDraws = to.skippedDraws - from.skippedDraws;
+        out.vertices = to.vertices - from.vertices;
+        out.indices = to.indices - from.indices;
+        out.instances = to.instances - from.instances;
+        out.bufferWrites = to.bufferWrites - from.bufferWrites;
+        out.bytesWritten = to.bytesWritten - from.bytesWritten;
+        out.bindGroupsCreated = to.bindGroupsCreated - from.bindGroupsCreated;
+        out.pipelinesCreated = to.pipelinesCreated - from.pipelinesCreated;
+    }
+
+    private static float x(int i) {
+        return 10 + (i % 40) * 8;
+    }
+
+    private static float y(int i) {
+        return 150 + (i / 40) * 8;
+    }
+
+    private static WgTexture createTexture(Color color) {
+        Pixmap pixmap = new Pixmap(8, 8, Pixmap.Format.RGBA8888);
+        pixmap.setColor(color);
+        pixmap.fill();
+        WgTexture texture = new WgTexture(pixmap);
+        pixmap.dispose();
+        return texture;
+    }
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        texture1.dispose();
+        texture2.dispose();
+    }
+}